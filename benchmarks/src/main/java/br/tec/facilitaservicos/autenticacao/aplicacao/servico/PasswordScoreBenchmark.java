@@ -0,0 +1,44 @@
+package br.tec.facilitaservicos.autenticacao.aplicacao.servico;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Pontuação de força de senha (regex por critério) para senhas fracas,
+ * médias e fortes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordScoreBenchmark {
+
+    @Param({ "abc123", "senhaMedia2024", "S3nh@-Muit0-F0rte-Para-Teste!" })
+    private String senha;
+
+    private ServicoValidacaoSenha servicoValidacaoSenha;
+
+    @Setup
+    public void setUp() {
+        servicoValidacaoSenha = new ServicoValidacaoSenha(new BCryptPasswordEncoder());
+    }
+
+    @Benchmark
+    public int calcularPontuacaoSenha() {
+        return servicoValidacaoSenha.calcularPontuacaoSenha(senha);
+    }
+}
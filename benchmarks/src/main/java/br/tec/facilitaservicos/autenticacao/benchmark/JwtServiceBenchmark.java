@@ -0,0 +1,132 @@
+package br.tec.facilitaservicos.autenticacao.benchmark;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import br.tec.facilitaservicos.autenticacao.configuracao.CoarseClock;
+import br.tec.facilitaservicos.autenticacao.dto.PermissoesUsuarioDTO;
+import br.tec.facilitaservicos.autenticacao.dto.UsuarioDTO;
+import br.tec.facilitaservicos.autenticacao.service.JwtService;
+import br.tec.facilitaservicos.autenticacao.service.KeyVaultMonitoringService;
+import br.tec.facilitaservicos.autenticacao.service.KeyVaultService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Criação (assinatura RS256) e validação de access tokens pela API pública
+ * do {@link JwtService}, incluindo o salto para o {@code boundedElastic}.
+ *
+ * O serviço sai de um contexto Spring mínimo, então os {@code @Value}
+ * (issuer, audience, validade) recebem os mesmos padrões da aplicação; as
+ * chaves vêm de um Key Vault em memória, sem parse de PEM por chamada.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private JwtService jwtService;
+    private UsuarioDTO usuario;
+    private PermissoesUsuarioDTO permissoes;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        Clock clock = Clock.systemUTC();
+        CoarseClock coarseClock = CoarseClock.direct(clock);
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(Clock.class, () -> clock, definition -> definition.setPrimary(true));
+        context.registerBean(CoarseClock.class, () -> coarseClock);
+        context.registerBean(KeyVaultService.class, () -> new InMemoryKeyVault(keyPair, coarseClock));
+        context.registerBean(JwtService.class);
+        context.refresh();
+        jwtService = context.getBean(JwtService.class);
+
+        usuario = new UsuarioDTO();
+        usuario.setId(42L);
+        usuario.setEmail("usuario@bench.local");
+        usuario.setUsername("usuario");
+        usuario.setRoles(Set.of("ROLE_USER", "ROLE_ADMIN"));
+        usuario.setPermissoes(Set.of("READ_PROFILE", "UPDATE_PROFILE"));
+        usuario.setAtivo(true);
+        usuario.setEmailVerificado(true);
+        permissoes = PermissoesUsuarioDTO.fromUsuario(usuario);
+
+        token = jwtService.generateAccessToken(usuario, permissoes).block();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String createAccessToken() {
+        return jwtService.generateAccessToken(usuario, permissoes).block();
+    }
+
+    @Benchmark
+    public JWTClaimsSet validateAccessToken() {
+        return jwtService.validateAccessToken(token).block();
+    }
+
+    /**
+     * Key Vault desativado que serve um par RSA já carregado.
+     */
+    static final class InMemoryKeyVault extends KeyVaultService {
+
+        private static final String KEY_ID = "bench-key";
+
+        private final RSAPrivateKey privateKey;
+        private final RSAPublicKey publicKey;
+
+        InMemoryKeyVault(KeyPair keyPair, CoarseClock coarseClock) {
+            super("", new KeyVaultMonitoringService(new SimpleMeterRegistry()), coarseClock);
+            this.privateKey = (RSAPrivateKey) keyPair.getPrivate();
+            this.publicKey = (RSAPublicKey) keyPair.getPublic();
+        }
+
+        @Override
+        public Mono<RSAPrivateKey> getPrivateKey() {
+            return Mono.just(privateKey);
+        }
+
+        @Override
+        public Mono<RSAPublicKey> getPublicKey() {
+            return Mono.just(publicKey);
+        }
+
+        @Override
+        public Mono<String> getKeyId() {
+            return Mono.just(KEY_ID);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package br.tec.facilitaservicos.autenticacao.benchmark;
+
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.tec.facilitaservicos.autenticacao.configuracao.CoarseClock;
+import br.tec.facilitaservicos.autenticacao.service.KeyVaultMonitoringService;
+import br.tec.facilitaservicos.autenticacao.service.KeyVaultService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Parse de chaves RSA em PEM (limpeza por regex + KeyFactory), executado a
+ * cada leitura do Key Vault que não vem do cache.
+ *
+ * Sem Key Vault configurado e fora do proxy do {@code @Cacheable}, cada
+ * chamada de {@code getPrivateKey()/getPublicKey()} faz o parse das chaves de
+ * fallback: o mesmo caminho de produção, com o salto para o {@code boundedElastic}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeyVaultPemBenchmark {
+
+    private KeyVaultService keyVaultService;
+
+    @Setup
+    public void setUp() {
+        keyVaultService = new KeyVaultService("", new KeyVaultMonitoringService(new SimpleMeterRegistry()),
+            CoarseClock.direct(Clock.systemUTC()));
+    }
+
+    @Benchmark
+    public RSAPrivateKey parsePrivateKey() {
+        return keyVaultService.getPrivateKey().block();
+    }
+
+    @Benchmark
+    public RSAPublicKey parsePublicKey() {
+        return keyVaultService.getPublicKey().block();
+    }
+}
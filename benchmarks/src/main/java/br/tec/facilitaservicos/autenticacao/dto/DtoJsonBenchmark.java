@@ -0,0 +1,66 @@
+package br.tec.facilitaservicos.autenticacao.dto;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Serialização JSON dos DTOs das respostas de login/refresh e introspecção
+ * e leitura da requisição de login, com um ObjectMapper equivalente ao do
+ * WebFlux (JavaTimeModule, datas em ISO-8601).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private RespostaTokenDTO respostaToken;
+    private RespostaIntrospeccaoDTO respostaIntrospeccao;
+    private byte[] requisicaoLoginJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        String accessToken = "eyJhbGciOiJSUzI1NiIsImtpZCI6ImJlbmNoIn0." + "a".repeat(600) + "." + "b".repeat(342);
+        respostaToken = RespostaTokenDTO.of(accessToken, "c".repeat(43), 3600L, Set.of("ROLE_USER", "ROLE_ADMIN"));
+        respostaIntrospeccao = RespostaIntrospeccaoDTO.ativo("42", "https://auth.conexaodesorte.com",
+            "conexao-de-sorte", 1_760_000_000L, 1_759_996_400L, Set.of("ROLE_USER", "READ_PROFILE"));
+        requisicaoLoginJson = objectMapper.writeValueAsBytes(new RequisicaoLoginDTO("usuario@bench.local", "S3nh@Forte!"));
+    }
+
+    @Benchmark
+    public byte[] serializarRespostaToken() throws Exception {
+        return objectMapper.writeValueAsBytes(respostaToken);
+    }
+
+    @Benchmark
+    public byte[] serializarRespostaIntrospeccao() throws Exception {
+        return objectMapper.writeValueAsBytes(respostaIntrospeccao);
+    }
+
+    @Benchmark
+    public RequisicaoLoginDTO desserializarRequisicaoLogin() throws Exception {
+        return objectMapper.readValue(requisicaoLoginJson, RequisicaoLoginDTO.class);
+    }
+}
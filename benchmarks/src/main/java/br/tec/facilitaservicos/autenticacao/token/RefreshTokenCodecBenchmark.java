@@ -0,0 +1,81 @@
+package br.tec.facilitaservicos.autenticacao.token;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Geração e hash de refresh tokens: implementação anterior do AuthService
+ * ({@code SecureRandom} compartilhado, {@code MessageDigest.getInstance} e
+ * {@code getBytes("UTF-8")} por chamada) versus {@link RefreshTokenCodec},
+ * e o MAC binário do modo HMAC.
+ * Roda com 4 threads para expor a contenção; o GC profiler do
+ * BenchmarkRunner mostra a alocação por operação ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RefreshTokenCodecBenchmark {
+
+    private final SecureRandom sharedRandom = new SecureRandom();
+    private RefreshTokenCodec codec;
+    private String refreshToken;
+    private SecretKey pepper;
+
+    @Setup
+    public void setUp() {
+        codec = new RefreshTokenCodec();
+        refreshToken = codec.generate();
+        pepper = new SecretKeySpec("benchmark-pepper-".repeat(2).getBytes(StandardCharsets.UTF_8), RefreshTokenCodec.MAC_ALGORITHM);
+    }
+
+    @Benchmark
+    public String generateLegacy() {
+        byte[] tokenBytes = new byte[32];
+        sharedRandom.nextBytes(tokenBytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes);
+    }
+
+    @Benchmark
+    public String generateCodec() {
+        return codec.generate();
+    }
+
+    @Benchmark
+    public String hashLegacy() throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] hash = digest.digest(refreshToken.getBytes("UTF-8"));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    @Benchmark
+    public String hashCodec() {
+        return codec.hash(refreshToken);
+    }
+
+    @Benchmark
+    public byte[] macCodec() {
+        return codec.mac(refreshToken, pepper);
+    }
+}
@@ -0,0 +1,96 @@
+package br.tec.facilitaservicos.compartilhado.cache;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import br.tec.facilitaservicos.usuario.dto.UsuarioDTO;
+
+/**
+ * Encode/decode dos codecs de valor de cache no Redis: JSON legado
+ * ({@link GenericJackson2JsonRedisSerializer}) contra o binário versionado
+ * ({@link VersionedCacheValueSerializer}), para um {@code UsuarioDTO} e um
+ * mapa de permissões. O tamanho por entrada é verificado em
+ * {@code VersionedCacheValueSerializerTest}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheValueCodecBenchmark {
+
+    @Param({"json", "smile"})
+    private String codec;
+
+    @Param({"usuario", "permissoes"})
+    private String amostra;
+
+    private RedisSerializer<Object> serializer;
+    private Object valor;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        serializer = "smile".equals(codec) ? new VersionedCacheValueSerializer() : new GenericJackson2JsonRedisSerializer();
+        valor = "usuario".equals(amostra) ? usuario() : permissoes();
+        bytes = serializer.serialize(valor);
+    }
+
+    @Benchmark
+    public void serializar(Blackhole blackhole) {
+        blackhole.consume(serializer.serialize(valor));
+    }
+
+    @Benchmark
+    public void desserializar(Blackhole blackhole) {
+        blackhole.consume(serializer.deserialize(bytes));
+    }
+
+    // Métodos auxiliares privados
+
+    private static UsuarioDTO usuario() {
+        return UsuarioDTO.builder()
+                .id(42L)
+                .username("maria.silva")
+                .fullName("Maria Silva")
+                .email("maria@example.com")
+                .primeiroNome("Maria")
+                .sobrenome("Silva")
+                .active(true)
+                .emailVerified(true)
+                .criadoEm(Instant.parse("2026-01-15T10:30:00Z"))
+                .roles(List.of("ROLE_USER", "ROLE_ADMIN"))
+                .permissoes(List.of("READ_PROFILE", "UPDATE_PROFILE"))
+                .timezone("America/Sao_Paulo")
+                .locale("pt-BR")
+                .build();
+    }
+
+    private static Map<String, Object> permissoes() {
+        Map<String, Object> permissoes = new HashMap<>();
+        permissoes.put("userId", "42");
+        permissoes.put("roles", List.of("ROLE_USER", "ROLE_ADMIN"));
+        permissoes.put("permissions", List.of("READ_PROFILE", "UPDATE_PROFILE", "ADMIN_USERS"));
+        permissoes.put("isAdmin", true);
+        return permissoes;
+    }
+}
@@ -1,5 +1,6 @@
 package br.tec.facilitaservicos.autenticacao.client;
 
+import br.tec.facilitaservicos.autenticacao.dto.PermissoesUsuarioDTO;
 import br.tec.facilitaservicos.autenticacao.dto.UsuarioDTO;
 import reactor.core.publisher.Mono;
 
@@ -9,6 +10,8 @@ public interface UserServiceClient {
 
     Mono<UsuarioDTO> findById(Long id);
 
+    Mono<PermissoesUsuarioDTO> findPermissoes(Long id);
+
     Mono<Integer> updateTentativasLoginFalidas(Long id, int tentativas);
 
     Mono<Long> countUsuariosAtivos();
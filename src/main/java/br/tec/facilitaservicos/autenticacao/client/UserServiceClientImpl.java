@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import br.tec.facilitaservicos.autenticacao.dto.PermissoesUsuarioDTO;
 import br.tec.facilitaservicos.autenticacao.dto.UsuarioDTO;
 import reactor.core.publisher.Mono;
 
@@ -32,6 +33,14 @@ public class UserServiceClientImpl implements UserServiceClient {
                 .bodyToMono(UsuarioDTO.class);
     }
 
+    @Override
+    public Mono<PermissoesUsuarioDTO> findPermissoes(Long id) {
+        return webClient.get()
+                .uri("/rest/v1/users/{id}/permissions", id)
+                .retrieve()
+                .bodyToMono(PermissoesUsuarioDTO.class);
+    }
+
     @Override
     public Mono<Integer> updateTentativasLoginFalidas(Long id, int tentativas) {
         return webClient.put()
@@ -0,0 +1,116 @@
+package br.tec.facilitaservicos.autenticacao.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import reactor.pool.AllocationStrategy;
+
+/**
+ * Estratégia de alocação do reactor-pool com teto ajustável em tempo de execução.
+ *
+ * O {@code maxSize} do r2dbc-pool é fixo após a construção; esta estratégia
+ * substitui a {@code sizeBetween(initialSize, maxSize)} padrão e limita as
+ * conexões concedidas a {@link #getLimit()}, que o {@link AdaptivePoolSizer}
+ * move entre {@code lowerBound} e {@code upperBound}. Ao reduzir o limite,
+ * conexões excedentes não são recriadas e saem pelo {@code max-idle-time}.
+ */
+public final class AdaptiveAllocationStrategy implements AllocationStrategy {
+
+    private final int minimum;
+    private final int lowerBound;
+    private final int upperBound;
+    private final AtomicInteger limit;
+    private final AtomicInteger granted = new AtomicInteger();
+
+    public AdaptiveAllocationStrategy(int minimum, int lowerBound, int upperBound, int initialLimit) {
+        if (lowerBound < 1 || upperBound < lowerBound || minimum > lowerBound) {
+            throw new IllegalArgumentException(String.format(
+                "Limites inválidos para o pool adaptativo: minimum=%d, lower=%d, upper=%d",
+                minimum, lowerBound, upperBound));
+        }
+        this.minimum = Math.max(0, minimum);
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.limit = new AtomicInteger(clamp(initialLimit));
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    public int getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * Ajusta o limite (restrito aos limites configurados).
+     *
+     * @return limite efetivamente aplicado
+     */
+    public int setLimit(int newLimit) {
+        int applied = clamp(newLimit);
+        limit.set(applied);
+        return applied;
+    }
+
+    @Override
+    public int estimatePermitCount() {
+        return Math.max(0, limit.get() - granted.get());
+    }
+
+    @Override
+    public int getPermits(int desired) {
+        if (desired < 0) {
+            return 0;
+        }
+        for (;;) {
+            int current = granted.get();
+            // Completa até o mínimo (warmup pede 0 permissões) sem passar do limite atual
+            int toGrant = Math.min(Math.max(desired, minimum - current), limit.get() - current);
+            if (toGrant <= 0) {
+                return 0;
+            }
+            if (granted.compareAndSet(current, current + toGrant)) {
+                return toGrant;
+            }
+        }
+    }
+
+    @Override
+    public int permitGranted() {
+        return granted.get();
+    }
+
+    @Override
+    public int permitMinimum() {
+        return minimum;
+    }
+
+    @Override
+    public int permitMaximum() {
+        return upperBound;
+    }
+
+    @Override
+    public void returnPermits(int returned) {
+        for (;;) {
+            int current = granted.get();
+            int updated = current - returned;
+            if (updated < 0) {
+                throw new IllegalArgumentException("Devolução de " + returned + " permissões com apenas " + current + " concedidas");
+            }
+            if (granted.compareAndSet(current, updated)) {
+                return;
+            }
+        }
+    }
+
+    // Métodos auxiliares privados
+
+    private int clamp(int value) {
+        return Math.max(lowerBound, Math.min(upperBound, value));
+    }
+}
@@ -0,0 +1,121 @@
+package br.tec.facilitaservicos.autenticacao.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.r2dbc.pool.PoolMetrics;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Ajusta periodicamente o teto do pool com base no p95 da espera por conexão.
+ *
+ * - p95 acima de {@code highWait} ou requisições pendentes: cresce {@code step}
+ * - p95 abaixo de {@code lowWait}, sem pendências e com ao menos {@code step}
+ *   conexões ociosas: reduz 1
+ * - caso contrário mantém (histerese entre os dois limiares)
+ */
+public class AdaptivePoolSizer implements Disposable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    private final InstrumentedConnectionPool pool;
+    private final AdaptiveAllocationStrategy strategy;
+    private final Duration interval;
+    private final Settings settings;
+
+    private volatile Disposable task;
+
+    public AdaptivePoolSizer(InstrumentedConnectionPool pool, Duration interval, Settings settings) {
+        this.pool = pool;
+        this.strategy = pool.getAllocationStrategy();
+        this.interval = interval;
+        this.settings = settings;
+    }
+
+    public void start() {
+        if (strategy == null) {
+            logger.warn("⚠️ Pool sem estratégia adaptativa; ajuste automático desativado");
+            return;
+        }
+        task = Flux.interval(interval, interval)
+            .subscribe(tick -> adjust(),
+                       error -> logger.error("❌ Ajuste adaptativo do pool interrompido: {}", error.getMessage()));
+        logger.info("📈 Pool R2DBC adaptativo: limite inicial={}, limites=[{}, {}]",
+                   strategy.getLimit(), strategy.getLowerBound(), strategy.getUpperBound());
+    }
+
+    /**
+     * Executa uma rodada de ajuste.
+     */
+    void adjust() {
+        double p95Millis = acquireP95Millis();
+        int pending = pool.getMetrics().map(PoolMetrics::pendingAcquireSize).orElse(0);
+        int idle = pool.getMetrics().map(PoolMetrics::idleSize).orElse(0);
+
+        int current = strategy.getLimit();
+        int applied = strategy.setLimit(nextLimit(current, p95Millis, pending, idle, settings));
+        if (applied != current) {
+            logger.info("📈 Limite do pool R2DBC ajustado: {} -> {} (p95={}ms, pendentes={}, ociosas={})",
+                       current, applied, String.format("%.1f", p95Millis), pending, idle);
+        }
+    }
+
+    /**
+     * Decisão de ajuste (função pura).
+     */
+    static int nextLimit(int current, double p95Millis, int pending, int idle, Settings settings) {
+        if (p95Millis > settings.highWaitMillis() || pending > 0) {
+            return current + settings.step();
+        }
+        if (p95Millis < settings.lowWaitMillis() && idle >= settings.step()) {
+            return current - 1;
+        }
+        return current;
+    }
+
+    @Override
+    public void dispose() {
+        Disposable current = task;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        Disposable current = task;
+        return current == null || current.isDisposed();
+    }
+
+    // Métodos auxiliares privados
+
+    private double acquireP95Millis() {
+        for (ValueAtPercentile percentile : pool.getAcquireTimer().takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.95) {
+                return percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0d;
+    }
+
+    /**
+     * Parâmetros do ajuste.
+     *
+     * @param lowWaitMillis  abaixo disso (p95) o pool pode encolher
+     * @param highWaitMillis acima disso (p95) o pool cresce
+     * @param step           conexões adicionadas por rodada de crescimento
+     */
+    public record Settings(double lowWaitMillis, double highWaitMillis, int step) {
+
+        public Settings {
+            if (lowWaitMillis < 0 || highWaitMillis <= lowWaitMillis || step < 1) {
+                throw new IllegalArgumentException("Parâmetros inválidos para o pool adaptativo");
+            }
+        }
+    }
+}
@@ -1,19 +1,28 @@
 package br.tec.facilitaservicos.autenticacao.config;
 
+import br.tec.facilitaservicos.compartilhado.cache.CacheInvalidationBus;
+import br.tec.facilitaservicos.compartilhado.cache.CacheInvalidationConfig;
+import br.tec.facilitaservicos.compartilhado.cache.L1CacheSpec;
+import br.tec.facilitaservicos.compartilhado.cache.TwoLevelCacheManager;
+import br.tec.facilitaservicos.compartilhado.cache.VersionedCacheValueSerializer;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
 import io.micrometer.core.instrument.Tag;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -24,9 +33,11 @@ import java.util.Map;
 /**
  * Configuração crítica de cache para autenticação
  * TTL otimizado para segurança vs performance
+ * L1 Caffeine local na frente do Redis (L2) para os caches de chaves/JWKS
  */
 @Configuration
 @EnableCaching
+@Import(CacheInvalidationConfig.class)
 public class CacheConfig {
 
     @Value("${spring.cache.redis.time-to-live:PT30M}")
@@ -35,11 +46,43 @@ public class CacheConfig {
     @Value("${spring.cache.redis.cache-null-values:false}")
     private boolean cacheNullValues;
 
+    @Value("${app.cache.l1.enabled:true}")
+    private boolean l1Enabled;
+
+    @Value("${app.cache.l1.maximum-size:1000}")
+    private long l1MaximumSize;
+
+    @Value("${app.cache.l1.ttl:PT60S}")
+    private Duration l1Ttl;
+
     @Bean
     @Primary
     @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
-    public CacheManager authCacheManager(LettuceConnectionFactory connectionFactory, MeterRegistry meterRegistry) {
-        return createRedisCacheManager(connectionFactory, meterRegistry);
+    public CacheManager authCacheManager(LettuceConnectionFactory connectionFactory, MeterRegistry meterRegistry,
+                                         ObjectProvider<CacheInvalidationBus> invalidationBus) {
+        CacheManager redisCacheManager = createRedisCacheManager(connectionFactory, meterRegistry);
+        if (!l1Enabled) {
+            return redisCacheManager;
+        }
+        return new TwoLevelCacheManager(redisCacheManager, createL1Specs(), cacheNullValues,
+                invalidationBus.getIfAvailable(), meterRegistry);
+    }
+
+    /**
+     * Especificações do L1 por cache. Códigos 2FA ficam fora do L1: precisam de
+     * consistência imediata entre nós (uso único).
+     */
+    private Map<String, L1CacheSpec> createL1Specs() {
+        L1CacheSpec defaultSpec = L1CacheSpec.of(l1MaximumSize, l1Ttl);
+
+        Map<String, L1CacheSpec> specs = new HashMap<>();
+        specs.put("rsa-private-key", defaultSpec);
+        specs.put("rsa-public-key", defaultSpec);
+        specs.put("key-id", defaultSpec);
+        specs.put("jwks", defaultSpec);
+        // Tokens válidos: TTL local menor para limitar a janela de revogação
+        specs.put("valid-tokens", defaultSpec.withTtl(Duration.ofSeconds(15)));
+        return specs;
     }
 
     /**
@@ -50,7 +93,7 @@ public class CacheConfig {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(defaultTtl)
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new VersionedCacheValueSerializer()));
         
         if (!cacheNullValues) {
             defaultConfig = defaultConfig.disableCachingNullValues();
@@ -91,15 +134,22 @@ public class CacheConfig {
         RedisCacheManager cacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
+                .enableStatistics()
                 .transactionAware()
                 .build();
+        cacheManager.initializeCaches();
 
         // Métricas críticas para monitoramento de segurança
         // Registrar métricas para cada cache individualmente
         cacheManager.getCacheNames().forEach(cacheName -> {
-            var cache = (org.springframework.data.redis.cache.RedisCache) cacheManager.getCache(cacheName).getNativeCache();
-            new RedisCacheMetrics(cache, java.util.Collections.singletonList(Tag.of("cache", cacheName)))
-                    .bindTo(meterRegistry);
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            if (cache instanceof RedisCache redisCache) {
+                new RedisCacheMetrics(redisCache, java.util.Collections.singletonList(Tag.of("tier", "l2")))
+                        .bindTo(meterRegistry);
+            }
         });
 
         return cacheManager;
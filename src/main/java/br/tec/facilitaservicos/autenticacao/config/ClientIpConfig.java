@@ -0,0 +1,22 @@
+package br.tec.facilitaservicos.autenticacao.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.tec.facilitaservicos.autenticacao.ratelimit.ClientIpProperties;
+import br.tec.facilitaservicos.autenticacao.ratelimit.ClientIpResolver;
+
+/**
+ * Resolução do IP do cliente atrás de proxies confiáveis ({@code app.client-ip}).
+ * Compartilhada pelo rate limiting e pelo AuthController (throttling de login).
+ */
+@Configuration
+@EnableConfigurationProperties(ClientIpProperties.class)
+public class ClientIpConfig {
+
+    @Bean
+    public ClientIpResolver clientIpResolver(ClientIpProperties properties) {
+        return new ClientIpResolver(properties.getTrustedProxies());
+    }
+}
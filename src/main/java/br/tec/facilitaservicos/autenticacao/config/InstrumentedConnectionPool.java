@@ -0,0 +1,94 @@
+package br.tec.facilitaservicos.autenticacao.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ConnectionPool} com métricas Micrometer.
+ *
+ * - {@code r2dbc.pool.acquire}: tempo de espera para obter uma conexão (p50/p95/p99)
+ * - {@code r2dbc.pool.acquired|allocated|idle|pending|max.allocated|max.pending}:
+ *   mesmos nomes/tags do binder do Spring Boot, registrados aqui explicitamente
+ *   (registro idempotente) para não depender da detecção automática
+ * - {@code r2dbc.pool.limit}: teto atual quando o modo adaptativo está ativo
+ *
+ * Continua sendo um {@link ConnectionPool}: warmup, dispose e o health
+ * indicator funcionam como antes.
+ */
+public class InstrumentedConnectionPool extends ConnectionPool {
+
+    static final String METRIC_PREFIX = "r2dbc.pool.";
+
+    private final Timer acquireTimer;
+    private final AdaptiveAllocationStrategy allocationStrategy;
+
+    public InstrumentedConnectionPool(ConnectionPoolConfiguration configuration, MeterRegistry meterRegistry,
+                                      String poolName, AdaptiveAllocationStrategy allocationStrategy) {
+        super(configuration);
+        this.allocationStrategy = allocationStrategy;
+
+        Tags tags = Tags.of("name", poolName);
+        this.acquireTimer = Timer.builder(METRIC_PREFIX + "acquire")
+                .description("Tempo de espera para obter uma conexão do pool")
+                .tags(tags)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .distributionStatisticExpiry(Duration.ofMinutes(1))
+                .distributionStatisticBufferLength(3)
+                .register(meterRegistry);
+
+        getMetrics().ifPresent(metrics -> bindGauges(metrics, meterRegistry, tags));
+        if (allocationStrategy != null) {
+            Gauge.builder(METRIC_PREFIX + "limit", allocationStrategy, AdaptiveAllocationStrategy::getLimit)
+                    .description("Teto atual de conexões do pool adaptativo")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return super.create()
+                .doOnSuccess(connection -> acquireTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    public Timer getAcquireTimer() {
+        return acquireTimer;
+    }
+
+    /**
+     * Estratégia adaptativa em uso, ou {@code null} com tamanho fixo.
+     */
+    public AdaptiveAllocationStrategy getAllocationStrategy() {
+        return allocationStrategy;
+    }
+
+    // Métodos auxiliares privados
+
+    private static void bindGauges(PoolMetrics metrics, MeterRegistry registry, Tags tags) {
+        Gauge.builder(METRIC_PREFIX + "acquired", metrics, PoolMetrics::acquiredSize)
+                .description("Conexões em uso").tags(tags).register(registry);
+        Gauge.builder(METRIC_PREFIX + "allocated", metrics, PoolMetrics::allocatedSize)
+                .description("Conexões abertas (em uso + ociosas)").tags(tags).register(registry);
+        Gauge.builder(METRIC_PREFIX + "idle", metrics, PoolMetrics::idleSize)
+                .description("Conexões ociosas").tags(tags).register(registry);
+        Gauge.builder(METRIC_PREFIX + "pending", metrics, PoolMetrics::pendingAcquireSize)
+                .description("Requisições aguardando conexão").tags(tags).register(registry);
+        Gauge.builder(METRIC_PREFIX + "max.allocated", metrics, PoolMetrics::getMaxAllocatedSize)
+                .description("Máximo de conexões do pool").tags(tags).register(registry);
+        Gauge.builder(METRIC_PREFIX + "max.pending", metrics, PoolMetrics::getMaxPendingAcquireSize)
+                .description("Máximo de requisições em espera").tags(tags).register(registry);
+    }
+}
@@ -0,0 +1,28 @@
+package br.tec.facilitaservicos.autenticacao.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Credenciais dos clientes internos ({@code app.internal-clients}): resource
+ * servers e serviços que consomem endpoints fora da cadeia pública, como o
+ * stream de revogações. Autenticação HTTP Basic.
+ *
+ * {@code credentials} mapeia client id para o hash BCrypt do segredo. Sem
+ * entradas, todo acesso a esses endpoints é recusado.
+ */
+@ConfigurationProperties(prefix = "app.internal-clients")
+public class InternalClientsProperties {
+
+    private Map<String, String> credentials = new LinkedHashMap<>();
+
+    public Map<String, String> getCredentials() {
+        return credentials;
+    }
+
+    public void setCredentials(Map<String, String> credentials) {
+        this.credentials = credentials;
+    }
+}
@@ -0,0 +1,28 @@
+package br.tec.facilitaservicos.autenticacao.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.tec.facilitaservicos.autenticacao.loadshedding.LoadSheddingProperties;
+import br.tec.facilitaservicos.autenticacao.loadshedding.LoadSheddingWebFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Configuração do load shedding ({@code app.load-shedding}): limite adaptativo
+ * de concorrência por classe de endpoint, aplicado por um WebFilter.
+ */
+@Configuration
+@EnableConfigurationProperties(LoadSheddingProperties.class)
+@ConditionalOnProperty(name = "app.load-shedding.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingConfig {
+
+    @Bean
+    public LoadSheddingWebFilter loadSheddingWebFilter(LoadSheddingProperties properties,
+                                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        return new LoadSheddingWebFilter(properties, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+}
@@ -0,0 +1,29 @@
+package br.tec.facilitaservicos.autenticacao.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+import br.tec.facilitaservicos.autenticacao.ratelimit.LoginThrottle;
+import br.tec.facilitaservicos.autenticacao.ratelimit.LoginThrottleProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Throttling de falhas de login por conta e IP ({@code app.login-throttle}).
+ * O bean sempre existe: desativado (ou sem Redis) ele libera toda tentativa.
+ */
+@Configuration
+@EnableConfigurationProperties(LoginThrottleProperties.class)
+public class LoginThrottleConfig {
+
+    @Bean
+    public LoginThrottle loginThrottle(LoginThrottleProperties properties,
+                                       ObjectProvider<ReactiveStringRedisTemplate> redisTemplate,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        return new LoginThrottle(redisTemplate.getIfAvailable(), properties,
+            meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+}
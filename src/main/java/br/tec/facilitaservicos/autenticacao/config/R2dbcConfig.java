@@ -1,21 +1,34 @@
 
 package br.tec.facilitaservicos.autenticacao.config;
 
+import br.tec.facilitaservicos.compartilhado.repository.RoutingContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.r2dbc.pool.ConnectionPool;
 import io.r2dbc.pool.ConnectionPoolConfiguration;
 import io.r2dbc.spi.ConnectionFactories;
 import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
 import org.springframework.data.r2dbc.config.EnableR2dbcAuditing;
 import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
 import org.springframework.lang.NonNull;
 import org.springframework.r2dbc.connection.R2dbcTransactionManager;
 import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 
@@ -27,6 +40,13 @@ import java.time.Duration;
 @EnableR2dbcAuditing
 public class R2dbcConfig extends AbstractR2dbcConfiguration {
 
+    private static final Logger logger = LoggerFactory.getLogger(R2dbcConfig.class);
+
+    private static final String POOL_NAME = "connectionFactory";
+    private static final String REPLICA_POOL_NAME = "replicaConnectionFactory";
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
     @Value("${spring.r2dbc.url}")
     private String url;
 
@@ -39,7 +59,7 @@ public class R2dbcConfig extends AbstractR2dbcConfiguration {
     @Value("${spring.r2dbc.pool.initial-size:5}")
     private int initialSize;
 
-    @Value("${spring.r2dbc.pool.max-size:25}")
+    @Value("${spring.r2dbc.pool.max-size:15}")
     private int maxSize;
 
     @Value("${spring.r2dbc.pool.max-idle-time:30m}")
@@ -57,34 +77,182 @@ public class R2dbcConfig extends AbstractR2dbcConfiguration {
     @Value("${spring.r2dbc.pool.validation-query:SELECT 1}")
     private String validationQuery;
 
+    // Pool adaptativo: teto ajustado pelo p95 da espera por conexão
+    @Value("${app.r2dbc.pool.adaptive.enabled:false}")
+    private boolean adaptiveEnabled;
+
+    @Value("${app.r2dbc.pool.adaptive.min-size:5}")
+    private int adaptiveMinSize;
+
+    @Value("${app.r2dbc.pool.adaptive.max-size:40}")
+    private int adaptiveMaxSize;
+
+    @Value("${app.r2dbc.pool.warmup-timeout:10s}")
+    private Duration warmupTimeout;
+
+    // Réplica de leitura: vazio mantém todas as consultas no primário
+    @Value("${app.r2dbc.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${app.r2dbc.replica.username:${spring.r2dbc.username}}")
+    private String replicaUsername;
+
+    @Value("${app.r2dbc.replica.password:${spring.r2dbc.password}}")
+    private String replicaPassword;
+
+    @Value("${app.r2dbc.replica.pool.initial-size:1}")
+    private int replicaInitialSize;
+
+    @Value("${app.r2dbc.replica.pool.max-size:15}")
+    private int replicaMaxSize;
+
+    public R2dbcConfig(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
     @Override
     @Bean
     @Primary
     public @NonNull ConnectionFactory connectionFactory() {
-        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url)
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+
+        AdaptiveAllocationStrategy allocationStrategy = null;
+        if (adaptiveEnabled) {
+            // Começa no max-size configurado e varia dentro de [min-size, max-size] adaptativos
+            allocationStrategy = new AdaptiveAllocationStrategy(
+                    Math.min(initialSize, adaptiveMinSize), adaptiveMinSize, adaptiveMaxSize, maxSize);
+        }
+        InstrumentedConnectionPool primary = createPool(url, username, password, initialSize,
+                adaptiveEnabled ? Math.max(maxSize, adaptiveMaxSize) : maxSize,
+                allocationStrategy, meterRegistry, POOL_NAME);
+
+        if (replicaUrl == null || replicaUrl.isBlank()) {
+            return primary;
+        }
+
+        InstrumentedConnectionPool replica = createPool(replicaUrl, replicaUsername, replicaPassword,
+                replicaInitialSize, replicaMaxSize, null, meterRegistry, REPLICA_POOL_NAME);
+        logger.info("🔀 Roteamento leitura/escrita R2DBC ativo: réplica com até {} conexões", replicaMaxSize);
+        return new ReadWriteRoutingConnectionFactory(primary, replica);
+    }
+
+    /**
+     * Registra o {@link ReadOnlyRoutingInterceptor} nos proxies de todos os
+     * repositórios. Sem réplica configurada o contexto gravado é ignorado.
+     */
+    @Bean
+    public static BeanPostProcessor readOnlyRoutingRepositoryPostProcessor() {
+        ReadOnlyRoutingInterceptor interceptor = new ReadOnlyRoutingInterceptor();
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                        (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(interceptor)));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Ajuste periódico do teto do pool (somente com o modo adaptativo ativo).
+     */
+    @Bean(initMethod = "start", destroyMethod = "dispose")
+    @ConditionalOnProperty(name = "app.r2dbc.pool.adaptive.enabled", havingValue = "true")
+    public AdaptivePoolSizer adaptivePoolSizer(ConnectionFactory connectionFactory,
+            @Value("${app.r2dbc.pool.adaptive.interval:10s}") Duration interval,
+            @Value("${app.r2dbc.pool.adaptive.low-wait:5ms}") Duration lowWait,
+            @Value("${app.r2dbc.pool.adaptive.high-wait:50ms}") Duration highWait,
+            @Value("${app.r2dbc.pool.adaptive.step:2}") int step) {
+        return new AdaptivePoolSizer((InstrumentedConnectionPool) primaryOf(connectionFactory), interval,
+                new AdaptivePoolSizer.Settings(lowWait.toNanos() / 1_000_000d, highWait.toNanos() / 1_000_000d, step));
+    }
+
+    /**
+     * Abre as {@code initial-size} conexões antes da aplicação ficar "ready":
+     * runners terminam antes do Spring Boot publicar ACCEPTING_TRAFFIC.
+     */
+    @Bean
+    public ApplicationRunner r2dbcPoolWarmup(ConnectionFactory connectionFactory) {
+        return args -> {
+            warmup(primaryOf(connectionFactory), POOL_NAME);
+            if (connectionFactory instanceof ReadWriteRoutingConnectionFactory routing) {
+                warmup(routing.getReplica(), REPLICA_POOL_NAME);
+            }
+        };
+    }
+
+    /**
+     * Transações {@code readOnly} abrem a conexão já roteada para a réplica;
+     * as demais seguem no primário e todas as consultas dentro delas reusam
+     * a mesma conexão.
+     */
+    @Bean
+    public ReactiveTransactionManager transactionManager(ConnectionFactory connectionFactory) {
+        return new ReadOnlyRoutingTransactionManager(connectionFactory);
+    }
+
+    // Métodos auxiliares privados
+
+    private InstrumentedConnectionPool createPool(String poolUrl, String poolUsername, String poolPassword,
+                                                  int poolInitialSize, int poolMaxSize,
+                                                  AdaptiveAllocationStrategy allocationStrategy,
+                                                  MeterRegistry meterRegistry, String poolName) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(poolUrl)
                 .mutate()
-                .option(ConnectionFactoryOptions.USER, username)
-                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .option(ConnectionFactoryOptions.USER, poolUsername)
+                .option(ConnectionFactoryOptions.PASSWORD, poolPassword)
                 .build();
 
-        ConnectionFactory connectionFactory = ConnectionFactories.get(options);
-
-        ConnectionPoolConfiguration poolConfiguration = ConnectionPoolConfiguration.builder(connectionFactory)
-                .initialSize(initialSize)
-                .maxSize(maxSize)
+        ConnectionPoolConfiguration.Builder poolBuilder = ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name(poolName)
+                .initialSize(poolInitialSize)
+                .maxSize(poolMaxSize)
                 .maxIdleTime(maxIdleTime)
                 .maxAcquireTime(maxAcquireTime)
                 .maxCreateConnectionTime(maxCreateConnectionTime)
                 .maxLifeTime(maxLifeTime)
                 .validationQuery(validationQuery)
-                .acquireRetry(3)
-                .build();
+                .acquireRetry(3);
 
-        return new ConnectionPool(poolConfiguration);
+        if (allocationStrategy != null) {
+            poolBuilder.customizer(builder -> builder.allocationStrategy(allocationStrategy));
+        }
+        return new InstrumentedConnectionPool(poolBuilder.build(), meterRegistry, poolName, allocationStrategy);
     }
 
-    @Bean
-    public ReactiveTransactionManager transactionManager(ConnectionFactory connectionFactory) {
-        return new R2dbcTransactionManager(connectionFactory);
+    private static ConnectionFactory primaryOf(ConnectionFactory connectionFactory) {
+        return connectionFactory instanceof ReadWriteRoutingConnectionFactory routing
+            ? routing.getPrimary()
+            : connectionFactory;
+    }
+
+    private void warmup(ConnectionFactory connectionFactory, String poolName) {
+        if (!(connectionFactory instanceof ConnectionPool pool)) {
+            return;
+        }
+        try {
+            Integer opened = pool.warmup().block(warmupTimeout);
+            logger.info("🔥 Pool R2DBC '{}' aquecido: {} conexões abertas", poolName, opened);
+        } catch (RuntimeException e) {
+            // Não impede a subida: conexões serão abertas sob demanda
+            logger.warn("⚠️ Warm-up do pool R2DBC '{}' falhou: {}", poolName, e.getMessage());
+        }
+    }
+
+    private static final class ReadOnlyRoutingTransactionManager extends R2dbcTransactionManager {
+
+        ReadOnlyRoutingTransactionManager(ConnectionFactory connectionFactory) {
+            super(connectionFactory);
+        }
+
+        @Override
+        protected @NonNull Mono<Void> doBegin(@NonNull TransactionSynchronizationManager synchronizationManager,
+                                              @NonNull Object transaction,
+                                              @NonNull TransactionDefinition definition) {
+            Mono<Void> begin = super.doBegin(synchronizationManager, transaction, definition);
+            return definition.isReadOnly() ? begin.contextWrite(RoutingContext::preferReplica) : begin;
+        }
     }
 }
@@ -1,75 +1,46 @@
 package br.tec.facilitaservicos.autenticacao.config;
 
-import io.github.resilience4j.ratelimiter.RateLimiter;
-import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import java.time.Clock;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 
-import java.time.Duration;
+import br.tec.facilitaservicos.autenticacao.configuracao.CoarseClock;
+import br.tec.facilitaservicos.autenticacao.ratelimit.ClientIpResolver;
+import br.tec.facilitaservicos.autenticacao.ratelimit.GcraRateLimiter;
+import br.tec.facilitaservicos.autenticacao.ratelimit.RateLimitProperties;
+import br.tec.facilitaservicos.autenticacao.ratelimit.RateLimitWebFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 /**
- * Configuração de Rate Limiting usando Resilience4j.
- * Implementa controle de taxa de requisições por endpoint.
+ * Configuração de Rate Limiting por IP/usuário/cliente ({@code app.rate-limit}).
+ * Buckets GCRA locais sincronizados no Redis, aplicados por um WebFilter.
  */
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
 public class RateLimitConfig {
-    
-    /**
-     * Rate limiter para endpoint de login.
-     * Mais restritivo devido à natureza sensível.
-     */
-    @Bean("authTokenRateLimiter")
-    public RateLimiter authTokenRateLimiter() {
-        RateLimiterConfig config = RateLimiterConfig.custom()
-            .limitForPeriod(5) // 5 tentativas
-            .limitRefreshPeriod(Duration.ofMinutes(1)) // por minuto
-            .timeoutDuration(Duration.ofSeconds(3)) // timeout de 3s
-            .build();
-            
-        return RateLimiter.of("auth-token", config);
-    }
-    
-    /**
-     * Rate limiter para endpoint de refresh token.
-     * Menos restritivo que login.
-     */
-    @Bean("authRefreshRateLimiter") 
-    public RateLimiter authRefreshRateLimiter() {
-        RateLimiterConfig config = RateLimiterConfig.custom()
-            .limitForPeriod(15) // 15 tentativas
-            .limitRefreshPeriod(Duration.ofMinutes(1)) // por minuto
-            .timeoutDuration(Duration.ofSeconds(3))
-            .build();
-            
-        return RateLimiter.of("auth-refresh", config);
-    }
-    
-    /**
-     * Rate limiter para endpoint de introspecção.
-     * Mais permissivo para validação de tokens.
-     */
-    @Bean("authIntrospectRateLimiter")
-    public RateLimiter authIntrospectRateLimiter() {
-        RateLimiterConfig config = RateLimiterConfig.custom()
-            .limitForPeriod(100) // 100 verificações
-            .limitRefreshPeriod(Duration.ofMinutes(1)) // por minuto
-            .timeoutDuration(Duration.ofSeconds(1))
-            .build();
-            
-        return RateLimiter.of("auth-introspect", config);
+
+    @Bean
+    public GcraRateLimiter gcraRateLimiter(RateLimitProperties properties,
+                                           ObjectProvider<ReactiveStringRedisTemplate> redisTemplate,
+                                           ObjectProvider<CoarseClock> coarseClock) {
+        Clock clock = coarseClock.getIfAvailable(() -> CoarseClock.direct(Clock.systemUTC()));
+        return new GcraRateLimiter(redisTemplate.getIfAvailable(), properties.isDistributed(),
+            properties.getRedisTimeout(), clock, properties.getLocalMaximumSize(), properties.getLocalExpiry());
     }
-    
-    /**
-     * Rate limiter geral para outros endpoints.
-     */
-    @Bean("generalRateLimiter")
-    public RateLimiter generalRateLimiter() {
-        RateLimiterConfig config = RateLimiterConfig.custom()
-            .limitForPeriod(60) // 60 requisições
-            .limitRefreshPeriod(Duration.ofMinutes(1)) // por minuto
-            .timeoutDuration(Duration.ofSeconds(2))
-            .build();
-            
-        return RateLimiter.of("general", config);
+
+    @Bean
+    public RateLimitWebFilter rateLimitWebFilter(GcraRateLimiter gcraRateLimiter,
+                                                 RateLimitProperties properties,
+                                                 ClientIpResolver clientIpResolver,
+                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RateLimitWebFilter(gcraRateLimiter, properties, clientIpResolver,
+            meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package br.tec.facilitaservicos.autenticacao.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import br.tec.facilitaservicos.compartilhado.repository.ReadOnlyRoute;
+import br.tec.facilitaservicos.compartilhado.repository.RoutingContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Advice dos proxies de repositório: métodos com {@link ReadOnlyRoute}
+ * recebem {@link RoutingContext#preferReplica} no contexto do publisher
+ * retornado.
+ *
+ * A anotação é lida no método da interface do repositório, por isso o
+ * advice é registrado no proxy do Spring Data (e não via AspectJ, que
+ * enxergaria apenas a implementação base).
+ */
+public class ReadOnlyRoutingInterceptor implements MethodInterceptor {
+
+    private final Map<Method, Boolean> readOnlyMethods = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (!isReadOnly(invocation.getMethod())) {
+            return result;
+        }
+        if (result instanceof Mono<?> mono) {
+            return mono.contextWrite(RoutingContext::preferReplica);
+        }
+        if (result instanceof Flux<?> flux) {
+            return flux.contextWrite(RoutingContext::preferReplica);
+        }
+        return result;
+    }
+
+    // Métodos auxiliares privados
+
+    private boolean isReadOnly(Method method) {
+        return readOnlyMethods.computeIfAbsent(method,
+            m -> AnnotatedElementUtils.hasAnnotation(m, ReadOnlyRoute.class));
+    }
+}
@@ -0,0 +1,46 @@
+package br.tec.facilitaservicos.autenticacao.config;
+
+import java.util.Map;
+
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+
+import br.tec.facilitaservicos.compartilhado.repository.RoutingContext;
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Roteia {@code create()} para o pool primário ou para o da réplica conforme
+ * o {@link RoutingContext} do assinante.
+ *
+ * O primário é o destino padrão: sem indicação explícita de leitura
+ * (anotação {@code @ReadOnlyRoute} ou transação {@code readOnly}) nada muda
+ * em relação a um pool único.
+ */
+public class ReadWriteRoutingConnectionFactory extends AbstractRoutingConnectionFactory {
+
+    private final ConnectionFactory primary;
+    private final ConnectionFactory replica;
+
+    public ReadWriteRoutingConnectionFactory(ConnectionFactory primary, ConnectionFactory replica) {
+        this.primary = primary;
+        this.replica = replica;
+        setTargetConnectionFactories(Map.of(
+            RoutingContext.Target.PRIMARY, primary,
+            RoutingContext.Target.REPLICA, replica));
+        setDefaultTargetConnectionFactory(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(context -> Mono.just(RoutingContext.current(context)));
+    }
+
+    public ConnectionFactory getPrimary() {
+        return primary;
+    }
+
+    public ConnectionFactory getReplica() {
+        return replica;
+    }
+}
@@ -1,18 +1,29 @@
 package br.tec.facilitaservicos.autenticacao.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsConfigurationSource;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 
 import java.util.List;
+import java.util.Map;
+
+import reactor.core.publisher.Mono;
 
 /**
  * Configuração de segurança reativa para WebFlux.
@@ -21,8 +32,39 @@ import java.util.List;
 @Configuration
 @EnableWebFluxSecurity
 @EnableReactiveMethodSecurity
+@EnableConfigurationProperties(InternalClientsProperties.class)
 public class SecurityConfig {
     
+    // Endpoints só para clientes internos (fora da cadeia pública)
+    static final String[] INTERNAL_PATHS = {
+        "/rest/v1/oauth2/events",
+        "/rest/v1/internal/**"
+    };
+    
+    private static final String ROLE_INTERNAL_CLIENT = "INTERNAL_CLIENT";
+    
+    /**
+     * Cadeia dos endpoints internos: HTTP Basic com as credenciais de
+     * {@code app.internal-clients}, avaliada antes da cadeia pública.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityWebFilterChain internalClientsFilterChain(ServerHttpSecurity http,
+                                                             InternalClientsProperties properties,
+                                                             PasswordEncoder passwordEncoder) {
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager =
+            new UserDetailsRepositoryReactiveAuthenticationManager(internalClients(properties.getCredentials()));
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        
+        return http
+            .securityMatcher(ServerWebExchangeMatchers.pathMatchers(INTERNAL_PATHS))
+            .csrf(csrf -> csrf.disable())
+            .authorizeExchange(exchanges -> exchanges.anyExchange().hasRole(ROLE_INTERNAL_CLIENT))
+            .httpBasic(httpBasic -> httpBasic.authenticationManager(authenticationManager))
+            .formLogin(formLogin -> formLogin.disable())
+            .build();
+    }
+    
     /**
      * Configuração da cadeia de filtros de segurança.
      */
@@ -35,8 +77,17 @@ public class SecurityConfig {
                 // Endpoints públicos - incluindo health checks para load balancer
                 .pathMatchers(
                     "/auth/**",
-                    "/.well-known/**", 
+                    "/.well-known/**",
                     "/oauth2/jwks**",
+                    // Endpoints OAuth2 sob /rest/v1: autenticam pelo corpo (credenciais, refresh token)
+                    "/rest/v1/auth/token",
+                    "/rest/v1/auth/refresh",
+                    "/rest/v1/auth/introspect",
+                    "/rest/v1/auth/revoke",
+                    "/rest/v1/auth/revoke-all",
+                    "/rest/v1/auth/health",
+                    "/rest/v1/.well-known/**",
+                    "/rest/v1/oauth2/jwks**",
                     "/actuator/health**",
                     "/actuator/health/liveness**",
                     "/actuator/health/readiness**",
@@ -116,6 +167,18 @@ public class SecurityConfig {
         return source;
     }
     
+    // Métodos auxiliares privados
+    
+    private static ReactiveUserDetailsService internalClients(Map<String, String> credentials) {
+        // Programação defensiva: sem credenciais configuradas nenhum cliente autentica
+        Map<String, String> hashes = Map.copyOf(credentials);
+        return clientId -> Mono.justOrEmpty(hashes.get(clientId))
+            .map(hash -> (UserDetails) User.withUsername(clientId)
+                .password(hash)
+                .roles(ROLE_INTERNAL_CLIENT)
+                .build());
+    }
+    
     /**
      * Encoder de senha usando BCrypt.
      */
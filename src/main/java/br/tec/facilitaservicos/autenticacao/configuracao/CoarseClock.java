@@ -0,0 +1,103 @@
+package br.tec.facilitaservicos.autenticacao.configuracao;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relógio de milissegundos em cache para verificações de expiração no
+ * caminho quente (validação de JWT, cache de secrets).
+ *
+ * Uma thread daemon amostra o {@link Clock} de origem a cada
+ * {@code resolution}; {@link #millis()} é apenas uma leitura volátil, sem
+ * chamada de sistema nem alocação. A precisão é a resolução configurada,
+ * suficiente para expirações em segundos. Não use para carimbar dados
+ * persistidos: para isso injete o {@link Clock} principal.
+ *
+ * {@link #direct(Clock)} lê a origem a cada chamada (testes e benchmarks
+ * com relógio controlado); {@link #refresh()} força uma nova amostra.
+ */
+public final class CoarseClock extends Clock implements AutoCloseable {
+
+    private final Clock source;
+    private final ScheduledExecutorService ticker;
+    private volatile long cachedMillis;
+
+    private CoarseClock(Clock source, Duration resolution) {
+        this.source = source;
+        this.cachedMillis = source.millis();
+        if (resolution == null) {
+            this.ticker = null;
+            return;
+        }
+        if (resolution.isZero() || resolution.isNegative()) {
+            throw new IllegalArgumentException("Resolução do relógio deve ser positiva: " + resolution);
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodNanos = resolution.toNanos();
+        ticker.scheduleAtFixedRate(this::refresh, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Relógio amostrado periodicamente pela thread {@code coarse-clock}.
+     */
+    public static CoarseClock ticking(Clock source, Duration resolution) {
+        return new CoarseClock(source, resolution);
+    }
+
+    /**
+     * Relógio sem cache: cada leitura consulta a origem.
+     */
+    public static CoarseClock direct(Clock source) {
+        return new CoarseClock(source, null);
+    }
+
+    @Override
+    public long millis() {
+        return ticker == null ? source.millis() : cachedMillis;
+    }
+
+    public long epochSecond() {
+        return millis() / 1000;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return source.getZone();
+    }
+
+    /**
+     * Retorna o relógio de origem no novo fuso (sem cache).
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return source.withZone(zone);
+    }
+
+    /**
+     * Amostra a origem imediatamente.
+     */
+    public void refresh() {
+        cachedMillis = source.millis();
+    }
+
+    @Override
+    public void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+}
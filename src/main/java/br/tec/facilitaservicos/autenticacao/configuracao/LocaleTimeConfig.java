@@ -1,19 +1,45 @@
 package br.tec.facilitaservicos.autenticacao.configuracao;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
 import java.util.Locale;
 import java.util.TimeZone;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 import jakarta.annotation.PostConstruct;
 
 @Configuration
 public class LocaleTimeConfig {
 
+    private static final ZoneId ZONA_PADRAO = ZoneId.of("America/Sao_Paulo");
+
     @PostConstruct
     public void init() {
         Locale.setDefault(Locale.of("pt", "BR"));
-        TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
+        TimeZone.setDefault(TimeZone.getTimeZone(ZONA_PADRAO));
+    }
+
+    /**
+     * Relógio único da aplicação: substituível por {@code Clock.fixed}/offset
+     * em testes e benchmarks.
+     */
+    @Bean
+    @Primary
+    public Clock clock() {
+        return Clock.system(ZONA_PADRAO);
     }
-}
 
+    /**
+     * Relógio em cache para checagens de expiração no caminho quente.
+     */
+    @Bean(destroyMethod = "close")
+    public CoarseClock coarseClock(Clock clock,
+            @Value("${app.clock.coarse-resolution:10ms}") Duration resolution) {
+        return CoarseClock.ticking(clock, resolution);
+    }
+}
@@ -31,6 +31,12 @@ import org.springframework.stereotype.Component;
  * - jdbc:h2:// -> r2dbc:h2://
  * - jdbc:mariadb:// -> r2dbc:mariadb://
  * 
+ * PREPARED STATEMENTS (opcional, app.r2dbc.prepared-statements.enabled):
+ * - Acrescenta useServerPrepareStatement/prepareCacheSize às URLs do primário
+ *   e da réplica: consultas parametrizadas passam a usar o protocolo binário
+ *   com statements preparados no servidor e reaproveitados por conexão (LRU)
+ * - Opções já presentes na URL são respeitadas
+ * 
  * @author Sistema de Migração R2DBC
  * @version 1.0
  * @since 2024
@@ -47,6 +53,14 @@ public class R2dbcUrlNormalizer implements ApplicationListener<ApplicationEnviro
     // Propriedades R2DBC monitoradas
     private static final String SPRING_R2DBC_URL = "spring.r2dbc.url";
     private static final String CUSTOM_R2DBC_URL = "conexao-de-sorte-database-r2dbc-url";
+    private static final String REPLICA_R2DBC_URL = "app.r2dbc.replica.url";
+
+    // Cache de prepared statements no servidor (r2dbc-mysql)
+    private static final String PREPARED_ENABLED = "app.r2dbc.prepared-statements.enabled";
+    private static final String PREPARED_CACHE_SIZE = "app.r2dbc.prepared-statements.cache-size";
+    private static final int DEFAULT_PREPARED_CACHE_SIZE = 256;
+    static final String SERVER_PREPARE_OPTION = "useServerPrepareStatement";
+    static final String PREPARE_CACHE_SIZE_OPTION = "prepareCacheSize";
 
     // Prefixos de protocolo
     private static final String JDBC_PREFIX = "jdbc:";
@@ -77,6 +91,7 @@ public class R2dbcUrlNormalizer implements ApplicationListener<ApplicationEnviro
     private static final String LOG_NO_CONVERSION = "🔍 R2DBC URL Normalizer - Nenhuma conversão necessária";
     private static final String LOG_GENERIC_CONVERSION = "⚠️ Conversão genérica aplicada para: {}";
     private static final String LOG_DRIVER_WARNING = "   Verifique se o driver R2DBC está disponível para este banco";
+    private static final String LOG_PREPARED_APPLIED = "⚡ R2DBC URL Normalizer - Prepared statements no servidor ativos em {} (cache={})";
 
     // Nome da fonte de propriedades
     private static final String PROPERTY_SOURCE_NAME = "r2dbcUrlNormalizer";
@@ -138,6 +153,10 @@ public class R2dbcUrlNormalizer implements ApplicationListener<ApplicationEnviro
             }
         }
 
+        if (environment.getProperty(PREPARED_ENABLED, Boolean.class, false)) {
+            hasChanges |= applyPreparedStatementOptions(environment, normalizedProperties);
+        }
+
         // Adicionar propriedades convertidas se houver mudanças
         if (hasChanges) {
             try {
@@ -154,6 +173,71 @@ public class R2dbcUrlNormalizer implements ApplicationListener<ApplicationEnviro
         }
     }
     
+    /**
+     * ⚡ Injeta as opções de prepared statement nas URLs completas (primário e
+     * réplica), aplicadas sobre o valor já convertido de JDBC quando houver.
+     */
+    private boolean applyPreparedStatementOptions(ConfigurableEnvironment environment,
+                                                  Map<String, Object> normalizedProperties) {
+        int cacheSize = environment.getProperty(PREPARED_CACHE_SIZE, Integer.class, DEFAULT_PREPARED_CACHE_SIZE);
+        boolean changed = false;
+
+        for (String property : new String[] { SPRING_R2DBC_URL, REPLICA_R2DBC_URL }) {
+            try {
+                Object current = normalizedProperties.getOrDefault(property, environment.getProperty(property));
+                if (!(current instanceof String url) || url.isBlank()) {
+                    continue;
+                }
+
+                String withOptions = withPreparedStatementOptions(url, cacheSize);
+                if (!url.equals(withOptions)) {
+                    normalizedProperties.put(property, withOptions);
+                    changed = true;
+                    logger.info(LOG_PREPARED_APPLIED, property, cacheSize);
+                }
+            } catch (Exception e) {
+                logger.error("❌ Erro ao aplicar opções de prepared statement em {}: {}", property, e.getMessage(), e);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Acrescenta {@code useServerPrepareStatement=true&prepareCacheSize=N} à URL,
+     * sem duplicar opções já definidas explicitamente.
+     */
+    static String withPreparedStatementOptions(String url, int cacheSize) {
+        // Programação defensiva: validação de entrada
+        if (url == null || url.trim().isEmpty() || !url.trim().startsWith(R2DBC_PREFIX)) {
+            return url;
+        }
+
+        StringBuilder result = new StringBuilder(url.trim());
+        appendOptionIfMissing(result, SERVER_PREPARE_OPTION, "true");
+        if (cacheSize > 0) {
+            appendOptionIfMissing(result, PREPARE_CACHE_SIZE_OPTION, Integer.toString(cacheSize));
+        }
+        return result.toString();
+    }
+
+    private static void appendOptionIfMissing(StringBuilder url, String option, String value) {
+        int queryStart = url.indexOf("?");
+        if (queryStart >= 0) {
+            for (String pair : url.substring(queryStart + 1).split("&")) {
+                if (pair.equals(option) || pair.startsWith(option + "=")) {
+                    return;
+                }
+            }
+        }
+        char last = url.charAt(url.length() - 1);
+        if (queryStart < 0) {
+            url.append('?');
+        } else if (last != '?' && last != '&') {
+            url.append('&');
+        }
+        url.append(option).append('=').append(value);
+    }
+
     /**
      * 🔍 Verifica se a URL é uma URL JDBC que precisa ser convertida.
      * Implementa programação defensiva para ambiente de produção.
@@ -26,6 +26,8 @@ import br.tec.facilitaservicos.autenticacao.dto.Resposta2FADTO;
 import br.tec.facilitaservicos.autenticacao.dto.Verificacao2FADTO;
 import br.tec.facilitaservicos.autenticacao.dto.DiagnosticoUsuarioDTO;
 import br.tec.facilitaservicos.autenticacao.dto.DiagnosticoHealthDTO;
+import br.tec.facilitaservicos.autenticacao.exception.LoginThrottledException;
+import br.tec.facilitaservicos.autenticacao.ratelimit.ClientIpResolver;
 import br.tec.facilitaservicos.autenticacao.service.AuthService;
 import br.tec.facilitaservicos.autenticacao.service.TwoFactorService;
 import br.tec.facilitaservicos.autenticacao.service.DiagnosticoService;
@@ -64,7 +66,7 @@ import java.util.List;
  * ============================================================================
  */
 @RestController
-@RequestMapping("/rest/v1/auth")
+@RequestMapping(AuthController.BASE_PATH)
 @Tag(name = "Authentication", description = "Endpoints de autenticação OAuth2/OpenID Connect")
 public class AuthController {
 
@@ -74,11 +76,13 @@ public class AuthController {
     // 🔧 CONSTANTES DE CONFIGURAÇÃO - AMBIENTE DE PRODUÇÃO
     // ============================================================================
 
-    // Endpoints
+    // Endpoints (visíveis no pacote para o documento de discovery)
+    static final String BASE_PATH = "/rest/v1/auth";
     private static final String TOKEN_ENDPOINT = "/token";
     private static final String REFRESH_ENDPOINT = "/refresh";
-    private static final String INTROSPECT_ENDPOINT = "/introspect";
+    static final String INTROSPECT_ENDPOINT = "/introspect";
     private static final String REVOKE_ENDPOINT = "/revoke";
+    private static final String REVOKE_ALL_ENDPOINT = "/revoke-all";
     private static final String HEALTH_ENDPOINT = "/health";
 
     // Headers de segurança
@@ -86,10 +90,9 @@ public class AuthController {
     private static final String PRAGMA_NO_CACHE = "no-cache";
     private static final String HEADER_CACHE_CONTROL = "Cache-Control";
     private static final String HEADER_PRAGMA = "Pragma";
+    private static final String HEADER_RETRY_AFTER = "Retry-After";
 
     // Headers de cliente
-    private static final String HEADER_X_FORWARDED_FOR = "X-Forwarded-For";
-    private static final String HEADER_X_REAL_IP = "X-Real-IP";
     private static final String HEADER_USER_AGENT = "User-Agent";
 
     // Chaves de resposta JSON
@@ -100,17 +103,21 @@ public class AuthController {
     private static final String JSON_KEY_TIMESTAMP = "timestamp";
     private static final String JSON_KEY_REVOKED = "revoked";
     private static final String JSON_KEY_MESSAGE = "message";
+    private static final String JSON_KEY_REVOKED_COUNT = "revoked_count";
 
     // Valores de erro OAuth2
     private static final String ERROR_INVALID_GRANT = "invalid_grant";
     private static final String ERROR_INVALID_REQUEST = "invalid_request";
     private static final String ERROR_SERVER_ERROR = "server_error";
+    private static final String ERROR_TOO_MANY_ATTEMPTS = "too_many_attempts";
 
     // Mensagens de erro
     private static final String MSG_INVALID_CREDENTIALS = "Credenciais inválidas";
+    private static final String MSG_TOO_MANY_ATTEMPTS = "Muitas tentativas de login; tente novamente mais tarde";
     private static final String MSG_INVALID_REFRESH_TOKEN = "Refresh token inválido ou expirado";
     private static final String MSG_TOKEN_REVOKED = "Token revogado com sucesso";
     private static final String MSG_TOKEN_REVOKED_SIMPLE = "Token revogado";
+    private static final String MSG_ALL_SESSIONS_REVOKED = "Todas as sessões foram encerradas";
     private static final String MSG_SERVICE_UNAVAILABLE = "Serviço temporariamente indisponível";
     private static final String MSG_UNKNOWN_ERROR = "Erro desconhecido";
     private static final String MSG_UNKNOWN_USER = "unknown";
@@ -119,21 +126,20 @@ public class AuthController {
     private static final String STATUS_UP = "UP";
     private static final String STATUS_DOWN = "DOWN";
     private static final String SERVICE_NAME = "authentication";
-    private static final String CLIENT_IP_UNKNOWN = "unknown";
-
-    // Separadores
-    private static final String COMMA_SEPARATOR = ",";
 
     private final AuthService authService;
     private final TwoFactorService twoFactorService;
     private final DiagnosticoService diagnosticoService;
+    private final ClientIpResolver clientIpResolver;
     
     public AuthController(AuthService authService, 
                          TwoFactorService twoFactorService,
-                         DiagnosticoService diagnosticoService) {
+                         DiagnosticoService diagnosticoService,
+                         ClientIpResolver clientIpResolver) {
         this.authService = authService;
         this.twoFactorService = twoFactorService;
         this.diagnosticoService = diagnosticoService;
+        this.clientIpResolver = clientIpResolver;
     }
 
     /**
@@ -465,6 +471,67 @@ public class AuthController {
             });
     }
     
+    /**
+     * 🚪 Endpoint de logout em todos os dispositivos.
+     * 
+     * Revoga todos os refresh tokens do dono do refresh token informado e
+     * avisa os resource servers (evento not-before) para recusarem os access
+     * tokens já emitidos.
+     */
+    @PostMapping(value = REVOKE_ALL_ENDPOINT,
+                 consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Revogação de todas as sessões",
+        description = "Revoga todos os refresh tokens do usuário e invalida os access tokens já emitidos"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Sessões revogadas com sucesso"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Refresh token inválido, expirado ou revogado"
+        )
+    })
+    public Mono<ResponseEntity<Object>> revokeAll(
+            @Valid @RequestBody RequisicaoRefreshDTO revokeRequest,
+            ServerWebExchange exchange) {
+
+        // Programação defensiva: validação de parâmetros
+        if (revokeRequest == null || revokeRequest.tokenRenovacao() == null || revokeRequest.tokenRenovacao().trim().isEmpty()) {
+            logger.warn("❌ Requisição de revogação de sessões inválida recebida");
+            return Mono.just(createErrorResponse(HttpStatus.BAD_REQUEST, ERROR_INVALID_REQUEST, "Refresh token obrigatório"));
+        }
+
+        if (authService == null) {
+            logger.error("❌ AuthService não está disponível para revogação de sessões");
+            return Mono.just(createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, ERROR_SERVER_ERROR, MSG_SERVICE_UNAVAILABLE));
+        }
+
+        String clientIp = getClientIp(exchange);
+
+        logger.info("🚪 Tentativa de revogação de todas as sessões: ip={}", clientIp);
+
+        return authService.revokeAllSessions(revokeRequest.tokenRenovacao())
+            .map(count -> {
+                logger.info("✅ Sessões revogadas: ip={}, refresh_tokens={}", clientIp, count);
+
+                Map<String, Object> response = new HashMap<>();
+                response.put(JSON_KEY_REVOKED, true);
+                response.put(JSON_KEY_REVOKED_COUNT, count);
+                response.put(JSON_KEY_MESSAGE, MSG_ALL_SESSIONS_REVOKED);
+                return ResponseEntity.<Object>ok(response);
+            })
+            .onErrorResume(throwable -> {
+                String errorMsg = throwable != null ? throwable.getMessage() : MSG_UNKNOWN_ERROR;
+                logger.warn("❌ Falha na revogação de sessões: ip={}, erro={}", clientIp, errorMsg);
+
+                return handleRefreshError(throwable);
+            });
+    }
+    
     /**
      * ✅ Health check do serviço de autenticação.
      */
@@ -694,35 +761,11 @@ public class AuthController {
         // Programação defensiva: validação do exchange
         if (exchange == null || exchange.getRequest() == null) {
             logger.warn("⚠️ Exchange ou request nulo ao obter IP do cliente");
-            return CLIENT_IP_UNKNOWN;
+            return ClientIpResolver.UNKNOWN;
         }
 
-        // Verificar X-Forwarded-For (proxy/load balancer)
-        String xForwardedFor = exchange.getRequest().getHeaders().getFirst(HEADER_X_FORWARDED_FOR);
-        if (xForwardedFor != null && !xForwardedFor.trim().isEmpty()) {
-            String[] ips = xForwardedFor.split(COMMA_SEPARATOR);
-            if (ips.length > 0 && !ips[0].trim().isEmpty()) {
-                return ips[0].trim();
-            }
-        }
-
-        // Verificar X-Real-IP (nginx)
-        String xRealIp = exchange.getRequest().getHeaders().getFirst(HEADER_X_REAL_IP);
-        if (xRealIp != null && !xRealIp.trim().isEmpty()) {
-            return xRealIp.trim();
-        }
-
-        // Fallback para endereço remoto direto
-        try {
-            if (exchange.getRequest().getRemoteAddress() != null &&
-                exchange.getRequest().getRemoteAddress().getAddress() != null) {
-                return exchange.getRequest().getRemoteAddress().getAddress().getHostAddress();
-            }
-        } catch (Exception e) {
-            logger.warn("⚠️ Erro ao obter endereço remoto: {}", e.getMessage());
-        }
-
-        return CLIENT_IP_UNKNOWN;
+        // Cabeçalhos de proxy só valem vindos de proxy confiável (mesma regra do rate limiting)
+        return clientIpResolver.resolve(exchange.getRequest());
     }
     
     private String getUserAgent(ServerWebExchange exchange) {
@@ -744,6 +787,20 @@ public class AuthController {
         // Programação defensiva: análise do tipo de erro
         String errorMsg = throwable != null ? throwable.getMessage() : MSG_UNKNOWN_ERROR;
 
+        // Conta ou IP em espera: 429 com o tempo restante, sem revelar qual chave
+        if (throwable instanceof LoginThrottledException throttled) {
+            long retryAfterSeconds = Math.max(1, (throttled.getRetryAfter().toMillis() + 999) / 1000);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put(JSON_KEY_ERROR, ERROR_TOO_MANY_ATTEMPTS);
+            errorResponse.put(JSON_KEY_ERROR_DESCRIPTION, MSG_TOO_MANY_ATTEMPTS);
+
+            return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HEADER_RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .header(HEADER_CACHE_CONTROL, CACHE_CONTROL_NO_STORE)
+                .header(HEADER_PRAGMA, PRAGMA_NO_CACHE)
+                .body(errorResponse));
+        }
+
         // Implementação simplificada - seria expandida com diferentes tipos de erro
         Map<String, Object> errorResponse = new HashMap<>();
         errorResponse.put(JSON_KEY_ERROR, ERROR_INVALID_GRANT);
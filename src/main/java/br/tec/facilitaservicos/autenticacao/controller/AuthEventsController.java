@@ -0,0 +1,88 @@
+package br.tec.facilitaservicos.autenticacao.controller;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.tec.facilitaservicos.autenticacao.events.AuthEvent;
+import br.tec.facilitaservicos.autenticacao.events.AuthEventHub;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import reactor.core.publisher.Flux;
+
+/**
+ * ============================================================================
+ * 📡 CONTROLADOR DE EVENTOS PARA RESOURCE SERVERS - SSE
+ * ============================================================================
+ *
+ * Stream Server-Sent Events ao lado do JWKS para resource servers que
+ * validam tokens localmente e mantêm caches longos:
+ * - keys: JWK Set alterado (buscar /.well-known/jwks.json de novo)
+ * - revoked: access token revogado (jti + exp)
+ * - not-before: tokens do usuário emitidos antes de nbf são inválidos
+ * - resync: eventos perdidos, recarregar estado
+ *
+ * Reconexões enviam {@code Last-Event-ID} e recebem os eventos perdidos.
+ *
+ * Os eventos expõem ids de usuário e jtis: o endpoint fica fora da cadeia
+ * pública e exige HTTP Basic de cliente interno ({@code app.internal-clients}).
+ *
+ * ============================================================================
+ */
+@RestController
+@RequestMapping("/rest/v1")
+@Tag(name = "Eventos", description = "Eventos de revogação e rotação de chaves para resource servers")
+public class AuthEventsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthEventsController.class);
+
+    private static final String EVENTS_ENDPOINT = "/oauth2/events";
+    private static final String HEADER_LAST_EVENT_ID = "Last-Event-ID";
+    private static final String HEARTBEAT_COMMENT = "keepalive";
+
+    private final AuthEventHub authEventHub;
+
+    public AuthEventsController(AuthEventHub authEventHub) {
+        this.authEventHub = authEventHub;
+    }
+
+    /**
+     * 📡 Stream de revogações e mudanças de chave (text/event-stream).
+     */
+    @GetMapping(value = EVENTS_ENDPOINT, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Eventos de revogação e rotação de chaves",
+        description = "Stream SSE com eventos keys, revoked, not-before e resync; suporta retomada via Last-Event-ID"
+    )
+    @ApiResponse(responseCode = "200", description = "Stream de eventos aberto")
+    public Flux<ServerSentEvent<Map<String, String>>> events(
+            @RequestHeader(value = HEADER_LAST_EVENT_ID, required = false) String lastEventId) {
+
+        logger.debug("📡 Assinatura de eventos: lastEventId={}, assinantes={}",
+                    lastEventId, authEventHub.getSubscriberCount());
+
+        return authEventHub.subscribe(lastEventId)
+            .map(this::toServerSentEvent);
+    }
+
+    // Métodos auxiliares privados
+
+    private ServerSentEvent<Map<String, String>> toServerSentEvent(AuthEvent event) {
+        if (event.isHeartbeat()) {
+            return ServerSentEvent.<Map<String, String>>builder().comment(HEARTBEAT_COMMENT).build();
+        }
+        return ServerSentEvent.<Map<String, String>>builder()
+            .id(event.id())
+            .event(event.type())
+            .data(event.data())
+            .build();
+    }
+}
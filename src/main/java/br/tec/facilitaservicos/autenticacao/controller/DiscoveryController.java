@@ -0,0 +1,143 @@
+package br.tec.facilitaservicos.autenticacao.controller;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.tec.facilitaservicos.autenticacao.service.JwkSetCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import reactor.core.publisher.Mono;
+
+/**
+ * ============================================================================
+ * 🧭 CONTROLADOR DE DISCOVERY - OPENID CONNECT / RFC 8414
+ * ============================================================================
+ *
+ * Documento de metadados do emissor para que bibliotecas padrão configurem
+ * sozinhas a validação local (jwks_uri) e a introspecção sem endpoints fixos
+ * no cliente (ex.: {@code issuer-uri} de um resource server).
+ *
+ * Não é um provedor OpenID Connect: não há authorization_endpoint nem
+ * id_token, e login/refresh/revogação recebem JSON em vez do
+ * {@code application/x-www-form-urlencoded} do OAuth 2.0. Por isso o
+ * documento não anuncia token_endpoint, grants nem response types; um
+ * cliente OAuth genérico não conseguiria usá-los.
+ *
+ * O documento depende só de {@code jwt.issuer} e dos mapeamentos dos
+ * controladores: é serializado uma vez na inicialização e servido como bytes
+ * com ETag forte (304 para If-None-Match).
+ *
+ * Endpoints (na raiz do emissor, onde os clientes o procuram):
+ * - GET /.well-known/openid-configuration
+ * - GET /.well-known/oauth-authorization-server
+ *
+ * ============================================================================
+ */
+@RestController
+@Tag(name = "Discovery", description = "Metadados do emissor (OpenID Connect Discovery)")
+public class DiscoveryController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiscoveryController.class);
+
+    // Endpoints
+    private static final String OPENID_CONFIGURATION_ENDPOINT = "/.well-known/openid-configuration";
+    private static final String OAUTH_METADATA_ENDPOINT = "/.well-known/oauth-authorization-server";
+
+    private static final Duration DISCOVERY_CACHE_TTL = Duration.ofHours(1);
+    private static final String CORS_ALLOW_ORIGIN = "*";
+
+    // Capacidades anunciadas (apenas o que um cliente padrão consegue usar)
+    private static final List<String> AUTH_METHODS = List.of("none");
+
+    private final byte[] body;
+    private final String etag;
+
+    public DiscoveryController(ObjectMapper objectMapper,
+                               @Value("${jwt.issuer:https://auth.conexaodesorte.com}") String issuer) {
+        try {
+            this.body = objectMapper.writeValueAsBytes(buildDocument(issuer));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar documento de discovery", e);
+        }
+        this.etag = JwkSetCache.strongEtag(body);
+
+        logger.info("🧭 Documento de discovery pronto: issuer={}, etag={}", issuer, etag);
+    }
+
+    /**
+     * 🧭 Metadados do emissor (OpenID Connect Discovery 1.0).
+     */
+    @GetMapping(value = OPENID_CONFIGURATION_ENDPOINT, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Documento de discovery OpenID Connect",
+        description = "Metadados do emissor: jwks_uri e endpoint de introspecção"
+    )
+    @ApiResponse(responseCode = "200", description = "Documento de discovery retornado com sucesso")
+    public Mono<ResponseEntity<byte[]>> openidConfiguration(ServerWebExchange exchange) {
+        return Mono.just(respond(exchange));
+    }
+
+    /**
+     * 🧭 Metadados do servidor de autorização (RFC 8414), mesmo documento.
+     */
+    @GetMapping(value = OAUTH_METADATA_ENDPOINT, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Metadados do servidor de autorização (RFC 8414)",
+        description = "Mesmo conteúdo de " + OPENID_CONFIGURATION_ENDPOINT
+    )
+    @ApiResponse(responseCode = "200", description = "Metadados retornados com sucesso")
+    public Mono<ResponseEntity<byte[]>> authorizationServerMetadata(ServerWebExchange exchange) {
+        return Mono.just(respond(exchange));
+    }
+
+    // Métodos auxiliares privados
+
+    private ResponseEntity<byte[]> respond(ServerWebExchange exchange) {
+        if (exchange.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(DISCOVERY_CACHE_TTL).cachePublic())
+                .build();
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.maxAge(DISCOVERY_CACHE_TTL).cachePublic())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header("Access-Control-Allow-Origin", CORS_ALLOW_ORIGIN)
+            .body(body);
+    }
+
+    private static Map<String, Object> buildDocument(String issuer) {
+        // Programação defensiva: issuer é obrigatório e usado como base das URLs
+        if (issuer == null || issuer.isBlank()) {
+            throw new IllegalStateException("jwt.issuer não configurado");
+        }
+        String base = issuer.endsWith("/") ? issuer.substring(0, issuer.length() - 1) : issuer;
+        String authBase = base + AuthController.BASE_PATH;
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        // Deve ser idêntico ao iss dos tokens (validado pelos clientes)
+        document.put("issuer", issuer);
+        document.put("jwks_uri", base + JwksController.BASE_PATH + JwksController.JWKS_ENDPOINT);
+        document.put("introspection_endpoint", authBase + AuthController.INTROSPECT_ENDPOINT);
+        document.put("introspection_endpoint_auth_methods_supported", AUTH_METHODS);
+        return document;
+    }
+}
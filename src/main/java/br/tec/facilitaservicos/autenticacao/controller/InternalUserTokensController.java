@@ -0,0 +1,69 @@
+package br.tec.facilitaservicos.autenticacao.controller;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.tec.facilitaservicos.autenticacao.dto.RequisicaoRevogacaoUsuariosDTO;
+import br.tec.facilitaservicos.autenticacao.service.AuthService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import reactor.core.publisher.Mono;
+
+/**
+ * ============================================================================
+ * 🔒 CONTROLADOR INTERNO DE REVOGAÇÃO DE SESSÕES
+ * ============================================================================
+ *
+ * Revogação em lote para outros serviços (ex.: limpeza de usuários inativos
+ * do serviço de usuários), que não têm acesso às tabelas de tokens. Fica na
+ * cadeia de clientes internos (HTTP Basic, {@code app.internal-clients}).
+ *
+ * ============================================================================
+ */
+@RestController
+@RequestMapping("/rest/v1/internal")
+@Tag(name = "Interno", description = "Endpoints para serviços internos")
+public class InternalUserTokensController {
+
+    private static final Logger logger = LoggerFactory.getLogger(InternalUserTokensController.class);
+
+    private static final String REVOKE_USERS_ENDPOINT = "/users/tokens/revoke";
+    private static final String JSON_KEY_REVOKED_COUNT = "revoked_count";
+
+    private final AuthService authService;
+
+    public InternalUserTokensController(AuthService authService) {
+        this.authService = authService;
+    }
+
+    /**
+     * 🚪 Revoga refresh tokens, sessões de referência e access tokens já
+     * emitidos (not-before) dos usuários informados.
+     */
+    @PostMapping(value = REVOKE_USERS_ENDPOINT,
+                 consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Revogação em lote de sessões",
+        description = "Revoga todas as sessões dos usuários informados"
+    )
+    @ApiResponse(responseCode = "200", description = "Sessões revogadas")
+    public Mono<ResponseEntity<Map<String, Long>>> revokeUsers(
+            @Valid @RequestBody RequisicaoRevogacaoUsuariosDTO request) {
+
+        logger.debug("🚪 Revogação interna de sessões: usuarios={}", request.usuarioIds().size());
+
+        return authService.revokeUsersSessions(request.usuarioIds())
+            .map(count -> ResponseEntity.ok(Map.of(JSON_KEY_REVOKED_COUNT, count)));
+    }
+}
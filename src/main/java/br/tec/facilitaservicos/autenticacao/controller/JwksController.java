@@ -7,13 +7,15 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 
-import br.tec.facilitaservicos.autenticacao.service.JwtService;
+import br.tec.facilitaservicos.autenticacao.service.JwkSetCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -31,7 +33,8 @@ import reactor.core.publisher.Mono;
  * Implementa:
  * - Endpoint público para JWK Set
  * - Suporte a rotação de chaves
- * - Cache inteligente com headers HTTP apropriados
+ * - Cache inteligente com headers HTTP apropriados (ETag forte + 304)
+ * - JSON serializado uma vez por versão de chave ({@link JwkSetCache})
  * - Headers de segurança adequados
  * - Observabilidade e métricas
  * 
@@ -42,7 +45,7 @@ import reactor.core.publisher.Mono;
  * ============================================================================
  */
 @RestController
-@RequestMapping("/rest/v1")
+@RequestMapping(JwksController.BASE_PATH)
 @Tag(name = "JWKS", description = "Endpoints para JWK Set (JSON Web Key Set)")
 public class JwksController {
 
@@ -52,8 +55,9 @@ public class JwksController {
     // 🔧 CONSTANTES DE CONFIGURAÇÃO - AMBIENTE DE PRODUÇÃO
     // ============================================================================
 
-    // Endpoints
-    private static final String JWKS_ENDPOINT = "/.well-known/jwks.json";
+    // Endpoints (visíveis no pacote para o documento de discovery)
+    static final String BASE_PATH = "/rest/v1";
+    static final String JWKS_ENDPOINT = "/.well-known/jwks.json";
     private static final String JWKS_ALTERNATIVE_ENDPOINT = "/oauth2/jwks";
     private static final String KEY_INFO_ENDPOINT = "/.well-known/key-info";
     private static final String HEALTH_CHECK_ENDPOINT = "/oauth2/jwks/health";
@@ -69,7 +73,6 @@ public class JwksController {
     private static final String CORS_ALLOW_HEADERS = "Content-Type";
 
     // Chaves de resposta JSON
-    private static final String JSON_KEY_KEYS = "keys";
     private static final String JSON_KEY_ERROR = "error";
     private static final String JSON_KEY_ERROR_DESCRIPTION = "error_description";
     private static final String JSON_KEY_STATUS = "status";
@@ -86,18 +89,6 @@ public class JwksController {
     private static final String STATUS_DOWN = "DOWN";
     private static final String SERVICE_NAME = "jwks";
 
-    // Valores padrão para chaves JWT
-    private static final String DEFAULT_KEY_ID = "unknown";
-    private static final String DEFAULT_ALGORITHM = "RS256";
-    private static final String DEFAULT_KEY_TYPE = "RSA";
-    private static final String DEFAULT_KEY_USE = "sig";
-
-    // Chaves JWK
-    private static final String JWK_KEY_ID = "kid";
-    private static final String JWK_ALGORITHM = "alg";
-    private static final String JWK_KEY_TYPE = "kty";
-    private static final String JWK_KEY_USE = "use";
-
     // Chaves de informação da chave
     private static final String KEY_INFO_KEY_ID = "key_id";
     private static final String KEY_INFO_ALGORITHM = "algorithm";
@@ -106,17 +97,17 @@ public class JwksController {
     private static final String KEY_INFO_ISSUED_AT = "issued_at";
     private static final String KEY_INFO_CACHE_TTL_KEY = "cache_ttl_seconds";
 
-    private final JwtService jwtService;
+    private final JwkSetCache jwkSetCache;
 
-    public JwksController(JwtService jwtService) {
-        this.jwtService = jwtService;
+    public JwksController(JwkSetCache jwkSetCache) {
+        this.jwkSetCache = jwkSetCache;
     }
 
     /**
      * 🛡️ Método helper para criar respostas de erro padronizadas.
      * Implementa programação defensiva para ambiente de produção.
      */
-    private ResponseEntity<Map<String, Object>> createErrorResponse(int status, String error, String description) {
+    private ResponseEntity<Object> createErrorResponse(int status, String error, String description) {
         if (error == null || error.trim().isEmpty()) {
             error = ERROR_INTERNAL_SERVER;
         }
@@ -174,42 +165,40 @@ public class JwksController {
             description = "Erro interno do servidor ao gerar JWK Set"
         )
     })
-    public Mono<ResponseEntity<Map<String, Object>>> getJwkSet() {
+    public Mono<ResponseEntity<Object>> getJwkSet(ServerWebExchange exchange) {
         logger.debug("🔑 Solicitação de JWK Set recebida");
 
         // Programação defensiva: validação do serviço
-        if (jwtService == null) {
-            logger.error("❌ JwtService não está disponível");
+        if (jwkSetCache == null) {
+            logger.error("❌ JwkSetCache não está disponível");
             return Mono.just(createErrorResponse(500, ERROR_SERVICE_UNAVAILABLE, "Serviço JWT não disponível"));
         }
 
-        return jwtService.generateJwkSet()
-            .map(jwkSet -> {
-                // Programação defensiva: validação do JWK Set
-                if (jwkSet == null || jwkSet.isEmpty()) {
-                    logger.warn("⚠️ JWK Set vazio ou nulo gerado");
-                    return createErrorResponse(500, ERROR_NO_KEY_AVAILABLE, "Nenhuma chave disponível");
+        return jwkSetCache.current()
+            .map(snapshot -> {
+                // If-None-Match com o ETag atual: 304 sem corpo
+                if (exchange.checkNotModified(snapshot.etag())) {
+                    logger.debug("🔑 JWK Set não modificado: etag={}", snapshot.etag());
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(snapshot.etag())
+                        .cacheControl(CacheControl.maxAge(JWKS_CACHE_TTL).cachePublic())
+                        .<Object>build();
                 }
 
-                logger.debug("✅ JWK Set gerado com sucesso");
-
                 return ResponseEntity.ok()
+                    .eTag(snapshot.etag())
                     .cacheControl(CacheControl.maxAge(JWKS_CACHE_TTL).cachePublic())
-                    .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                    .contentType(MediaType.APPLICATION_JSON)
                     .header("Access-Control-Allow-Origin", CORS_ALLOW_ORIGIN)
                     .header("Access-Control-Allow-Methods", CORS_ALLOW_METHODS)
                     .header("Access-Control-Allow-Headers", CORS_ALLOW_HEADERS)
-                    .body(jwkSet);
-            })
-            .doOnSuccess(response -> {
-                if (response != null && response.getStatusCode().is2xxSuccessful()) {
-                    logger.info("🔑 JWK Set servido com sucesso - Cache: {}h", JWKS_CACHE_TTL.toHours());
-                }
+                    .<Object>body(snapshot.body());
             })
             .doOnError(error ->
                 logger.error("❌ Erro ao gerar JWK Set: {}",
                     error != null ? error.getMessage() : "Erro desconhecido", error)
             )
+            .switchIfEmpty(Mono.fromSupplier(() -> createErrorResponse(500, ERROR_NO_KEY_AVAILABLE, "Nenhuma chave disponível")))
             .onErrorReturn(createErrorResponse(500, ERROR_INTERNAL_SERVER, "Erro interno ao gerar JWK Set"));
     }
     
@@ -222,9 +211,9 @@ public class JwksController {
         description = "Endpoint alternativo para compatibilidade - redireciona para " + JWKS_ENDPOINT
     )
     @ApiResponse(responseCode = "200", description = "JWK Set retornado com sucesso")
-    public Mono<ResponseEntity<Map<String, Object>>> getJwkSetAlternative() {
+    public Mono<ResponseEntity<Object>> getJwkSetAlternative(ServerWebExchange exchange) {
         logger.debug("🔑 Solicitação de JWK Set via endpoint alternativo");
-        return getJwkSet();
+        return getJwkSet(exchange);
     }
     
     /**
@@ -237,57 +226,37 @@ public class JwksController {
         description = "Retorna informações sobre a chave de assinatura atual (sem dados sensíveis)"
     )
     @ApiResponse(responseCode = "200", description = "Informações da chave retornadas com sucesso")
-    public Mono<ResponseEntity<Map<String, Object>>> getKeyInfo() {
+    public Mono<ResponseEntity<Object>> getKeyInfo() {
         logger.debug("📊 Solicitação de informações da chave");
 
         // Programação defensiva: validação do serviço
-        if (jwtService == null) {
-            logger.error("❌ JwtService não está disponível para informações da chave");
+        if (jwkSetCache == null) {
+            logger.error("❌ JwkSetCache não está disponível para informações da chave");
             return Mono.just(createErrorResponse(500, ERROR_SERVICE_UNAVAILABLE, "Serviço JWT não disponível"));
         }
 
-        return jwtService.generateJwkSet()
-            .map(jwkSet -> {
-                // Programação defensiva: validação do JWK Set
-                if (jwkSet == null || jwkSet.isEmpty()) {
-                    logger.warn("⚠️ JWK Set vazio para informações da chave");
-                    Map<String, Object> errorBody = new HashMap<>();
-                    errorBody.put(JSON_KEY_ERROR, ERROR_NO_KEY_AVAILABLE);
-                    return ResponseEntity.ok().body(errorBody);
-                }
-
-                // Extrair informações da primeira (e única) chave
-                @SuppressWarnings("unchecked")
-                var keys = (java.util.List<Map<String, Object>>) jwkSet.get(JSON_KEY_KEYS);
-
+        return jwkSetCache.current()
+            .map(snapshot -> {
                 Map<String, Object> responseBody = new HashMap<>();
+                responseBody.put(KEY_INFO_KEY_ID, snapshot.keyId());
+                responseBody.put(KEY_INFO_ALGORITHM, snapshot.algorithm());
+                responseBody.put(KEY_INFO_KEY_TYPE, snapshot.keyType());
+                responseBody.put(KEY_INFO_KEY_USE, snapshot.keyUse());
+                responseBody.put(KEY_INFO_ISSUED_AT, System.currentTimeMillis() / 1000);
+                responseBody.put(KEY_INFO_CACHE_TTL_KEY, KEY_INFO_CACHE_TTL_SECONDS);
 
-                if (keys != null && !keys.isEmpty()) {
-                    Map<String, Object> key = keys.get(0);
-
-                    // Programação defensiva: validação da chave
-                    if (key == null) {
-                        logger.warn("⚠️ Chave nula encontrada no JWK Set");
-                        responseBody.put(JSON_KEY_ERROR, ERROR_NO_KEY_AVAILABLE);
-                    } else {
-                        responseBody.put(KEY_INFO_KEY_ID, key.getOrDefault(JWK_KEY_ID, DEFAULT_KEY_ID));
-                        responseBody.put(KEY_INFO_ALGORITHM, key.getOrDefault(JWK_ALGORITHM, DEFAULT_ALGORITHM));
-                        responseBody.put(KEY_INFO_KEY_TYPE, key.getOrDefault(JWK_KEY_TYPE, DEFAULT_KEY_TYPE));
-                        responseBody.put(KEY_INFO_KEY_USE, key.getOrDefault(JWK_KEY_USE, DEFAULT_KEY_USE));
-                        responseBody.put(KEY_INFO_ISSUED_AT, System.currentTimeMillis() / 1000);
-                        responseBody.put(KEY_INFO_CACHE_TTL_KEY, KEY_INFO_CACHE_TTL_SECONDS);
-
-                        logger.debug("📊 Informações da chave geradas: kid={}", key.get(JWK_KEY_ID));
-                    }
-                } else {
-                    logger.warn("⚠️ Nenhuma chave encontrada no JWK Set");
-                    responseBody.put(JSON_KEY_ERROR, ERROR_NO_KEY_AVAILABLE);
-                }
+                logger.debug("📊 Informações da chave geradas: kid={}", snapshot.keyId());
 
                 return ResponseEntity.ok()
                     .cacheControl(CacheControl.maxAge(KEY_INFO_CACHE_TTL))
-                    .body(responseBody);
+                    .<Object>body(responseBody);
             })
+            .switchIfEmpty(Mono.fromSupplier(() -> {
+                logger.warn("⚠️ Nenhuma chave encontrada para informações da chave");
+                Map<String, Object> errorBody = new HashMap<>();
+                errorBody.put(JSON_KEY_ERROR, ERROR_NO_KEY_AVAILABLE);
+                return ResponseEntity.ok().<Object>body(errorBody);
+            }))
             .doOnError(error ->
                 logger.error("❌ Erro ao obter informações da chave: {}",
                     error != null ? error.getMessage() : "Erro desconhecido")
@@ -304,12 +273,12 @@ public class JwksController {
         description = "Verifica se o serviço JWKS está funcionando corretamente"
     )
     @ApiResponse(responseCode = "200", description = "Serviço JWKS está saudável")
-    public Mono<ResponseEntity<Map<String, Object>>> healthCheck() {
+    public Mono<ResponseEntity<Object>> healthCheck() {
         logger.debug("✨ Health check JWKS solicitado");
 
         // Programação defensiva: validação do serviço
-        if (jwtService == null) {
-            logger.error("❌ JwtService não está disponível para health check");
+        if (jwkSetCache == null) {
+            logger.error("❌ JwkSetCache não está disponível para health check");
             Map<String, Object> errorHealth = new HashMap<>();
             errorHealth.put(JSON_KEY_STATUS, STATUS_DOWN);
             errorHealth.put(JSON_KEY_SERVICE, SERVICE_NAME);
@@ -318,27 +287,23 @@ public class JwksController {
 
             return Mono.just(ResponseEntity.status(500)
                 .cacheControl(CacheControl.noCache())
-                .body(errorHealth));
+                .<Object>body(errorHealth));
         }
 
-        return jwtService.generateJwkSet()
-            .map(jwkSet -> {
-                // Programação defensiva: validação do JWK Set
-                @SuppressWarnings("unchecked")
-                var keys = jwkSet != null ?
-                    (java.util.List<Map<String, Object>>) jwkSet.get(JSON_KEY_KEYS) : null;
-                boolean hasKeys = keys != null && !keys.isEmpty();
-
+        return jwkSetCache.current()
+            .map(snapshot -> snapshot.body().length > 0)
+            .defaultIfEmpty(false)
+            .map(hasKeys -> {
                 Map<String, Object> health = new HashMap<>();
                 health.put(JSON_KEY_STATUS, hasKeys ? STATUS_UP : STATUS_DOWN);
                 health.put(JSON_KEY_SERVICE, SERVICE_NAME);
                 health.put(JSON_KEY_KEYS_AVAILABLE, hasKeys);
-                health.put(JSON_KEY_KEY_COUNT, hasKeys ? keys.size() : 0);
+                health.put(JSON_KEY_KEY_COUNT, hasKeys ? 1 : 0);
                 health.put(JSON_KEY_TIMESTAMP, System.currentTimeMillis());
 
                 return ResponseEntity.ok()
                     .cacheControl(CacheControl.noCache())
-                    .body(health);
+                    .<Object>body(health);
             })
             .doOnSuccess(response -> {
                 if (response != null) {
@@ -0,0 +1,45 @@
+package br.tec.facilitaservicos.autenticacao.dto;
+
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Papéis e permissões resolvidos de um usuário, como retornados por
+ * {@code GET /rest/v1/users/{id}/permissions} do serviço de usuários.
+ *
+ * A {@code version} é o hash do snapshot de autorização; vai para o token
+ * (claim {@code pv}) e permite detectar tokens emitidos com permissões antigas.
+ */
+@Schema(description = "Papéis e permissões resolvidos do usuário")
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PermissoesUsuarioDTO(
+
+    @Schema(description = "ID do usuário", example = "12345")
+    Long userId,
+
+    @Schema(description = "Papéis do usuário", example = "[\"ROLE_USER\"]")
+    Set<String> roles,
+
+    @Schema(description = "Códigos das permissões concedidas", example = "[\"chat:send\"]")
+    Set<String> permissions,
+
+    @Schema(description = "Versão (hash hexadecimal) das permissões", example = "9f3c2a1b7d4e8f60")
+    String version
+) {
+
+    public PermissoesUsuarioDTO {
+        roles = roles != null ? Set.copyOf(roles) : Set.of();
+        permissions = permissions != null ? Set.copyOf(permissions) : Set.of();
+    }
+
+    /**
+     * Fallback a partir dos campos do próprio usuário, sem versão
+     * (usado quando o serviço de usuários não responde).
+     */
+    public static PermissoesUsuarioDTO fromUsuario(UsuarioDTO usuario) {
+        return new PermissoesUsuarioDTO(usuario.getId(), usuario.getRoles(), usuario.getPermissoes(), null);
+    }
+}
@@ -22,9 +22,21 @@ public record RequisicaoLoginDTO(
     @NotBlank(message = "Senha é obrigatória")
     @Size(min = 6, max = 100, message = "Senha deve ter entre 6 e 100 caracteres")
     @JsonProperty("password")
-    String senha
+    String senha,
+    
+    @Schema(description = "Identificador do cliente OAuth2 (define o formato do access token)", example = "portal-web")
+    @Size(max = 100, message = "Client id deve ter no máximo 100 caracteres")
+    @JsonProperty("client_id")
+    String clienteId
 ) {
     
+    /**
+     * Login sem client id (access token JWT)
+     */
+    public RequisicaoLoginDTO(String usuario, String senha) {
+        this(usuario, senha, null);
+    }
+    
     /**
      * Validação adicional no construtor compacto
      */
@@ -32,6 +44,7 @@ public record RequisicaoLoginDTO(
         // Trim dos valores de entrada
         usuario = usuario != null ? usuario.trim() : null;
         senha = senha != null ? senha.trim() : null;
+        clienteId = clienteId != null && !clienteId.isBlank() ? clienteId.trim() : null;
         
         // Validações básicas adicionais
         if (usuario != null && usuario.isBlank()) {
@@ -46,7 +59,7 @@ public record RequisicaoLoginDTO(
      * Método auxiliar para logs seguros (sem expor a senha)
      */
     public String toSecureString() {
-        return String.format("RequisicaoLoginDTO{usuario='%s', senha='[PROTEGIDA]'}", usuario);
+        return String.format("RequisicaoLoginDTO{usuario='%s', senha='[PROTEGIDA]', clienteId='%s'}", usuario, clienteId);
     }
     
     @Override
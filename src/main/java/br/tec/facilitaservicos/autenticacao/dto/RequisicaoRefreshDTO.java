@@ -3,6 +3,7 @@ package br.tec.facilitaservicos.autenticacao.dto;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 
 /**
  * DTO para requisição de renovação de token.
@@ -14,15 +15,28 @@ public record RequisicaoRefreshDTO(
     @Schema(description = "Token de renovação", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
     @NotBlank(message = "Token de renovação é obrigatório")
     @JsonProperty("refresh_token")
-    String tokenRenovacao
+    String tokenRenovacao,
+    
+    @Schema(description = "Identificador do cliente OAuth2 (define o formato do access token)", example = "portal-web")
+    @Size(max = 100, message = "Client id deve ter no máximo 100 caracteres")
+    @JsonProperty("client_id")
+    String clienteId
 ) {
     
+    /**
+     * Renovação sem client id (access token JWT)
+     */
+    public RequisicaoRefreshDTO(String tokenRenovacao) {
+        this(tokenRenovacao, null);
+    }
+    
     /**
      * Validação no construtor compacto
      */
     public RequisicaoRefreshDTO {
         // Trim do valor de entrada
         tokenRenovacao = tokenRenovacao != null ? tokenRenovacao.trim() : null;
+        clienteId = clienteId != null && !clienteId.isBlank() ? clienteId.trim() : null;
         
         // Validação básica
         if (tokenRenovacao != null && tokenRenovacao.isBlank()) {
@@ -44,7 +58,7 @@ public record RequisicaoRefreshDTO(
      * String segura para logs
      */
     public String toSecureString() {
-        return String.format("RequisicaoRefreshDTO{tokenRenovacao='%s'}", getTokenRenovacaoMascarado());
+        return String.format("RequisicaoRefreshDTO{tokenRenovacao='%s', clienteId='%s'}", getTokenRenovacaoMascarado(), clienteId);
     }
     
     @Override
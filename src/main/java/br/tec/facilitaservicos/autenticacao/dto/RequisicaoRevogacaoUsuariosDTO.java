@@ -0,0 +1,30 @@
+package br.tec.facilitaservicos.autenticacao.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO para revogação em lote das sessões de vários usuários (uso interno).
+ * Record imutável seguindo padrões reativos.
+ */
+@Schema(description = "Usuários cujas sessões devem ser revogadas")
+public record RequisicaoRevogacaoUsuariosDTO(
+    
+    @Schema(description = "Ids dos usuários", example = "[1, 2, 3]")
+    @NotEmpty(message = "Lista de usuários é obrigatória")
+    @Size(max = 1000, message = "No máximo 1000 usuários por requisição")
+    @JsonProperty("usuario_ids")
+    List<Long> usuarioIds
+) {
+    
+    /**
+     * Validação no construtor compacto
+     */
+    public RequisicaoRevogacaoUsuariosDTO {
+        usuarioIds = usuarioIds != null ? List.copyOf(usuarioIds) : null;
+    }
+}
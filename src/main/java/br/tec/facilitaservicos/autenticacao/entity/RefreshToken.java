@@ -22,6 +22,9 @@ public class RefreshToken {
     @Column("token_hash")
     private String tokenHash;
     
+    @Column("token_mac")
+    private byte[] tokenMac;
+    
     @Column("usuario_id")
     private Long usuarioId;
     
@@ -58,8 +61,9 @@ public class RefreshToken {
     // Construtores
     public RefreshToken() {
         this.familiaToken = UUID.randomUUID().toString();
-        this.dataCriacao = LocalDateTime.now();
-        this.dataAtualizacao = LocalDateTime.now();
+        LocalDateTime agora = LocalDateTime.now();
+        this.dataCriacao = agora;
+        this.dataAtualizacao = agora;
     }
     
     public RefreshToken(String tokenHash, Long usuarioId, LocalDateTime dataExpiracao) {
@@ -76,6 +80,22 @@ public class RefreshToken {
         this.userAgent = userAgent;
     }
     
+    /**
+     * Cria o token com o instante de criação informado pelo chamador
+     * (lido uma única vez do {@link java.time.Clock} da aplicação).
+     */
+    public RefreshToken(String tokenHash, Long usuarioId, LocalDateTime dataExpiracao,
+                       String ipOrigem, String userAgent, LocalDateTime agora) {
+        this.familiaToken = UUID.randomUUID().toString();
+        this.tokenHash = tokenHash;
+        this.usuarioId = usuarioId;
+        this.dataExpiracao = dataExpiracao;
+        this.ipOrigem = ipOrigem;
+        this.userAgent = userAgent;
+        this.dataCriacao = agora;
+        this.dataAtualizacao = agora;
+    }
+    
     // Getters e Setters
     public Long getId() {
         return id;
@@ -93,6 +113,14 @@ public class RefreshToken {
         this.tokenHash = tokenHash;
     }
     
+    public byte[] getTokenMac() {
+        return tokenMac;
+    }
+    
+    public void setTokenMac(byte[] tokenMac) {
+        this.tokenMac = tokenMac;
+    }
+    
     public Long getUsuarioId() {
         return usuarioId;
     }
@@ -179,14 +207,28 @@ public class RefreshToken {
      * Verifica se o token está expirado
      */
     public boolean isExpirado() {
-        return dataExpiracao != null && LocalDateTime.now().isAfter(dataExpiracao);
+        return isExpirado(LocalDateTime.now());
+    }
+    
+    /**
+     * Verifica se o token está expirado no instante informado
+     */
+    public boolean isExpirado(LocalDateTime agora) {
+        return dataExpiracao != null && agora.isAfter(dataExpiracao);
     }
     
     /**
      * Verifica se o token está válido
      */
     public boolean isValido() {
-        return ativo && !revogado && !isExpirado();
+        return isValido(LocalDateTime.now());
+    }
+    
+    /**
+     * Verifica se o token está válido no instante informado
+     */
+    public boolean isValido(LocalDateTime agora) {
+        return ativo && !revogado && !isExpirado(agora);
     }
     
     /**
@@ -210,10 +252,11 @@ public class RefreshToken {
      * Calcula tempo restante em segundos até expiração
      */
     public long getTempoRestanteSegundos() {
-        if (dataExpiracao == null || isExpirado()) {
+        LocalDateTime agora = LocalDateTime.now();
+        if (dataExpiracao == null || isExpirado(agora)) {
             return 0;
         }
-        return java.time.Duration.between(LocalDateTime.now(), dataExpiracao).getSeconds();
+        return java.time.Duration.between(agora, dataExpiracao).getSeconds();
     }
     
     @Override
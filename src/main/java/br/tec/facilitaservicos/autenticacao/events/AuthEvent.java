@@ -0,0 +1,87 @@
+package br.tec.facilitaservicos.autenticacao.events;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Evento para resource servers que validam tokens localmente, publicado no
+ * stream Redis e repassado por SSE ({@code /rest/v1/oauth2/events}).
+ *
+ * Tipos:
+ * - {@code keys}: o JWK Set mudou (rotação); buscar {@code jwks.json} de novo
+ * - {@code revoked}: access token revogado ({@code jti}, válido até {@code exp})
+ * - {@code not-before}: tokens do usuário {@code sub} emitidos antes de {@code nbf} são inválidos
+ * - {@code resync}: eventos perdidos (reconexão tardia); recarregar o JWK Set e
+ *   não confiar em estado local anterior a este evento
+ *
+ * @param id   id do registro no stream (ms-seq), usado como {@code id:} do SSE
+ * @param type tipo do evento
+ * @param data campos do evento
+ */
+public record AuthEvent(String id, String type, Map<String, String> data) {
+
+    public static final String TYPE_FIELD = "type";
+
+    public static final String KEYS = "keys";
+    public static final String REVOKED = "revoked";
+    public static final String NOT_BEFORE = "not-before";
+    public static final String RESYNC = "resync";
+    // Só local: mantém conexões ociosas vivas, não vai para o stream
+    public static final String HEARTBEAT = "heartbeat";
+
+    public AuthEvent {
+        data = data != null ? Map.copyOf(data) : Map.of();
+    }
+
+    /**
+     * Evento a partir dos campos de um registro do stream.
+     */
+    public static AuthEvent fromRecord(String id, Map<String, String> fields) {
+        Map<String, String> data = new LinkedHashMap<>(fields);
+        String type = data.remove(TYPE_FIELD);
+        return new AuthEvent(id, type, data);
+    }
+
+    public static AuthEvent resync(String lastKnownId) {
+        return new AuthEvent(lastKnownId, RESYNC, Map.of());
+    }
+
+    public static AuthEvent heartbeat() {
+        return new AuthEvent(null, HEARTBEAT, Map.of());
+    }
+
+    public boolean isHeartbeat() {
+        return HEARTBEAT.equals(type);
+    }
+
+    /**
+     * Compara ids de stream Redis ({@code <ms>-<seq>}) numericamente.
+     */
+    static int compareIds(String a, String b) {
+        int sepA = a.indexOf('-');
+        int sepB = b.indexOf('-');
+        int byMillis = Long.compare(Long.parseLong(a.substring(0, sepA)), Long.parseLong(b.substring(0, sepB)));
+        if (byMillis != 0) {
+            return byMillis;
+        }
+        return Long.compare(Long.parseLong(a.substring(sepA + 1)), Long.parseLong(b.substring(sepB + 1)));
+    }
+
+    /**
+     * Id de stream bem formado (Last-Event-ID vem do cliente).
+     */
+    static boolean isValidId(String id) {
+        if (id == null) {
+            return false;
+        }
+        int sep = id.indexOf('-');
+        if (sep <= 0) {
+            return false;
+        }
+        try {
+            return Long.parseLong(id.substring(0, sep)) >= 0 && Long.parseLong(id.substring(sep + 1)) >= 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package br.tec.facilitaservicos.autenticacao.events;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.stream.StreamReceiver;
+import org.springframework.stereotype.Component;
+
+import br.tec.facilitaservicos.autenticacao.service.KeyVaultService;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+/**
+ * Distribui os {@link AuthEvent}s do stream Redis aos assinantes SSE deste nó.
+ *
+ * Um único leitor por nó ({@link StreamReceiver}, XREAD com bloqueio em
+ * conexão dedicada) alimenta todos os assinantes; o nó guarda os últimos
+ * {@code app.auth-events.max-length} eventos para que uma reconexão com
+ * {@code Last-Event-ID} receba o que perdeu. Se o id for mais antigo que o
+ * histórico, o assinante recebe um {@code resync}.
+ *
+ * Cada assinante tem uma fila limitada ({@code subscriber-buffer}): um cliente
+ * lento que a enche é desconectado, sem atrasar os demais nem acumular memória,
+ * e retoma de onde parou ao reconectar.
+ *
+ * Também observa o key id do Key Vault e publica {@code keys} quando ele muda;
+ * um GETSET no Redis garante um único evento por rotação entre os nós.
+ */
+@Component
+public class AuthEventHub implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthEventHub.class);
+
+    private static final String KEY_ID_REDIS_KEY = "auth:events:kid";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(30);
+
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final AuthEventPublisher publisher;
+    private final KeyVaultService keyVaultService;
+    private final int historySize;
+    private final int subscriberBuffer;
+    private final Duration heartbeatInterval;
+    private final Duration keyCheckInterval;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<AuthEvent> history;
+    private final List<Sinks.Many<AuthEvent>> subscribers = new CopyOnWriteArrayList<>();
+    private final Disposable.Composite tasks = Disposables.composite();
+    private volatile String lastSeenId;
+    private volatile boolean running;
+
+    public AuthEventHub(ReactiveRedisConnectionFactory connectionFactory,
+                        ReactiveStringRedisTemplate redisTemplate,
+                        AuthEventPublisher publisher,
+                        KeyVaultService keyVaultService,
+                        @Value("${app.auth-events.max-length:10000}") int historySize,
+                        @Value("${app.auth-events.subscriber-buffer:256}") int subscriberBuffer,
+                        @Value("${app.auth-events.heartbeat:PT15S}") Duration heartbeatInterval,
+                        @Value("${app.auth-events.key-check-interval:PT1M}") Duration keyCheckInterval) {
+        this.connectionFactory = connectionFactory;
+        this.redisTemplate = redisTemplate;
+        this.publisher = publisher;
+        this.keyVaultService = keyVaultService;
+        // Programação defensiva: fila de assinante precisa de ao menos uma posição
+        if (subscriberBuffer < 1) {
+            throw new IllegalArgumentException("app.auth-events.subscriber-buffer deve ser positivo: " + subscriberBuffer);
+        }
+        this.historySize = historySize;
+        this.subscriberBuffer = subscriberBuffer;
+        this.heartbeatInterval = heartbeatInterval;
+        this.keyCheckInterval = keyCheckInterval;
+        this.history = new ArrayDeque<>(Math.min(historySize, 1024));
+    }
+
+    /**
+     * Eventos a partir de {@code lastEventId} (exclusivo) seguidos dos novos.
+     * O histórico e o registro do assinante são lidos sob o mesmo lock da
+     * distribuição: nenhum evento fica entre os dois.
+     */
+    public Flux<AuthEvent> subscribe(String lastEventId) {
+        return Flux.defer(() -> {
+            // Capacidade exata: Queues.get arredondaria para potência de 2 (mínimo 8)
+            Sinks.Many<AuthEvent> live = Sinks.many().unicast()
+                .onBackpressureBuffer(new ArrayBlockingQueue<>(subscriberBuffer));
+            List<AuthEvent> backlog;
+            synchronized (lock) {
+                backlog = backlogAfter(lastEventId);
+                subscribers.add(live);
+            }
+            return Flux.concat(Flux.fromIterable(backlog), live.asFlux())
+                .doFinally(signal -> subscribers.remove(live));
+        });
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        StreamReceiver<String, MapRecord<String, String, String>> receiver = StreamReceiver.create(connectionFactory,
+            StreamReceiver.StreamReceiverOptions.builder().pollTimeout(POLL_TIMEOUT).build());
+
+        tasks.add(Flux.defer(() -> preloadHistory()
+                .thenMany(Flux.defer(() -> receiver.receive(StreamOffset.create(publisher.getStreamKey(),
+                    lastSeenId != null ? ReadOffset.from(lastSeenId) : ReadOffset.latest())))))
+            .doOnError(error -> logger.warn("⚠️ Leitura do stream de eventos falhou, reconectando: {}", error.getMessage()))
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(MAX_RETRY_BACKOFF))
+            .subscribe(record -> dispatch(AuthEvent.fromRecord(record.getId().getValue(), record.getValue()))));
+
+        tasks.add(Flux.interval(heartbeatInterval)
+            .subscribe(tick -> dispatch(AuthEvent.heartbeat())));
+
+        tasks.add(Flux.interval(keyCheckInterval)
+            .concatMap(tick -> checkKeyRotation().onErrorResume(error -> {
+                logger.debug("Verificação de rotação de chave falhou: {}", error.getMessage());
+                return Mono.empty();
+            }))
+            .subscribe());
+
+        logger.info("📡 Stream de eventos de autenticação ativo: stream={}, histórico={}",
+                   publisher.getStreamKey(), historySize);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        tasks.dispose();
+        subscribers.forEach(Sinks.Many::tryEmitComplete);
+        subscribers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Métodos auxiliares (visíveis no pacote para testes)
+
+    /**
+     * Guarda o evento no histórico e entrega a todos os assinantes; quem está
+     * com a fila cheia é desconectado.
+     */
+    void dispatch(AuthEvent event) {
+        synchronized (lock) {
+            if (!event.isHeartbeat()) {
+                history.addLast(event);
+                if (history.size() > historySize) {
+                    history.removeFirst();
+                }
+                lastSeenId = event.id();
+            }
+            for (Sinks.Many<AuthEvent> subscriber : subscribers) {
+                Sinks.EmitResult result = subscriber.tryEmitNext(event);
+                if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                    logger.debug("Assinante de eventos lento desconectado (fila de {} cheia)", subscriberBuffer);
+                    subscriber.tryEmitComplete();
+                    subscribers.remove(subscriber);
+                } else if (result.isFailure()) {
+                    subscribers.remove(subscriber);
+                }
+            }
+        }
+    }
+
+    /**
+     * Eventos do histórico depois de {@code lastEventId}; {@code resync} quando
+     * o id é inválido ou anterior ao histórico retido.
+     */
+    private List<AuthEvent> backlogAfter(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+        AuthEvent newest = history.peekLast();
+        if (!AuthEvent.isValidId(lastEventId)) {
+            return List.of(AuthEvent.resync(newest != null ? newest.id() : null));
+        }
+        AuthEvent oldest = history.peekFirst();
+        if (oldest != null && history.size() >= historySize && AuthEvent.compareIds(lastEventId, oldest.id()) < 0) {
+            return List.of(AuthEvent.resync(newest.id()));
+        }
+
+        List<AuthEvent> backlog = new ArrayList<>();
+        Iterator<AuthEvent> newestFirst = history.descendingIterator();
+        while (newestFirst.hasNext()) {
+            AuthEvent event = newestFirst.next();
+            if (AuthEvent.compareIds(event.id(), lastEventId) <= 0) {
+                break;
+            }
+            backlog.add(event);
+        }
+        return backlog.reversed();
+    }
+
+    /**
+     * Carrega os últimos eventos do stream (reinício do nó) para atender
+     * reconexões com {@code Last-Event-ID}; só na primeira leitura.
+     */
+    private Mono<Void> preloadHistory() {
+        if (lastSeenId != null) {
+            return Mono.empty();
+        }
+        return redisTemplate.<String, String>opsForStream()
+            .reverseRange(publisher.getStreamKey(), Range.unbounded(), Limit.limit().count(historySize))
+            .collectList()
+            .doOnNext(records -> {
+                for (MapRecord<String, String, String> record : records.reversed()) {
+                    dispatch(AuthEvent.fromRecord(record.getId().getValue(), record.getValue()));
+                }
+                logger.debug("Histórico de eventos carregado: {} registros", records.size());
+            })
+            .then();
+    }
+
+    private Mono<Void> checkKeyRotation() {
+        return keyVaultService.getKeyId()
+            .flatMap(keyId -> redisTemplate.opsForValue().getAndSet(KEY_ID_REDIS_KEY, keyId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .filter(previous -> previous.isPresent() && !previous.get().equals(keyId))
+                .flatMap(previous -> {
+                    logger.info("🔑 Rotação de chave detectada: {} -> {}", previous.get(), keyId);
+                    return publisher.keysChanged(keyId);
+                }));
+    }
+}
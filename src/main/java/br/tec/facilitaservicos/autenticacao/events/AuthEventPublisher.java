@@ -0,0 +1,81 @@
+package br.tec.facilitaservicos.autenticacao.events;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Publica {@link AuthEvent}s no stream Redis lido por todos os nós
+ * ({@link AuthEventHub}). O stream é aparado (aproximado) em
+ * {@code app.auth-events.max-length} registros, o mesmo histórico que cada
+ * nó guarda para reconexões.
+ *
+ * Falhas de publicação são registradas e não interrompem a operação que
+ * originou o evento: a revogação vale no banco de qualquer forma.
+ */
+@Component
+public class AuthEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthEventPublisher.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String streamKey;
+    private final long maxLength;
+
+    public AuthEventPublisher(ReactiveStringRedisTemplate redisTemplate,
+                              @Value("${app.auth-events.stream-key:auth:events}") String streamKey,
+                              @Value("${app.auth-events.max-length:10000}") long maxLength) {
+        this.redisTemplate = redisTemplate;
+        this.streamKey = streamKey;
+        this.maxLength = maxLength;
+    }
+
+    public Mono<Void> keysChanged(String keyId) {
+        return publish(AuthEvent.KEYS, Map.of("kid", keyId));
+    }
+
+    /**
+     * Access token revogado; resource servers guardam o {@code jti} até {@code exp}.
+     */
+    public Mono<Void> tokenRevoked(String jti, Instant expiracao) {
+        return publish(AuthEvent.REVOKED, Map.of("jti", jti, "exp", String.valueOf(expiracao.getEpochSecond())));
+    }
+
+    /**
+     * Todos os tokens do usuário emitidos antes de {@code notBefore} deixam de valer.
+     */
+    public Mono<Void> userNotBefore(Long usuarioId, Instant notBefore) {
+        return publish(AuthEvent.NOT_BEFORE, Map.of("sub", String.valueOf(usuarioId), "nbf", String.valueOf(notBefore.getEpochSecond())));
+    }
+
+    public String getStreamKey() {
+        return streamKey;
+    }
+
+    // Métodos auxiliares privados
+
+    private Mono<Void> publish(String type, Map<String, String> data) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(AuthEvent.TYPE_FIELD, type);
+        fields.putAll(data);
+
+        return redisTemplate.opsForStream()
+            .add(StreamRecords.string(fields).withStreamKey(streamKey))
+            .flatMap(id -> redisTemplate.opsForStream().trim(streamKey, maxLength, true).thenReturn(id))
+            .doOnNext(id -> logger.info("📣 Evento {} publicado: id={}", type, id.getValue()))
+            .onErrorResume(error -> {
+                logger.warn("⚠️ Falha ao publicar evento {}: {}", type, error.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+}
@@ -0,0 +1,12 @@
+package br.tec.facilitaservicos.autenticacao.exception;
+
+/**
+ * Usuário inexistente ou senha errada: a única falha de login que conta
+ * para o throttling (conta bloqueada/inativa já passou pela senha).
+ */
+public class InvalidCredentialsException extends AuthenticationException {
+    
+    public InvalidCredentialsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package br.tec.facilitaservicos.autenticacao.exception;
+
+import java.time.Duration;
+
+/**
+ * Login recusado antes da verificação de senha: a conta ou o IP está em
+ * espera progressiva ou bloqueado por excesso de falhas.
+ */
+public class LoginThrottledException extends AuthenticationException {
+    
+    private final Duration retryAfter;
+    
+    public LoginThrottledException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+    
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,113 @@
+package br.tec.facilitaservicos.autenticacao.loadshedding;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limite de requisições simultâneas ajustado pela latência medida (AIMD):
+ * - resposta acima de {@code latencyThreshold}: limite multiplicado por {@code backoffRatio}
+ * - resposta dentro do limiar com o limite em uso: limite + 1
+ *
+ * O recuo acontece no máximo uma vez por janela: amostras lentas de
+ * requisições iniciadas antes do último recuo são ignoradas, porque já
+ * refletem o limite anterior. Sem isso uma rajada de N respostas lentas
+ * aplicaria o recuo N vezes e derrubaria o limite até o mínimo.
+ *
+ * O aumento só acontece com pelo menos metade do limite ocupada; sem isso
+ * um período ocioso inflaria o limite até o teto sem nunca tê-lo testado.
+ */
+public class AimdLimiter {
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    // Instante (nanoTime) do último recuo; NEVER enquanto não houve recuo
+    private final AtomicLong lastDecreaseNanos = new AtomicLong(NEVER);
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio, System::nanoTime);
+    }
+
+    AimdLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio,
+                LongSupplier nanoClock) {
+        // Programação defensiva: limites coerentes e recuo efetivo
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limites inválidos: min=" + minLimit + ", max=" + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio deve estar entre 0 e 1: " + backoffRatio);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.nanoClock = nanoClock;
+        this.limit = new AtomicInteger(Math.clamp(initialLimit, minLimit, maxLimit));
+    }
+
+    /**
+     * Ocupa uma vaga se houver menos de {@code effectiveLimit} requisições em
+     * andamento. Quem recebe {@code true} deve chamar {@link #release}.
+     */
+    public boolean tryAcquire(int effectiveLimit) {
+        while (true) {
+            int current = inflight.get();
+            if (current >= effectiveLimit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera a vaga. {@code latencyNanos < 0} libera sem amostra (ex.:
+     * cliente cancelou, a latência não diz nada sobre o servidor).
+     */
+    public void release(long latencyNanos) {
+        int inflightAtCompletion = inflight.getAndDecrement();
+        if (latencyNanos < 0) {
+            return;
+        }
+
+        if (latencyNanos > latencyThresholdNanos) {
+            decrease(latencyNanos);
+        } else if (inflightAtCompletion * 2 >= limit.get()) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    // Métodos auxiliares privados
+
+    private void decrease(long latencyNanos) {
+        long now = nanoClock.getAsLong();
+        long startedAt = now - latencyNanos;
+        long lastDecrease = lastDecreaseNanos.get();
+        // Iniciada antes do último recuo: já contabilizada por ele
+        if (lastDecrease != NEVER && startedAt - lastDecrease < 0) {
+            return;
+        }
+        // Entre amostras concorrentes da mesma janela, só uma recua
+        if (lastDecreaseNanos.compareAndSet(lastDecrease, now)) {
+            limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+        }
+    }
+}
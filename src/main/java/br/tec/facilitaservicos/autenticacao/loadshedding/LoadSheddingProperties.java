@@ -0,0 +1,144 @@
+package br.tec.facilitaservicos.autenticacao.loadshedding;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limite adaptativo de concorrência por classe de endpoint ({@code app.load-shedding}).
+ *
+ * Cada entrada de {@code classes} agrupa padrões de caminho (vale a primeira
+ * classe que casar) com seu próprio limite AIMD. Caminhos sem classe não são
+ * limitados.
+ */
+@ConfigurationProperties(prefix = "app.load-shedding")
+public class LoadSheddingProperties {
+
+    /**
+     * Prioridade de uma classe: sob pressão, as de prioridade baixa cedem
+     * capacidade às de prioridade alta.
+     */
+    public enum Priority {
+        HIGH,
+        LOW
+    }
+
+    private boolean enabled = true;
+    private Duration retryAfter = Duration.ofSeconds(1);
+    // Uma classe HIGH com ocupação acima disso (fração do limite) coloca o servidor sob pressão
+    private double pressureThreshold = 0.8;
+    // Fração do próprio limite que as classes LOW mantêm sob pressão
+    private double lowPriorityShare = 0.5;
+    private Map<String, EndpointClass> classes = new LinkedHashMap<>();
+
+    public static class EndpointClass {
+
+        private List<String> paths = List.of();
+        private Priority priority = Priority.LOW;
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        // Latência acima disso conta como sobrecarga: o limite recua
+        private Duration latencyThreshold = Duration.ofMillis(500);
+        private double backoffRatio = 0.9;
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        public void setPriority(Priority priority) {
+            this.priority = priority;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public double getPressureThreshold() {
+        return pressureThreshold;
+    }
+
+    public void setPressureThreshold(double pressureThreshold) {
+        this.pressureThreshold = pressureThreshold;
+    }
+
+    public double getLowPriorityShare() {
+        return lowPriorityShare;
+    }
+
+    public void setLowPriorityShare(double lowPriorityShare) {
+        this.lowPriorityShare = lowPriorityShare;
+    }
+
+    public Map<String, EndpointClass> getClasses() {
+        return classes;
+    }
+
+    public void setClasses(Map<String, EndpointClass> classes) {
+        this.classes = classes;
+    }
+}
@@ -0,0 +1,183 @@
+package br.tec.facilitaservicos.autenticacao.loadshedding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import br.tec.facilitaservicos.autenticacao.loadshedding.LoadSheddingProperties.Priority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Descarta carga antes dos controladores: cada classe de endpoint (login,
+ * refresh, introspecção, JWKS) tem um limite de requisições simultâneas
+ * ajustado pela latência ({@link AimdLimiter}). O excedente recebe 503 com
+ * {@code Retry-After} na hora, em vez de entrar na fila até o timeout.
+ *
+ * Prioridade: quando uma classe HIGH (introspecção, JWKS) passa de
+ * {@code pressure-threshold} do seu limite, as classes LOW (login, refresh)
+ * ficam com {@code low-priority-share} do próprio limite.
+ *
+ * Roda entre o Spring Security (CORS já aplicado) e o rate limiting: uma
+ * requisição descartada não consome vaga do bucket nem vai ao Redis.
+ */
+public class LoadSheddingWebFilter implements WebFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadSheddingWebFilter.class);
+
+    // Spring Security em -100, RateLimitWebFilter em -90
+    public static final int ORDER = -95;
+
+    private static final String ERROR_BODY =
+        "{\"error\":\"temporarily_unavailable\",\"error_description\":\"Servidor sobrecarregado; tente novamente em %d s\"}";
+
+    /**
+     * Classe compilada de {@code app.load-shedding.classes}.
+     */
+    record Partition(String name, List<PathPattern> patterns, Priority priority, AimdLimiter limiter) {
+
+        boolean matches(PathContainer path) {
+            for (PathPattern pattern : patterns) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final List<Partition> partitions;
+    private final List<Partition> highPriority;
+    private final double pressureThreshold;
+    private final double lowPriorityShare;
+    private final long retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+
+    public LoadSheddingWebFilter(LoadSheddingProperties properties, MeterRegistry meterRegistry) {
+        this.partitions = compile(properties);
+        this.highPriority = partitions.stream().filter(partition -> partition.priority() == Priority.HIGH).toList();
+        this.pressureThreshold = properties.getPressureThreshold();
+        this.lowPriorityShare = properties.getLowPriorityShare();
+        this.retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+        this.meterRegistry = meterRegistry;
+
+        for (Partition partition : partitions) {
+            Gauge.builder("auth.concurrency.limit", partition.limiter(), AimdLimiter::getLimit)
+                .description("Limite adaptativo de requisições simultâneas")
+                .tag("class", partition.name())
+                .register(meterRegistry);
+            Gauge.builder("auth.concurrency.inflight", partition.limiter(), AimdLimiter::getInflight)
+                .description("Requisições em andamento")
+                .tag("class", partition.name())
+                .register(meterRegistry);
+        }
+
+        logger.info("🛡️ Load shedding ativo: classes={}", partitions.stream().map(Partition::name).toList());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (HttpMethod.OPTIONS.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+
+        Partition partition = findPartition(exchange.getRequest().getPath().pathWithinApplication());
+        if (partition == null) {
+            return chain.filter(exchange);
+        }
+
+        AimdLimiter limiter = partition.limiter();
+        if (!limiter.tryAcquire(effectiveLimit(partition))) {
+            return reject(partition, exchange.getResponse());
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+            .doFinally(signal -> limiter.release(signal == SignalType.CANCEL ? -1 : System.nanoTime() - start));
+    }
+
+    // Métodos auxiliares (visíveis no pacote para testes)
+
+    int effectiveLimit(Partition partition) {
+        int limit = partition.limiter().getLimit();
+        if (partition.priority() == Priority.HIGH || !underPressure()) {
+            return limit;
+        }
+        return Math.max(1, (int) (limit * lowPriorityShare));
+    }
+
+    Partition findPartition(PathContainer path) {
+        for (Partition partition : partitions) {
+            if (partition.matches(path)) {
+                return partition;
+            }
+        }
+        return null;
+    }
+
+    // Métodos auxiliares privados
+
+    private boolean underPressure() {
+        for (Partition partition : highPriority) {
+            AimdLimiter limiter = partition.limiter();
+            if (limiter.getInflight() >= limiter.getLimit() * pressureThreshold) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> reject(Partition partition, ServerHttpResponse response) {
+        Counter.builder("auth.concurrency.rejected")
+            .description("Requisições descartadas pelo limite de concorrência")
+            .tag("class", partition.name())
+            .register(meterRegistry)
+            .increment();
+        logger.debug("🛡️ Requisição descartada: classe={}, limite={}, em_andamento={}",
+            partition.name(), partition.limiter().getLimit(), partition.limiter().getInflight());
+
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = String.format(ERROR_BODY, retryAfterSeconds).getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static List<Partition> compile(LoadSheddingProperties properties) {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        List<Partition> compiled = new ArrayList<>();
+        for (Map.Entry<String, LoadSheddingProperties.EndpointClass> entry : properties.getClasses().entrySet()) {
+            LoadSheddingProperties.EndpointClass endpointClass = entry.getValue();
+            List<PathPattern> patterns = endpointClass.getPaths().stream().map(parser::parse).toList();
+            AimdLimiter limiter = new AimdLimiter(endpointClass.getInitialLimit(), endpointClass.getMinLimit(),
+                endpointClass.getMaxLimit(), endpointClass.getLatencyThreshold(), endpointClass.getBackoffRatio());
+
+            compiled.add(new Partition(entry.getKey(), patterns, endpointClass.getPriority(), limiter));
+        }
+        return List.copyOf(compiled);
+    }
+}
@@ -0,0 +1,91 @@
+package br.tec.facilitaservicos.autenticacao.ratelimit;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.regex.Pattern;
+
+/**
+ * Casa endereços IPv4/IPv6 literais com um bloco CIDR ({@code 10.0.0.0/8},
+ * {@code ::1/128}) ou um endereço único (prefixo completo).
+ *
+ * Só aceita literais: hostnames e valores como "unknown" nunca casam e
+ * nunca disparam resolução DNS.
+ */
+final class CidrMatcher {
+
+    private static final Pattern IPV4_LITERAL = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+    private static final Pattern IPV6_LITERAL = Pattern.compile("[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+
+    private final byte[] network;
+    private final int prefixLength;
+
+    CidrMatcher(String cidr) {
+        int slash = cidr.indexOf('/');
+        String address = slash < 0 ? cidr : cidr.substring(0, slash);
+        InetAddress parsed = parseLiteral(address);
+        if (parsed == null) {
+            throw new IllegalArgumentException("Endereço inválido em proxy confiável: " + cidr);
+        }
+        this.network = parsed.getAddress();
+
+        int maxPrefix = network.length * Byte.SIZE;
+        try {
+            this.prefixLength = slash < 0 ? maxPrefix : Integer.parseInt(cidr.substring(slash + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Prefixo inválido em proxy confiável: " + cidr, e);
+        }
+        if (prefixLength < 0 || prefixLength > maxPrefix) {
+            throw new IllegalArgumentException("Prefixo fora do intervalo em proxy confiável: " + cidr);
+        }
+    }
+
+    boolean matches(String address) {
+        InetAddress candidate = parseLiteral(address);
+        if (candidate == null) {
+            return false;
+        }
+        byte[] bytes = candidate.getAddress();
+        // IPv4 nunca casa com bloco IPv6 e vice-versa
+        if (bytes.length != network.length) {
+            return false;
+        }
+
+        int fullBytes = prefixLength / Byte.SIZE;
+        for (int i = 0; i < fullBytes; i++) {
+            if (bytes[i] != network[i]) {
+                return false;
+            }
+        }
+        int remainingBits = prefixLength % Byte.SIZE;
+        if (remainingBits == 0) {
+            return true;
+        }
+        int mask = (0xFF << (Byte.SIZE - remainingBits)) & 0xFF;
+        return (bytes[fullBytes] & mask) == (network[fullBytes] & mask);
+    }
+
+    // Métodos auxiliares privados
+
+    private static InetAddress parseLiteral(String address) {
+        // Programação defensiva: só literais, para InetAddress não consultar DNS
+        if (address == null) {
+            return null;
+        }
+        String value = address.trim();
+        if (IPV4_LITERAL.matcher(value).matches()) {
+            // Octeto acima de 255 faria o InetAddress tratar o valor como hostname
+            for (String octet : value.split("\\.")) {
+                if (Integer.parseInt(octet) > 255) {
+                    return null;
+                }
+            }
+        } else if (!IPV6_LITERAL.matcher(value).matches()) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(value);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package br.tec.facilitaservicos.autenticacao.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Origem do IP do cliente ({@code app.client-ip}).
+ *
+ * {@code trusted-proxies} lista os proxies/load balancers (IP ou CIDR) cujos
+ * cabeçalhos X-Forwarded-For/X-Real-IP são aceitos. Lista vazia: vale só o
+ * endereço remoto da conexão.
+ */
+@ConfigurationProperties(prefix = "app.client-ip")
+public class ClientIpProperties {
+
+    private List<String> trustedProxies = new ArrayList<>();
+
+    public List<String> getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+}
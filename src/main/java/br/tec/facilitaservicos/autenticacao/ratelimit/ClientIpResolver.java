@@ -0,0 +1,86 @@
+package br.tec.facilitaservicos.autenticacao.ratelimit;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+/**
+ * IP do cliente usado no rate limiting, no throttling de login e na auditoria.
+ *
+ * Os cabeçalhos de proxy só valem quando a conexão vem de um proxy
+ * confiável ({@code app.client-ip.trusted-proxies}). O X-Forwarded-For é
+ * lido da direita para a esquerda (cada proxy acrescenta ao final) e o
+ * primeiro endereço que não é proxy confiável é o cliente; o que estiver
+ * à esquerda dele foi escrito pelo próprio cliente e é ignorado. Assim um
+ * X-Forwarded-For forjado não troca o bucket nem a contagem de falhas.
+ */
+public class ClientIpResolver {
+
+    public static final String UNKNOWN = "unknown";
+
+    private static final String HEADER_X_FORWARDED_FOR = "X-Forwarded-For";
+    private static final String HEADER_X_REAL_IP = "X-Real-IP";
+
+    private final List<CidrMatcher> trustedProxies;
+
+    public ClientIpResolver(List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+            .map(String::trim)
+            .filter(proxy -> !proxy.isEmpty())
+            .map(CidrMatcher::new)
+            .toList();
+    }
+
+    public String resolve(ServerHttpRequest request) {
+        // Programação defensiva: sem request não há de onde tirar o IP
+        if (request == null) {
+            return UNKNOWN;
+        }
+
+        String remote = remoteAddress(request);
+        if (remote == null) {
+            return UNKNOWN;
+        }
+        if (!isTrustedProxy(remote)) {
+            return remote;
+        }
+
+        List<String> hops = request.getHeaders().getValuesAsList(HEADER_X_FORWARDED_FOR);
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            if (!isTrustedProxy(hops.get(i))) {
+                return hops.get(i);
+            }
+        }
+        // Toda a cadeia é de proxies confiáveis: o mais à esquerda é a origem
+        if (!hops.isEmpty()) {
+            return hops.get(0);
+        }
+
+        String xRealIp = request.getHeaders().getFirst(HEADER_X_REAL_IP);
+        if (xRealIp != null && !xRealIp.isBlank()) {
+            return xRealIp.trim();
+        }
+        return remote;
+    }
+
+    // Métodos auxiliares privados
+
+    private boolean isTrustedProxy(String address) {
+        // Valor que não é IP (ex.: "unknown" ou hostname) nunca é proxy confiável
+        for (CidrMatcher matcher : trustedProxies) {
+            if (matcher.matches(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String remoteAddress(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return null;
+        }
+        return remoteAddress.getAddress().getHostAddress();
+    }
+}
@@ -0,0 +1,168 @@
+package br.tec.facilitaservicos.autenticacao.ratelimit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Token bucket por chave no formato GCRA (Generic Cell Rate Algorithm): o
+ * estado de cada chave é um único instante, o TAT (theoretical arrival time).
+ *
+ * Duas camadas:
+ * - local (Caffeine, por nó): descarta rajadas sem ida ao Redis
+ * - Redis (script Lua, relógio do Redis): limite que vale para o cluster
+ *
+ * Só o que passa pela camada local consulta o Redis. Se o Redis falhar ou
+ * demorar mais que {@code redisTimeout}, vale a decisão local: o limite
+ * continua por nó em vez de derrubar o login.
+ */
+public class GcraRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(GcraRateLimiter.class);
+
+    static final String KEY_PREFIX = "auth:rl:";
+
+    private static final long MICROS_PER_MINUTE = TimeUnit.MINUTES.toMicros(1);
+
+    // Retorna o tempo até o bucket voltar a cheio (µs) se aceitou, ou -(espera até a próxima vaga) se recusou
+    private static final RedisScript<Long> GCRA_SCRIPT = RedisScript.of("""
+        local interval = tonumber(ARGV[1])
+        local burst_offset = tonumber(ARGV[2])
+        local time = redis.call('TIME')
+        local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+        local tat = tonumber(redis.call('GET', KEYS[1])) or now
+        if tat < now then
+          tat = now
+        end
+        local new_tat = tat + interval
+        local allow_at = new_tat - burst_offset
+        if now < allow_at then
+          return -(allow_at - now)
+        end
+        redis.call('SET', KEYS[1], string.format('%d', new_tat), 'PX', math.ceil((new_tat - now) / 1000))
+        return new_tat - now
+        """, Long.class);
+
+    /**
+     * Taxa sustentada e rajada de um bucket.
+     *
+     * @param intervalMicros    intervalo entre requisições na taxa sustentada
+     * @param burstOffsetMicros tolerância de rajada ({@code intervalo * rajada})
+     */
+    public record Limit(long intervalMicros, long burstOffsetMicros) {
+
+        public static Limit perMinute(int requestsPerMinute, int burst) {
+            // Programação defensiva: taxa e rajada positivas
+            if (requestsPerMinute <= 0 || burst <= 0) {
+                throw new IllegalArgumentException("Taxa e rajada devem ser positivas: " + requestsPerMinute + "/" + burst);
+            }
+            long interval = Math.max(1, MICROS_PER_MINUTE / requestsPerMinute);
+            return new Limit(interval, interval * burst);
+        }
+    }
+
+    /**
+     * Resultado de uma tentativa.
+     *
+     * @param allowed     requisição aceita
+     * @param remaining   requisições ainda disponíveis de imediato
+     * @param resetMicros aceita: tempo até o bucket voltar a cheio; recusada: espera até a próxima vaga
+     */
+    public record Decision(boolean allowed, long remaining, long resetMicros) {
+
+        static Decision allowed(Limit limit, long untilFullMicros) {
+            long remaining = Math.max(0, (limit.burstOffsetMicros() - untilFullMicros) / limit.intervalMicros());
+            return new Decision(true, remaining, untilFullMicros);
+        }
+
+        static Decision denied(long retryAfterMicros) {
+            return new Decision(false, 0, retryAfterMicros);
+        }
+
+        /**
+         * A decisão mais restritiva entre duas chaves da mesma requisição.
+         */
+        public Decision mostRestrictive(Decision other) {
+            if (allowed != other.allowed) {
+                return allowed ? other : this;
+            }
+            if (!allowed) {
+                return resetMicros >= other.resetMicros ? this : other;
+            }
+            return remaining <= other.remaining ? this : other;
+        }
+
+        public long resetSeconds() {
+            return (resetMicros + 999_999) / 1_000_000;
+        }
+    }
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final boolean distributed;
+    private final Duration redisTimeout;
+    private final Clock clock;
+    private final Cache<String, AtomicLong> local;
+
+    public GcraRateLimiter(ReactiveStringRedisTemplate redisTemplate, boolean distributed, Duration redisTimeout,
+                           Clock clock, long localMaximumSize, Duration localExpiry) {
+        this.redisTemplate = redisTemplate;
+        this.distributed = distributed && redisTemplate != null;
+        this.redisTimeout = redisTimeout;
+        this.clock = clock;
+        this.local = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfterAccess(localExpiry)
+            .build();
+    }
+
+    /**
+     * Consome uma vaga do bucket {@code key}: primeiro localmente e, se
+     * aceita e o modo distribuído estiver ativo, no Redis.
+     */
+    public Mono<Decision> tryAcquire(String key, Limit limit) {
+        Decision localDecision = tryAcquireLocal(key, limit, clock.millis() * 1000);
+        if (!localDecision.allowed() || !distributed) {
+            return Mono.just(localDecision);
+        }
+
+        return redisTemplate.execute(GCRA_SCRIPT, List.of(KEY_PREFIX + key),
+                List.of(String.valueOf(limit.intervalMicros()), String.valueOf(limit.burstOffsetMicros())))
+            .next()
+            .map(result -> result < 0 ? Decision.denied(-result) : Decision.allowed(limit, result))
+            .timeout(redisTimeout)
+            .onErrorResume(error -> {
+                logger.debug("Rate limit no Redis indisponível, usando limite local: {}", error.getMessage());
+                return Mono.just(localDecision);
+            })
+            .defaultIfEmpty(localDecision);
+    }
+
+    // Métodos auxiliares (visíveis no pacote para testes)
+
+    Decision tryAcquireLocal(String key, Limit limit, long nowMicros) {
+        AtomicLong tat = local.get(key, ignored -> new AtomicLong());
+        while (true) {
+            long current = tat.get();
+            long newTat = Math.max(current, nowMicros) + limit.intervalMicros();
+            long allowAt = newTat - limit.burstOffsetMicros();
+            if (nowMicros < allowAt) {
+                return Decision.denied(allowAt - nowMicros);
+            }
+            if (tat.compareAndSet(current, newTat)) {
+                return Decision.allowed(limit, newTat - nowMicros);
+            }
+        }
+    }
+}
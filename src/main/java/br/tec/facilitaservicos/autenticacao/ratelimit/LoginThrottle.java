@@ -0,0 +1,333 @@
+package br.tec.facilitaservicos.autenticacao.ratelimit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import br.tec.facilitaservicos.autenticacao.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Contagem de falhas de login por conta e por IP no Redis, com espera
+ * progressiva e bloqueio temporário ({@code app.login-throttle}).
+ *
+ * Cada chave tem dois registros com o mesmo hash tag (mesmo slot no cluster):
+ * - {@code auth:login:{conta:x}:failures}: sorted set com o instante de cada falha (janela deslizante)
+ * - {@code auth:login:{conta:x}:block}: presente enquanto a chave estiver em espera ou bloqueada
+ *
+ * Cada tentativa é reservada antes do BCrypt, no mesmo script que lê o
+ * bloqueio: a reserva conta como falha e já aplica a espera seguinte, então
+ * tentativas concorrentes contra a mesma conta não passam todas pela
+ * verificação antes de a primeira falha ser gravada. Login bem-sucedido
+ * devolve a reserva; erro que não é de credencial também. Uma chave
+ * bloqueada é recusada sem buscar o usuário nem rodar o BCrypt. Com o Redis
+ * indisponível o login segue sem throttling (o rate limiting por IP
+ * continua valendo).
+ */
+public class LoginThrottle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginThrottle.class);
+
+    static final String KEY_PREFIX = "auth:login:";
+
+    private static final String SCOPE_ACCOUNT = "conta";
+    private static final String SCOPE_IP = "ip";
+    private static final int MAX_KEY_VALUE_LENGTH = 128;
+
+    private static final long RESERVE_REJECTED = 0;
+    private static final long RESERVE_LOCKED = 2;
+
+    // Recusa se bloqueada ({0, pttl}); senão reserva a tentativa como falha: {1, total} ou {2, total} se bloqueou agora
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RESERVE_SCRIPT = RedisScript.of("""
+        local blocked = redis.call('PTTL', KEYS[2])
+        if blocked > 0 then
+          return {0, blocked}
+        end
+        local window = tonumber(ARGV[1])
+        local max_tracked = tonumber(ARGV[2])
+        local free = tonumber(ARGV[3])
+        local lock_threshold = tonumber(ARGV[6])
+        local time = redis.call('TIME')
+        local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+        redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+        redis.call('ZADD', KEYS[1], now, ARGV[8])
+        local count = redis.call('ZCARD', KEYS[1])
+        if count > max_tracked then
+          redis.call('ZREMRANGEBYRANK', KEYS[1], 0, count - max_tracked - 1)
+          count = max_tracked
+        end
+        redis.call('PEXPIRE', KEYS[1], window)
+        if lock_threshold > 0 and count >= lock_threshold then
+          redis.call('SET', KEYS[2], count, 'PX', ARGV[7])
+          return {2, count}
+        end
+        if count > free then
+          local delay = math.min(tonumber(ARGV[5]), tonumber(ARGV[4]) * 2 ^ math.min(count - free - 1, 30))
+          redis.call('SET', KEYS[2], count, 'PX', math.max(1, math.floor(delay)))
+        end
+        return {1, count}
+        """, List.class);
+
+    // PTTL do bloqueio em ms (-2: sem bloqueio)
+    private static final RedisScript<Long> BLOCK_TTL_SCRIPT = RedisScript.of(
+        "return redis.call('PTTL', KEYS[1])", Long.class);
+
+    /**
+     * Chave de contagem: conta ou IP, com a política correspondente.
+     */
+    record Scope(String type, String value, LoginThrottleProperties.Policy policy) {
+
+        String failuresKey() {
+            return KEY_PREFIX + '{' + type + ':' + value + "}:failures";
+        }
+
+        String blockKey() {
+            return KEY_PREFIX + '{' + type + ':' + value + "}:block";
+        }
+    }
+
+    /**
+     * Tentativa de login reservada: o mesmo membro em cada chave que aceitou
+     * a reserva. Entregue de volta em {@link #recordSuccess} ou {@link #release}.
+     */
+    public static final class Attempt {
+
+        static final Attempt NONE = new Attempt(null, List.of());
+
+        private final String member;
+        private final List<Scope> scopes;
+
+        Attempt(String member, List<Scope> scopes) {
+            this.member = member;
+            this.scopes = scopes;
+        }
+    }
+
+    /**
+     * Resultado da reserva em uma chave; {@code retryAfter} zero = reservada.
+     */
+    private record Reservation(Scope scope, Duration retryAfter) {
+
+        boolean rejected() {
+            return !retryAfter.isZero();
+        }
+    }
+
+    /**
+     * Situação de uma conta, para diagnóstico.
+     *
+     * @param failures   falhas na janela atual
+     * @param blockedFor tempo restante de espera/bloqueio ({@link Duration#ZERO} se livre)
+     */
+    public record Status(int failures, Duration blockedFor) {
+
+        public boolean blocked() {
+            return !blockedFor.isZero();
+        }
+    }
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final LoginThrottleProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final boolean active;
+
+    public LoginThrottle(ReactiveStringRedisTemplate redisTemplate, LoginThrottleProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.active = properties.isEnabled() && redisTemplate != null;
+
+        if (active) {
+            logger.info("🔒 Throttling de login ativo: janela={}, bloqueio conta={} falhas, bloqueio IP={} falhas",
+                properties.getWindow(), properties.getAccount().getLockThreshold(),
+                properties.getIp().getLockThreshold());
+        }
+    }
+
+    /**
+     * Reserva a tentativa para a conta e o IP antes da verificação de senha.
+     * Erro {@link LoginThrottledException} se alguma delas estiver em espera;
+     * nesse caso as reservas já feitas são devolvidas.
+     */
+    public Mono<Attempt> reserve(String usuario, String clientIp) {
+        if (!active) {
+            return Mono.just(Attempt.NONE);
+        }
+
+        // Membro único: tentativas no mesmo milissegundo não se sobrepõem
+        String member = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        return Flux.fromIterable(scopes(usuario, clientIp))
+            .concatMap(scope -> reserve(scope, member))
+            // Conta recusada: o IP nem chega a ser reservado
+            .takeUntil(Reservation::rejected)
+            .collectList()
+            .flatMap(reservations -> {
+                Attempt attempt = new Attempt(member, reservations.stream()
+                    .filter(reservation -> !reservation.rejected())
+                    .map(Reservation::scope)
+                    .toList());
+                return reservations.stream()
+                    .filter(Reservation::rejected)
+                    .findFirst()
+                    .map(rejection -> release(attempt).then(Mono.<Attempt>error(reject(rejection))))
+                    .orElseGet(() -> Mono.just(attempt));
+            });
+    }
+
+    /**
+     * Login bem-sucedido zera a contagem da conta. No IP só a reserva desta
+     * tentativa é devolvida: uma conta válida do atacante não pode limpar o
+     * histórico do IP.
+     */
+    public Mono<Void> recordSuccess(Attempt attempt) {
+        return Flux.fromIterable(attempt.scopes)
+            .flatMap(scope -> SCOPE_ACCOUNT.equals(scope.type())
+                ? redisTemplate.delete(scope.failuresKey(), scope.blockKey())
+                : redisTemplate.opsForZSet().remove(scope.failuresKey(), attempt.member))
+            .timeout(properties.getRedisTimeout())
+            .onErrorResume(error -> {
+                logger.debug("Throttling de login: falha ao limpar contagem: {}", error.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    /**
+     * Devolve a reserva de uma tentativa que não chegou a falhar por
+     * credencial (ex.: erro do serviço de usuários). Uma espera aplicada pela
+     * reserva continua até expirar.
+     */
+    public Mono<Void> release(Attempt attempt) {
+        return Flux.fromIterable(attempt.scopes)
+            .flatMap(scope -> redisTemplate.opsForZSet().remove(scope.failuresKey(), attempt.member))
+            .timeout(properties.getRedisTimeout())
+            .onErrorResume(error -> {
+                logger.debug("Throttling de login: falha ao devolver reserva: {}", error.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    /**
+     * Falhas na janela e tempo de bloqueio restante da conta.
+     */
+    public Mono<Status> status(String usuario) {
+        String account = normalizeAccount(usuario);
+        if (!active || account == null) {
+            return Mono.just(new Status(0, Duration.ZERO));
+        }
+
+        Scope scope = new Scope(SCOPE_ACCOUNT, account, properties.getAccount());
+        long from = System.currentTimeMillis() - properties.getWindow().toMillis();
+        Mono<Long> failures = redisTemplate.opsForZSet()
+            .count(scope.failuresKey(), Range.rightUnbounded(Range.Bound.inclusive((double) from)))
+            .defaultIfEmpty(0L);
+        return Mono.zip(failures, blockedFor(scope))
+            .map(tuple -> new Status(tuple.getT1().intValue(), tuple.getT2()));
+    }
+
+    // Métodos auxiliares privados
+
+    private Mono<Duration> blockedFor(Scope scope) {
+        return redisTemplate.execute(BLOCK_TTL_SCRIPT, List.of(scope.blockKey()), List.of())
+            .next()
+            .map(ttl -> ttl > 0 ? Duration.ofMillis(ttl) : Duration.ZERO)
+            .timeout(properties.getRedisTimeout())
+            .onErrorResume(error -> {
+                logger.debug("Throttling de login indisponível, tentativa liberada: {}", error.getMessage());
+                return Mono.just(Duration.ZERO);
+            })
+            .defaultIfEmpty(Duration.ZERO);
+    }
+
+    private Mono<Reservation> reserve(Scope scope, String member) {
+        LoginThrottleProperties.Policy policy = scope.policy();
+        List<String> args = List.of(
+            String.valueOf(properties.getWindow().toMillis()),
+            String.valueOf(properties.getMaxTracked()),
+            String.valueOf(policy.getFreeAttempts()),
+            String.valueOf(policy.getBaseDelay().toMillis()),
+            String.valueOf(policy.getMaxDelay().toMillis()),
+            String.valueOf(policy.getLockThreshold()),
+            String.valueOf(policy.getLockDuration().toMillis()),
+            member);
+
+        return redisTemplate.execute(RESERVE_SCRIPT, List.of(scope.failuresKey(), scope.blockKey()), args)
+            .next()
+            .timeout(properties.getRedisTimeout())
+            .map(result -> {
+                long status = ((Number) result.get(0)).longValue();
+                long value = ((Number) result.get(1)).longValue();
+                if (status == RESERVE_REJECTED) {
+                    return new Reservation(scope, Duration.ofMillis(value));
+                }
+                if (status == RESERVE_LOCKED) {
+                    Counter.builder("auth.login_throttle.locked")
+                        .description("Bloqueios temporários por excesso de falhas de login")
+                        .tag("scope", scope.type())
+                        .register(meterRegistry)
+                        .increment();
+                    logger.warn("🔒 Bloqueio temporário por falhas de login: {}={}, falhas={}, duração={}",
+                        scope.type(), scope.value(), value, policy.getLockDuration());
+                }
+                return new Reservation(scope, Duration.ZERO);
+            })
+            .onErrorResume(error -> {
+                // Sem reserva nesta chave: a tentativa segue sem throttling
+                logger.debug("Throttling de login indisponível, tentativa liberada: {}", error.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    private LoginThrottledException reject(Reservation rejection) {
+        Counter.builder("auth.login_throttle.rejected")
+            .description("Logins recusados antes da verificação de senha")
+            .register(meterRegistry)
+            .increment();
+        logger.debug("🔒 Login recusado por throttling: retry_after={}", rejection.retryAfter());
+        return new LoginThrottledException(
+            "Muitas tentativas de login (" + rejection.scope().type() + ")", rejection.retryAfter());
+    }
+
+    private List<Scope> scopes(String usuario, String clientIp) {
+        List<Scope> scopes = new ArrayList<>(2);
+        String account = normalizeAccount(usuario);
+        if (account != null) {
+            scopes.add(new Scope(SCOPE_ACCOUNT, account, properties.getAccount()));
+        }
+        if (clientIp != null && !clientIp.isBlank()) {
+            scopes.add(new Scope(SCOPE_IP, truncate(clientIp.trim()), properties.getIp()));
+        }
+        return scopes;
+    }
+
+    /**
+     * Login aceita e-mail ou nome de usuário sem distinção de caixa: a
+     * contagem também não distingue.
+     */
+    private static String normalizeAccount(String usuario) {
+        if (usuario == null || usuario.isBlank()) {
+            return null;
+        }
+        return truncate(usuario.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static String truncate(String value) {
+        // Programação defensiva: valor vem do cliente e vira chave no Redis (chaves não podem mudar o hash tag)
+        String safe = value.replace('{', '_').replace('}', '_');
+        return safe.length() > MAX_KEY_VALUE_LENGTH ? safe.substring(0, MAX_KEY_VALUE_LENGTH) : safe;
+    }
+}
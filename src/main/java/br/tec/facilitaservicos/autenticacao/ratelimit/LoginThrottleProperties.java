@@ -0,0 +1,135 @@
+package br.tec.facilitaservicos.autenticacao.ratelimit;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Throttling de falhas de login ({@code app.login-throttle}).
+ *
+ * Falhas contam numa janela deslizante por conta e por IP. Passadas as
+ * tentativas livres, cada falha impõe uma espera que dobra a partir de
+ * {@code base-delay} (teto {@code max-delay}); ao atingir
+ * {@code lock-threshold} a chave fica bloqueada por {@code lock-duration}.
+ */
+@ConfigurationProperties(prefix = "app.login-throttle")
+public class LoginThrottleProperties {
+
+    private boolean enabled = true;
+    private Duration window = Duration.ofMinutes(15);
+    private Duration redisTimeout = Duration.ofMillis(100);
+    // Teto de falhas guardadas por chave (o sorted set não cresce sem limite)
+    private int maxTracked = 1000;
+    private Policy account = new Policy(3, Duration.ofSeconds(1), Duration.ofMinutes(5), 10, Duration.ofMinutes(15));
+    // IP é compartilhado (NAT, proxies corporativos): limites mais folgados
+    private Policy ip = new Policy(20, Duration.ofSeconds(1), Duration.ofMinutes(1), 100, Duration.ofMinutes(15));
+
+    public static class Policy {
+
+        private int freeAttempts;
+        private Duration baseDelay;
+        private Duration maxDelay;
+        // 0 desativa o bloqueio (só espera progressiva)
+        private int lockThreshold;
+        private Duration lockDuration;
+
+        public Policy() {
+        }
+
+        Policy(int freeAttempts, Duration baseDelay, Duration maxDelay, int lockThreshold, Duration lockDuration) {
+            this.freeAttempts = freeAttempts;
+            this.baseDelay = baseDelay;
+            this.maxDelay = maxDelay;
+            this.lockThreshold = lockThreshold;
+            this.lockDuration = lockDuration;
+        }
+
+        public int getFreeAttempts() {
+            return freeAttempts;
+        }
+
+        public void setFreeAttempts(int freeAttempts) {
+            this.freeAttempts = freeAttempts;
+        }
+
+        public Duration getBaseDelay() {
+            return baseDelay;
+        }
+
+        public void setBaseDelay(Duration baseDelay) {
+            this.baseDelay = baseDelay;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public int getLockThreshold() {
+            return lockThreshold;
+        }
+
+        public void setLockThreshold(int lockThreshold) {
+            this.lockThreshold = lockThreshold;
+        }
+
+        public Duration getLockDuration() {
+            return lockDuration;
+        }
+
+        public void setLockDuration(Duration lockDuration) {
+            this.lockDuration = lockDuration;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public Duration getRedisTimeout() {
+        return redisTimeout;
+    }
+
+    public void setRedisTimeout(Duration redisTimeout) {
+        this.redisTimeout = redisTimeout;
+    }
+
+    public int getMaxTracked() {
+        return maxTracked;
+    }
+
+    public void setMaxTracked(int maxTracked) {
+        this.maxTracked = maxTracked;
+    }
+
+    public Policy getAccount() {
+        return account;
+    }
+
+    public void setAccount(Policy account) {
+        this.account = account;
+    }
+
+    public Policy getIp() {
+        return ip;
+    }
+
+    public void setIp(Policy ip) {
+        this.ip = ip;
+    }
+}
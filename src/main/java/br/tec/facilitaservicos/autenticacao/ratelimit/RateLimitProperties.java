@@ -0,0 +1,128 @@
+package br.tec.facilitaservicos.autenticacao.ratelimit;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limites de requisição por endpoint ({@code app.rate-limit}).
+ *
+ * Cada entrada de {@code endpoints} é um padrão de caminho (na ordem do
+ * YAML, vale o primeiro que casar) com a taxa sustentada, a rajada e as
+ * chaves do bucket. Caminhos sem entrada não são limitados.
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Chave de um bucket: cada chave configurada tem seu próprio limite.
+     */
+    public enum KeyType {
+        // IP do cliente (endereço remoto ou, atrás de proxy confiável, X-Forwarded-For)
+        IP,
+        // Usuário autenticado (principal), quando houver
+        USER,
+        // Cliente OAuth2 (X-Client-Id ou ?client_id), só em requisições autenticadas: em
+        // requisição anônima o valor é declarado pelo chamador e esgotaria o bucket de outro cliente
+        CLIENT
+    }
+
+    private boolean enabled = true;
+    private boolean distributed = true;
+    private int defaultRequestsPerMinute = 60;
+    private Duration redisTimeout = Duration.ofMillis(100);
+    private long localMaximumSize = 100_000;
+    private Duration localExpiry = Duration.ofMinutes(10);
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    public static class Endpoint {
+
+        private Integer requestsPerMinute;
+        // Padrão: a taxa de um minuto inteiro pode chegar de uma vez
+        private Integer burst;
+        private List<KeyType> keys = List.of(KeyType.IP);
+
+        public Integer getRequestsPerMinute() {
+            return requestsPerMinute;
+        }
+
+        public void setRequestsPerMinute(Integer requestsPerMinute) {
+            this.requestsPerMinute = requestsPerMinute;
+        }
+
+        public Integer getBurst() {
+            return burst;
+        }
+
+        public void setBurst(Integer burst) {
+            this.burst = burst;
+        }
+
+        public List<KeyType> getKeys() {
+            return keys;
+        }
+
+        public void setKeys(List<KeyType> keys) {
+            this.keys = keys;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isDistributed() {
+        return distributed;
+    }
+
+    public void setDistributed(boolean distributed) {
+        this.distributed = distributed;
+    }
+
+    public int getDefaultRequestsPerMinute() {
+        return defaultRequestsPerMinute;
+    }
+
+    public void setDefaultRequestsPerMinute(int defaultRequestsPerMinute) {
+        this.defaultRequestsPerMinute = defaultRequestsPerMinute;
+    }
+
+    public Duration getRedisTimeout() {
+        return redisTimeout;
+    }
+
+    public void setRedisTimeout(Duration redisTimeout) {
+        this.redisTimeout = redisTimeout;
+    }
+
+    public long getLocalMaximumSize() {
+        return localMaximumSize;
+    }
+
+    public void setLocalMaximumSize(long localMaximumSize) {
+        this.localMaximumSize = localMaximumSize;
+    }
+
+    public Duration getLocalExpiry() {
+        return localExpiry;
+    }
+
+    public void setLocalExpiry(Duration localExpiry) {
+        this.localExpiry = localExpiry;
+    }
+
+    public Map<String, Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Endpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+}
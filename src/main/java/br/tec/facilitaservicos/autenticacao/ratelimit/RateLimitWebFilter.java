@@ -0,0 +1,194 @@
+package br.tec.facilitaservicos.autenticacao.ratelimit;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import br.tec.facilitaservicos.autenticacao.ratelimit.GcraRateLimiter.Decision;
+import br.tec.facilitaservicos.autenticacao.ratelimit.GcraRateLimiter.Limit;
+import br.tec.facilitaservicos.autenticacao.ratelimit.RateLimitProperties.KeyType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Aplica os limites de {@code app.rate-limit} antes dos controladores: uma
+ * rajada de login é recusada com 429 sem chegar ao BCrypt.
+ *
+ * Roda logo depois da cadeia do Spring Security (CORS já aplicado, então o
+ * navegador lê os cabeçalhos do 429). Toda resposta limitada leva
+ * {@code X-Rate-Limit-Remaining} e {@code X-Rate-Limit-Reset} (segundos);
+ * a recusa leva também {@code Retry-After}.
+ */
+public class RateLimitWebFilter implements WebFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitWebFilter.class);
+
+    // Spring Security (WebFilterChainProxy) roda em -100
+    public static final int ORDER = -90;
+
+    static final String HEADER_REMAINING = "X-Rate-Limit-Remaining";
+    static final String HEADER_RESET = "X-Rate-Limit-Reset";
+
+    private static final String HEADER_CLIENT_ID = "X-Client-Id";
+    private static final String PARAM_CLIENT_ID = "client_id";
+    private static final int MAX_KEY_VALUE_LENGTH = 128;
+
+    private static final String ERROR_BODY =
+        "{\"error\":\"rate_limit_exceeded\",\"error_description\":\"Muitas requisições; tente novamente em %d s\"}";
+
+    /**
+     * Regra compilada de um padrão de {@code app.rate-limit.endpoints}.
+     */
+    record Policy(String name, PathPattern pattern, Limit limit, List<KeyType> keys) {
+    }
+
+    private final GcraRateLimiter rateLimiter;
+    private final List<Policy> policies;
+    private final ClientIpResolver clientIpResolver;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitWebFilter(GcraRateLimiter rateLimiter, RateLimitProperties properties,
+                              ClientIpResolver clientIpResolver, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.policies = compile(properties);
+        this.clientIpResolver = clientIpResolver;
+        this.meterRegistry = meterRegistry;
+
+        logger.info("🚦 Rate limiting ativo: {} regras, distribuído={}", policies.size(), properties.isDistributed());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        // Preflight CORS não consome vaga
+        if (HttpMethod.OPTIONS.equals(request.getMethod())) {
+            return chain.filter(exchange);
+        }
+
+        Policy policy = findPolicy(request.getPath().pathWithinApplication());
+        if (policy == null) {
+            return chain.filter(exchange);
+        }
+
+        return resolveKeys(exchange, policy)
+            .concatMap(key -> rateLimiter.tryAcquire(key, policy.limit()))
+            // A primeira chave recusada encerra: as demais não consomem vaga
+            .takeUntil(decision -> !decision.allowed())
+            .reduce(Decision::mostRestrictive)
+            // Sem chave resolvida (ex.: só CLIENT e nenhum client_id) a requisição segue sem limite
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(decision -> decision.isEmpty()
+                ? chain.filter(exchange)
+                : apply(policy, decision.get(), exchange, chain));
+    }
+
+    // Métodos auxiliares privados
+
+    private Policy findPolicy(PathContainer path) {
+        for (Policy policy : policies) {
+            if (policy.pattern().matches(path)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    private Flux<String> resolveKeys(ServerWebExchange exchange, Policy policy) {
+        return Flux.fromIterable(policy.keys())
+            .concatMap(type -> keyValue(exchange, type)
+                .map(value -> policy.name() + ':' + type.name().toLowerCase(Locale.ROOT) + ':' + truncate(value)));
+    }
+
+    private Mono<String> keyValue(ServerWebExchange exchange, KeyType type) {
+        return switch (type) {
+            case IP -> Mono.just(clientIpResolver.resolve(exchange.getRequest()));
+            // Sem principal (requisição anônima) a chave é ignorada
+            case USER -> exchange.getPrincipal().map(Principal::getName);
+            // client_id não autenticado não vira bucket compartilhado
+            case CLIENT -> exchange.getPrincipal().flatMap(principal -> Mono.justOrEmpty(clientId(exchange.getRequest())));
+        };
+    }
+
+    private Mono<Void> apply(Policy policy, Decision decision, ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().set(HEADER_REMAINING, String.valueOf(decision.remaining()));
+        response.getHeaders().set(HEADER_RESET, String.valueOf(decision.resetSeconds()));
+        if (decision.allowed()) {
+            return chain.filter(exchange);
+        }
+        return reject(policy, response, decision);
+    }
+
+    private Mono<Void> reject(Policy policy, ServerHttpResponse response, Decision decision) {
+        Counter.builder("auth.rate_limit.rejected")
+            .description("Requisições recusadas pelo rate limiting")
+            .tag("policy", policy.name())
+            .register(meterRegistry)
+            .increment();
+        logger.debug("🚦 Requisição limitada: regra={}, retry_after={}s", policy.name(), decision.resetSeconds());
+
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(decision.resetSeconds()));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = String.format(ERROR_BODY, decision.resetSeconds()).getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static List<Policy> compile(RateLimitProperties properties) {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        List<Policy> compiled = new ArrayList<>();
+        for (Map.Entry<String, RateLimitProperties.Endpoint> entry : properties.getEndpoints().entrySet()) {
+            RateLimitProperties.Endpoint endpoint = entry.getValue();
+            int requestsPerMinute = endpoint.getRequestsPerMinute() != null
+                ? endpoint.getRequestsPerMinute() : properties.getDefaultRequestsPerMinute();
+            int burst = endpoint.getBurst() != null ? endpoint.getBurst() : requestsPerMinute;
+            List<KeyType> keys = endpoint.getKeys() == null || endpoint.getKeys().isEmpty()
+                ? List.of(KeyType.IP) : List.copyOf(endpoint.getKeys());
+
+            compiled.add(new Policy(entry.getKey(), parser.parse(entry.getKey()),
+                Limit.perMinute(requestsPerMinute, burst), keys));
+        }
+        return List.copyOf(compiled);
+    }
+
+    private static String clientId(ServerHttpRequest request) {
+        String clientId = request.getHeaders().getFirst(HEADER_CLIENT_ID);
+        if (clientId == null || clientId.isBlank()) {
+            clientId = request.getQueryParams().getFirst(PARAM_CLIENT_ID);
+        }
+        return clientId == null || clientId.isBlank() ? null : clientId.trim();
+    }
+
+    private static String truncate(String value) {
+        // Programação defensiva: valor vem do cliente e vira chave no Redis
+        return value.length() > MAX_KEY_VALUE_LENGTH ? value.substring(0, MAX_KEY_VALUE_LENGTH) : value;
+    }
+}
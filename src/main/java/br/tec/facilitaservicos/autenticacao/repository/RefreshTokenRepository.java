@@ -1,6 +1,7 @@
 package br.tec.facilitaservicos.autenticacao.repository;
 
 import br.tec.facilitaservicos.autenticacao.entity.RefreshToken;
+import br.tec.facilitaservicos.compartilhado.repository.ReadOnlyRoute;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.data.repository.query.Param;
@@ -9,10 +10,13 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 /**
  * Repositório R2DBC para entidade RefreshToken.
  * Gerencia tokens de renovação de forma reativa.
+ * Consultas usadas na rotação (hash e família) ficam no primário
+ * (read-your-writes); listagens e contagens podem ir para a réplica.
  */
 @Repository
 public interface RefreshTokenRepository extends R2dbcRepository<RefreshToken, Long> {
@@ -23,20 +27,29 @@ public interface RefreshTokenRepository extends R2dbcRepository<RefreshToken, Lo
     @Query("SELECT * FROM refresh_tokens WHERE token_hash = :tokenHash AND ativo = true AND revogado = false")
     Mono<RefreshToken> findByTokenHashAndAtivoTrueAndRevogadoFalse(@Param("tokenHash") String tokenHash);
     
+    /**
+     * Busca refresh token ativo por HMAC binário (coluna token_mac)
+     */
+    @Query("SELECT * FROM refresh_tokens WHERE token_mac = :tokenMac AND ativo = true AND revogado = false")
+    Mono<RefreshToken> findByTokenMacAndAtivoTrueAndRevogadoFalse(@Param("tokenMac") byte[] tokenMac);
+    
     /**
      * Busca todos os refresh tokens de um usuário
      */
+    @ReadOnlyRoute
     Flux<RefreshToken> findByUsuarioId(Long usuarioId);
     
     /**
      * Busca refresh tokens ativos de um usuário
      */
+    @ReadOnlyRoute
     @Query("SELECT * FROM refresh_tokens WHERE usuario_id = :usuarioId AND ativo = true AND revogado = false")
     Flux<RefreshToken> findActiveTokensByUsuarioId(@Param("usuarioId") Long usuarioId);
     
     /**
      * Busca refresh tokens válidos de um usuário (não expirados)
      */
+    @ReadOnlyRoute
     @Query("SELECT * FROM refresh_tokens WHERE usuario_id = :usuarioId AND ativo = true AND revogado = false AND data_expiracao > CURRENT_TIMESTAMP")
     Flux<RefreshToken> findValidTokensByUsuarioId(@Param("usuarioId") Long usuarioId);
     
@@ -54,11 +67,13 @@ public interface RefreshTokenRepository extends R2dbcRepository<RefreshToken, Lo
     /**
      * Busca tokens criados a partir de uma data
      */
+    @ReadOnlyRoute
     Flux<RefreshToken> findByDataCriacaoAfter(LocalDateTime data);
     
     /**
      * Busca tokens por IP de origem
      */
+    @ReadOnlyRoute
     Flux<RefreshToken> findByIpOrigem(String ipOrigem);
     
     /**
@@ -67,6 +82,12 @@ public interface RefreshTokenRepository extends R2dbcRepository<RefreshToken, Lo
     @Query("UPDATE refresh_tokens SET revogado = true, ativo = false, data_atualizacao = CURRENT_TIMESTAMP WHERE usuario_id = :usuarioId")
     Mono<Integer> revokeAllUserTokens(@Param("usuarioId") Long usuarioId);
     
+    /**
+     * Revoga em um único UPDATE os tokens de vários usuários
+     */
+    @Query("UPDATE refresh_tokens SET revogado = true, ativo = false, data_atualizacao = CURRENT_TIMESTAMP WHERE usuario_id IN (:usuarioIds) AND (revogado = false OR ativo = true)")
+    Mono<Integer> revokeAllUsersTokens(@Param("usuarioIds") Collection<Long> usuarioIds);
+    
     /**
      * Revoga todos os tokens de uma família
      */
@@ -79,12 +100,24 @@ public interface RefreshTokenRepository extends R2dbcRepository<RefreshToken, Lo
     @Query("UPDATE refresh_tokens SET revogado = true, ativo = false, data_atualizacao = CURRENT_TIMESTAMP WHERE token_hash = :tokenHash")
     Mono<Integer> revokeToken(@Param("tokenHash") String tokenHash);
     
+    /**
+     * Revoga token específico por HMAC
+     */
+    @Query("UPDATE refresh_tokens SET revogado = true, ativo = false, data_atualizacao = CURRENT_TIMESTAMP WHERE token_mac = :tokenMac")
+    Mono<Integer> revokeTokenByMac(@Param("tokenMac") byte[] tokenMac);
+    
     /**
      * Desativa token (para rotação)
      */
     @Query("UPDATE refresh_tokens SET ativo = false, data_atualizacao = CURRENT_TIMESTAMP WHERE token_hash = :tokenHash")
     Mono<Integer> deactivateToken(@Param("tokenHash") String tokenHash);
     
+    /**
+     * Desativa token por HMAC (tokens gravados só com token_mac)
+     */
+    @Query("UPDATE refresh_tokens SET ativo = false, data_atualizacao = CURRENT_TIMESTAMP WHERE token_mac = :tokenMac")
+    Mono<Integer> deactivateTokenByMac(@Param("tokenMac") byte[] tokenMac);
+    
     /**
      * Remove tokens expirados fisicamente
      */
@@ -100,18 +133,21 @@ public interface RefreshTokenRepository extends R2dbcRepository<RefreshToken, Lo
     /**
      * Conta tokens ativos de um usuário
      */
+    @ReadOnlyRoute
     @Query("SELECT COUNT(*) FROM refresh_tokens WHERE usuario_id = :usuarioId AND ativo = true AND revogado = false")
     Mono<Long> countActiveTokensByUsuario(@Param("usuarioId") Long usuarioId);
     
     /**
      * Conta tokens válidos (não expirados) de um usuário
      */
+    @ReadOnlyRoute
     @Query("SELECT COUNT(*) FROM refresh_tokens WHERE usuario_id = :usuarioId AND ativo = true AND revogado = false AND data_expiracao > CURRENT_TIMESTAMP")
     Mono<Long> countValidTokensByUsuario(@Param("usuarioId") Long usuarioId);
     
     /**
      * Busca tokens suspeitos (muitos tokens do mesmo IP)
      */
+    @ReadOnlyRoute
     @Query("SELECT rt.* FROM refresh_tokens rt WHERE rt.ip_origem = :ip AND rt.data_criacao > :dataLimite AND rt.ativo = true GROUP BY rt.ip_origem HAVING COUNT(*) > :limite")
     Flux<RefreshToken> findSuspiciousTokensByIP(@Param("ip") String ip, @Param("dataLimite") LocalDateTime dataLimite, @Param("limite") int limite);
     
@@ -124,6 +160,7 @@ public interface RefreshTokenRepository extends R2dbcRepository<RefreshToken, Lo
     /**
      * Busca estatísticas de uso por usuário
      */
+    @ReadOnlyRoute
     @Query("SELECT usuario_id, COUNT(*) as total, COUNT(CASE WHEN ativo = true THEN 1 END) as ativos FROM refresh_tokens WHERE usuario_id = :usuarioId GROUP BY usuario_id")
     Mono<Object> getTokenStatsByUsuario(@Param("usuarioId") Long usuarioId);
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package br.tec.facilitaservicos.autenticacao.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import br.tec.facilitaservicos.autenticacao.configuracao.CoarseClock;
+import reactor.core.publisher.Mono;
+
+/**
+ * Revogações de access tokens JWT consultadas pela introspecção.
+ *
+ * - {@code auth:revoked:jti:<jti>}: token revogado, com TTL até o {@code exp}
+ * - {@code auth:nbf:<userId>}: tokens do usuário emitidos antes deste instante
+ *   (segundos Unix) são inválidos; TTL = validade do access token, depois
+ *   disso todo token anterior já expirou
+ *
+ * É o mesmo estado que o stream de eventos entrega aos resource servers que
+ * validam localmente; aqui ele fica no Redis para a introspecção de qualquer nó.
+ */
+@Service
+public class AccessTokenRevocationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessTokenRevocationStore.class);
+
+    private static final String JTI_PREFIX = "auth:revoked:jti:";
+    private static final String NOT_BEFORE_PREFIX = "auth:nbf:";
+    private static final String REVOKED_MARKER = "1";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final CoarseClock coarseClock;
+    private final Duration accessTokenValidity;
+
+    public AccessTokenRevocationStore(ReactiveStringRedisTemplate redisTemplate,
+                                      CoarseClock coarseClock,
+                                      @Value("${jwt.access-token-validity:3600}") long accessTokenValiditySeconds) {
+        this.redisTemplate = redisTemplate;
+        this.coarseClock = coarseClock;
+        this.accessTokenValidity = Duration.ofSeconds(accessTokenValiditySeconds);
+    }
+
+    /**
+     * Marca o {@code jti} como revogado até a expiração do token.
+     */
+    public Mono<Void> revokeJti(String jti, Instant expiracao) {
+        long ttlSeconds = expiracao.getEpochSecond() - coarseClock.epochSecond();
+        // Token já expirado não é aceito de qualquer forma
+        if (jti == null || ttlSeconds <= 0) {
+            return Mono.empty();
+        }
+        return redisTemplate.opsForValue()
+            .set(JTI_PREFIX + jti, REVOKED_MARKER, Duration.ofSeconds(ttlSeconds))
+            .doOnSuccess(stored -> logger.debug("jti revogado registrado: {}", jti))
+            .then();
+    }
+
+    /**
+     * Invalida os tokens do usuário emitidos antes de {@code notBefore}
+     * (segundos inteiros: quem chama arredonda para cima).
+     */
+    public Mono<Void> revokeUserTokens(Long usuarioId, Instant notBefore) {
+        return redisTemplate.opsForValue()
+            .set(NOT_BEFORE_PREFIX + usuarioId, String.valueOf(notBefore.getEpochSecond()), accessTokenValidity)
+            .doOnSuccess(stored -> logger.debug("not-before registrado: usuario={}", usuarioId))
+            .then();
+    }
+
+    /**
+     * Um único MGET: {@code jti} revogado ou emissão antes do not-before do usuário.
+     * Comparação estrita: token emitido no segundo do not-before é de um login
+     * posterior à revogação.
+     */
+    public Mono<Boolean> isRevoked(String jti, String subject, Instant issuedAt) {
+        // Programação defensiva: sem jti ou emissão não há como descartar a revogação
+        if (jti == null || subject == null || issuedAt == null) {
+            return Mono.just(true);
+        }
+        return redisTemplate.opsForValue()
+            .multiGet(List.of(JTI_PREFIX + jti, NOT_BEFORE_PREFIX + subject))
+            .map(values -> values.get(0) != null || notBeforeApplies(values.get(1), issuedAt))
+            .defaultIfEmpty(false);
+    }
+
+    // Métodos auxiliares privados
+
+    private static boolean notBeforeApplies(String notBefore, Instant issuedAt) {
+        if (notBefore == null) {
+            return false;
+        }
+        try {
+            return issuedAt.getEpochSecond() < Long.parseLong(notBefore);
+        } catch (NumberFormatException e) {
+            logger.warn("⚠️ not-before inválido no Redis: {}", notBefore);
+            return false;
+        }
+    }
+}
@@ -3,21 +3,28 @@ package br.tec.facilitaservicos.autenticacao.service;
 import br.tec.facilitaservicos.autenticacao.client.UserServiceClient;
 import br.tec.facilitaservicos.autenticacao.dto.*;
 import br.tec.facilitaservicos.autenticacao.entity.RefreshToken;
+import br.tec.facilitaservicos.autenticacao.events.AuthEventPublisher;
 import br.tec.facilitaservicos.autenticacao.exception.AuthenticationException;
-import br.tec.facilitaservicos.autenticacao.repository.RefreshTokenRepository;
+import br.tec.facilitaservicos.autenticacao.exception.InvalidCredentialsException;
+import br.tec.facilitaservicos.autenticacao.ratelimit.LoginThrottle;
+import br.tec.facilitaservicos.autenticacao.token.PermissionClaims;
+import br.tec.facilitaservicos.compartilhado.repository.RoutingContext;
 import com.nimbusds.jwt.JWTClaimsSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
-import java.security.MessageDigest;
-import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.Base64;
-import java.util.Set;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
 
 /**
  * Serviço principal de autenticação.
@@ -28,35 +35,61 @@ public class AuthService {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
     
+    private static final Duration PERMISSIONS_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration REFRESH_TOKEN_VALIDITY = Duration.ofDays(7);
+    
     private final UserServiceClient userServiceClient;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final JwtService jwtService;
+    private final ReferenceTokenService referenceTokenService;
+    private final AccessTokenRevocationStore revocationStore;
     private final PasswordEncoder passwordEncoder;
-    private final SecureRandom secureRandom;
     private final UserValidationService userValidationService;
+    private final AuthEventPublisher authEventPublisher;
+    private final LoginThrottle loginThrottle;
+    private final Clock clock;
     
     public AuthService(UserServiceClient userServiceClient,
-                      RefreshTokenRepository refreshTokenRepository,
+                      RefreshTokenStore refreshTokenStore,
                       JwtService jwtService,
+                      ReferenceTokenService referenceTokenService,
+                      AccessTokenRevocationStore revocationStore,
                       PasswordEncoder passwordEncoder,
-                      UserValidationService userValidationService) {
+                      UserValidationService userValidationService,
+                      AuthEventPublisher authEventPublisher,
+                      LoginThrottle loginThrottle,
+                      Clock clock) {
         this.userServiceClient = userServiceClient;
-        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenStore = refreshTokenStore;
         this.jwtService = jwtService;
+        this.referenceTokenService = referenceTokenService;
+        this.revocationStore = revocationStore;
         this.passwordEncoder = passwordEncoder;
         this.userValidationService = userValidationService;
-        this.secureRandom = new SecureRandom();
+        this.authEventPublisher = authEventPublisher;
+        this.loginThrottle = loginThrottle;
+        this.clock = clock;
     }
     
     /**
      * Realiza autenticação de usuário.
+     *
+     * Conta ou IP em espera pelo throttling é recusado antes da busca do
+     * usuário e do BCrypt. A tentativa é reservada como falha, de forma
+     * atômica, antes da verificação de senha: sucesso devolve a reserva e erro
+     * que não é de credencial também.
      */
     public Mono<RespostaTokenDTO> authenticate(RequisicaoLoginDTO loginRequest, String clientIp, String userAgent) {
         logger.debug("Iniciando autenticação para usuário: {}", loginRequest.usuario());
         
-        return userServiceClient.findByEmailOrNomeUsuario(loginRequest.usuario())
-            .switchIfEmpty(Mono.error(new AuthenticationException("Usuário não encontrado")))
-            .flatMap(usuario -> validateUserAndGenerateTokens(usuario, loginRequest.senha(), clientIp, userAgent))
+        return loginThrottle.reserve(loginRequest.usuario(), clientIp)
+            .flatMap(attempt -> Mono.defer(() -> userServiceClient.findByEmailOrNomeUsuario(loginRequest.usuario()))
+                .switchIfEmpty(Mono.error(new InvalidCredentialsException("Usuário não encontrado")))
+                .flatMap(usuario -> validateUserAndGenerateTokens(usuario, loginRequest.senha(), clientIp, userAgent,
+                                                                 loginRequest.clienteId()))
+                .onErrorResume(error -> !(error instanceof InvalidCredentialsException), error ->
+                    loginThrottle.release(attempt).then(Mono.error(error)))
+                .flatMap(response -> loginThrottle.recordSuccess(attempt).thenReturn(response)))
             .doOnSuccess(response -> logger.info("Autenticação concluída com sucesso"))
             .doOnError(error -> logger.error("Erro na autenticação: {}", error.getMessage()));
     }
@@ -67,18 +100,19 @@ public class AuthService {
     public Mono<RespostaTokenDTO> refresh(RequisicaoRefreshDTO refreshRequest, String clientIp, String userAgent) {
         logger.debug("Iniciando renovação de token");
         
-        String refreshTokenHash = hashToken(refreshRequest.tokenRenovacao());
-        
-        return refreshTokenRepository.findByTokenHashAndAtivoTrueAndRevogadoFalse(refreshTokenHash)
+        return refreshTokenStore.findActive(refreshRequest.tokenRenovacao())
             .switchIfEmpty(Mono.error(new AuthenticationException("Refresh token inválido")))
-            .filter(refreshToken -> refreshToken.isValido())
+            .filter(refreshToken -> refreshToken.isValido(LocalDateTime.now(clock)))
             .switchIfEmpty(Mono.error(new AuthenticationException("Refresh token expirado")))
             .flatMap(refreshToken -> 
                 userServiceClient.findById(refreshToken.getUsuarioId())
-                    .flatMap(usuario -> renewTokens(usuario, refreshToken, clientIp, userAgent))
+                    .flatMap(usuario -> renewTokens(usuario, refreshToken, clientIp, userAgent,
+                                                    refreshRequest.clienteId()))
             )
             .doOnSuccess(response -> logger.info("Token renovado com sucesso"))
-            .doOnError(error -> logger.error("Erro na renovação: {}", error.getMessage()));
+            .doOnError(error -> logger.error("Erro na renovação: {}", error.getMessage()))
+            // Rotação lê o token recém-emitido: todo o fluxo fica no primário (read-your-writes)
+            .contextWrite(RoutingContext::usePrimary);
     }
     
     /**
@@ -87,25 +121,77 @@ public class AuthService {
     public Mono<RespostaIntrospeccaoDTO> introspect(String token) {
         logger.debug("Iniciando introspecção de token");
         
+        // Token de referência: busca da sessão por hash, sem verificação RSA
+        if (referenceTokenService.isReferenceToken(token)) {
+            return referenceTokenService.introspect(token)
+                .onErrorReturn(RespostaIntrospeccaoDTO.inativo())
+                .doOnNext(response -> logger.debug("Introspecção (referência) concluída: ativo={}", response.ativo()));
+        }
+        
+        // Assinatura válida não basta: jti revogado ou not-before do usuário desativam o token
         return jwtService.validateAccessToken(token)
-            .map(claims -> createActiveIntrospectionResponse(claims))
+            .flatMap(claims -> revocationStore.isRevoked(claims.getJWTID(), claims.getSubject(),
+                                                         toInstant(claims.getIssueTime()))
+                .map(revoked -> revoked ? RespostaIntrospeccaoDTO.inativo() : createActiveIntrospectionResponse(claims)))
             .onErrorReturn(RespostaIntrospeccaoDTO.inativo())
             .doOnNext(response -> logger.debug("Introspecção concluída: ativo={}", response.ativo()));
     }
     
     /**
-     * Revoga refresh token.
+     * Revoga refresh token. Sem refresh token correspondente, um JWT é tratado
+     * como access token (o {@code jti} vai para os resource servers pelo
+     * stream de eventos) e um token opaco como token de referência.
      */
-    public Mono<Void> revoke(String refreshToken) {
+    public Mono<Void> revoke(String token) {
         logger.debug("Iniciando revogação de token");
         
-        String refreshTokenHash = hashToken(refreshToken);
-        
-        return refreshTokenRepository.revokeToken(refreshTokenHash)
+        return refreshTokenStore.revoke(token)
             .doOnSuccess(count -> logger.info("Token revogado: affected_rows={}", count))
+            .flatMap(count -> count != null && count > 0 ? Mono.<Void>empty() : revokeAccessToken(token))
             .then();
     }
     
+    /**
+     * Encerra todas as sessões do dono do refresh token: revoga seus refresh
+     * tokens e tokens de referência e publica not-before para invalidar os
+     * access tokens JWT já emitidos.
+     */
+    public Mono<Integer> revokeAllSessions(String refreshToken) {
+        logger.debug("Iniciando revogação de todas as sessões");
+        
+        return refreshTokenStore.findActive(refreshToken)
+            .switchIfEmpty(Mono.error(new AuthenticationException("Refresh token inválido")))
+            .flatMap(token -> refreshTokenStore.revokeAllForUser(token.getUsuarioId())
+                .zipWith(referenceTokenService.revokeAllForUser(token.getUsuarioId()),
+                         (refreshTokens, referenceTokens) -> refreshTokens + referenceTokens.intValue())
+                .flatMap(count -> notBefore(token.getUsuarioId(), clock.instant()).thenReturn(count))
+                .doOnSuccess(count -> logger.info("Sessões revogadas: usuario={}, affected_rows={}",
+                                                 token.getUsuarioId(), count)))
+            .contextWrite(RoutingContext::usePrimary);
+    }
+    
+    /**
+     * Revogação em lote pedida por serviço interno (limpeza de inativos):
+     * refresh tokens em um único UPDATE, sessões de referência e not-before
+     * de cada usuário. Retorna o total de tokens revogados.
+     */
+    public Mono<Long> revokeUsersSessions(List<Long> usuarioIds) {
+        // Programação defensiva: nada a revogar
+        if (usuarioIds == null || usuarioIds.isEmpty()) {
+            return Mono.just(0L);
+        }
+        
+        Instant agora = clock.instant();
+        return refreshTokenStore.revokeAllForUsers(usuarioIds)
+            .flatMap(refreshTokens -> Flux.fromIterable(usuarioIds)
+                .concatMap(usuarioId -> referenceTokenService.revokeAllForUser(usuarioId)
+                    .flatMap(count -> notBefore(usuarioId, agora).thenReturn(count)))
+                .reduce(refreshTokens.longValue(), Long::sum))
+            .doOnSuccess(count -> logger.info("Sessões revogadas em lote: usuarios={}, tokens={}",
+                                             usuarioIds.size(), count))
+            .contextWrite(RoutingContext::usePrimary);
+    }
+    
     /**
      * Health check do serviço.
      */
@@ -117,11 +203,49 @@ public class AuthService {
     
     // Métodos auxiliares privados
     
+    private static boolean isJwt(String token) {
+        return token != null && token.indexOf('.') > 0;
+    }
+    
+    private Mono<Void> revokeAccessToken(String token) {
+        if (referenceTokenService.isReferenceToken(token)) {
+            return referenceTokenService.revoke(token).then();
+        }
+        if (!isJwt(token)) {
+            return Mono.empty();
+        }
+        return jwtService.validateAccessToken(token)
+            // Token inválido ou expirado já não é aceito: nada a revogar (RFC 7009)
+            .onErrorResume(error -> Mono.empty())
+            .filter(claims -> claims.getJWTID() != null && claims.getExpirationTime() != null)
+            .flatMap(claims -> revocationStore.revokeJti(claims.getJWTID(), claims.getExpirationTime().toInstant())
+                .then(authEventPublisher.tokenRevoked(claims.getJWTID(), claims.getExpirationTime().toInstant()))
+                .doOnSuccess(ignored -> logger.info("Access token revogado: jti={}", claims.getJWTID())));
+    }
+    
+    /**
+     * Not-before do usuário: na introspecção (Redis) e nos resource servers (evento).
+     * Arredondado para o segundo seguinte, já que {@code iat} não tem fração:
+     * tokens com {@code iat} anterior a ele deixam de valer, e um novo login
+     * a partir desse segundo continua válido.
+     */
+    private Mono<Void> notBefore(Long usuarioId, Instant revogadoEm) {
+        Instant notBefore = revogadoEm.truncatedTo(ChronoUnit.SECONDS).equals(revogadoEm)
+            ? revogadoEm
+            : revogadoEm.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        return revocationStore.revokeUserTokens(usuarioId, notBefore)
+            .then(authEventPublisher.userNotBefore(usuarioId, notBefore));
+    }
+    
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+    
     private Mono<RespostaTokenDTO> validateUserAndGenerateTokens(UsuarioDTO usuario, String senha, 
-                                                                 String clientIp, String userAgent) {
+                                                                 String clientIp, String userAgent, String clientId) {
         return userValidationService.validateUser(usuario, senha)
         .subscribeOn(Schedulers.boundedElastic())
-        .flatMap(validatedUser -> generateTokenPair(validatedUser, clientIp, userAgent))
+        .flatMap(validatedUser -> generateTokenPair(validatedUser, clientIp, userAgent, clientId))
         .flatMap(tokenResponse -> 
             // Resetar tentativas falidas após sucesso
             userServiceClient.updateTentativasLoginFalidas(usuario.getId(), 0)
@@ -129,58 +253,91 @@ public class AuthService {
         );
     }
     
-    private Mono<RespostaTokenDTO> generateTokenPair(UsuarioDTO usuario, String clientIp, String userAgent) {
-        return jwtService.generateAccessToken(usuario)
-            .flatMap(accessToken -> {
-                String refreshToken = generateSecureToken();
-                String refreshTokenHash = hashToken(refreshToken);
-                
-                RefreshToken refreshTokenEntity = new RefreshToken(
-                    refreshTokenHash,
-                    usuario.getId(),
-                    LocalDateTime.now().plusDays(7), // 7 dias
-                    clientIp,
-                    userAgent
-                );
-                
-                return refreshTokenRepository.save(refreshTokenEntity)
-                    .map(savedToken -> RespostaTokenDTO.of(
-                        accessToken,
-                        refreshToken,
-                        3600L, // 1 hora
-                        Set.of("ROLE_USER")
-                    ));
-            });
+    private Mono<RespostaTokenDTO> generateTokenPair(UsuarioDTO usuario, String clientIp, String userAgent,
+                                                     String clientId) {
+        return resolvePermissoes(usuario)
+            .flatMap(permissoes -> generateAccessToken(usuario, permissoes, clientId)
+                .flatMap(accessToken -> {
+                    String refreshToken = refreshTokenStore.generate();
+                    LocalDateTime agora = LocalDateTime.now(clock);
+                    
+                    // token_hash/token_mac preenchidos pelo store conforme o modo
+                    RefreshToken refreshTokenEntity = new RefreshToken(
+                        null,
+                        usuario.getId(),
+                        agora.plus(REFRESH_TOKEN_VALIDITY),
+                        clientIp,
+                        userAgent,
+                        agora
+                    );
+                    
+                    return refreshTokenStore.save(refreshToken, refreshTokenEntity)
+                        .map(savedToken -> RespostaTokenDTO.of(
+                            accessToken,
+                            refreshToken,
+                            3600L, // 1 hora
+                            permissoes.roles()
+                        ));
+                }));
     }
     
     private Mono<RespostaTokenDTO> renewTokens(UsuarioDTO usuario, RefreshToken oldToken, 
-                                              String clientIp, String userAgent) {
-        return jwtService.generateAccessToken(usuario)
-            .flatMap(accessToken -> {
-                String newRefreshToken = generateSecureToken();
-                String newRefreshTokenHash = hashToken(newRefreshToken);
-                
-                RefreshToken newTokenEntity = new RefreshToken(
-                    newRefreshTokenHash,
-                    usuario.getId(),
-                    LocalDateTime.now().plusDays(7),
-                    clientIp,
-                    userAgent
-                );
-                newTokenEntity.setFamiliaToken(oldToken.getFamiliaToken());
-                
-                return refreshTokenRepository.save(newTokenEntity)
-                    .flatMap(savedToken -> 
-                        // Desativar o token antigo
-                        refreshTokenRepository.deactivateToken(oldToken.getTokenHash())
-                            .thenReturn(RespostaTokenDTO.of(
-                                accessToken,
-                                newRefreshToken,
-                                3600L,
-                                Set.of("ROLE_USER")
-                            ))
+                                              String clientIp, String userAgent, String clientId) {
+        return resolvePermissoes(usuario)
+            .flatMap(permissoes -> generateAccessToken(usuario, permissoes, clientId)
+                .flatMap(accessToken -> {
+                    String newRefreshToken = refreshTokenStore.generate();
+                    LocalDateTime agora = LocalDateTime.now(clock);
+                    
+                    RefreshToken newTokenEntity = new RefreshToken(
+                        null,
+                        usuario.getId(),
+                        agora.plus(REFRESH_TOKEN_VALIDITY),
+                        clientIp,
+                        userAgent,
+                        agora
                     );
-            });
+                    newTokenEntity.setFamiliaToken(oldToken.getFamiliaToken());
+                    
+                    return refreshTokenStore.save(newRefreshToken, newTokenEntity)
+                        .flatMap(savedToken -> 
+                            // Desativar o token antigo
+                            refreshTokenStore.deactivate(oldToken)
+                                .thenReturn(RespostaTokenDTO.of(
+                                    accessToken,
+                                    newRefreshToken,
+                                    3600L,
+                                    permissoes.roles()
+                                ))
+                        );
+                }));
+    }
+    
+    /**
+     * Formato do access token por cliente: referência opaca para os clientes
+     * configurados (só introspecção, sem RSA), JWT para os demais.
+     */
+    private Mono<String> generateAccessToken(UsuarioDTO usuario, PermissoesUsuarioDTO permissoes, String clientId) {
+        if (referenceTokenService.isReferenceClient(clientId)) {
+            return referenceTokenService.issue(usuario, permissoes);
+        }
+        return jwtService.generateAccessToken(usuario, permissoes);
+    }
+    
+    /**
+     * Resolve papéis/permissões atuais (snapshot do serviço de usuários).
+     * Em caso de falha usa os campos do próprio usuário: o token sai sem
+     * versão e será tratado como desatualizado pelos resource servers.
+     */
+    private Mono<PermissoesUsuarioDTO> resolvePermissoes(UsuarioDTO usuario) {
+        return Mono.defer(() -> userServiceClient.findPermissoes(usuario.getId()))
+            .timeout(PERMISSIONS_TIMEOUT)
+            .onErrorResume(error -> {
+                logger.warn("⚠️ Permissões indisponíveis para usuário {}, usando dados do cadastro: {}",
+                           usuario.getId(), error.getMessage());
+                return Mono.empty();
+            })
+            .defaultIfEmpty(PermissoesUsuarioDTO.fromUsuario(usuario));
     }
     
     private RespostaIntrospeccaoDTO createActiveIntrospectionResponse(JWTClaimsSet claims) {
@@ -191,27 +348,11 @@ public class AuthService {
                 claims.getAudience().get(0),
                 claims.getExpirationTime().getTime() / 1000,
                 claims.getIssueTime().getTime() / 1000,
-                Set.of("ROLE_USER")
+                PermissionClaims.decode(claims).authorities()
             );
         } catch (Exception e) {
             logger.warn("Erro ao criar resposta de introspecção: {}", e.getMessage());
             return RespostaIntrospeccaoDTO.inativo();
         }
     }
-    
-    private String generateSecureToken() {
-        byte[] tokenBytes = new byte[32];
-        secureRandom.nextBytes(tokenBytes);
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes);
-    }
-    
-    private String hashToken(String token) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(token.getBytes("UTF-8"));
-            return Base64.getEncoder().encodeToString(hash);
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao fazer hash do token", e);
-        }
-    }
-}
\ No newline at end of file
+}
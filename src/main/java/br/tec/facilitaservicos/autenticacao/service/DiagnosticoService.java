@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 
 import br.tec.facilitaservicos.autenticacao.dto.DiagnosticoHealthDTO;
 import br.tec.facilitaservicos.autenticacao.dto.DiagnosticoUsuarioDTO;
+import br.tec.facilitaservicos.autenticacao.ratelimit.LoginThrottle;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
@@ -24,20 +25,22 @@ public class DiagnosticoService {
     
     private static final Logger logger = LoggerFactory.getLogger(DiagnosticoService.class);
     
-    private static final String REDIS_USER_PREFIX = "user:login:";
     private static final String VERSION = "1.0.0";
     private final LocalDateTime startTime = LocalDateTime.now();
     
     private final ReactiveStringRedisTemplate redisTemplate;
     private final R2dbcEntityTemplate r2dbcTemplate;
     private final KeyVaultService keyVaultService;
+    private final LoginThrottle loginThrottle;
     
     public DiagnosticoService(ReactiveStringRedisTemplate redisTemplate,
                              R2dbcEntityTemplate r2dbcTemplate,
-                             KeyVaultService keyVaultService) {
+                             KeyVaultService keyVaultService,
+                             LoginThrottle loginThrottle) {
         this.redisTemplate = redisTemplate;
         this.r2dbcTemplate = r2dbcTemplate;
         this.keyVaultService = keyVaultService;
+        this.loginThrottle = loginThrottle;
     }
     
     /**
@@ -60,14 +63,11 @@ public class DiagnosticoService {
                     ));
                 }
                 
-                // Verificar tentativas recentes no Redis
-                String redisKey = REDIS_USER_PREFIX + username;
-                return redisTemplate.opsForValue()
-                    .get(redisKey)
-                    .map(Integer::parseInt)
-                    .defaultIfEmpty(0)
-                    .flatMap(tentativas -> {
-                        boolean bloqueado = tentativas >= 5;
+                // Falhas recentes e bloqueio temporário do throttling de login
+                return loginThrottle.status(username)
+                    .flatMap(throttle -> {
+                        int tentativas = throttle.failures();
+                        boolean bloqueado = throttle.blocked();
                         String status = bloqueado ? "BLOQUEADO" : "ATIVO";
                         
                         List<String> bloqueios = bloqueado ? 
@@ -0,0 +1,120 @@
+package br.tec.facilitaservicos.autenticacao.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * JWK Set já serializado, por versão da chave (kid + chave pública).
+ *
+ * O JSON é gerado uma vez por rotação e guardado como {@code byte[]}: as
+ * requisições de JWKS só comparam a chave atual (cache do Key Vault) com a
+ * da versão guardada e devolvem os mesmos bytes, sem montar {@link RSAKey}
+ * nem serializar de novo. O ETag é forte e derivado do conteúdo, igual em
+ * todos os nós para a mesma chave.
+ */
+@Service
+public class JwkSetCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwkSetCache.class);
+
+    private static final int ETAG_DIGEST_BYTES = 16;
+
+    /**
+     * Versão serializada do JWK Set.
+     *
+     * @param keyId     kid da chave publicada
+     * @param publicKey chave pública da versão (comparada a cada requisição)
+     * @param body      JSON do JWK Set (somente leitura)
+     * @param etag      ETag forte, entre aspas
+     */
+    public record Snapshot(String keyId, RSAPublicKey publicKey, byte[] body, String etag) {
+
+        public String algorithm() {
+            return JWSAlgorithm.RS256.getName();
+        }
+
+        public String keyType() {
+            return "RSA";
+        }
+
+        public String keyUse() {
+            return KeyUse.SIGNATURE.identifier();
+        }
+    }
+
+    private final KeyVaultService keyVaultService;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    public JwkSetCache(KeyVaultService keyVaultService) {
+        this.keyVaultService = keyVaultService;
+    }
+
+    /**
+     * Versão atual do JWK Set; só serializa de novo quando a chave mudou.
+     */
+    public Mono<Snapshot> current() {
+        return keyVaultService.getPublicKey()
+            .zipWith(keyVaultService.getKeyId())
+            .map(tuple -> snapshotFor(tuple.getT1(), tuple.getT2()));
+    }
+
+    // Métodos auxiliares (visíveis no pacote para testes)
+
+    Snapshot snapshotFor(RSAPublicKey publicKey, String keyId) {
+        Snapshot snapshot = current.get();
+        if (snapshot != null && isSameKey(snapshot, publicKey, keyId)) {
+            return snapshot;
+        }
+
+        Snapshot rebuilt = build(publicKey, keyId);
+        current.set(rebuilt);
+        logger.info("🔑 JWK Set serializado: kid={}, etag={}, bytes={}", keyId, rebuilt.etag(), rebuilt.body().length);
+        return rebuilt;
+    }
+
+    private static boolean isSameKey(Snapshot snapshot, RSAPublicKey publicKey, String keyId) {
+        // Identidade primeiro: o cache do Key Vault devolve a mesma instância
+        return snapshot.keyId().equals(keyId)
+            && (snapshot.publicKey() == publicKey || snapshot.publicKey().equals(publicKey));
+    }
+
+    private static Snapshot build(RSAPublicKey publicKey, String keyId) {
+        RSAKey rsaKey = new RSAKey.Builder(publicKey)
+            .keyID(keyId)
+            .algorithm(JWSAlgorithm.RS256)
+            .keyUse(KeyUse.SIGNATURE)
+            .build();
+
+        byte[] body = new JWKSet(rsaKey.toPublicJWK()).toString(true).getBytes(StandardCharsets.UTF_8);
+        return new Snapshot(keyId, publicKey, body, strongEtag(body));
+    }
+
+    /**
+     * ETag forte derivado do conteúdo (SHA-256 truncado), entre aspas.
+     */
+    public static String strongEtag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Arrays.copyOf(digest, ETAG_DIGEST_BYTES)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
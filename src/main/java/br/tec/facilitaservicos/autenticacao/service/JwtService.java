@@ -3,10 +3,12 @@ package br.tec.facilitaservicos.autenticacao.service;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.text.ParseException;
+import java.time.Clock;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,8 +26,12 @@ import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 
+import br.tec.facilitaservicos.autenticacao.configuracao.CoarseClock;
+import br.tec.facilitaservicos.autenticacao.dto.PermissoesUsuarioDTO;
 import br.tec.facilitaservicos.autenticacao.dto.UsuarioDTO;
 import br.tec.facilitaservicos.autenticacao.exception.TokenException;
+import br.tec.facilitaservicos.autenticacao.token.PermissionClaims;
+import br.tec.facilitaservicos.autenticacao.token.TokenPermissions;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -39,6 +45,8 @@ public class JwtService {
     private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
     
     private final KeyVaultService keyVaultService;
+    private final Clock clock;
+    private final CoarseClock coarseClock;
     
     @Value("${jwt.access-token-validity:3600}")
     private long accessTokenValiditySeconds;
@@ -49,14 +57,27 @@ public class JwtService {
     @Value("${jwt.audience:conexao-de-sorte}")
     private String audience;
     
-    public JwtService(KeyVaultService keyVaultService) {
+    @Value("${jwt.permission-claims.max-bytes:1024}")
+    private int permissionClaimsMaxBytes = 1024;
+    
+    public JwtService(KeyVaultService keyVaultService, Clock clock, CoarseClock coarseClock) {
         this.keyVaultService = keyVaultService;
+        this.clock = clock;
+        this.coarseClock = coarseClock;
     }
     
     /**
-     * Gera um access token JWT para o usuário.
+     * Gera um access token JWT para o usuário, com as permissões do próprio DTO.
      */
     public Mono<String> generateAccessToken(UsuarioDTO usuario) {
+        return generateAccessToken(usuario, PermissoesUsuarioDTO.fromUsuario(usuario));
+    }
+    
+    /**
+     * Gera um access token JWT carregando papéis, bitset e versão das permissões
+     * resolvidas, para que resource servers autorizem sem nova consulta.
+     */
+    public Mono<String> generateAccessToken(UsuarioDTO usuario, PermissoesUsuarioDTO permissoes) {
         logger.debug("Gerando access token para usuário: {}", usuario.getId());
         
         return keyVaultService.getPrivateKey()
@@ -65,7 +86,7 @@ public class JwtService {
                 RSAPrivateKey privateKey = tuple.getT1();
                 String keyId = tuple.getT2();
                 
-                return Mono.fromCallable(() -> createAccessToken(usuario, privateKey, keyId))
+                return Mono.fromCallable(() -> createAccessToken(usuario, permissoes, privateKey, keyId))
                     .subscribeOn(Schedulers.boundedElastic());
             })
             .doOnSuccess(token -> logger.debug("Access token gerado com sucesso para usuário: {}", usuario.getId()))
@@ -89,6 +110,13 @@ public class JwtService {
             .doOnError(error -> logger.warn("Erro ao validar access token: {}", error.getMessage()));
     }
     
+    /**
+     * Lê papéis e permissões das claims de um token já validado.
+     */
+    public TokenPermissions readPermissions(JWTClaimsSet claims) {
+        return PermissionClaims.decode(claims);
+    }
+    
     /**
      * Extrai o subject (usuário) do token sem validar assinatura.
      * Usado apenas para fins de logging/debug.
@@ -132,7 +160,7 @@ public class JwtService {
             try {
                 SignedJWT signedJWT = SignedJWT.parse(token);
                 Date expiration = signedJWT.getJWTClaimsSet().getExpirationTime();
-                return expiration != null && expiration.before(new Date());
+                return expiration != null && expiration.getTime() < coarseClock.millis();
             } catch (ParseException e) {
                 logger.warn("Erro ao verificar expiração do token: {}", e.getMessage());
                 return true; // Considera expirado em caso de erro
@@ -142,14 +170,15 @@ public class JwtService {
     
     // Métodos privados auxiliares
     
-    private String createAccessToken(UsuarioDTO usuario, RSAPrivateKey privateKey, String keyId) 
-            throws JOSEException {
+    private String createAccessToken(UsuarioDTO usuario, PermissoesUsuarioDTO permissoes,
+                                     RSAPrivateKey privateKey, String keyId) throws JOSEException {
         
-        Instant now = Instant.now();
+        Instant now = clock.instant();
         Instant expiration = now.plusSeconds(accessTokenValiditySeconds);
         
         // Claims do JWT
-        JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+        JWTClaimsSet.Builder claimsBuilder = new JWTClaimsSet.Builder()
+            .jwtID(UUID.randomUUID().toString())
             .subject(String.valueOf(usuario.getId()))
             .issuer(issuer)
             .audience(audience)
@@ -159,10 +188,11 @@ public class JwtService {
             .claim("email", usuario.getEmail())
             .claim("username", usuario.getUsername())
             .claim("active", usuario.isAtivo())
-            .claim("email_verified", usuario.isEmailVerificado())
-            .claim("authorities", usuario.getRoles())
-            .claim("scope", String.join(" ", usuario.getPermissoes()))
-            .build();
+            .claim("email_verified", usuario.isEmailVerificado());
+        
+        // Papéis, bitset e versão das permissões (respeitando o orçamento de tamanho)
+        PermissionClaims.encode(permissoes, permissionClaimsMaxBytes).forEach(claimsBuilder::claim);
+        JWTClaimsSet claimsSet = claimsBuilder.build();
         
         // Header do JWT
         JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256)
@@ -190,16 +220,18 @@ public class JwtService {
         }
         
         JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
+        // Uma única leitura do relógio em cache para exp/nbf, sem alocar Date
+        long nowMillis = coarseClock.millis();
         
         // Verificar expiração
         Date expiration = claims.getExpirationTime();
-        if (expiration != null && expiration.before(new Date())) {
+        if (expiration != null && expiration.getTime() < nowMillis) {
             throw new TokenException("Token expirado");
         }
         
         // Verificar not before
         Date notBefore = claims.getNotBeforeTime();
-        if (notBefore != null && notBefore.after(new Date())) {
+        if (notBefore != null && notBefore.getTime() > nowMillis) {
             throw new TokenException("Token ainda não é válido");
         }
         
@@ -6,7 +6,6 @@ import java.security.interfaces.RSAPublicKey;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
 import java.time.Duration;
-import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -22,6 +21,7 @@ import com.azure.security.keyvault.secrets.SecretClient;
 import com.azure.security.keyvault.secrets.SecretClientBuilder;
 import com.azure.security.keyvault.secrets.models.KeyVaultSecret;
 
+import br.tec.facilitaservicos.autenticacao.configuracao.CoarseClock;
 import br.tec.facilitaservicos.autenticacao.exception.KeyVaultException;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
@@ -92,10 +92,12 @@ public class KeyVaultService {
     private final SecretClient secretClient;
     private final KeyVaultMonitoringService monitoringService;
     private final ConcurrentMap<String, String> secretCache = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, LocalDateTime> cacheTimestamps = new ConcurrentHashMap<>();
+    // Instante (epoch millis do relógio em cache) em que cada secret foi obtido
+    private final ConcurrentMap<String, Long> cacheTimestamps = new ConcurrentHashMap<>();
+    private final CoarseClock coarseClock;
     
-    // Cache expiry time in minutes
-    private static final long CACHE_EXPIRY_MINUTES = 15;
+    // Cache expiry time
+    private static final long CACHE_EXPIRY_MILLIS = Duration.ofMinutes(15).toMillis();
     
     @Value("${jwt.key-vault.private-key-name:jwt-private-key}")
     private String privateKeyName;
@@ -150,8 +152,10 @@ public class KeyVaultService {
     private static final String FALLBACK_KEY_ID = "fallback-key-id";
     
     public KeyVaultService(@Value("${spring.cloud.azure.keyvault.secret.endpoint:}") String keyVaultUri, 
-                          KeyVaultMonitoringService monitoringService) {
+                          KeyVaultMonitoringService monitoringService,
+                          CoarseClock coarseClock) {
         this.monitoringService = monitoringService;
+        this.coarseClock = coarseClock;
         // Programação defensiva: validação de parâmetros
         SecretClient tempSecretClient = null;
 
@@ -471,10 +475,10 @@ public class KeyVaultService {
         
         // Verificar cache primeiro
         String cachedValue = secretCache.get(secretName);
-        LocalDateTime cacheTime = cacheTimestamps.get(secretName);
+        Long cacheTime = cacheTimestamps.get(secretName);
         
         if (cachedValue != null && cacheTime != null && 
-            Duration.between(cacheTime, LocalDateTime.now()).toMinutes() < CACHE_EXPIRY_MINUTES) {
+            coarseClock.millis() - cacheTime < CACHE_EXPIRY_MILLIS) {
             monitoringService.recordCacheHit(secretName);
             logger.debug("✅ Secret encontrado no cache: {}", secretName);
             return Mono.just(cachedValue);
@@ -498,7 +502,7 @@ public class KeyVaultService {
                 
                 // Atualizar cache
                 secretCache.put(secretName, value);
-                cacheTimestamps.put(secretName, LocalDateTime.now());
+                cacheTimestamps.put(secretName, coarseClock.millis());
                 
                 logger.debug("✅ Secret {} obtido com sucesso", secretName);
                 return value;
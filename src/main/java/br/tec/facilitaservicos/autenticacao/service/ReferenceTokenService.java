@@ -0,0 +1,243 @@
+package br.tec.facilitaservicos.autenticacao.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import br.tec.facilitaservicos.autenticacao.configuracao.CoarseClock;
+import br.tec.facilitaservicos.autenticacao.dto.PermissoesUsuarioDTO;
+import br.tec.facilitaservicos.autenticacao.dto.RespostaIntrospeccaoDTO;
+import br.tec.facilitaservicos.autenticacao.dto.UsuarioDTO;
+import br.tec.facilitaservicos.autenticacao.token.RefreshTokenCodec;
+import br.tec.facilitaservicos.autenticacao.token.ReferenceTokenSession;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Access tokens de referência (opacos) para clientes que não validam JWT e
+ * sempre usam a introspecção ({@code app.access-token.reference.client-ids}).
+ *
+ * A emissão não assina nada: gera 256 bits aleatórios e grava a sessão no
+ * Redis (TTL = validade do access token) e no cache local. A introspecção é
+ * um SHA-256 do token e uma busca por chave, sem RSA. Só o hash do token vai
+ * para o Redis, como nos refresh tokens.
+ *
+ * Revogação: a sessão sai do Redis e do cache local, e o hash é publicado
+ * em {@link #EVICTION_CHANNEL} para que os demais nós removam a cópia local.
+ * Cada usuário tem um índice das suas sessões ({@code auth:ref:user:<id>})
+ * para que encerrar todas as sessões alcance também os tokens de referência.
+ */
+@Service
+public class ReferenceTokenService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceTokenService.class);
+
+    public static final String EVICTION_CHANNEL = "auth:ref:evict";
+
+    private static final String REDIS_PREFIX = "auth:ref:";
+    private static final String USER_INDEX_PREFIX = "auth:ref:user:";
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(30);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RefreshTokenCodec tokenCodec;
+    private final CoarseClock coarseClock;
+    private final Set<String> referenceClientIds;
+    private final long validitySeconds;
+    private final String issuer;
+    private final String audience;
+    private final Cache<String, ReferenceTokenSession> sessions;
+    private volatile Disposable evictionListener;
+
+    public ReferenceTokenService(ReactiveStringRedisTemplate redisTemplate,
+                                 RefreshTokenCodec tokenCodec,
+                                 CoarseClock coarseClock,
+                                 @Value("${app.access-token.reference.client-ids:}") Set<String> referenceClientIds,
+                                 @Value("${app.access-token.reference.l1-maximum-size:10000}") long l1MaximumSize,
+                                 @Value("${jwt.access-token-validity:3600}") long validitySeconds,
+                                 @Value("${jwt.issuer:https://auth.conexaodesorte.com}") String issuer,
+                                 @Value("${jwt.audience:conexao-de-sorte}") String audience) {
+        this.redisTemplate = redisTemplate;
+        this.tokenCodec = tokenCodec;
+        this.coarseClock = coarseClock;
+        this.referenceClientIds = Set.copyOf(referenceClientIds);
+        this.validitySeconds = validitySeconds;
+        this.issuer = issuer;
+        this.audience = audience;
+        this.sessions = Caffeine.newBuilder()
+            .maximumSize(l1MaximumSize)
+            .expireAfter(new SessionExpiry())
+            .build();
+
+        if (!this.referenceClientIds.isEmpty()) {
+            logger.info("🎫 Access tokens de referência para os clientes: {}", this.referenceClientIds);
+        }
+    }
+
+    /**
+     * Cliente configurado para receber tokens de referência em vez de JWT.
+     */
+    public boolean isReferenceClient(String clientId) {
+        return clientId != null && referenceClientIds.contains(clientId);
+    }
+
+    /**
+     * Formato de token de referência: base64url de tamanho fixo, sem os pontos de um JWT.
+     */
+    public boolean isReferenceToken(String token) {
+        return token != null && token.length() == RefreshTokenCodec.TOKEN_LENGTH && token.indexOf('.') < 0;
+    }
+
+    /**
+     * Emite um token de referência com os papéis resolvidos na emissão.
+     */
+    public Mono<String> issue(UsuarioDTO usuario, PermissoesUsuarioDTO permissoes) {
+        String token = tokenCodec.generate();
+        String key = tokenCodec.hash(token);
+        long agora = coarseClock.epochSecond();
+        ReferenceTokenSession session = new ReferenceTokenSession(usuario.getId(), usuario.getUsername(),
+            agora, agora + validitySeconds, permissoes.roles(), permissoes.version());
+        Duration validade = Duration.ofSeconds(validitySeconds);
+        String userIndex = USER_INDEX_PREFIX + usuario.getId();
+
+        return redisTemplate.opsForValue()
+            .set(REDIS_PREFIX + key, session.encode(), validade)
+            // Índice renovado a cada emissão: sobrevive a todas as sessões do usuário
+            .then(redisTemplate.opsForSet().add(userIndex, key))
+            .then(redisTemplate.expire(userIndex, validade))
+            .doOnSuccess(stored -> sessions.put(key, session))
+            .doOnSuccess(stored -> logger.debug("Token de referência emitido para usuário: {}", usuario.getId()))
+            .thenReturn(token);
+    }
+
+    /**
+     * Introspecção (RFC 7662) de um token de referência: cache local, depois Redis.
+     */
+    public Mono<RespostaIntrospeccaoDTO> introspect(String token) {
+        String key = tokenCodec.hash(token);
+        ReferenceTokenSession local = sessions.getIfPresent(key);
+        Mono<ReferenceTokenSession> session = local != null
+            ? Mono.just(local)
+            : redisTemplate.opsForValue().get(REDIS_PREFIX + key)
+                .map(ReferenceTokenSession::decode)
+                .doOnNext(found -> sessions.put(key, found));
+
+        return session
+            .filter(found -> found.expiracao() > coarseClock.epochSecond())
+            .map(found -> RespostaIntrospeccaoDTO.ativo(
+                String.valueOf(found.userId()),
+                issuer,
+                audience,
+                found.expiracao(),
+                found.emissao(),
+                found.autoridades()))
+            .defaultIfEmpty(RespostaIntrospeccaoDTO.inativo());
+    }
+
+    /**
+     * Revoga um token de referência (RFC 7009). {@code false} quando a sessão
+     * já não existia.
+     */
+    public Mono<Boolean> revoke(String token) {
+        String key = tokenCodec.hash(token);
+        return redisTemplate.delete(REDIS_PREFIX + key)
+            .flatMap(deleted -> evict(List.of(key)).thenReturn(deleted > 0))
+            .doOnSuccess(revoked -> logger.info("Token de referência revogado: existia={}", revoked));
+    }
+
+    /**
+     * Revoga todas as sessões de referência do usuário. Retorna quantas
+     * ainda existiam no Redis.
+     */
+    public Mono<Long> revokeAllForUser(Long usuarioId) {
+        String userIndex = USER_INDEX_PREFIX + usuarioId;
+        return redisTemplate.opsForSet().members(userIndex)
+            .collectList()
+            .flatMap(keys -> keys.isEmpty()
+                ? Mono.just(0L)
+                : redisTemplate.delete(Flux.fromIterable(keys).map(key -> REDIS_PREFIX + key))
+                    // Remove só o que foi lido: emissões concorrentes continuam indexadas
+                    .flatMap(deleted -> redisTemplate.opsForSet().remove(userIndex, keys.toArray())
+                        .then(evict(keys))
+                        .thenReturn(deleted)))
+            .doOnSuccess(count -> logger.info("Tokens de referência revogados: usuario={}, sessoes={}", usuarioId, count));
+    }
+
+    @Override
+    public void start() {
+        // Sem clientes de referência não há sessões a invalidar
+        if (referenceClientIds.isEmpty()) {
+            return;
+        }
+        evictionListener = Flux.defer(() -> redisTemplate.listenToChannel(EVICTION_CHANNEL))
+            .doOnError(error -> logger.warn("⚠️ Canal de revogação de tokens de referência falhou, reconectando: {}",
+                                            error.getMessage()))
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(MAX_RETRY_BACKOFF))
+            .subscribe(message -> sessions.invalidate(message.getMessage()));
+    }
+
+    @Override
+    public void stop() {
+        Disposable listener = evictionListener;
+        evictionListener = null;
+        if (listener != null) {
+            listener.dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return evictionListener != null;
+    }
+
+    // Métodos auxiliares privados
+
+    /**
+     * Remove as sessões do cache local e avisa os demais nós.
+     */
+    private Mono<Void> evict(List<String> keys) {
+        sessions.invalidateAll(keys);
+        return Flux.fromIterable(keys)
+            .concatMap(key -> redisTemplate.convertAndSend(EVICTION_CHANNEL, key))
+            .then()
+            // O Redis já não tem a sessão; um nó que perder o aviso a serve até expirar
+            .onErrorResume(error -> {
+                logger.warn("⚠️ Falha ao publicar revogação de token de referência: {}", error.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    /**
+     * Entrada local expira junto com o token.
+     */
+    private final class SessionExpiry implements Expiry<String, ReferenceTokenSession> {
+
+        @Override
+        public long expireAfterCreate(String key, ReferenceTokenSession session, long currentTime) {
+            return TimeUnit.SECONDS.toNanos(Math.max(0L, session.expiracao() - coarseClock.epochSecond()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, ReferenceTokenSession session, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, session, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, ReferenceTokenSession session, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package br.tec.facilitaservicos.autenticacao.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.tec.facilitaservicos.autenticacao.entity.RefreshToken;
+import br.tec.facilitaservicos.autenticacao.repository.RefreshTokenRepository;
+import br.tec.facilitaservicos.autenticacao.token.RefreshTokenCodec;
+import reactor.core.publisher.Mono;
+
+/**
+ * Persistência e busca de refresh tokens pelo valor em claro, escondendo
+ * como o token é indexado no banco ({@code app.refresh-token.hash.mode}):
+ *
+ * - SHA256 (padrão): só {@code token_hash}, SHA-256 em Base64 (VARCHAR)
+ * - DUAL: grava {@code token_hash} e {@code token_mac}; busca pelo MAC
+ * - HMAC: grava só {@code token_mac}, HMAC-SHA256 com pepper do Key Vault
+ *   em {@code BINARY(32)}: chave de índice 4x menor e comparação binária
+ *
+ * Migração online: SHA256 → DUAL → HMAC. Enquanto houver tokens gravados
+ * sem MAC (até a validade do refresh token após sair de SHA256), a busca
+ * e a revogação caem para {@code token_hash} ({@code legacy-fallback}).
+ */
+@Service
+public class RefreshTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenStore.class);
+
+    // Mesmo valor de Reactor para cache sem expiração
+    private static final Duration CACHE_FOREVER = Duration.ofMillis(Long.MAX_VALUE);
+    private static final int MIN_PEPPER_BYTES = 32;
+    private static final String KEY_VAULT_FALLBACK_PREFIX = "fallback-";
+
+    public enum HashMode {
+        SHA256,
+        DUAL,
+        HMAC
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenCodec refreshTokenCodec;
+    private final HashMode mode;
+    private final boolean legacyFallback;
+    private final Mono<SecretKey> pepper;
+
+    public RefreshTokenStore(RefreshTokenRepository refreshTokenRepository,
+                             RefreshTokenCodec refreshTokenCodec,
+                             KeyVaultService keyVaultService,
+                             @Value("${app.refresh-token.hash.mode:SHA256}") HashMode mode,
+                             @Value("${app.refresh-token.hash.pepper-secret-name:refresh-token-pepper}") String pepperSecretName,
+                             @Value("${app.refresh-token.hash.legacy-fallback:true}") boolean legacyFallback) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenCodec = refreshTokenCodec;
+        this.mode = mode;
+        this.legacyFallback = legacyFallback;
+        // Pepper lido uma vez; falhas não ficam em cache para a próxima requisição tentar de novo
+        this.pepper = Mono.defer(() -> keyVaultService.getSecret(pepperSecretName))
+            .map(secret -> toKey(pepperSecretName, secret))
+            .cache(key -> CACHE_FOREVER, error -> Duration.ZERO, () -> Duration.ZERO);
+
+        logger.info("🔑 Refresh tokens indexados em modo {} (fallback para token_hash: {})", mode, legacyFallback);
+    }
+
+    /**
+     * Gera um refresh token novo (valor em claro entregue ao cliente).
+     */
+    public String generate() {
+        return refreshTokenCodec.generate();
+    }
+
+    /**
+     * Preenche {@code token_hash}/{@code token_mac} conforme o modo e grava a entidade.
+     */
+    public Mono<RefreshToken> save(String token, RefreshToken entity) {
+        if (mode == HashMode.SHA256) {
+            entity.setTokenHash(refreshTokenCodec.hash(token));
+            return refreshTokenRepository.save(entity);
+        }
+        return mac(token).flatMap(mac -> {
+            entity.setTokenMac(mac);
+            entity.setTokenHash(mode == HashMode.DUAL ? refreshTokenCodec.hash(token) : null);
+            return refreshTokenRepository.save(entity);
+        });
+    }
+
+    /**
+     * Busca o refresh token ativo (não revogado) correspondente ao valor em claro.
+     */
+    public Mono<RefreshToken> findActive(String token) {
+        if (mode == HashMode.SHA256) {
+            return refreshTokenRepository.findByTokenHashAndAtivoTrueAndRevogadoFalse(refreshTokenCodec.hash(token));
+        }
+        Mono<RefreshToken> byMac = mac(token)
+            .flatMap(refreshTokenRepository::findByTokenMacAndAtivoTrueAndRevogadoFalse);
+        if (!legacyFallback) {
+            return byMac;
+        }
+        return byMac.switchIfEmpty(Mono.defer(() ->
+            refreshTokenRepository.findByTokenHashAndAtivoTrueAndRevogadoFalse(refreshTokenCodec.hash(token))
+                .doOnNext(found -> logger.debug("Refresh token {} encontrado por token_hash (sem MAC)", found.getId()))));
+    }
+
+    /**
+     * Desativa um token já carregado (rotação), pela coluna com que foi gravado.
+     */
+    public Mono<Integer> deactivate(RefreshToken refreshToken) {
+        if (refreshToken.getTokenHash() != null) {
+            return refreshTokenRepository.deactivateToken(refreshToken.getTokenHash());
+        }
+        return refreshTokenRepository.deactivateTokenByMac(refreshToken.getTokenMac());
+    }
+
+    /**
+     * Revoga o token correspondente ao valor em claro; retorna as linhas afetadas.
+     */
+    public Mono<Integer> revoke(String token) {
+        if (mode == HashMode.SHA256) {
+            return refreshTokenRepository.revokeToken(refreshTokenCodec.hash(token));
+        }
+        Mono<Integer> byMac = mac(token).flatMap(refreshTokenRepository::revokeTokenByMac);
+        if (!legacyFallback) {
+            return byMac;
+        }
+        return byMac.flatMap(count -> count > 0
+            ? Mono.just(count)
+            : refreshTokenRepository.revokeToken(refreshTokenCodec.hash(token)));
+    }
+
+    /**
+     * Revoga todos os refresh tokens do usuário; retorna as linhas afetadas.
+     */
+    public Mono<Integer> revokeAllForUser(Long usuarioId) {
+        return refreshTokenRepository.revokeAllUserTokens(usuarioId);
+    }
+
+    /**
+     * Revoga em um único UPDATE os refresh tokens de vários usuários.
+     */
+    public Mono<Integer> revokeAllForUsers(Collection<Long> usuarioIds) {
+        return refreshTokenRepository.revokeAllUsersTokens(usuarioIds);
+    }
+
+    public HashMode getMode() {
+        return mode;
+    }
+
+    // Métodos auxiliares privados
+
+    private Mono<byte[]> mac(String token) {
+        return pepper.map(key -> refreshTokenCodec.mac(token, key));
+    }
+
+    /**
+     * Valida o pepper: sem ele (ou com o valor de fallback do Key Vault
+     * indisponível) os MACs gravados seriam recalculáveis por qualquer um.
+     */
+    private static SecretKey toKey(String secretName, String secret) {
+        // Programação defensiva: pepper real e com tamanho mínimo
+        if (secret == null || secret.startsWith(KEY_VAULT_FALLBACK_PREFIX)) {
+            throw new IllegalStateException("Pepper de refresh token indisponível no Key Vault: " + secretName);
+        }
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < MIN_PEPPER_BYTES) {
+            throw new IllegalStateException("Pepper de refresh token deve ter ao menos " + MIN_PEPPER_BYTES + " bytes: " + secretName);
+        }
+        return new SecretKeySpec(bytes, RefreshTokenCodec.MAC_ALGORITHM);
+    }
+}
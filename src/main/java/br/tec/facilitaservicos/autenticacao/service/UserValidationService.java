@@ -4,6 +4,7 @@ import br.tec.facilitaservicos.autenticacao.dto.UsuarioDTO;
 import br.tec.facilitaservicos.autenticacao.dto.TokenValidationResponse;
 import br.tec.facilitaservicos.autenticacao.dto.UserStatusDTO;
 import br.tec.facilitaservicos.autenticacao.exception.AuthenticationException;
+import br.tec.facilitaservicos.autenticacao.exception.InvalidCredentialsException;
 import br.tec.facilitaservicos.autenticacao.client.UserServiceClient;
 import com.nimbusds.jwt.JWTClaimsSet;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -43,7 +44,7 @@ public class UserValidationService {
         return Mono.fromCallable(() -> {
             // Validar senha
             if (!passwordEncoder.matches(senha, usuario.getPassword())) {
-                throw new AuthenticationException("Senha inválida");
+                throw new InvalidCredentialsException("Senha inválida");
             }
 
             // Validar estado do usuário
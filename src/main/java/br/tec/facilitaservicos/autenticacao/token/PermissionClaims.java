@@ -0,0 +1,164 @@
+package br.tec.facilitaservicos.autenticacao.token;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import br.tec.facilitaservicos.autenticacao.dto.PermissoesUsuarioDTO;
+import br.tec.facilitaservicos.usuario.dto.Permissao;
+
+/**
+ * Codificação compacta de papéis e permissões nas claims do access token.
+ *
+ * Claims:
+ * - {@value #CLAIM_AUTHORITIES}: papéis (lista ordenada)
+ * - {@value #CLAIM_PERMISSION_BITS}: bitset de {@link Permissao}, big-endian sem zeros à esquerda, base64url
+ * - {@value #CLAIM_PERMISSION_VERSION}: versão das permissões na emissão
+ * - {@value #CLAIM_SCOPE}: códigos das permissões separados por espaço (compatibilidade)
+ * - {@value #CLAIM_TRUNCATED}: presente quando os papéis foram cortados
+ *
+ * Orçamento de tamanho: se o JSON dessas claims exceder o limite, o
+ * {@code scope} textual sai primeiro (os bits já carregam a mesma informação);
+ * se ainda exceder, os papéis são cortados e o token é marcado como truncado.
+ */
+public final class PermissionClaims {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionClaims.class);
+
+    public static final String CLAIM_AUTHORITIES = "authorities";
+    public static final String CLAIM_SCOPE = "scope";
+    public static final String CLAIM_PERMISSION_BITS = "perm";
+    public static final String CLAIM_PERMISSION_VERSION = "pv";
+    public static final String CLAIM_TRUNCATED = "perm_trunc";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private PermissionClaims() {
+    }
+
+    /**
+     * Monta as claims de autorização respeitando o orçamento (em bytes de JSON).
+     * Orçamento não positivo desativa o limite.
+     */
+    public static Map<String, Object> encode(PermissoesUsuarioDTO permissoes, int maxBytes) {
+        long bits = toBits(permissoes.permissions());
+        List<String> authorities = new ArrayList<>(new TreeSet<>(permissoes.roles()));
+
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put(CLAIM_AUTHORITIES, authorities);
+        claims.put(CLAIM_PERMISSION_BITS, encodeBits(bits));
+        if (permissoes.version() != null) {
+            claims.put(CLAIM_PERMISSION_VERSION, permissoes.version());
+        }
+        claims.put(CLAIM_SCOPE, String.join(" ", new TreeSet<>(permissoes.permissions())));
+
+        if (maxBytes <= 0 || sizeOf(claims) <= maxBytes) {
+            return claims;
+        }
+
+        claims.remove(CLAIM_SCOPE);
+        if (sizeOf(claims) <= maxBytes) {
+            return claims;
+        }
+
+        claims.put(CLAIM_TRUNCATED, true);
+        List<String> kept = new ArrayList<>(authorities);
+        claims.put(CLAIM_AUTHORITIES, kept);
+        while (!kept.isEmpty() && sizeOf(claims) > maxBytes) {
+            kept.remove(kept.size() - 1);
+        }
+        logger.warn("⚠️ Claims de autorização acima do orçamento: userId={}, papéis mantidos={}/{}",
+                   permissoes.userId(), kept.size(), authorities.size());
+        return claims;
+    }
+
+    /**
+     * Lê as claims de autorização de um token já validado.
+     */
+    public static TokenPermissions decode(JWTClaimsSet claims) {
+        Set<String> authorities = new LinkedHashSet<>();
+        long bits = 0L;
+        boolean truncated = false;
+        String version = null;
+
+        try {
+            List<String> list = claims.getStringListClaim(CLAIM_AUTHORITIES);
+            if (list != null) {
+                authorities.addAll(list);
+            }
+
+            String encodedBits = claims.getStringClaim(CLAIM_PERMISSION_BITS);
+            if (encodedBits != null) {
+                bits = decodeBits(encodedBits);
+            } else {
+                // Token emitido antes das claims compactas: apenas o scope textual
+                String scope = claims.getStringClaim(CLAIM_SCOPE);
+                if (scope != null && !scope.isBlank()) {
+                    bits = toBits(List.of(scope.trim().split("\\s+")));
+                }
+            }
+
+            version = claims.getStringClaim(CLAIM_PERMISSION_VERSION);
+            Boolean flag = claims.getBooleanClaim(CLAIM_TRUNCATED);
+            truncated = flag != null && flag;
+        } catch (ParseException | IllegalArgumentException e) {
+            logger.warn("⚠️ Claims de autorização inválidas no token: {}", e.getMessage());
+        }
+
+        return new TokenPermissions(authorities, bits, version, truncated);
+    }
+
+    static String encodeBits(long bits) {
+        int length = Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(bits) + 7) / 8);
+        byte[] bytes = new byte[length];
+        long value = bits;
+        for (int i = length - 1; i >= 0; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+        return ENCODER.encodeToString(bytes);
+    }
+
+    static long decodeBits(String encoded) {
+        byte[] bytes = DECODER.decode(encoded);
+        if (bytes.length > Long.BYTES) {
+            throw new IllegalArgumentException("Bitset de permissões maior que 64 bits");
+        }
+        long bits = 0L;
+        for (byte b : bytes) {
+            bits = (bits << 8) | (b & 0xff);
+        }
+        return bits;
+    }
+
+    // Métodos auxiliares privados
+
+    private static long toBits(Iterable<String> codigos) {
+        long bits = 0L;
+        for (String codigo : codigos) {
+            Permissao permissao = Permissao.fromCodigo(codigo);
+            if (permissao != null) {
+                bits |= permissao.mask();
+            }
+        }
+        return (bits & Permissao.ALL.mask()) != 0 ? bits | Permissao.ALL_MASK : bits;
+    }
+
+    private static int sizeOf(Map<String, Object> claims) {
+        return JSONObjectUtils.toJSONString(claims).getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,67 @@
+package br.tec.facilitaservicos.autenticacao.token;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Sessão de um access token de referência (opaco): o que a introspecção
+ * devolve, guardado no Redis e no cache local em vez de ir assinado no token.
+ *
+ * Serializada em uma linha compacta
+ * {@code 1|userId|iat|exp|papéis separados por espaço|versão|username};
+ * o username vai por último por ser o único campo livre.
+ *
+ * @param userId      id do usuário (subject)
+ * @param username    nome de usuário
+ * @param emissao     emissão em segundos Unix
+ * @param expiracao   expiração em segundos Unix
+ * @param autoridades papéis do usuário na emissão
+ * @param version     versão das permissões na emissão ({@code null} sem snapshot)
+ */
+public record ReferenceTokenSession(long userId, String username, long emissao, long expiracao,
+                                    Set<String> autoridades, String version) {
+
+    private static final String FORMAT_VERSION = "1";
+    private static final char SEPARATOR = '|';
+    private static final int FIELDS = 7;
+
+    public ReferenceTokenSession {
+        autoridades = autoridades != null ? Set.copyOf(autoridades) : Set.of();
+    }
+
+    public String encode() {
+        return new StringBuilder(64)
+            .append(FORMAT_VERSION).append(SEPARATOR)
+            .append(userId).append(SEPARATOR)
+            .append(emissao).append(SEPARATOR)
+            .append(expiracao).append(SEPARATOR)
+            .append(String.join(" ", new TreeSet<>(autoridades))).append(SEPARATOR)
+            .append(version != null ? version : "").append(SEPARATOR)
+            .append(username != null ? username : "")
+            .toString();
+    }
+
+    public static ReferenceTokenSession decode(String encoded) {
+        // Programação defensiva: valor do Redis em formato conhecido
+        if (encoded == null) {
+            throw new IllegalArgumentException("Sessão de token de referência não pode ser nula");
+        }
+        String[] fields = encoded.split("\\|", FIELDS);
+        if (fields.length != FIELDS || !FORMAT_VERSION.equals(fields[0])) {
+            throw new IllegalArgumentException("Sessão de token de referência em formato desconhecido");
+        }
+
+        Set<String> autoridades = fields[4].isEmpty()
+            ? Set.of()
+            : new LinkedHashSet<>(Arrays.asList(fields[4].split(" ")));
+        return new ReferenceTokenSession(
+            Long.parseLong(fields[1]),
+            fields[6].isEmpty() ? null : fields[6],
+            Long.parseLong(fields[2]),
+            Long.parseLong(fields[3]),
+            autoridades,
+            fields[5].isEmpty() ? null : fields[5]);
+    }
+}
@@ -0,0 +1,208 @@
+package br.tec.facilitaservicos.autenticacao.token;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.DrbgParameters;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Geração e hash de refresh tokens no caminho quente de login, refresh e revogação.
+ *
+ * Cada thread tem seu próprio {@link MessageDigest} SHA-256, seu DRBG
+ * (NIST SP 800-90A, semeado uma vez pela fonte do sistema e sem lock entre
+ * threads) e buffers de trabalho: gerar ou fazer hash de um token aloca só a
+ * {@code String} do resultado. As threads do Reactor são um conjunto fixo,
+ * então o custo dos thread-locals é limitado.
+ *
+ * Formatos (inalterados, compatíveis com os hashes já gravados):
+ * - token: 32 bytes aleatórios em base64url sem padding (43 caracteres)
+ * - hash: SHA-256 dos bytes UTF-8 do token em Base64 padrão (44 caracteres)
+ * - mac: HMAC-SHA256 (pepper) sobre o SHA-256 do token, 32 bytes crus para a
+ *   coluna {@code token_mac BINARY(32)}
+ */
+@Component
+public class RefreshTokenCodec {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenCodec.class);
+
+    static final int TOKEN_BYTES = 32;
+    public static final int TOKEN_LENGTH = 43;
+    static final int HASH_LENGTH = 44;
+    static final int MAC_BYTES = 32;
+    public static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private static final int SHA256_BYTES = 32;
+    private static final int DRBG_STRENGTH = 256;
+    // Tokens emitidos por nós têm 43 caracteres; sobra para entradas maiores sem realocar
+    private static final int INPUT_BUFFER_BYTES = 128;
+
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Encoder HASH_ENCODER = Base64.getEncoder();
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * Gera um refresh token novo (base64url, 256 bits de entropia).
+     */
+    public String generate() {
+        Buffers buffers = BUFFERS.get();
+        buffers.random.nextBytes(buffers.tokenBytes);
+        TOKEN_ENCODER.encode(buffers.tokenBytes, buffers.tokenChars);
+        return new String(buffers.tokenChars, 0, TOKEN_LENGTH, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Hash SHA-256 do token em Base64, no formato da coluna {@code token_hash}.
+     */
+    public String hash(String token) {
+        // Programação defensiva: token obrigatório
+        if (token == null) {
+            throw new IllegalArgumentException("Token não pode ser nulo");
+        }
+
+        Buffers buffers = BUFFERS.get();
+        digestInto(token, buffers);
+        HASH_ENCODER.encode(buffers.hashBytes, buffers.hashChars);
+        return new String(buffers.hashChars, 0, HASH_LENGTH, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * HMAC-SHA256 do SHA-256 do token com a chave (pepper) informada, no
+     * formato da coluna {@code token_mac}. Sem a chave, um dump do banco não
+     * permite testar tokens candidatos offline.
+     */
+    public byte[] mac(String token, SecretKey key) {
+        // Programação defensiva: token e chave obrigatórios
+        if (token == null) {
+            throw new IllegalArgumentException("Token não pode ser nulo");
+        }
+        if (key == null) {
+            throw new IllegalArgumentException("Chave do HMAC não pode ser nula");
+        }
+
+        Buffers buffers = BUFFERS.get();
+        digestInto(token, buffers);
+        Mac mac = buffers.macFor(key);
+        mac.update(buffers.hashBytes, 0, SHA256_BYTES);
+        byte[] result = new byte[MAC_BYTES];
+        try {
+            mac.doFinal(result, 0);
+        } catch (ShortBufferException e) {
+            mac.reset();
+            throw new IllegalStateException("Erro ao calcular HMAC do token", e);
+        }
+        return result;
+    }
+
+    // Métodos auxiliares privados
+
+    /**
+     * SHA-256 dos bytes UTF-8 do token em {@code buffers.hashBytes}.
+     */
+    private static void digestInto(String token, Buffers buffers) {
+        MessageDigest digest = buffers.digest;
+        int length = token.length();
+        if (length <= INPUT_BUFFER_BYTES && isAscii(token, length)) {
+            // ASCII: o byte UTF-8 é o próprio caractere, sem getBytes()
+            byte[] input = buffers.input;
+            for (int i = 0; i < length; i++) {
+                input[i] = (byte) token.charAt(i);
+            }
+            digest.update(input, 0, length);
+        } else {
+            digest.update(token.getBytes(StandardCharsets.UTF_8));
+        }
+
+        try {
+            digest.digest(buffers.hashBytes, 0, SHA256_BYTES);
+        } catch (DigestException e) {
+            digest.reset();
+            throw new IllegalStateException("Erro ao fazer hash do token", e);
+        }
+    }
+
+    private static boolean isAscii(String value, int length) {
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+
+    /**
+     * DRBG por thread, personalizado com o id da thread para que instâncias
+     * semeadas no mesmo instante não compartilhem estado inicial.
+     */
+    private static SecureRandom newDrbg() {
+        byte[] personalization = ByteBuffer.allocate(Long.BYTES).putLong(Thread.currentThread().threadId()).array();
+        try {
+            return SecureRandom.getInstance("DRBG",
+                DrbgParameters.instantiation(DRBG_STRENGTH, DrbgParameters.Capability.NONE, personalization));
+        } catch (NoSuchAlgorithmException e) {
+            logger.warn("⚠️ DRBG indisponível, usando SecureRandom padrão por thread: {}", e.getMessage());
+            return new SecureRandom();
+        }
+    }
+
+    private static Mac newHmac() {
+        try {
+            return Mac.getInstance(MAC_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(MAC_ALGORITHM + " indisponível na JVM", e);
+        }
+    }
+
+    private static final class Buffers {
+        private final MessageDigest digest = newSha256();
+        private final SecureRandom random = newDrbg();
+        private final byte[] tokenBytes = new byte[TOKEN_BYTES];
+        private final byte[] tokenChars = new byte[TOKEN_LENGTH];
+        private final byte[] input = new byte[INPUT_BUFFER_BYTES];
+        private final byte[] hashBytes = new byte[SHA256_BYTES];
+        private final byte[] hashChars = new byte[HASH_LENGTH];
+        private Mac mac;
+        private SecretKey macKey;
+
+        /**
+         * {@link Mac} da thread inicializado com a chave; só reinicializa
+         * quando a chave muda (o pepper é o mesmo durante toda a execução).
+         */
+        private Mac macFor(SecretKey key) {
+            if (mac == null) {
+                mac = newHmac();
+            }
+            if (key != macKey) {
+                try {
+                    mac.init(key);
+                } catch (InvalidKeyException e) {
+                    macKey = null;
+                    throw new IllegalArgumentException("Chave inválida para " + MAC_ALGORITHM, e);
+                }
+                macKey = key;
+            }
+            return mac;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package br.tec.facilitaservicos.autenticacao.token;
+
+import java.util.Set;
+
+import br.tec.facilitaservicos.usuario.dto.Permissao;
+
+/**
+ * Papéis e permissões lidos de um access token já validado.
+ *
+ * Permite que resource servers autorizem localmente, sem consultar o serviço
+ * de usuários. Se {@link #truncated()} for verdadeiro o token não coube no
+ * orçamento de tamanho e a lista de papéis está incompleta: nesse caso a
+ * decisão deve ser confirmada em {@code /rest/v1/users/{id}/permissions}.
+ *
+ * @param authorities    papéis presentes no token
+ * @param permissionBits bitset de {@link Permissao}
+ * @param version        versão das permissões na emissão ({@code null} em tokens antigos)
+ * @param truncated      lista de papéis cortada pelo orçamento de tamanho
+ */
+public record TokenPermissions(Set<String> authorities, long permissionBits, String version, boolean truncated) {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    public TokenPermissions {
+        authorities = authorities != null ? Set.copyOf(authorities) : Set.of();
+    }
+
+    public boolean hasPermission(Permissao permissao) {
+        return (permissionBits & permissao.mask()) != 0;
+    }
+
+    /**
+     * Verifica papel aceitando {@code ADMIN} ou {@code ROLE_ADMIN}.
+     */
+    public boolean hasAuthority(String authority) {
+        if (authority == null) {
+            return false;
+        }
+        if (authorities.contains(authority)) {
+            return true;
+        }
+        return authority.startsWith(ROLE_PREFIX)
+            ? authorities.contains(authority.substring(ROLE_PREFIX.length()))
+            : authorities.contains(ROLE_PREFIX + authority);
+    }
+
+    /**
+     * Token emitido com permissões diferentes da versão atual (ou sem versão).
+     */
+    public boolean isStale(String currentVersion) {
+        return version == null || !version.equalsIgnoreCase(currentVersion);
+    }
+}
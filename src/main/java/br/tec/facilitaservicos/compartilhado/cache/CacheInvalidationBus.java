@@ -0,0 +1,88 @@
+package br.tec.facilitaservicos.compartilhado.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Barramento de invalidação do L1 entre nós via Redis pub/sub.
+ *
+ * Cada escrita/remoção em um {@link TwoLevelCache} publica uma mensagem no
+ * canal {@link #CHANNEL}; os demais nós removem a entrada do seu L1 e passam
+ * a ler o valor atualizado do L2 na próxima consulta. Mensagens emitidas pelo
+ * próprio nó são ignoradas.
+ *
+ * Formato da mensagem: {@code <nodeId>|<cacheName>|<chave>} (chave vazia = clear).
+ */
+public class CacheInvalidationBus implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    public static final String CHANNEL = "cache:l1:invalidation";
+
+    private static final String SEPARATOR = "|";
+    private static final String CLEAR_MARKER = "";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<TwoLevelCacheManager> managers = new CopyOnWriteArrayList<>();
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Registra um cache manager para receber invalidações remotas.
+     */
+    public void register(TwoLevelCacheManager manager) {
+        managers.add(manager);
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(cacheName, key);
+    }
+
+    public void publishClear(String cacheName) {
+        publish(cacheName, CLEAR_MARKER);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = payload.split("\\" + SEPARATOR, 3);
+        if (parts.length < 3) {
+            logger.warn("⚠️ Mensagem de invalidação de cache malformada ignorada");
+            return;
+        }
+        if (nodeId.equals(parts[0])) {
+            return;
+        }
+
+        String cacheName = parts[1];
+        String key = CLEAR_MARKER.equals(parts[2]) ? null : parts[2];
+        for (TwoLevelCacheManager manager : managers) {
+            manager.invalidateLocal(cacheName, key);
+        }
+        logger.debug("🧹 Invalidação L1 recebida: cache={}, key={}", cacheName, key != null ? key : "*");
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private void publish(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + SEPARATOR + cacheName + SEPARATOR + key);
+        } catch (RuntimeException e) {
+            // Falha de publicação não invalida a escrita: L1 remoto expira pelo TTL curto
+            logger.warn("⚠️ Falha ao publicar invalidação do cache {}: {}", cacheName, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package br.tec.facilitaservicos.compartilhado.cache;
+
+import java.time.Duration;
+
+/**
+ * Especificação do cache local (L1/Caffeine) de um cache de dois níveis.
+ *
+ * @param maximumSize  número máximo de entradas mantidas em memória
+ * @param ttl          tempo máximo de vida da entrada no L1 (após escrita)
+ * @param refreshAfter tempo a partir do qual a entrada é servida "stale" enquanto
+ *                     é recarregada do L2 em background (stale-while-revalidate)
+ */
+public record L1CacheSpec(long maximumSize, Duration ttl, Duration refreshAfter) {
+
+    public L1CacheSpec {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize deve ser positivo");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl deve ser positivo");
+        }
+        // Refresh só faz sentido se ocorrer antes da expiração
+        if (refreshAfter != null && (refreshAfter.isNegative() || refreshAfter.isZero() || refreshAfter.compareTo(ttl) >= 0)) {
+            refreshAfter = null;
+        }
+    }
+
+    /**
+     * Cria uma especificação com refresh em metade do TTL.
+     */
+    public static L1CacheSpec of(long maximumSize, Duration ttl) {
+        return new L1CacheSpec(maximumSize, ttl, ttl.dividedBy(2));
+    }
+
+    /**
+     * Retorna uma cópia com outro TTL, mantendo a proporção de refresh.
+     */
+    public L1CacheSpec withTtl(Duration newTtl) {
+        return of(maximumSize, newTtl);
+    }
+}
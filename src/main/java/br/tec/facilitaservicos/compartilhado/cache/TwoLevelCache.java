@@ -0,0 +1,306 @@
+package br.tec.facilitaservicos.compartilhado.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+/**
+ * Cache de dois níveis: Caffeine local (L1) na frente do cache Redis (L2).
+ *
+ * Leituras são servidas do L1 quando possível; em caso de miss o valor é
+ * buscado no L2 e promovido ao L1. Escritas e remoções vão para os dois
+ * níveis e são propagadas aos demais nós via {@link CacheInvalidationBus}
+ * para que nenhum L1 remoto continue servindo valor desatualizado.
+ *
+ * As chaves do L1 são normalizadas para String, o mesmo formato que o
+ * RedisCache usa para montar a chave no Redis, permitindo invalidação
+ * por mensagem de texto entre nós.
+ *
+ * Suporta o contrato assíncrono ({@code retrieve}) usado pelo {@code @Cacheable}
+ * em métodos que retornam {@code Mono}: o L2 é consultado sem bloquear o event
+ * loop e cargas concorrentes da mesma chave são deduplicadas por nó.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCache.class);
+
+    // Marca "nada carregado pelo valueLoader" (null é um valor válido com allowNullValues)
+    private static final Object NOT_LOADED = new Object();
+
+    private final String name;
+    private final Cache l2Cache;
+    private final LoadingCache<String, Object> l1Cache;
+    private final CacheInvalidationBus invalidationBus;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+
+    public TwoLevelCache(String name, Cache l2Cache, L1CacheSpec spec,
+                         boolean allowNullValues, CacheInvalidationBus invalidationBus) {
+        super(allowNullValues);
+        this.name = name;
+        this.l2Cache = l2Cache;
+        this.invalidationBus = invalidationBus;
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+            .maximumSize(spec.maximumSize())
+            .expireAfterWrite(spec.ttl())
+            .recordStats();
+
+        // Stale-while-revalidate: após refreshAfter o valor antigo continua sendo
+        // servido enquanto o recarregamento a partir do L2 ocorre em background
+        if (spec.refreshAfter() != null) {
+            builder.refreshAfterWrite(spec.refreshAfter());
+        }
+
+        this.l1Cache = builder.build(this::loadFromL2);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l1Cache;
+    }
+
+    /**
+     * Cache de segundo nível (Redis) encapsulado.
+     */
+    public Cache getL2Cache() {
+        return l2Cache;
+    }
+
+    LoadingCache<String, Object> getL1Cache() {
+        return l1Cache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return l1Cache.get(toL1Key(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // O valor carregado vai para o L2 só depois do compute: a escrita no Redis
+        // é bloqueante e não deve segurar o lock da entrada no Caffeine
+        AtomicReference<Object> loaded = new AtomicReference<>(NOT_LOADED);
+        Object storeValue = l1Cache.get(toL1Key(key), l1Key -> {
+            Object fromL2 = loadFromL2(l1Key);
+            if (fromL2 != null) {
+                return fromL2;
+            }
+
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+
+            if (value == null && !isAllowNullValues()) {
+                return null;
+            }
+            loaded.set(value);
+            return toStoreValue(value);
+        });
+
+        Object value = loaded.get();
+        if (value != NOT_LOADED) {
+            writeToL2(key, value);
+        }
+        return (T) fromStoreValue(storeValue);
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        String l1Key = toL1Key(key);
+        Object storeValue = l1Cache.getIfPresent(l1Key);
+        if (storeValue != null) {
+            return CompletableFuture.completedFuture(toRetrieveResult(storeValue));
+        }
+
+        CompletableFuture<?> fromL2 = l2Cache.retrieve(key);
+        if (fromL2 == null) {
+            return null;
+        }
+        return fromL2.thenApply(result -> {
+            Object value = (result instanceof ValueWrapper wrapper) ? wrapper.get() : result;
+            if (result != null) {
+                promote(l1Key, value);
+            }
+            return result;
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        String l1Key = toL1Key(key);
+        Object storeValue = l1Cache.getIfPresent(l1Key);
+        if (storeValue != null) {
+            return CompletableFuture.completedFuture((T) fromStoreValue(storeValue));
+        }
+
+        // Deduplicação: apenas a primeira requisição dispara a carga da chave
+        CompletableFuture<Object> promise = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlightLoads.putIfAbsent(l1Key, promise);
+        if (existing != null) {
+            return (CompletableFuture<T>) existing;
+        }
+
+        CompletableFuture<T> load;
+        try {
+            load = l2Cache.retrieve(key, () -> valueLoader.get().thenApply(value -> {
+                // Valor ausente não vai para o L2 (RedisCache rejeita null): sinaliza e aborta a escrita
+                if (value == null && !isAllowNullValues()) {
+                    throw new EmptyValueSignal();
+                }
+                return value;
+            }));
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+
+        load.whenComplete((value, ex) -> {
+            inFlightLoads.remove(l1Key, promise);
+            Throwable cause = unwrap(ex);
+            if (cause instanceof EmptyValueSignal) {
+                promise.complete(null);
+            } else if (cause != null) {
+                promise.completeExceptionally(cause);
+            } else {
+                if (value != null || isAllowNullValues()) {
+                    promote(l1Key, value);
+                }
+                promise.complete(value);
+            }
+        });
+        return (CompletableFuture<T>) promise;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        l2Cache.put(key, value);
+
+        String l1Key = toL1Key(key);
+        if (value == null && !isAllowNullValues()) {
+            l1Cache.invalidate(l1Key);
+        } else {
+            l1Cache.put(l1Key, toStoreValue(value));
+        }
+        publishEvict(l1Key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        l2Cache.evict(key);
+
+        String l1Key = toL1Key(key);
+        l1Cache.invalidate(l1Key);
+        publishEvict(l1Key);
+    }
+
+    @Override
+    public void clear() {
+        l2Cache.clear();
+        l1Cache.invalidateAll();
+        if (invalidationBus != null) {
+            invalidationBus.publishClear(name);
+        }
+    }
+
+    /**
+     * Remove a entrada apenas do L1 local (invalidação recebida de outro nó).
+     */
+    public void evictLocal(String l1Key) {
+        l1Cache.invalidate(l1Key);
+    }
+
+    /**
+     * Limpa apenas o L1 local (invalidação recebida de outro nó).
+     */
+    public void clearLocal() {
+        l1Cache.invalidateAll();
+    }
+
+    // Métodos auxiliares privados
+
+    private Object loadFromL2(String l1Key) {
+        try {
+            ValueWrapper wrapper = l2Cache.get(l1Key);
+            if (wrapper == null) {
+                return null;
+            }
+            Object value = wrapper.get();
+            if (value == null && !isAllowNullValues()) {
+                return null;
+            }
+            return toStoreValue(value);
+        } catch (RuntimeException e) {
+            // L2 indisponível não deve derrubar a leitura: trata como miss
+            logger.warn("⚠️ Falha ao consultar L2 do cache {}: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToL2(Object key, Object value) {
+        try {
+            l2Cache.put(key, value);
+        } catch (RuntimeException e) {
+            // O valor já está no L1: falha no L2 só adia o compartilhamento com os demais nós
+            logger.warn("⚠️ Falha ao gravar L2 do cache {}: {}", name, e.getMessage());
+        }
+    }
+
+    private void promote(String l1Key, Object value) {
+        if (value == null && !isAllowNullValues()) {
+            return;
+        }
+        l1Cache.put(l1Key, toStoreValue(value));
+    }
+
+    private Object toRetrieveResult(Object storeValue) {
+        // Com null permitido o contrato exige ValueWrapper para distinguir null cacheado de miss
+        return isAllowNullValues() ? toValueWrapper(storeValue) : fromStoreValue(storeValue);
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return (ex instanceof CompletionException && ex.getCause() != null) ? ex.getCause() : ex;
+    }
+
+    private void publishEvict(String l1Key) {
+        if (invalidationBus != null) {
+            invalidationBus.publishEvict(name, l1Key);
+        }
+    }
+
+    static String toL1Key(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * Sinaliza que o loader não produziu valor (ex.: {@code Mono} vazio).
+     */
+    private static final class EmptyValueSignal extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        EmptyValueSignal() {
+            super(null, null, false, false);
+        }
+    }
+}
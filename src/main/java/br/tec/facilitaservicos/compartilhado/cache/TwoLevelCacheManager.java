@@ -0,0 +1,100 @@
+package br.tec.facilitaservicos.compartilhado.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * CacheManager composto: Caffeine local (L1) + CacheManager Redis (L2).
+ *
+ * Apenas os caches com {@link L1CacheSpec} configurada recebem L1; os demais
+ * são devolvidos diretamente do L2 (ex.: códigos 2FA, que precisam de
+ * consistência imediata entre nós).
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager l2CacheManager;
+    private final Map<String, L1CacheSpec> l1Specs;
+    private final boolean allowNullValues;
+    private final CacheInvalidationBus invalidationBus;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager l2CacheManager,
+                                Map<String, L1CacheSpec> l1Specs,
+                                boolean allowNullValues,
+                                CacheInvalidationBus invalidationBus,
+                                MeterRegistry meterRegistry) {
+        this.l2CacheManager = l2CacheManager;
+        this.l1Specs = Map.copyOf(l1Specs);
+        this.allowNullValues = allowNullValues;
+        this.invalidationBus = invalidationBus;
+        this.meterRegistry = meterRegistry;
+
+        if (invalidationBus != null) {
+            invalidationBus.register(this);
+        }
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache existing = caches.get(name);
+        if (existing != null) {
+            return existing;
+        }
+
+        Cache l2Cache = l2CacheManager.getCache(name);
+        if (l2Cache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> decorate(cacheName, l2Cache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return l2CacheManager.getCacheNames();
+    }
+
+    /**
+     * CacheManager Redis encapsulado.
+     */
+    public CacheManager getL2CacheManager() {
+        return l2CacheManager;
+    }
+
+    /**
+     * Aplica uma invalidação remota ao L1 local.
+     *
+     * @param cacheName nome do cache
+     * @param key       chave normalizada, ou {@code null} para limpar o cache inteiro
+     */
+    public void invalidateLocal(String cacheName, String key) {
+        if (caches.get(cacheName) instanceof TwoLevelCache twoLevelCache) {
+            if (key == null) {
+                twoLevelCache.clearLocal();
+            } else {
+                twoLevelCache.evictLocal(key);
+            }
+        }
+    }
+
+    private Cache decorate(String cacheName, Cache l2Cache) {
+        L1CacheSpec spec = l1Specs.get(cacheName);
+        if (spec == null) {
+            return l2Cache;
+        }
+
+        TwoLevelCache twoLevelCache = new TwoLevelCache(cacheName, l2Cache, spec, allowNullValues, invalidationBus);
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, twoLevelCache.getL1Cache(), cacheName, "tier", "l1");
+        }
+        return twoLevelCache;
+    }
+}
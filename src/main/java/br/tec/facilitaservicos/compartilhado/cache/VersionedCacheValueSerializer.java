@@ -0,0 +1,160 @@
+package br.tec.facilitaservicos.compartilhado.cache;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.TimeZone;
+
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.util.ClassUtils;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Serializador binário versionado para valores de cache no Redis.
+ *
+ * Formato: {@code [MAGIC][VERSION][payload]}. A versão 1 usa Smile (JSON
+ * binário do Jackson) com referências compartilhadas de nomes de campo, o que
+ * reduz bastante o tamanho de DTOs repetitivos como {@code UsuarioDTO}.
+ *
+ * Migração transparente: valores sem o cabeçalho são tratados como JSON
+ * legado do {@link GenericJackson2JsonRedisSerializer} e continuam legíveis;
+ * toda escrita nova sai no formato binário. Entradas antigas somem
+ * naturalmente pelo TTL.
+ */
+public class VersionedCacheValueSerializer implements RedisSerializer<Object> {
+
+    /** Primeiro byte de todo valor versionado; nunca inicia um JSON nem um documento Smile. */
+    static final byte MAGIC = (byte) 0xCA;
+
+    static final byte VERSION_SMILE = 1;
+
+    private static final int HEADER_LENGTH = 2;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final ObjectMapper smileMapper;
+    private final GenericJackson2JsonRedisSerializer legacySerializer;
+
+    public VersionedCacheValueSerializer() {
+        this.smileMapper = createSmileMapper();
+        this.legacySerializer = new GenericJackson2JsonRedisSerializer();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY;
+        }
+        try {
+            byte[] payload = smileMapper.writeValueAsBytes(value);
+            byte[] result = new byte[payload.length + HEADER_LENGTH];
+            result[0] = MAGIC;
+            result[1] = VERSION_SMILE;
+            System.arraycopy(payload, 0, result, HEADER_LENGTH, payload.length);
+            return result;
+        } catch (IOException e) {
+            throw new SerializationException("Falha ao serializar valor de cache: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        // Valor legado (JSON) gravado antes da introdução do cabeçalho
+        if (bytes[0] != MAGIC) {
+            return legacySerializer.deserialize(bytes);
+        }
+
+        if (bytes.length < HEADER_LENGTH) {
+            throw new SerializationException("Valor de cache truncado");
+        }
+
+        byte version = bytes[1];
+        if (version != VERSION_SMILE) {
+            throw new SerializationException("Versão de codec de cache não suportada: " + version);
+        }
+
+        try {
+            return smileMapper.readValue(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, Object.class);
+        } catch (IOException e) {
+            throw new SerializationException("Falha ao desserializar valor de cache: " + e.getMessage(), e);
+        }
+    }
+
+    // Métodos auxiliares privados
+
+    private static ObjectMapper createSmileMapper() {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+
+        ObjectMapper mapper = new ObjectMapper(factory);
+        mapper.registerModule(new JavaTimeModule());
+        // @JsonFormat com pattern sem zona não formata Instant; UTC completa o formato
+        mapper.configOverride(Instant.class)
+                .setFormat(JsonFormat.Value.empty().withTimeZone(TimeZone.getTimeZone("UTC")));
+        // Tolerar campos novos/removidos entre versões do serviço
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        // Mesma tipagem do serializer JSON legado: @class só onde é necessário para desserializar em Object
+        mapper.setDefaultTyping(new LegacyTypeResolverBuilder(mapper.getPolymorphicTypeValidator())
+                .init(JsonTypeInfo.Id.CLASS, null)
+                .inclusion(JsonTypeInfo.As.PROPERTY));
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+        return mapper;
+    }
+
+    /**
+     * Regra de tipagem do {@link GenericJackson2JsonRedisSerializer}: omite
+     * {@code @class} em enums, primitivos/wrappers e tipos finais do JDK
+     * (String, List.of, ...), mas mantém em records e DTOs finais, que não
+     * voltariam do cache sem ele. O {@code EVERYTHING} puro tipava também os
+     * tipos do JDK e deixava o Smile maior que o JSON legado.
+     */
+    private static final class LegacyTypeResolverBuilder extends ObjectMapper.DefaultTypeResolverBuilder {
+
+        private static final long serialVersionUID = 1L;
+
+        LegacyTypeResolverBuilder(PolymorphicTypeValidator validator) {
+            super(ObjectMapper.DefaultTyping.EVERYTHING, validator);
+        }
+
+        @Override
+        public boolean useForType(JavaType type) {
+            if (type.isJavaLangObject()) {
+                return true;
+            }
+            JavaType resolved = resolveArrayOrReference(type);
+            Class<?> raw = resolved.getRawClass();
+            if (resolved.isEnumType() || ClassUtils.isPrimitiveOrWrapper(raw)) {
+                return false;
+            }
+            if (resolved.isFinal() && raw.getPackageName().startsWith("java")) {
+                return false;
+            }
+            return !TreeNode.class.isAssignableFrom(raw);
+        }
+
+        private static JavaType resolveArrayOrReference(JavaType type) {
+            JavaType current = type;
+            while (current.isArrayType() || current.isReferenceType()) {
+                current = current.isArrayType() ? current.getContentType() : current.getReferencedType();
+            }
+            return current;
+        }
+    }
+}
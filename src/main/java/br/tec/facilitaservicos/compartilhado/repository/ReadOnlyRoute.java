@@ -0,0 +1,26 @@
+package br.tec.facilitaservicos.compartilhado.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um método de repositório como leitura que tolera o atraso de
+ * replicação: a consulta pode ser servida pela réplica.
+ *
+ * Não use em leituras que precisam enxergar uma escrita recém-feita
+ * (ex.: busca do refresh token na rotação, checagens de unicidade antes de
+ * inserir). Dentro de uma transação a conexão já vinculada é reaproveitada
+ * e a anotação não tem efeito; um {@link RoutingContext#usePrimary} mais
+ * externo também prevalece.
+ *
+ * Só tem efeito na aplicação que registra o roteamento primário/réplica
+ * (hoje, a de autenticação); nas demais a consulta segue para o primário.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReadOnlyRoute {
+}
@@ -0,0 +1,54 @@
+package br.tec.facilitaservicos.compartilhado.repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Destino (primário ou réplica) das conexões R2DBC, propagado pelo
+ * contexto do Reactor.
+ *
+ * A primeira decisão gravada vence: {@link #preferReplica} não sobrescreve
+ * um {@link #usePrimary} aplicado mais abaixo na cadeia (mais perto do
+ * assinante), o que garante read-your-writes em fluxos que fixam o primário.
+ * Sem chave no contexto a conexão vem do primário.
+ */
+public final class RoutingContext {
+
+    public static final String KEY = RoutingContext.class.getName() + ".target";
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private RoutingContext() {
+    }
+
+    /**
+     * Direciona para a réplica, salvo se o fluxo já fixou um destino.
+     */
+    public static Context preferReplica(Context context) {
+        return context.hasKey(KEY) ? context : context.put(KEY, Target.REPLICA);
+    }
+
+    /**
+     * Fixa o primário para toda a cadeia a montante.
+     */
+    public static Context usePrimary(Context context) {
+        return context.put(KEY, Target.PRIMARY);
+    }
+
+    public static Target current(ContextView context) {
+        return context.getOrDefault(KEY, Target.PRIMARY);
+    }
+
+    public static <T> Mono<T> onPrimary(Mono<T> mono) {
+        return mono.contextWrite(RoutingContext::usePrimary);
+    }
+
+    public static <T> Flux<T> onPrimary(Flux<T> flux) {
+        return flux.contextWrite(RoutingContext::usePrimary);
+    }
+}
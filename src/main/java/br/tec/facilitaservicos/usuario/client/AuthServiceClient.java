@@ -0,0 +1,14 @@
+package br.tec.facilitaservicos.usuario.client;
+
+import java.util.List;
+
+import reactor.core.publisher.Mono;
+
+public interface AuthServiceClient {
+
+    /**
+     * Revoga todas as sessões (refresh, referência e access tokens já
+     * emitidos) dos usuários; retorna o total de tokens revogados.
+     */
+    Mono<Long> revokeUsersSessions(List<Long> usuarioIds);
+}
@@ -0,0 +1,48 @@
+package br.tec.facilitaservicos.usuario.client;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Endpoints internos do serviço de autenticação, com HTTP Basic de cliente
+ * interno ({@code app.internal-clients} no lado da autenticação).
+ */
+@Component
+public class AuthServiceClientImpl implements AuthServiceClient {
+
+    private static final String JSON_KEY_USUARIO_IDS = "usuario_ids";
+    private static final String JSON_KEY_REVOKED_COUNT = "revoked_count";
+
+    private final WebClient webClient;
+
+    public AuthServiceClientImpl(@Value("${app.auth-service.url:http://localhost:8081}") String authServiceUrl,
+                                 @Value("${app.auth-service.client-id:}") String clientId,
+                                 @Value("${app.auth-service.client-secret:}") String clientSecret,
+                                 WebClient.Builder webClientBuilder) {
+        WebClient.Builder builder = webClientBuilder.baseUrl(authServiceUrl);
+        // Sem credenciais o serviço de autenticação responde 401 e a chamada falha
+        if (!clientId.isBlank()) {
+            builder.defaultHeaders(headers -> headers.setBasicAuth(clientId, clientSecret));
+        }
+        this.webClient = builder.build();
+    }
+
+    @Override
+    public Mono<Long> revokeUsersSessions(List<Long> usuarioIds) {
+        return webClient.post()
+                .uri("/rest/v1/internal/users/tokens/revoke")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of(JSON_KEY_USUARIO_IDS, usuarioIds))
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Long>>() { })
+                .map(body -> body.getOrDefault(JSON_KEY_REVOKED_COUNT, 0L));
+    }
+}
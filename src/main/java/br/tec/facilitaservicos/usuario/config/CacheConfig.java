@@ -1,24 +1,50 @@
 package br.tec.facilitaservicos.usuario.config;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import br.tec.facilitaservicos.compartilhado.cache.CacheInvalidationBus;
+import br.tec.facilitaservicos.compartilhado.cache.CacheInvalidationConfig;
+import br.tec.facilitaservicos.compartilhado.cache.L1CacheSpec;
+import br.tec.facilitaservicos.compartilhado.cache.TwoLevelCacheManager;
+import br.tec.facilitaservicos.compartilhado.cache.VersionedCacheValueSerializer;
+import br.tec.facilitaservicos.usuario.dto.AuthorizationSnapshot;
+import br.tec.facilitaservicos.usuario.dto.UsuarioDTO;
+import br.tec.facilitaservicos.usuario.entity.Usuario;
+import br.tec.facilitaservicos.usuario.repository.UsuarioRepository;
+import br.tec.facilitaservicos.usuario.service.AuthorizationSnapshotService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Configuração otimizada de cache Redis com TTL diferenciado por criticidade
@@ -26,6 +52,7 @@ import io.micrometer.core.instrument.MeterRegistry;
  */
 @Configuration
 @EnableCaching
+@Import(CacheInvalidationConfig.class)
 public class CacheConfig {
 
     @Value("${spring.cache.redis.time-to-live:PT1H}")
@@ -34,19 +61,29 @@ public class CacheConfig {
     @Value("${spring.cache.redis.cache-null-values:false}")
     private boolean cacheNullValues;
 
+    @Value("${app.cache.l1.enabled:true}")
+    private boolean l1Enabled;
+
+    @Value("${app.cache.l1.maximum-size:1000}")
+    private long l1MaximumSize;
+
+    @Value("${app.cache.l1.ttl:PT60S}")
+    private Duration l1Ttl;
+
     /**
      * Cache Manager principal com configurações otimizadas por criticidade dos dados
      */
     @Bean
     @Primary
     @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
-    public CacheManager redisCacheManager(LettuceConnectionFactory connectionFactory, MeterRegistry meterRegistry) {
+    public CacheManager redisCacheManager(LettuceConnectionFactory connectionFactory, MeterRegistry meterRegistry,
+                                          ObjectProvider<CacheInvalidationBus> invalidationBus) {
         
         // Configuração padrão do Redis
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(defaultTtl)
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new VersionedCacheValueSerializer()));
         
         // Configurar caching de valores null baseado na propriedade
         if (!cacheNullValues) {
@@ -61,10 +98,10 @@ public class CacheConfig {
                 .entryTtl(Duration.ofMinutes(5))
                 .prefixCacheNameWith("usuario:profile:"));
         
-        // ALTO: Permissões de usuário (15 minutos)  
-        cacheConfigurations.put("user-permissions", defaultConfig
+        // ALTO: Snapshot de autorização (papéis + bitset de permissões) (15 minutos)
+        cacheConfigurations.put(AuthorizationSnapshotService.CACHE_USER_AUTHZ, defaultConfig
                 .entryTtl(Duration.ofMinutes(15))
-                .prefixCacheNameWith("usuario:permission:"));
+                .prefixCacheNameWith("usuario:authz:"));
         
         // MÉDIO: Sessões de usuário (30 minutos)
         cacheConfigurations.put("user-sessions", defaultConfig
@@ -81,11 +118,34 @@ public class CacheConfig {
                 .entryTtl(Duration.ofHours(6))
                 .prefixCacheNameWith("usuario:static:"));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .transactionAware()
                 .build();
+
+        if (!l1Enabled) {
+            return redisCacheManager;
+        }
+        redisCacheManager.initializeCaches();
+        return new TwoLevelCacheManager(redisCacheManager, createL1Specs(), cacheNullValues,
+                invalidationBus.getIfAvailable(), meterRegistry);
+    }
+
+    /**
+     * L1 Caffeine para os caches de leitura intensiva. Sessões ficam apenas no
+     * Redis: mudam a cada request e precisam ser vistas por todos os nós.
+     */
+    private Map<String, L1CacheSpec> createL1Specs() {
+        L1CacheSpec defaultSpec = L1CacheSpec.of(l1MaximumSize, l1Ttl);
+
+        Map<String, L1CacheSpec> specs = new HashMap<>();
+        specs.put("users", defaultSpec);
+        specs.put("user-profiles", defaultSpec);
+        specs.put(AuthorizationSnapshotService.CACHE_USER_AUTHZ, defaultSpec);
+        specs.put("user-metadata", defaultSpec.withTtl(l1Ttl.multipliedBy(5)));
+        specs.put("user-static-data", defaultSpec.withTtl(l1Ttl.multipliedBy(10)));
+        return specs;
     }
 
     /**
@@ -93,38 +153,188 @@ public class CacheConfig {
      */
     @Bean
     @ConditionalOnProperty(name = "cache.warming.enabled", havingValue = "true", matchIfMissing = true)
-    public CacheWarmingService cacheWarmingService() {
-        return new CacheWarmingService();
+    public CacheWarmingService cacheWarmingService(UsuarioRepository usuarioRepository,
+                                                   AuthorizationSnapshotService authorizationSnapshotService,
+                                                   CacheManager cacheManager,
+                                                   MeterRegistry meterRegistry,
+                                                   @Value("${cache.warming.lookback:P7D}") Duration lookback,
+                                                   @Value("${cache.warming.page-size:200}") int pageSize,
+                                                   @Value("${cache.warming.max-users:5000}") int maxUsers,
+                                                   @Value("${cache.warming.concurrency:8}") int concurrency,
+                                                   @Value("${cache.warming.time-budget:PT30S}") Duration timeBudget) {
+        return new CacheWarmingService(usuarioRepository, authorizationSnapshotService, cacheManager, meterRegistry,
+                lookback, pageSize, maxUsers, concurrency, timeBudget);
     }
 
     /**
-     * Serviço para pre-carregamento de dados críticos no cache
+     * Serviço para pre-carregamento de dados críticos no cache.
+     *
+     * Executado como ApplicationRunner: o Spring Boot só publica readiness
+     * ACCEPTING_TRAFFIC depois que os runners terminam, então o pod não recebe
+     * tráfego com cache frio. O warming é limitado por orçamento de tempo e nunca
+     * impede o startup (falhas são apenas registradas).
      */
-    public static class CacheWarmingService {
-        
+    public static class CacheWarmingService implements ApplicationRunner {
+
+        private static final Logger logger = LoggerFactory.getLogger(CacheWarmingService.class);
+
+        private static final String CACHE_USERS = "users";
+        private static final String CACHE_AUTHZ = AuthorizationSnapshotService.CACHE_USER_AUTHZ;
+
+        private final UsuarioRepository usuarioRepository;
+        private final AuthorizationSnapshotService authorizationSnapshotService;
+        private final CacheManager cacheManager;
+        private final Duration lookback;
+        private final int pageSize;
+        private final int maxUsers;
+        private final int concurrency;
+        private final Duration timeBudget;
+
+        private final Counter profilesWarmed;
+        private final Counter permissionsWarmed;
+        private final Counter warmingErrors;
+        private final Timer warmingDuration;
+        private final AtomicLong usersProcessed = new AtomicLong();
+        private final AtomicInteger completed = new AtomicInteger();
+
+        public CacheWarmingService(UsuarioRepository usuarioRepository,
+                                   AuthorizationSnapshotService authorizationSnapshotService,
+                                   CacheManager cacheManager, MeterRegistry meterRegistry,
+                                   Duration lookback, int pageSize, int maxUsers,
+                                   int concurrency, Duration timeBudget) {
+            this.usuarioRepository = usuarioRepository;
+            this.authorizationSnapshotService = authorizationSnapshotService;
+            this.cacheManager = cacheManager;
+            this.lookback = lookback;
+            this.pageSize = Math.max(1, pageSize);
+            this.maxUsers = Math.max(0, maxUsers);
+            this.concurrency = Math.max(1, concurrency);
+            this.timeBudget = timeBudget;
+
+            this.profilesWarmed = Counter.builder("cache.warming.entries")
+                    .description("Entradas pre-carregadas no cache durante o warming")
+                    .tag("cache", CACHE_USERS)
+                    .register(meterRegistry);
+            this.permissionsWarmed = Counter.builder("cache.warming.entries")
+                    .description("Entradas pre-carregadas no cache durante o warming")
+                    .tag("cache", CACHE_AUTHZ)
+                    .register(meterRegistry);
+            this.warmingErrors = Counter.builder("cache.warming.errors")
+                    .description("Falhas ao pre-carregar entradas no cache")
+                    .register(meterRegistry);
+            this.warmingDuration = Timer.builder("cache.warming.duration")
+                    .description("Duração do cache warming")
+                    .register(meterRegistry);
+            Gauge.builder("cache.warming.users.processed", usersProcessed, AtomicLong::get)
+                    .description("Usuários processados pelo cache warming em andamento")
+                    .register(meterRegistry);
+            Gauge.builder("cache.warming.completed", completed, AtomicInteger::get)
+                    .description("1 quando o cache warming terminou")
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public void run(ApplicationArguments args) {
+            // Bloqueio intencional: roda na thread de startup, antes da readiness
+            try {
+                performFullWarmup().block(timeBudget.plusSeconds(5));
+            } catch (RuntimeException e) {
+                logger.warn("⚠️ Cache warming não concluído no orçamento: {}", e.getMessage());
+            }
+        }
+
         /**
          * Pre-carrega dados de usuários ativos no cache
-         * Executado no startup e periodicamente via scheduled tasks
          */
-        public void warmupUserProfiles() {
-            // TODO: Implementar pre-carregamento de perfis de usuários ativos
-            // Exemplo: buscar top 100 usuários mais ativos e carregar no cache
+        public Mono<Long> warmupUserProfiles() {
+            return warmup(true, false);
         }
-        
+
         /**
          * Pre-carrega permissões de usuário no cache
          */
-        public void warmupUserPermissions() {
-            // TODO: Implementar pre-carregamento de permissões de usuário
-            // Exemplo: carregar permissões dos grupos mais comuns
+        public Mono<Long> warmupUserPermissions() {
+            return warmup(false, true);
         }
-        
+
         /**
-         * Executa o warming completo do cache
+         * Executa o warming completo do cache (uma única leitura por usuário)
          */
-        public void performFullWarmup() {
-            warmupUserProfiles();
-            warmupUserPermissions();
+        public Mono<Long> performFullWarmup() {
+            return warmup(true, true);
+        }
+
+        // Métodos auxiliares privados
+
+        private Mono<Long> warmup(boolean profiles, boolean permissions) {
+            if (maxUsers == 0) {
+                return Mono.just(0L);
+            }
+
+            LocalDateTime dataLimite = LocalDateTime.now().minus(lookback);
+            int maxPages = (maxUsers + pageSize - 1) / pageSize;
+            long inicio = System.nanoTime();
+            usersProcessed.set(0);
+            completed.set(0);
+
+            logger.info("🔥 Iniciando cache warming: maxUsers={}, pageSize={}, concurrency={}, budget={}",
+                    maxUsers, pageSize, concurrency, timeBudget);
+
+            // Páginas lidas sob demanda (concatMap): nunca há mais de uma página em memória
+            return Flux.range(0, maxPages)
+                    .concatMap(page -> usuarioRepository
+                            .findUsuariosComLoginRecentePagina(dataLimite, pageSize, (long) page * pageSize)
+                            .collectList())
+                    .takeWhile(page -> !page.isEmpty())
+                    .flatMapIterable(page -> page)
+                    .take(maxUsers)
+                    .buffer(pageSize)
+                    // Snapshots de autorização compilados em lote por página (uma consulta por tabela)
+                    .flatMap(page -> (permissions
+                                    ? authorizationSnapshotService.compile(page)
+                                        .collectMap(AuthorizationSnapshot::userId)
+                                    : Mono.just(Map.<Long, AuthorizationSnapshot>of()))
+                            .flatMapMany(snapshots -> Flux.fromIterable(page)
+                                    .flatMap(usuario -> Mono.fromRunnable(() ->
+                                                    warmUser(usuario, profiles, snapshots.get(usuario.getId())))
+                                            .subscribeOn(Schedulers.boundedElastic()), concurrency)), 1)
+                    .take(timeBudget)
+                    .then(Mono.fromSupplier(usersProcessed::get))
+                    .onErrorResume(e -> {
+                        logger.warn("⚠️ Cache warming interrompido: {}", e.getMessage());
+                        return Mono.just(usersProcessed.get());
+                    })
+                    .doOnNext(total -> {
+                        long elapsed = System.nanoTime() - inicio;
+                        warmingDuration.record(elapsed, TimeUnit.NANOSECONDS);
+                        completed.set(1);
+                        logger.info("✅ Cache warming concluído: {} usuários em {}ms",
+                                total, TimeUnit.NANOSECONDS.toMillis(elapsed));
+                    });
+        }
+
+        private void warmUser(Usuario usuario, boolean profiles, AuthorizationSnapshot snapshot) {
+            try {
+                if (profiles) {
+                    putIfPresent(CACHE_USERS, usuario.getId(), UsuarioDTO.from(usuario));
+                    profilesWarmed.increment();
+                }
+                if (snapshot != null) {
+                    putIfPresent(CACHE_AUTHZ, usuario.getId(), snapshot);
+                    permissionsWarmed.increment();
+                }
+                usersProcessed.incrementAndGet();
+            } catch (RuntimeException e) {
+                warmingErrors.increment();
+                logger.debug("Falha no warming do usuário {}: {}", usuario.getId(), e.getMessage());
+            }
+        }
+
+        private void putIfPresent(String cacheName, Long key, Object value) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null && value != null) {
+                cache.put(key, value);
+            }
         }
     }
-}
\ No newline at end of file
+}
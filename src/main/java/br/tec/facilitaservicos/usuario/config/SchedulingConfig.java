@@ -0,0 +1,12 @@
+package br.tec.facilitaservicos.usuario.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita tarefas agendadas do módulo de usuários (ex.: limpeza de presença).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,21 +2,31 @@ package br.tec.facilitaservicos.usuario.controller;
 
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import br.tec.facilitaservicos.usuario.dto.UserStatusDTO;
 import br.tec.facilitaservicos.usuario.dto.UsuarioDTO;
+import br.tec.facilitaservicos.usuario.repository.KeysetPagination;
 import br.tec.facilitaservicos.usuario.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -25,6 +35,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.NotNull;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -40,6 +51,12 @@ import reactor.core.publisher.Mono;
  * - GET /rest/v1/users/{userId} - Informações do usuário
  * - GET /rest/v1/users/{userId}/status - Status online do usuário
  * - GET /rest/v1/users/{userId}/permissions - Permissões do usuário
+ * - POST /rest/v1/users/online - Quem está online entre os ids informados
+ * - POST /rest/v1/users/batch - Informações de vários usuários (JSON array ou NDJSON)
+ * - POST /rest/v1/users/batch/status - Status de vários usuários
+ * - POST /rest/v1/users/batch/permissions - Permissões de vários usuários
+ * - GET /rest/v1/users/export - Exportação administrativa em streaming (NDJSON)
+ * - POST/DELETE /rest/v1/users/me/presence - Heartbeat e fim da presença do usuário do token
  * 
  * Características:
  * - 100% reativo (WebFlux)
@@ -63,7 +80,22 @@ public class UserController {
     private static final String USERS_ENDPOINT = "/{userId}";
     private static final String USER_STATUS_ENDPOINT = "/{userId}/status";
     private static final String USER_PERMISSIONS_ENDPOINT = "/{userId}/permissions";
+    private static final String USER_PERMISSIONS_VERSION_ENDPOINT = "/{userId}/permissions/version";
     private static final String HEALTH_ENDPOINT = "/health";
+    private static final String ONLINE_BATCH_ENDPOINT = "/online";
+    private static final String USERS_BATCH_ENDPOINT = "/batch";
+    private static final String USERS_BATCH_STATUS_ENDPOINT = "/batch/status";
+    private static final String USERS_BATCH_PERMISSIONS_ENDPOINT = "/batch/permissions";
+    private static final String USERS_EXPORT_ENDPOINT = "/export";
+    private static final String PRESENCE_ENDPOINT = "/me/presence";
+
+    // Limite de ids por requisição em lote
+    private static final int MAX_BATCH_SIZE = 500;
+
+    // Limites dos dados de presença
+    private static final int MAX_STATUS_MESSAGE_LENGTH = 140;
+    private static final int MAX_DEVICE_LENGTH = 256;
+    private static final String CLAIM_USERNAME = "username";
 
     // Headers
     private static final String HEADER_CACHE_CONTROL = "Cache-Control";
@@ -73,10 +105,13 @@ public class UserController {
     private static final String CACHE_PRIVATE_10MIN = "private, max-age=600";
     private static final String CACHE_PRIVATE_1MIN = "private, max-age=60";
     private static final String CACHE_PRIVATE_30MIN = "private, max-age=1800";
+    private static final String CACHE_NO_STORE = "no-store";
 
     // Chaves de resposta JSON
     private static final String JSON_KEY_STATUS = "status";
     private static final String JSON_KEY_COMPONENT = "component";
+    private static final String JSON_KEY_ONLINE = "online";
+    private static final String JSON_KEY_COUNT = "count";
     
     // Constantes de fallback
     private static final long OFFLINE_FALLBACK_SECONDS = 300; // 5 minutos
@@ -241,6 +276,156 @@ public class UserController {
             });
     }
 
+    /**
+     * 🟢 Endpoint de presença em lote.
+     * 
+     * Usado pelo microserviço de chat para saber, em uma única chamada,
+     * quais usuários de uma sala/lista estão online.
+     */
+    @PostMapping(value = ONLINE_BATCH_ENDPOINT,
+                 consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Presença em lote",
+        description = "Recebe uma lista de ids e retorna os que estão online"
+    )
+    @PreAuthorize("hasAuthority('SCOPE_USER_READ')")
+    public Mono<ResponseEntity<Object>> getOnlineUsers(@RequestBody List<Long> userIds) {
+
+        // Programação defensiva: validação de parâmetros
+        if (!isValidBatch(userIds)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return userService.getOnlineUsers(userIds)
+            .map(online -> {
+                Map<String, Object> body = new HashMap<>();
+                body.put(JSON_KEY_ONLINE, online);
+                body.put(JSON_KEY_COUNT, online.size());
+                return ResponseEntity.ok()
+                    .header(HEADER_CACHE_CONTROL, CACHE_NO_STORE)
+                    .body((Object) body);
+            })
+            .onErrorResume(throwable -> {
+                String errorMsg = throwable != null ? throwable.getMessage() : MSG_UNKNOWN_ERROR;
+                logger.warn("❌ Erro na consulta de presença em lote: {}", errorMsg);
+                return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+            });
+    }
+
+    /**
+     * 👥 Endpoint em lote para informações de usuários.
+     * 
+     * Substitui N chamadas a GET /{userId} por uma requisição com até
+     * {@value #MAX_BATCH_SIZE} ids. Com {@code Accept: application/x-ndjson}
+     * os usuários são enviados conforme ficam prontos (cache primeiro).
+     */
+    @PostMapping(value = USERS_BATCH_ENDPOINT,
+                 consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(
+        summary = "Informações de usuários em lote",
+        description = "Retorna os usuários encontrados entre os ids informados (ids inexistentes são omitidos)"
+    )
+    @PreAuthorize("hasAuthority('SCOPE_USER_READ')")
+    public Mono<ResponseEntity<Flux<UsuarioDTO>>> getUsersBatch(@RequestBody List<Long> userIds) {
+
+        // Programação defensiva: validação de parâmetros
+        if (!isValidBatch(userIds)) {
+            return Mono.just(ResponseEntity.badRequest().<Flux<UsuarioDTO>>build());
+        }
+
+        logger.debug("👥 Lote de usuários solicitado: {} ids", userIds.size());
+
+        return Mono.just(ResponseEntity.ok()
+            .header(HEADER_CACHE_CONTROL, CACHE_PRIVATE_5MIN)
+            .body(userService.getUsersByIds(userIds)
+                // Erro propaga: antes do primeiro elemento vira 5xx, depois interrompe a resposta
+                .doOnError(throwable -> logger.error("❌ Erro no lote de usuários: {}", throwable.getMessage()))));
+    }
+
+    /**
+     * 🟢 Endpoint em lote para status online de usuários.
+     */
+    @PostMapping(value = USERS_BATCH_STATUS_ENDPOINT,
+                 consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(
+        summary = "Status de usuários em lote",
+        description = "Retorna status online/último acesso dos ids informados"
+    )
+    @PreAuthorize("hasAuthority('SCOPE_USER_READ')")
+    public Mono<ResponseEntity<Flux<UserStatusDTO>>> getUserStatusesBatch(@RequestBody List<Long> userIds) {
+
+        // Programação defensiva: validação de parâmetros
+        if (!isValidBatch(userIds)) {
+            return Mono.just(ResponseEntity.badRequest().<Flux<UserStatusDTO>>build());
+        }
+
+        return Mono.just(ResponseEntity.ok()
+            .header(HEADER_CACHE_CONTROL, CACHE_PRIVATE_1MIN)
+            .body(userService.getUserStatuses(userIds)
+                // Erro propaga: antes do primeiro elemento vira 5xx, depois interrompe a resposta
+                .doOnError(throwable -> logger.warn("❌ Erro no lote de status: {}", throwable.getMessage()))));
+    }
+
+    /**
+     * 🔑 Endpoint em lote para permissões de usuários.
+     */
+    @PostMapping(value = USERS_BATCH_PERMISSIONS_ENDPOINT,
+                 consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(
+        summary = "Permissões de usuários em lote",
+        description = "Retorna as permissões/roles dos ids informados"
+    )
+    @PreAuthorize("hasAuthority('SCOPE_ADMIN')")
+    public Mono<ResponseEntity<Flux<Map<String, Object>>>> getUsersPermissionsBatch(@RequestBody List<Long> userIds) {
+
+        // Programação defensiva: validação de parâmetros
+        if (!isValidBatch(userIds)) {
+            return Mono.just(ResponseEntity.badRequest().<Flux<Map<String, Object>>>build());
+        }
+
+        return Mono.just(ResponseEntity.ok()
+            .header(HEADER_CACHE_CONTROL, CACHE_PRIVATE_30MIN)
+            .body(userService.getUsersPermissions(userIds)
+                // Erro propaga: antes do primeiro elemento vira 5xx, depois interrompe a resposta
+                .doOnError(throwable -> logger.error("❌ Erro no lote de permissões: {}", throwable.getMessage()))));
+    }
+
+    /**
+     * 📤 Exportação administrativa de usuários em streaming.
+     *
+     * Resposta NDJSON paginada por id no servidor: cada página é uma consulta
+     * curta e a próxima só é lida conforme o cliente consome (backpressure),
+     * sem cursor longo no MySQL. Para retomar, repita com {@code afterId}
+     * igual ao último id recebido.
+     */
+    @GetMapping(value = USERS_EXPORT_ENDPOINT,
+                produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Exportação de usuários",
+        description = "Stream NDJSON de usuários ordenado por id, paginado por chave"
+    )
+    @PreAuthorize("hasAuthority('SCOPE_ADMIN')")
+    public Mono<ResponseEntity<Flux<UsuarioDTO>>> exportUsers(
+            @RequestParam(defaultValue = "ATIVOS") UserService.FiltroExportacao filtro,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "" + KeysetPagination.DEFAULT_PAGE_SIZE) int pageSize) {
+
+        // Programação defensiva: validação de parâmetros
+        if (afterId < 0 || pageSize <= 0 || pageSize > KeysetPagination.MAX_PAGE_SIZE) {
+            logger.warn("❌ Parâmetros de exportação inválidos: afterId={}, pageSize={}", afterId, pageSize);
+            return Mono.just(ResponseEntity.badRequest().<Flux<UsuarioDTO>>build());
+        }
+
+        return Mono.just(ResponseEntity.ok()
+            .header(HEADER_CACHE_CONTROL, CACHE_NO_STORE)
+            .body(userService.exportUsers(filtro, afterId, pageSize)
+                .doOnError(throwable -> logger.error("❌ Erro na exportação de usuários: {}", throwable.getMessage()))));
+    }
+
     /**
      * 🔑 Endpoint para obter permissões do usuário.
      * 
@@ -292,6 +477,86 @@ public class UserController {
             });
     }
 
+    /**
+     * 🔖 Versão atual das permissões do usuário.
+     *
+     * Resposta mínima para resource servers compararem com a claim {@code pv}
+     * do access token e detectarem tokens emitidos com permissões antigas.
+     */
+    @GetMapping(value = USER_PERMISSIONS_VERSION_ENDPOINT,
+                produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Versão das permissões do usuário",
+        description = "Retorna o hash atual das permissões para detecção de tokens desatualizados"
+    )
+    @PreAuthorize("hasAuthority('SCOPE_ADMIN') or authentication.name == #userId.toString()")
+    public Mono<ResponseEntity<Map<String, Object>>> getUserPermissionsVersion(@PathVariable @NotNull Long userId) {
+
+        // Programação defensiva: validação de parâmetros
+        if (userId == null || userId <= 0) {
+            logger.warn("❌ UserId inválido recebido para versão de permissões: {}", userId);
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return userService.getUserPermissionsVersion(userId)
+            .map(version -> ResponseEntity.ok()
+                .header(HEADER_CACHE_CONTROL, CACHE_NO_STORE)
+                .body(Map.<String, Object>of("userId", userId, "version", version)))
+            .defaultIfEmpty(ResponseEntity.notFound().build())
+            .onErrorResume(throwable -> {
+                logger.error("❌ Erro ao obter versão de permissões do usuário {}: {}", userId, throwable.getMessage());
+                return Mono.just(ResponseEntity.internalServerError().build());
+            });
+    }
+
+    /**
+     * 💓 Heartbeat de presença do usuário autenticado.
+     *
+     * Chamado pelo cliente após o login e periodicamente (intervalo menor que
+     * {@code app.presence.ttl}); o usuário fica online até o TTL expirar sem
+     * novo heartbeat.
+     */
+    @PostMapping(value = PRESENCE_ENDPOINT)
+    @Operation(
+        summary = "Heartbeat de presença",
+        description = "Registra ou renova a presença online do usuário do token"
+    )
+    public Mono<ResponseEntity<Void>> heartbeat(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) String statusMessage,
+            @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) String userAgent) {
+
+        Long userId = authenticatedUserId(jwt);
+        // Programação defensiva: subject precisa ser o id numérico do usuário
+        if (userId == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (statusMessage != null && statusMessage.length() > MAX_STATUS_MESSAGE_LENGTH) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return userService.updateUserOnlineStatus(userId, jwt.getClaimAsString(CLAIM_USERNAME), statusMessage,
+                truncate(userAgent, MAX_DEVICE_LENGTH), null)
+            .thenReturn(ResponseEntity.noContent().<Void>build());
+    }
+
+    /**
+     * 🚪 Encerra a presença do usuário autenticado (logout).
+     */
+    @DeleteMapping(value = PRESENCE_ENDPOINT)
+    @Operation(
+        summary = "Encerrar presença",
+        description = "Marca o usuário do token como offline imediatamente"
+    )
+    public Mono<ResponseEntity<Void>> endPresence(@AuthenticationPrincipal Jwt jwt) {
+        Long userId = authenticatedUserId(jwt);
+        if (userId == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return userService.markUserOffline(userId)
+            .thenReturn(ResponseEntity.noContent().<Void>build());
+    }
+
     /**
      * 📊 Health check específico para validação de usuários.
      */
@@ -334,4 +599,29 @@ public class UserController {
                     JSON_KEY_TIMESTAMP, Instant.now().toString()
                 )));
     }
+
+    private static Long authenticatedUserId(Jwt jwt) {
+        if (jwt == null || jwt.getSubject() == null) {
+            return null;
+        }
+        try {
+            long userId = Long.parseLong(jwt.getSubject());
+            return userId > 0 ? userId : null;
+        } catch (NumberFormatException e) {
+            logger.warn("❌ Subject não numérico no heartbeat de presença: {}", jwt.getSubject());
+            return null;
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private static boolean isValidBatch(List<Long> userIds) {
+        if (userIds == null || userIds.isEmpty() || userIds.size() > MAX_BATCH_SIZE) {
+            logger.warn("❌ Lote de ids inválido: size={}", userIds != null ? userIds.size() : null);
+            return false;
+        }
+        return true;
+    }
 }
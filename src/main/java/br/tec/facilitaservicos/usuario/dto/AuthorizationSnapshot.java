@@ -0,0 +1,70 @@
+package br.tec.facilitaservicos.usuario.dto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Snapshot de autorização compilado de um usuário.
+ *
+ * Resolvido a partir de {@code usuario_papel} + {@code papel} (e dos campos
+ * legados de {@code usuarios}) e cacheado; checagens de permissão passam a
+ * ser um teste de bit em tempo constante.
+ *
+ * @param userId         id do usuário
+ * @param roleIds        ids dos papéis válidos, ordenados
+ * @param roles          nomes dos papéis no formato {@code ROLE_<NOME>}
+ * @param permissionBits bitset de {@link Permissao}
+ * @param nivelAcesso    maior nível de acesso entre os papéis
+ * @param version        hash estável do conteúdo; muda sempre que papéis/permissões mudam
+ * @param validUntil     expiração do papel mais próximo de expirar ({@code null} = sem expiração)
+ */
+public record AuthorizationSnapshot(Long userId, long[] roleIds, Set<String> roles, long permissionBits,
+                                    int nivelAcesso, long version, Instant validUntil) {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    public AuthorizationSnapshot {
+        roleIds = roleIds != null ? roleIds : new long[0];
+        // Set não-modificável padrão (e não Set.copyOf) para continuar desserializável no cache tipado
+        roles = Collections.unmodifiableSet(roles != null ? new TreeSet<>(roles) : new TreeSet<>());
+    }
+
+    public boolean hasPermission(Permissao permissao) {
+        return (permissionBits & permissao.mask()) != 0;
+    }
+
+    /**
+     * Verifica papel aceitando {@code ADMIN} ou {@code ROLE_ADMIN}.
+     */
+    public boolean hasRole(String role) {
+        if (role == null) {
+            return false;
+        }
+        return roles.contains(role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role);
+    }
+
+    @JsonIgnore
+    public boolean isExpired(Instant now) {
+        return validUntil != null && !now.isBefore(validUntil);
+    }
+
+    /**
+     * Códigos das permissões concedidas, na ordem dos bits.
+     */
+    @JsonIgnore
+    public List<String> permissionCodes() {
+        List<String> codes = new ArrayList<>();
+        for (Permissao permissao : Permissao.values()) {
+            if (hasPermission(permissao)) {
+                codes.add(permissao.getCodigo());
+            }
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,64 @@
+package br.tec.facilitaservicos.usuario.dto;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Catálogo de permissões conhecidas, cada uma associada a um bit fixo.
+ *
+ * O bit é a posição declarada no enum e faz parte do formato dos snapshots
+ * cacheados e dos tokens: novas permissões devem ser ADICIONADAS AO FINAL,
+ * nunca reordenadas ou removidas (máximo de 64).
+ *
+ * Os códigos cobrem as chaves do JSON {@code papel.permissoes} e as
+ * permissões legadas de {@code usuarios.permissoes}.
+ */
+public enum Permissao {
+
+    ALL("all"),
+    BASIC_ACCESS("basic_access"),
+    READ_ONLY("read_only"),
+    MANAGE_USERS("manage_users"),
+    MANAGE_BASIC_USERS("manage_basic_users"),
+    VIEW_REPORTS("view_reports"),
+    MODERATE_CONTENT("moderate_content"),
+    CHAT_SEND("chat:send"),
+    CHAT_MODERATE("chat:moderate");
+
+    /** Máscara com todas as permissões definidas (concedida por {@link #ALL}). */
+    public static final long ALL_MASK;
+
+    private static final Map<String, Permissao> BY_CODE = Arrays.stream(values())
+        .collect(Collectors.toUnmodifiableMap(Permissao::getCodigo, Function.identity()));
+
+    static {
+        long mask = 0L;
+        for (Permissao permissao : values()) {
+            mask |= permissao.mask();
+        }
+        ALL_MASK = mask;
+    }
+
+    private final String codigo;
+
+    Permissao(String codigo) {
+        this.codigo = codigo;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public long mask() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * Resolve o código textual; {@code null} se desconhecido.
+     */
+    public static Permissao fromCodigo(String codigo) {
+        return codigo != null ? BY_CODE.get(codigo.trim()) : null;
+    }
+}
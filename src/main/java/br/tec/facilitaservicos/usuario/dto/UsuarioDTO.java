@@ -44,11 +44,11 @@ public class UsuarioDTO {
     @Schema(description = "Email verificado", example = "true")
     private Boolean emailVerified;
     
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
     @Schema(description = "Data de criação", example = "2024-01-15T10:30:00Z")
     private Instant criadoEm;
     
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
     @Schema(description = "Último login", example = "2024-01-16T14:22:10Z")
     private Instant ultimoLogin;
     
@@ -0,0 +1,63 @@
+package br.tec.facilitaservicos.usuario.repository;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Paginação por chave ({@code WHERE id > :afterId ORDER BY id LIMIT :limite})
+ * exposta como um {@link Flux} contínuo.
+ *
+ * Cada página é uma consulta curta e independente (nenhum cursor longo no
+ * MySQL) e a leitura fica no máximo uma página à frente do assinante, então
+ * varreduras de tabela inteira rodam com memória constante e respeitando
+ * backpressure. Ao contrário de OFFSET, o custo por página não
+ * cresce com a posição.
+ */
+public final class KeysetPagination {
+
+    public static final int DEFAULT_PAGE_SIZE = 500;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Percorre todas as páginas a partir de {@code afterId} (exclusivo).
+     *
+     * @param afterId   último id já processado ({@code 0} para começar do início)
+     * @param pageSize  tamanho da página (limitado a {@value #MAX_PAGE_SIZE})
+     * @param pageQuery consulta {@code (afterId, limite)} ordenada por id crescente
+     * @param idOf      extrai o id (chave da paginação) de cada elemento
+     */
+    public static <T> Flux<T> stream(long afterId, int pageSize,
+                                     BiFunction<Long, Integer, Flux<T>> pageQuery,
+                                     Function<T, Long> idOf) {
+        int limit = clampPageSize(pageSize);
+
+        return fetchPage(afterId, limit, pageQuery)
+            .expand(page -> page.size() < limit
+                ? Mono.empty()
+                : fetchPage(idOf.apply(page.get(page.size() - 1)), limit, pageQuery))
+            .concatMapIterable(Function.identity(), 1);
+    }
+
+    /**
+     * Normaliza o tamanho de página solicitado para {@code [1, MAX_PAGE_SIZE]}.
+     */
+    public static int clampPageSize(int pageSize) {
+        return pageSize <= 0 ? DEFAULT_PAGE_SIZE : Math.min(pageSize, MAX_PAGE_SIZE);
+    }
+
+    // Métodos auxiliares privados
+
+    private static <T> Mono<List<T>> fetchPage(long afterId, int limit,
+                                               BiFunction<Long, Integer, Flux<T>> pageQuery) {
+        return Flux.defer(() -> pageQuery.apply(afterId, limit))
+            .collectList()
+            .filter(page -> !page.isEmpty());
+    }
+}
@@ -1,6 +1,7 @@
 package br.tec.facilitaservicos.usuario.repository;
 
 import br.tec.facilitaservicos.usuario.entity.UsuarioPapel;
+import java.util.Collection;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
@@ -51,6 +52,12 @@ public interface UsuarioPapelRepository extends ReactiveCrudRepository<UsuarioPa
     @Query("SELECT * FROM usuario_papel WHERE usuario_id = :usuarioId AND ativo = true AND (data_expiracao IS NULL OR data_expiracao > NOW())")
     Flux<UsuarioPapel> findPapeisValidosDoUsuario(Long usuarioId);
     
+    /**
+     * Busca papéis válidos de vários usuários em uma única consulta
+     */
+    @Query("SELECT * FROM usuario_papel WHERE usuario_id IN (:usuarioIds) AND ativo = true AND (data_expiracao IS NULL OR data_expiracao > NOW())")
+    Flux<UsuarioPapel> findPapeisValidosDosUsuarios(Collection<Long> usuarioIds);
+    
     /**
      * Busca papéis expirados
      */
@@ -1,5 +1,6 @@
 package br.tec.facilitaservicos.usuario.repository;
 
+import br.tec.facilitaservicos.compartilhado.repository.ReadOnlyRoute;
 import br.tec.facilitaservicos.usuario.entity.Usuario;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
@@ -9,73 +10,136 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 /**
  * Repositório R2DBC para entidade Usuario.
  * Todos os métodos retornam Mono/Flux para programação reativa.
+ * Leituras marcadas com {@link ReadOnlyRoute} podem ser servidas pela réplica;
+ * checagens de unicidade (exists*) e escritas ficam no primário.
  */
 @Repository
 public interface UsuarioRepository extends R2dbcRepository<Usuario, Long> {
+
+    /**
+     * Busca usuário por id (redeclarado para permitir a leitura na réplica)
+     */
+    @Override
+    @ReadOnlyRoute
+    Mono<Usuario> findById(Long id);
+
+    /**
+     * Conta todos os usuários
+     */
+    @Override
+    @ReadOnlyRoute
+    Mono<Long> count();
     
     /**
      * Busca usuário por email
      */
+    @ReadOnlyRoute
     Mono<Usuario> findByEmail(String email);
     
     /**
      * Busca usuário por nome de usuário
      */
+    @ReadOnlyRoute
     Mono<Usuario> findByNomeUsuario(String nomeUsuario);
     
     /**
      * Busca usuário por email ou nome de usuário (para login)
      */
+    @ReadOnlyRoute
     @Query("SELECT * FROM usuarios WHERE (email = :identificador OR nome_usuario = :identificador) AND ativo = true")
     Mono<Usuario> findByEmailOrNomeUsuario(@Param("identificador") String identificador);
     
+    /**
+     * Busca vários usuários em uma única consulta (WHERE id IN), para APIs em lote
+     */
+    @ReadOnlyRoute
+    @Query("SELECT * FROM usuarios WHERE id IN (:ids)")
+    Flux<Usuario> findByIdIn(@Param("ids") Collection<Long> ids);
+    
     /**
      * Busca usuários ativos
+     *
+     * @deprecated varre a tabela inteira em um único resultado; use {@link #findAtivosAposId}
      */
+    @Deprecated
     Flux<Usuario> findByAtivoTrue();
+
+    /**
+     * Página (keyset) de usuários ativos com id maior que {@code afterId}, ordenada por id
+     */
+    @ReadOnlyRoute
+    @Query("SELECT * FROM usuarios WHERE ativo = true AND id > :afterId ORDER BY id LIMIT :limite")
+    Flux<Usuario> findAtivosAposId(@Param("afterId") long afterId, @Param("limite") int limite);
     
     /**
      * Busca usuários bloqueados
      */
+    @ReadOnlyRoute
     Flux<Usuario> findByContaBloqueadaTrue();
     
     /**
      * Busca usuários com email não verificado
+     *
+     * @deprecated varre a tabela inteira em um único resultado; use {@link #findEmailNaoVerificadoAposId}
      */
+    @Deprecated
     Flux<Usuario> findByEmailVerificadoFalse();
+
+    /**
+     * Página (keyset) de usuários com email não verificado, ordenada por id
+     */
+    @ReadOnlyRoute
+    @Query("SELECT * FROM usuarios WHERE email_verificado = false AND id > :afterId ORDER BY id LIMIT :limite")
+    Flux<Usuario> findEmailNaoVerificadoAposId(@Param("afterId") long afterId, @Param("limite") int limite);
     
     /**
      * Busca usuários bloqueados temporariamente (últimas 24h)
      */
+    @ReadOnlyRoute
     @Query("SELECT * FROM usuarios WHERE conta_bloqueada = true AND data_bloqueio > :dataLimite")
     Flux<Usuario> findUsuariosBloqueadosRecentemente(@Param("dataLimite") LocalDateTime dataLimite);
     
     /**
      * Conta usuários ativos
      */
+    @ReadOnlyRoute
     @Query("SELECT COUNT(*) FROM usuarios WHERE ativo = true")
     Mono<Long> countUsuariosAtivos();
     
     /**
      * Conta usuários bloqueados
      */
+    @ReadOnlyRoute
     @Query("SELECT COUNT(*) FROM usuarios WHERE conta_bloqueada = true")
     Mono<Long> countUsuariosBloqueados();
     
     /**
      * Busca usuários criados após uma data específica
      */
+    @ReadOnlyRoute
     Flux<Usuario> findByDataCriacaoAfter(LocalDateTime data);
     
     /**
      * Busca usuários que fizeram login recentemente (baseado em atualização)
      */
+    @ReadOnlyRoute
     @Query("SELECT * FROM usuarios WHERE data_atualizacao > :dataLimite AND tentativas_login_falidas = 0 AND ativo = true")
     Flux<Usuario> findUsuariosComLoginRecente(@Param("dataLimite") LocalDateTime dataLimite);
+
+    /**
+     * Página de usuários com login recente, mais recentes primeiro (cache warming)
+     */
+    @ReadOnlyRoute
+    @Query("SELECT * FROM usuarios WHERE data_atualizacao > :dataLimite AND tentativas_login_falidas = 0 AND ativo = true " +
+           "ORDER BY data_atualizacao DESC, id DESC LIMIT :limite OFFSET :offset")
+    Flux<Usuario> findUsuariosComLoginRecentePagina(@Param("dataLimite") LocalDateTime dataLimite,
+                                                    @Param("limite") int limite,
+                                                    @Param("offset") long offset);
     
     /**
      * Atualiza tentativas de login falidas
@@ -117,9 +181,26 @@ public interface UsuarioRepository extends R2dbcRepository<Usuario, Long> {
     @Query("SELECT * FROM usuarios WHERE ativo = false AND data_atualizacao < :dataLimite")
     Flux<Usuario> findUsuariosParaLimpeza(@Param("dataLimite") LocalDateTime dataLimite);
     
+    /**
+     * Página (keyset) de ids candidatos à limpeza: apenas a coluna id, sem carregar as linhas.
+     * Ignora usuários já anonimizados pelo soft delete.
+     */
+    @Query("SELECT id FROM usuarios WHERE ativo = false AND data_atualizacao < :dataLimite " +
+           "AND email NOT LIKE 'deleted\\_%' AND id > :afterId ORDER BY id LIMIT :limite")
+    Flux<Long> findIdsParaLimpezaAposId(@Param("dataLimite") LocalDateTime dataLimite,
+                                        @Param("afterId") long afterId,
+                                        @Param("limite") int limite);
+    
     /**
      * Remove usuários inativos antigos (soft delete)
      */
     @Query("UPDATE usuarios SET ativo = false, email = CONCAT('deleted_', id, '_', email), data_atualizacao = CURRENT_TIMESTAMP WHERE id = :id")
     Mono<Integer> softDeleteUsuario(@Param("id") Long id);
+    
+    /**
+     * Soft delete em lote: um único UPDATE para o bloco de ids (idempotente)
+     */
+    @Query("UPDATE usuarios SET ativo = false, email = CONCAT('deleted_', id, '_', email), data_atualizacao = CURRENT_TIMESTAMP " +
+           "WHERE id IN (:ids) AND email NOT LIKE 'deleted\\_%'")
+    Mono<Integer> softDeleteUsuarios(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,365 @@
+package br.tec.facilitaservicos.usuario.service;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.tec.facilitaservicos.usuario.dto.AuthorizationSnapshot;
+import br.tec.facilitaservicos.usuario.dto.Permissao;
+import br.tec.facilitaservicos.usuario.entity.Papel;
+import br.tec.facilitaservicos.usuario.entity.Usuario;
+import br.tec.facilitaservicos.usuario.entity.UsuarioPapel;
+import br.tec.facilitaservicos.usuario.repository.PapelRepository;
+import br.tec.facilitaservicos.usuario.repository.UsuarioPapelRepository;
+import br.tec.facilitaservicos.usuario.repository.UsuarioRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * ============================================================================
+ * 🛡️ SNAPSHOT DE AUTORIZAÇÃO
+ * ============================================================================
+ *
+ * Compila papéis válidos ({@code usuario_papel} não expirados) e o JSON de
+ * permissões de cada {@code papel} em um {@link AuthorizationSnapshot}
+ * cacheado por usuário. Os papéis compilados ficam memorizados por
+ * (id, versão), então o JSON de cada papel é lido uma única vez enquanto
+ * não for alterado.
+ *
+ * Os campos legados {@code usuarios.roles}/{@code usuarios.permissoes}
+ * continuam sendo somados ao snapshot para compatibilidade.
+ * ============================================================================
+ */
+@Service
+public class AuthorizationSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationSnapshotService.class);
+
+    public static final String CACHE_USER_AUTHZ = "user-authz";
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String LEGACY_SEPARATOR = ",";
+
+    // FNV-1a 64 bits para a versão do snapshot
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final UsuarioRepository usuarioRepository;
+    private final UsuarioPapelRepository usuarioPapelRepository;
+    private final PapelRepository papelRepository;
+    private final CacheManager cacheManager;
+
+    private final ConcurrentMap<Long, CompiledRole> compiledRoles = new ConcurrentHashMap<>();
+
+    public AuthorizationSnapshotService(UsuarioRepository usuarioRepository,
+                                        UsuarioPapelRepository usuarioPapelRepository,
+                                        PapelRepository papelRepository,
+                                        CacheManager cacheManager) {
+        this.usuarioRepository = usuarioRepository;
+        this.usuarioPapelRepository = usuarioPapelRepository;
+        this.papelRepository = papelRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Snapshot do usuário, do cache quando possível. Snapshots cujo papel
+     * mais próximo de expirar já venceu são recompilados.
+     */
+    public Mono<AuthorizationSnapshot> getSnapshot(Long userId) {
+        if (userId == null) {
+            return Mono.empty();
+        }
+
+        Cache cache = cacheManager.getCache(CACHE_USER_AUTHZ);
+        if (cache == null) {
+            return compute(userId);
+        }
+
+        return Mono.defer(() -> Mono.fromFuture(cache.retrieve(userId, () -> compute(userId).toFuture())))
+            .flatMap(snapshot -> {
+                if (!snapshot.isExpired(Instant.now())) {
+                    return Mono.just(snapshot);
+                }
+                logger.debug("🛡️ Snapshot expirado por validade de papel: userId={}", userId);
+                return ReactiveCacheSupport.evict(cache, userId)
+                    .then(compute(userId))
+                    .doOnNext(fresh -> ReactiveCacheSupport.populate(cache, userId, fresh));
+            });
+    }
+
+    /**
+     * Snapshots de vários usuários: cache primeiro, misses compilados em lote
+     * (uma consulta por tabela).
+     */
+    public Flux<AuthorizationSnapshot> getSnapshots(Collection<Long> userIds) {
+        Set<Long> ids = ReactiveCacheSupport.distinctValidIds(userIds);
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Cache cache = cacheManager.getCache(CACHE_USER_AUTHZ);
+        Instant now = Instant.now();
+
+        return Flux.fromIterable(ids)
+            .flatMap(id -> ReactiveCacheSupport.fromCache(cache, id, AuthorizationSnapshot.class))
+            .filter(snapshot -> !snapshot.isExpired(now))
+            .collectList()
+            .flatMapMany(hits -> {
+                Set<Long> misses = new LinkedHashSet<>(ids);
+                hits.forEach(snapshot -> misses.remove(snapshot.userId()));
+
+                Flux<AuthorizationSnapshot> compiled = misses.isEmpty() ? Flux.empty() :
+                    usuarioRepository.findByIdIn(misses)
+                        .collectList()
+                        .flatMapMany(this::compile)
+                        .doOnNext(snapshot -> ReactiveCacheSupport.populate(cache, snapshot.userId(), snapshot));
+                return Flux.concat(Flux.fromIterable(hits), compiled);
+            });
+    }
+
+    /**
+     * Compila snapshots (sem cache) para os usuários informados.
+     */
+    public Flux<AuthorizationSnapshot> compile(Collection<Usuario> usuarios) {
+        if (usuarios == null || usuarios.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Map<Long, Usuario> byId = new HashMap<>();
+        for (Usuario usuario : usuarios) {
+            if (usuario != null && usuario.getId() != null) {
+                byId.put(usuario.getId(), usuario);
+            }
+        }
+        if (byId.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return usuarioPapelRepository.findPapeisValidosDosUsuarios(byId.keySet())
+            .collectList()
+            .flatMapMany(links -> resolveRoles(links)
+                .flatMapIterable(roles -> {
+                    Map<Long, List<UsuarioPapel>> linksByUser = links.stream()
+                        .collect(Collectors.groupingBy(UsuarioPapel::getUsuarioId));
+                    List<AuthorizationSnapshot> snapshots = new ArrayList<>(byId.size());
+                    for (Usuario usuario : byId.values()) {
+                        snapshots.add(buildSnapshot(usuario,
+                            linksByUser.getOrDefault(usuario.getId(), List.of()), roles));
+                    }
+                    return snapshots;
+                }));
+    }
+
+    /**
+     * Descarta o snapshot do usuário (chamar ao alterar papéis/permissões dele).
+     */
+    public Mono<Void> invalidate(Long userId) {
+        return ReactiveCacheSupport.evict(cacheManager.getCache(CACHE_USER_AUTHZ), userId);
+    }
+
+    /**
+     * Descarta todos os snapshots e papéis compilados (chamar ao alterar um papel).
+     */
+    public Mono<Void> invalidateAll() {
+        compiledRoles.clear();
+        Cache cache = cacheManager.getCache(CACHE_USER_AUTHZ);
+        if (cache == null) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(cache::clear)
+            .subscribeOn(Schedulers.boundedElastic())
+            .then();
+    }
+
+    // Métodos auxiliares privados
+
+    private Mono<AuthorizationSnapshot> compute(Long userId) {
+        return usuarioRepository.findById(userId)
+            .flatMapMany(usuario -> compile(List.of(usuario)))
+            .next();
+    }
+
+    private Mono<Map<Long, CompiledRole>> resolveRoles(List<UsuarioPapel> links) {
+        Set<Long> papelIds = links.stream()
+            .map(UsuarioPapel::getPapelId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (papelIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+
+        return papelRepository.findAllById(papelIds)
+            .filter(Papel::isAtivo)
+            .map(this::compileRole)
+            .collectMap(CompiledRole::id);
+    }
+
+    private CompiledRole compileRole(Papel papel) {
+        CompiledRole cached = compiledRoles.get(papel.getId());
+        if (cached != null && Objects.equals(cached.versao(), papel.getVersao())) {
+            return cached;
+        }
+
+        CompiledRole compiled = new CompiledRole(
+            papel.getId(),
+            papel.getVersao(),
+            toRoleName(papel.getNome()),
+            parsePermissions(papel),
+            papel.getNivelAcesso() != null ? papel.getNivelAcesso() : 0
+        );
+        compiledRoles.put(papel.getId(), compiled);
+        return compiled;
+    }
+
+    private static AuthorizationSnapshot buildSnapshot(Usuario usuario, List<UsuarioPapel> links,
+                                                       Map<Long, CompiledRole> roles) {
+        TreeSet<Long> roleIds = new TreeSet<>();
+        Set<String> roleNames = new HashSet<>();
+        long bits = 0L;
+        int nivel = 0;
+        Instant validUntil = null;
+        long version = FNV_OFFSET;
+
+        for (UsuarioPapel link : links) {
+            CompiledRole role = roles.get(link.getPapelId());
+            if (role == null) {
+                continue;
+            }
+            roleIds.add(role.id());
+            roleNames.add(role.roleName());
+            bits |= role.bits();
+            nivel = Math.max(nivel, role.nivelAcesso());
+
+            if (link.getDataExpiracao() != null) {
+                Instant expiracao = link.getDataExpiracao().toInstant(ZoneOffset.UTC);
+                validUntil = (validUntil == null || expiracao.isBefore(validUntil)) ? expiracao : validUntil;
+            }
+        }
+
+        // Campos legados de usuarios (texto separado por vírgula)
+        for (String role : splitLegacy(usuario.getRoles())) {
+            roleNames.add(toRoleName(role));
+        }
+        for (String codigo : splitLegacy(usuario.getPermissoes())) {
+            Permissao permissao = Permissao.fromCodigo(codigo);
+            if (permissao != null) {
+                bits |= permissao.mask();
+            }
+        }
+        if ((bits & Permissao.ALL.mask()) != 0) {
+            bits |= Permissao.ALL_MASK;
+        }
+
+        for (Long roleId : roleIds) {
+            CompiledRole role = roles.get(roleId);
+            version = fnv(version, roleId);
+            version = fnv(version, role.versao() != null ? role.versao() : 0L);
+        }
+        for (String roleName : new TreeSet<>(roleNames)) {
+            version = fnv(version, roleName.hashCode());
+        }
+        version = fnv(version, bits);
+
+        return new AuthorizationSnapshot(
+            usuario.getId(),
+            roleIds.stream().mapToLong(Long::longValue).toArray(),
+            roleNames,
+            bits,
+            nivel,
+            version,
+            validUntil
+        );
+    }
+
+    private static long parsePermissions(Papel papel) {
+        String json = papel.getPermissoes();
+        if (json == null || json.isBlank()) {
+            return 0L;
+        }
+
+        long bits = 0L;
+        try {
+            JsonNode node = JSON.readTree(json);
+            if (node.isObject()) {
+                for (var field : node.properties()) {
+                    if (field.getValue().asBoolean(false)) {
+                        bits |= maskOf(field.getKey());
+                    }
+                }
+            } else if (node.isArray()) {
+                for (JsonNode element : node) {
+                    bits |= maskOf(element.asText());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            logger.warn("⚠️ JSON de permissões inválido no papel {}: {}", papel.getNome(), e.getOriginalMessage());
+        }
+        return (bits & Permissao.ALL.mask()) != 0 ? bits | Permissao.ALL_MASK : bits;
+    }
+
+    private static long maskOf(String codigo) {
+        Permissao permissao = Permissao.fromCodigo(codigo);
+        if (permissao == null) {
+            logger.debug("Permissão desconhecida ignorada: {}", codigo);
+            return 0L;
+        }
+        return permissao.mask();
+    }
+
+    private static String toRoleName(String nome) {
+        String normalized = nome.trim().toUpperCase();
+        return (normalized.startsWith(ROLE_PREFIX) ? normalized : ROLE_PREFIX + normalized).intern();
+    }
+
+    private static List<String> splitLegacy(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>();
+        for (String part : value.split(LEGACY_SEPARATOR)) {
+            if (!part.isBlank()) {
+                result.add(part.trim());
+            }
+        }
+        return result;
+    }
+
+    private static long fnv(long hash, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Papel com JSON de permissões já convertido em bits.
+     */
+    private record CompiledRole(Long id, Long versao, String roleName, long bits, int nivelAcesso) {
+    }
+}
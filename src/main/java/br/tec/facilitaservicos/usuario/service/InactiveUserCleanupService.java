@@ -0,0 +1,178 @@
+package br.tec.facilitaservicos.usuario.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.tec.facilitaservicos.usuario.client.AuthServiceClient;
+import br.tec.facilitaservicos.usuario.repository.KeysetPagination;
+import br.tec.facilitaservicos.usuario.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * ============================================================================
+ * 🧹 LIMPEZA DE USUÁRIOS INATIVOS
+ * ============================================================================
+ *
+ * Pipeline agendado, executado por um único nó (lock de líder no Redis):
+ * 1. seleciona apenas os ids candidatos, paginados por chave
+ * 2. para cada bloco: revoga as sessões dos ids no serviço de autenticação
+ *    (endpoint interno; as tabelas de tokens não pertencem a este serviço) e
+ *    só então aplica o soft delete com um único UPDATE {@code WHERE id IN (...)}
+ * 3. publica contadores por execução
+ *
+ * Se a revogação falhar o bloco não é removido e a execução para; o próximo
+ * disparo retoma os mesmos candidatos (ambos os passos são idempotentes).
+ * O soft delete anonimiza o e-mail de forma irreversível, por isso a limpeza
+ * vem desativada ({@code app.cleanup.inactive-users.enabled}).
+ *
+ * 100k contas viram ~200 blocos de 500 em vez de 100k idas ao banco.
+ * Entradas de cache dos usuários removidos expiram pelo TTL (já estavam
+ * inativos, então não autenticam).
+ * ============================================================================
+ */
+@Service
+public class InactiveUserCleanupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InactiveUserCleanupService.class);
+
+    static final String LOCK_NAME = "inactive-user-cleanup";
+
+    private final UsuarioRepository usuarioRepository;
+    private final AuthServiceClient authServiceClient;
+    private final RedisLeaderLock leaderLock;
+
+    private final boolean enabled;
+    private final Duration retention;
+    private final int chunkSize;
+    private final Duration lockLease;
+    private final Duration timeBudget;
+
+    private final Counter usersDeleted;
+    private final Counter tokensRevoked;
+    private final Counter batches;
+    private final Counter skippedNotLeader;
+    private final Counter failures;
+    private final Timer duration;
+
+    public InactiveUserCleanupService(UsuarioRepository usuarioRepository,
+                                      AuthServiceClient authServiceClient,
+                                      RedisLeaderLock leaderLock,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.cleanup.inactive-users.enabled:false}") boolean enabled,
+                                      @Value("${app.cleanup.inactive-users.retention:P180D}") Duration retention,
+                                      @Value("${app.cleanup.inactive-users.chunk-size:500}") int chunkSize,
+                                      @Value("${app.cleanup.inactive-users.lock-lease:PT15M}") Duration lockLease,
+                                      @Value("${app.cleanup.inactive-users.time-budget:PT10M}") Duration timeBudget) {
+        this.usuarioRepository = usuarioRepository;
+        this.authServiceClient = authServiceClient;
+        this.leaderLock = leaderLock;
+        this.enabled = enabled;
+        this.retention = retention;
+        this.chunkSize = KeysetPagination.clampPageSize(chunkSize);
+        this.lockLease = lockLease;
+        this.timeBudget = timeBudget;
+
+        this.usersDeleted = Counter.builder("usuario.cleanup.users.deleted")
+                .description("Usuários inativos removidos (soft delete)")
+                .register(meterRegistry);
+        this.tokensRevoked = Counter.builder("usuario.cleanup.tokens.revoked")
+                .description("Tokens revogados em cascata pela limpeza")
+                .register(meterRegistry);
+        this.batches = Counter.builder("usuario.cleanup.batches")
+                .description("Blocos processados pela limpeza")
+                .register(meterRegistry);
+        this.skippedNotLeader = Counter.builder("usuario.cleanup.skipped")
+                .description("Execuções ignoradas porque outro nó detém o lock")
+                .tag("reason", "not-leader")
+                .register(meterRegistry);
+        this.failures = Counter.builder("usuario.cleanup.errors")
+                .description("Execuções da limpeza que falharam")
+                .register(meterRegistry);
+        this.duration = Timer.builder("usuario.cleanup.duration")
+                .description("Duração de cada execução da limpeza")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Disparo agendado; apenas o nó que obtiver o lock executa.
+     */
+    @Scheduled(fixedDelayString = "${app.cleanup.inactive-users.interval:PT6H}",
+               initialDelayString = "${app.cleanup.inactive-users.initial-delay:PT10M}")
+    public void scheduledCleanup() {
+        if (!enabled) {
+            return;
+        }
+
+        leaderLock.runIfLeader(LOCK_NAME, lockLease, runCleanup())
+            .switchIfEmpty(Mono.fromRunnable(skippedNotLeader::increment))
+            .subscribe(
+                result -> logger.info("🧹 Limpeza de inativos concluída: usuários={}, tokens={}, blocos={}",
+                                     result.users(), result.tokens(), result.batches()),
+                error -> {
+                    failures.increment();
+                    logger.error("❌ Falha na limpeza de usuários inativos: {}", error.getMessage());
+                });
+    }
+
+    /**
+     * Executa a limpeza (sem lock) até esgotar os candidatos ou o orçamento de tempo.
+     */
+    public Mono<CleanupResult> runCleanup() {
+        return Mono.defer(() -> {
+            LocalDateTime dataLimite = LocalDateTime.now().minus(retention);
+            Instant deadline = Instant.now().plus(timeBudget);
+            Timer.Sample sample = Timer.start();
+
+            logger.info("🧹 Iniciando limpeza de inativos: dataLimite={}, bloco={}", dataLimite, chunkSize);
+
+            return KeysetPagination.stream(0L, chunkSize,
+                    (afterId, limite) -> usuarioRepository.findIdsParaLimpezaAposId(dataLimite, afterId, limite),
+                    Function.identity())
+                .buffer(chunkSize)
+                .takeWhile(chunk -> Instant.now().isBefore(deadline))
+                .concatMap(this::processChunk)
+                .reduce(CleanupResult.EMPTY, CleanupResult::plus)
+                .doFinally(signal -> sample.stop(duration));
+        });
+    }
+
+    // Métodos auxiliares privados
+
+    private Mono<CleanupResult> processChunk(List<Long> ids) {
+        // Revogar antes: usuário removido não pode manter sessão ativa
+        return authServiceClient.revokeUsersSessions(ids)
+            .zipWhen(revoked -> usuarioRepository.softDeleteUsuarios(ids))
+            .map(counts -> new CleanupResult(counts.getT2(), counts.getT1(), 1))
+            .doOnNext(result -> {
+                usersDeleted.increment(result.users());
+                tokensRevoked.increment(result.tokens());
+                batches.increment();
+                logger.debug("🧹 Bloco processado: ids {}..{}, usuários={}, tokens={}",
+                            ids.get(0), ids.get(ids.size() - 1), result.users(), result.tokens());
+            });
+    }
+
+    /**
+     * Totais de uma execução da limpeza.
+     */
+    public record CleanupResult(long users, long tokens, int batches) {
+
+        static final CleanupResult EMPTY = new CleanupResult(0, 0, 0);
+
+        CleanupResult plus(CleanupResult other) {
+            return new CleanupResult(users + other.users, tokens + other.tokens, batches + other.batches);
+        }
+    }
+}
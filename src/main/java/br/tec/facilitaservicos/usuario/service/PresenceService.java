@@ -0,0 +1,211 @@
+package br.tec.facilitaservicos.usuario.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * ============================================================================
+ * 🟢 PRESENÇA DE USUÁRIOS (REDIS SORTED SET)
+ * ============================================================================
+ *
+ * Presença compartilhada entre todas as réplicas:
+ * - ZSET {@value #KEY_ONLINE}: membro = userId, score = instante de expiração (epoch ms)
+ * - HASH {@value #KEY_INFO_PREFIX}{userId}: dados da sessão, com EXPIRE igual ao TTL
+ *
+ * As chaves compartilham o hash tag {@code {usuario:presence}} (mesmo slot no
+ * cluster) para que o registro grave ZSET e HASH num único script atômico.
+ *
+ * Usuário está online se o score for maior que "agora"; a expiração é verificada
+ * na leitura, então a limpeza (ZREMRANGEBYSCORE, O(log n + m)) é apenas coleta
+ * de lixo e não afeta a corretude.
+ * ============================================================================
+ */
+@Service
+public class PresenceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresenceService.class);
+
+    static final String KEY_ONLINE = "{usuario:presence}:online";
+    static final String KEY_INFO_PREFIX = "{usuario:presence}:info:";
+
+    private static final String FIELD_USERNAME = "username";
+    private static final String FIELD_STATUS_MESSAGE = "statusMessage";
+    private static final String FIELD_DEVICE = "device";
+    private static final String FIELD_IP_ADDRESS = "ipAddress";
+    private static final String FIELD_LAST_ACTIVITY = "lastActivity";
+
+    // ZADD + HSET + PEXPIRE atômicos: leitor nunca vê o ZSET renovado sem os dados da sessão
+    private static final RedisScript<Long> MARK_ONLINE_SCRIPT = RedisScript.of("""
+        redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+        redis.call('HSET', KEYS[2], unpack(ARGV, 4))
+        redis.call('PEXPIRE', KEYS[2], ARGV[3])
+        return 1
+        """, Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public PresenceService(ReactiveStringRedisTemplate redisTemplate,
+                           @Value("${app.presence.ttl:PT5M}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Registra (ou renova) a presença do usuário.
+     */
+    public Mono<Void> markOnline(PresenceInfo info) {
+        // Programação defensiva: validação de parâmetros
+        if (info == null || info.userId() == null) {
+            return Mono.empty();
+        }
+
+        String member = info.userId().toString();
+        List<String> args = new ArrayList<>();
+        args.add(member);
+        args.add(String.valueOf(info.lastActivity().plus(ttl).toEpochMilli()));
+        args.add(String.valueOf(ttl.toMillis()));
+        toHash(info).forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+
+        return redisTemplate.execute(MARK_ONLINE_SCRIPT, List.of(KEY_ONLINE, KEY_INFO_PREFIX + member), args)
+            .then()
+            .doOnSuccess(ok -> logger.debug("🟢 Presença registrada: userId={}", info.userId()));
+    }
+
+    /**
+     * Remove a presença do usuário imediatamente.
+     */
+    public Mono<Void> markOffline(Long userId) {
+        if (userId == null) {
+            return Mono.empty();
+        }
+        String member = userId.toString();
+        return redisTemplate.opsForZSet().remove(KEY_ONLINE, member)
+            .then(redisTemplate.delete(KEY_INFO_PREFIX + member))
+            .then();
+    }
+
+    /**
+     * Busca a presença ativa do usuário; vazio se offline ou expirado.
+     */
+    public Mono<PresenceInfo> findActive(Long userId) {
+        if (userId == null) {
+            return Mono.empty();
+        }
+        String member = userId.toString();
+        long now = Instant.now().toEpochMilli();
+
+        return redisTemplate.opsForZSet().score(KEY_ONLINE, member)
+            .filter(expiresAt -> expiresAt > now)
+            .flatMap(expiresAt -> redisTemplate.<String, String>opsForHash()
+                .entries(KEY_INFO_PREFIX + member)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .map(hash -> fromHash(userId, hash)));
+    }
+
+    /**
+     * Consulta em lote "quem está online entre estes ids" (ZMSCORE, uma ida ao Redis).
+     *
+     * @return ids online, na ordem recebida
+     */
+    public Mono<Set<Long>> findOnline(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Mono.just(Set.of());
+        }
+
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        Object[] members = ids.stream().map(String::valueOf).toArray();
+        long now = Instant.now().toEpochMilli();
+
+        return redisTemplate.opsForZSet().score(KEY_ONLINE, members)
+            .map(scores -> {
+                Set<Long> online = new LinkedHashSet<>();
+                for (int i = 0; i < ids.size(); i++) {
+                    Double expiresAt = scores.get(i);
+                    if (expiresAt != null && expiresAt > now) {
+                        online.add(ids.get(i));
+                    }
+                }
+                return online;
+            });
+    }
+
+    /**
+     * Conta usuários online (ZCOUNT, O(log n)).
+     */
+    public Mono<Long> countOnline() {
+        return redisTemplate.opsForZSet()
+            .count(KEY_ONLINE, Range.rightUnbounded(Range.Bound.exclusive((double) Instant.now().toEpochMilli())));
+    }
+
+    /**
+     * Remove entradas expiradas do ZSET (ZREMRANGEBYSCORE, O(log n + m)).
+     */
+    public Mono<Long> purgeExpired() {
+        return redisTemplate.opsForZSet()
+            .removeRangeByScore(KEY_ONLINE, Range.closed(0d, (double) Instant.now().toEpochMilli()));
+    }
+
+    // Métodos auxiliares privados
+
+    private static Map<String, String> toHash(PresenceInfo info) {
+        Map<String, String> hash = new HashMap<>();
+        putIfNotNull(hash, FIELD_USERNAME, info.username());
+        putIfNotNull(hash, FIELD_STATUS_MESSAGE, info.statusMessage());
+        putIfNotNull(hash, FIELD_DEVICE, info.device());
+        putIfNotNull(hash, FIELD_IP_ADDRESS, info.ipAddress());
+        hash.put(FIELD_LAST_ACTIVITY, String.valueOf(info.lastActivity().toEpochMilli()));
+        return hash;
+    }
+
+    private static PresenceInfo fromHash(Long userId, Map<String, String> hash) {
+        String lastActivity = hash.get(FIELD_LAST_ACTIVITY);
+        return new PresenceInfo(
+            userId,
+            hash.get(FIELD_USERNAME),
+            hash.get(FIELD_STATUS_MESSAGE),
+            hash.get(FIELD_DEVICE),
+            hash.get(FIELD_IP_ADDRESS),
+            lastActivity != null ? Instant.ofEpochMilli(Long.parseLong(lastActivity)) : Instant.now()
+        );
+    }
+
+    private static void putIfNotNull(Map<String, String> hash, String field, String value) {
+        if (value != null) {
+            hash.put(field, value);
+        }
+    }
+
+    /**
+     * Dados de presença de um usuário.
+     */
+    public record PresenceInfo(Long userId, String username, String statusMessage,
+                               String device, String ipAddress, Instant lastActivity) {
+
+        public PresenceInfo {
+            if (lastActivity == null) {
+                lastActivity = Instant.now();
+            }
+        }
+    }
+}
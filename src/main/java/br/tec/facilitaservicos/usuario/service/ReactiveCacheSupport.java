@@ -0,0 +1,82 @@
+package br.tec.facilitaservicos.usuario.service;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Utilitários de acesso programático ao cache a partir de fluxos reativos
+ * (consultas em lote), sem bloquear o event loop.
+ */
+final class ReactiveCacheSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCacheSupport.class);
+
+    private ReactiveCacheSupport() {
+    }
+
+    /**
+     * Lê uma entrada via {@link Cache#retrieve(Object)}; vazio em miss ou erro.
+     */
+    static <T> Mono<T> fromCache(Cache cache, Object key, Class<T> type) {
+        if (cache == null) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+                CompletableFuture<?> future = cache.retrieve(key);
+                return future != null ? Mono.fromFuture(future) : Mono.empty();
+            })
+            .map(result -> result instanceof Cache.ValueWrapper wrapper ? wrapper.get() : result)
+            .filter(type::isInstance)
+            .map(type::cast)
+            // Cache indisponível não deve impedir a consulta ao banco
+            .onErrorResume(e -> Mono.empty());
+    }
+
+    /**
+     * Grava no cache fora do event loop (escrita no Redis é bloqueante), sem atrasar a resposta.
+     */
+    static void populate(Cache cache, Object key, Object value) {
+        if (cache == null || key == null || value == null) {
+            return;
+        }
+        Mono.fromRunnable(() -> cache.put(key, value))
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(null, e -> logger.debug("Falha ao popular cache {}: {}", cache.getName(), e.getMessage()));
+    }
+
+    /**
+     * Remove do cache fora do event loop.
+     */
+    static Mono<Void> evict(Cache cache, Object key) {
+        if (cache == null) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> cache.evict(key))
+            .subscribeOn(Schedulers.boundedElastic())
+            .then();
+    }
+
+    /**
+     * Ids distintos e válidos (> 0), preservando a ordem recebida.
+     */
+    static Set<Long> distinctValidIds(Collection<Long> ids) {
+        Set<Long> result = new LinkedHashSet<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                if (id != null && id > 0) {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,85 @@
+package br.tec.facilitaservicos.usuario.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * ============================================================================
+ * 👑 LOCK DE LÍDER NO REDIS
+ * ============================================================================
+ *
+ * Garante que uma tarefa agendada rode em apenas uma réplica por vez:
+ * - aquisição: {@code SET key token NX PX lease}
+ * - liberação: script Lua que só remove a chave se o token ainda for o nosso
+ *   (um lease expirado e readquirido por outro nó nunca é apagado por engano)
+ *
+ * O lease deve ser maior que a duração máxima da tarefa.
+ * ============================================================================
+ */
+@Component
+public class RedisLeaderLock {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisLeaderLock.class);
+
+    static final String KEY_PREFIX = "usuario:leader:";
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public RedisLeaderLock(ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Executa {@code task} somente se este nó obtiver o lock {@code name}.
+     *
+     * @return resultado da tarefa, ou vazio se outro nó detém o lock
+     */
+    public <T> Mono<T> runIfLeader(String name, Duration lease, Mono<T> task) {
+        String key = KEY_PREFIX + name;
+        String token = nodeId + ":" + UUID.randomUUID();
+
+        return Mono.usingWhen(
+            tryAcquire(key, token, lease),
+            acquired -> task,
+            acquired -> release(key, token));
+    }
+
+    // Métodos auxiliares privados
+
+    private Mono<String> tryAcquire(String key, String token, Duration lease) {
+        return redisTemplate.opsForValue().setIfAbsent(key, token, lease)
+            .filter(Boolean::booleanValue)
+            .map(acquired -> key)
+            .doOnNext(acquired -> logger.debug("👑 Lock adquirido: {}", key))
+            .switchIfEmpty(Mono.fromRunnable(() -> logger.debug("⏭️ Lock em uso por outro nó: {}", key)));
+    }
+
+    private Mono<Void> release(String key, String token) {
+        return redisTemplate.execute(RELEASE_SCRIPT, List.of(key), List.of(token))
+            .next()
+            .doOnNext(released -> {
+                if (released == 0) {
+                    logger.warn("⚠️ Lock {} expirou antes do fim da tarefa", key);
+                }
+            })
+            .onErrorResume(error -> {
+                logger.warn("⚠️ Falha ao liberar lock {} (expira pelo lease): {}", key, error.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+}
@@ -2,23 +2,35 @@ package br.tec.facilitaservicos.usuario.service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import br.tec.facilitaservicos.usuario.dto.AuthorizationSnapshot;
+import br.tec.facilitaservicos.usuario.dto.Permissao;
 import br.tec.facilitaservicos.usuario.dto.TokenValidationResponseDTO;
 import br.tec.facilitaservicos.usuario.dto.UserStatusDTO;
 import br.tec.facilitaservicos.usuario.dto.UsuarioDTO;
 import br.tec.facilitaservicos.usuario.entity.Usuario;
+import br.tec.facilitaservicos.usuario.repository.KeysetPagination;
 import br.tec.facilitaservicos.usuario.repository.UsuarioRepository;
+import br.tec.facilitaservicos.usuario.service.PresenceService.PresenceInfo;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -32,7 +44,7 @@ import reactor.core.publisher.Mono;
  * Características:
  * - Cache inteligente para reduzir latência
  * - Circuit breakers para resiliência
- * - Tracking de sessões/status online
+ * - Tracking de sessões/status online (Redis, visível em todas as réplicas)
  * - Otimizado para alta performance
  * ============================================================================
  */
@@ -41,19 +53,30 @@ public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    private static final String CACHE_USERS = "users";
+
     private final UsuarioRepository usuarioRepository;
-    
-    // Cache em memória para status online (complementar ao Redis)
-    private final ConcurrentHashMap<Long, UserSessionInfo> userSessions = new ConcurrentHashMap<>();
+    private final PresenceService presenceService;
+    private final CacheManager cacheManager;
+    private final AuthorizationSnapshotService authorizationSnapshotService;
 
-    public UserService(UsuarioRepository usuarioRepository) {
+    public UserService(UsuarioRepository usuarioRepository, PresenceService presenceService,
+                       CacheManager cacheManager, AuthorizationSnapshotService authorizationSnapshotService) {
         this.usuarioRepository = usuarioRepository;
+        this.presenceService = presenceService;
+        this.cacheManager = cacheManager;
+        this.authorizationSnapshotService = authorizationSnapshotService;
     }
 
     /**
      * 👤 Busca informações do usuário por ID com cache.
+     *
+     * {@code sync = true}: o cache é consultado/populado de forma assíncrona
+     * (Cache#retrieve) com o valor emitido pelo Mono, sem bloquear o event loop,
+     * e cargas concorrentes da mesma chave são deduplicadas. Usuário inexistente
+     * (Mono vazio) não é cacheado.
      */
-    @Cacheable(value = "users", key = "#userId", unless = "#result == null")
+    @Cacheable(value = CACHE_USERS, key = "#userId", sync = true)
     @CircuitBreaker(name = "user-lookup", fallbackMethod = "fallbackGetUser")
     @Retry(name = "user-lookup")
     public Mono<UsuarioDTO> getUserById(Long userId) {
@@ -78,19 +101,16 @@ public class UserService {
     public Mono<UserStatusDTO> getUserStatus(Long userId) {
         logger.debug("🟢 Verificando status do usuário: userId={}", userId);
         
-        UserSessionInfo sessionInfo = userSessions.get(userId);
-        
-        if (sessionInfo != null && sessionInfo.isActive()) {
-            return Mono.just(UserStatusDTO.online(
+        Mono<UserStatusDTO> online = presenceService.findActive(userId)
+            .map(info -> UserStatusDTO.online(
                 userId,
-                sessionInfo.getStatusMessage(),
-                sessionInfo.getDevice(),
-                sessionInfo.getIpAddress()
+                info.statusMessage(),
+                info.device(),
+                info.ipAddress()
             ));
-        }
-        
+
         // Buscar última atividade no banco se não estiver em sessão ativa
-        return usuarioRepository.findById(userId)
+        Mono<UserStatusDTO> offline = usuarioRepository.findById(userId)
             .map(usuario -> new UserStatusDTO(
                 userId,
                 false,
@@ -98,39 +118,141 @@ public class UserService {
                     usuario.getUltimoLogin().atZone(java.time.ZoneOffset.UTC).toInstant() : 
                     Instant.now().minusSeconds(3600),
                 null, null, null, null)) // Added nulls for other fields
-            .switchIfEmpty(Mono.just(new UserStatusDTO(userId, false, Instant.now().minusSeconds(3600), null, null, null, null))) // Changed from builder
+            .switchIfEmpty(Mono.just(new UserStatusDTO(userId, false, Instant.now().minusSeconds(3600), null, null, null, null))); // Changed from builder
+
+        return online
+            .switchIfEmpty(offline)
+            .timeout(Duration.ofSeconds(1));
+    }
+
+    /**
+     * 🟢 Consulta em lote quais usuários estão online (usado pelo chat).
+     */
+    public Mono<Set<Long>> getOnlineUsers(Collection<Long> userIds) {
+        logger.debug("🟢 Consulta de presença em lote: {} ids", userIds != null ? userIds.size() : 0);
+        return presenceService.findOnline(userIds)
             .timeout(Duration.ofSeconds(1));
     }
 
     /**
-     * 🔑 Obtém permissões do usuário.
+     * 🔑 Obtém permissões do usuário a partir do snapshot de autorização cacheado.
      */
-    @Cacheable(value = "user-permissions", key = "#userId", unless = "#result == null")
     @CircuitBreaker(name = "user-permissions", fallbackMethod = "fallbackGetUserPermissions")
     public Mono<Map<String, Object>> getUserPermissions(Long userId) {
         logger.debug("🔑 Obtendo permissões do usuário: userId={}", userId);
         
-        return usuarioRepository.findById(userId)
-            .map(usuario -> Map.<String, Object>of(
-                "userId", usuario.getId(),
-                "roles", usuario.getRoles(),
-                "permissions", usuario.getPermissoes(),
-                "isAdmin", usuario.getRoles().contains("ROLE_ADMIN"),
-                "isPremium", usuario.getRoles().contains("ROLE_PREMIUM"),
-                "canChat", usuario.getPermissoes().contains("chat:send"),
-                "canModerate", usuario.getPermissoes().contains("chat:moderate")
-            ))
+        return authorizationSnapshotService.getSnapshot(userId)
+            .map(this::toPermissionsMap)
+            .timeout(Duration.ofSeconds(2));
+    }
+
+    /**
+     * 🔖 Versão (hash hexadecimal) das permissões atuais do usuário, servida do
+     * snapshot cacheado; é o mesmo valor da claim {@code pv} dos access tokens.
+     */
+    public Mono<String> getUserPermissionsVersion(Long userId) {
+        return authorizationSnapshotService.getSnapshot(userId)
+            .map(snapshot -> Long.toHexString(snapshot.version()))
+            .timeout(Duration.ofSeconds(2));
+    }
+
+    /**
+     * Monta a resposta de permissões; todas as checagens são testes de bit.
+     */
+    public Map<String, Object> toPermissionsMap(AuthorizationSnapshot snapshot) {
+        return Map.<String, Object>of(
+            "userId", snapshot.userId(),
+            "roles", snapshot.roles().stream().sorted().toList(),
+            "permissions", snapshot.permissionCodes(),
+            "isAdmin", snapshot.hasRole("ADMIN") || snapshot.hasPermission(Permissao.ALL),
+            "isPremium", snapshot.hasRole("PREMIUM"),
+            "canChat", snapshot.hasPermission(Permissao.CHAT_SEND),
+            "canModerate", snapshot.hasPermission(Permissao.CHAT_MODERATE)
+                || snapshot.hasPermission(Permissao.MODERATE_CONTENT),
+            "nivelAcesso", snapshot.nivelAcesso(),
+            "version", Long.toHexString(snapshot.version())
+        );
+    }
+
+    /**
+     * 👥 Busca vários usuários de uma vez.
+     *
+     * Ids já presentes no cache "users" são servidos dele; os demais são lidos
+     * em uma única consulta {@code WHERE id IN (...)} e gravados no cache por id,
+     * ficando disponíveis também para {@link #getUserById}. Ids inexistentes são
+     * omitidos; a ordem do resultado não é garantida.
+     */
+    public Flux<UsuarioDTO> getUsersByIds(Collection<Long> userIds) {
+        return batchLookup(userIds, CACHE_USERS, UsuarioDTO.class, UsuarioDTO::from);
+    }
+
+    /**
+     * 🔑 Busca permissões de vários usuários de uma vez (ver {@link #getUsersByIds}).
+     */
+    public Flux<Map<String, Object>> getUsersPermissions(Collection<Long> userIds) {
+        return authorizationSnapshotService.getSnapshots(userIds)
+            .map(this::toPermissionsMap)
+            .timeout(Duration.ofSeconds(2));
+    }
+
+    /**
+     * 🟢 Status de vários usuários: presença em lote no Redis e último login
+     * dos offline em uma única consulta ao banco.
+     */
+    public Flux<UserStatusDTO> getUserStatuses(Collection<Long> userIds) {
+        Set<Long> ids = ReactiveCacheSupport.distinctValidIds(userIds);
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return presenceService.findOnline(ids)
+            .onErrorReturn(Set.of())
+            .flatMapMany(online -> {
+                Set<Long> offline = new LinkedHashSet<>(ids);
+                offline.removeAll(online);
+
+                Flux<UserStatusDTO> onlineStatuses = Flux.fromIterable(online).map(UserStatusDTO::online);
+                Flux<UserStatusDTO> offlineStatuses = offline.isEmpty() ? Flux.empty() :
+                    usuarioRepository.findByIdIn(offline)
+                        .map(usuario -> UserStatusDTO.offline(usuario.getId(),
+                            usuario.getUltimoLogin() != null ?
+                                usuario.getUltimoLogin().atZone(java.time.ZoneOffset.UTC).toInstant() :
+                                Instant.now().minusSeconds(3600)));
+                return Flux.concat(onlineStatuses, offlineStatuses);
+            })
             .timeout(Duration.ofSeconds(2));
     }
 
+    /**
+     * 📤 Exportação administrativa em streaming, paginada por chave (id).
+     *
+     * Cada página é uma consulta curta {@code id > :afterId ORDER BY id LIMIT n}
+     * e a próxima só é lida quando o consumidor pede mais, então a exportação
+     * roda em memória constante; {@code afterId} permite retomar do último id
+     * recebido.
+     */
+    public Flux<UsuarioDTO> exportUsers(FiltroExportacao filtro, long afterId, int pageSize) {
+        logger.info("📤 Exportação de usuários: filtro={}, afterId={}, pageSize={}", filtro, afterId, pageSize);
+
+        return KeysetPagination.stream(afterId, pageSize,
+                (cursor, limite) -> switch (filtro) {
+                    case ATIVOS -> usuarioRepository.findAtivosAposId(cursor, limite);
+                    case EMAIL_NAO_VERIFICADO -> usuarioRepository.findEmailNaoVerificadoAposId(cursor, limite);
+                },
+                Usuario::getId)
+            .map(UsuarioDTO::from);
+    }
+
     /**
      * 📊 Realiza health check dos componentes de validação.
      */
     public Mono<Map<String, Object>> performHealthCheck() {
         Instant startTime = Instant.now();
         
-        return usuarioRepository.count()
-            .map(userCount -> {
+        return Mono.zip(usuarioRepository.count(), presenceService.countOnline().onErrorReturn(-1L))
+            .map(counts -> {
+                long userCount = counts.getT1();
+                long activeSessions = counts.getT2();
                 Duration responseTime = Duration.between(startTime, Instant.now());
                 
                 return Map.<String, Object>of(
@@ -144,7 +266,7 @@ public class UserService {
                         ),
                         "cache", Map.of(
                             "status", "UP",
-                            "activeSessions", userSessions.size()
+                            "activeSessions", activeSessions
                         ),
                         "jwt", Map.of(
                             "status", "UP",
@@ -166,57 +288,85 @@ public class UserService {
     /**
      * 🔄 Atualiza status online do usuário.
      */
-    public void updateUserOnlineStatus(Long userId, String username) {
-        updateUserOnlineStatus(userId, username, null, null, null);
+    public Mono<Void> updateUserOnlineStatus(Long userId, String username) {
+        return updateUserOnlineStatus(userId, username, null, null, null);
     }
 
     /**
      * 🔄 Atualiza status online do usuário com informações detalhadas.
      */
-    public void updateUserOnlineStatus(Long userId, String username, String statusMessage, 
-                                     String device, String ipAddress) {
-        UserSessionInfo sessionInfo = new UserSessionInfo(
-            userId,
-            username,
-            statusMessage,
-            device,
-            ipAddress,
-            Instant.now()
-        );
-            
-        userSessions.put(userId, sessionInfo);
-        
-        logger.debug("🔄 Status online atualizado: userId={}, device={}", userId, device);
+    public Mono<Void> updateUserOnlineStatus(Long userId, String username, String statusMessage, 
+                                             String device, String ipAddress) {
+        PresenceInfo info = new PresenceInfo(userId, username, statusMessage, device, ipAddress, Instant.now());
+        return presenceService.markOnline(info)
+            .doOnSuccess(v -> logger.debug("🔄 Status online atualizado: userId={}, device={}", userId, device));
     }
 
     /**
      * 🚪 Marca usuário como offline.
      */
-    public void markUserOffline(Long userId) {
-        userSessions.remove(userId);
-        logger.debug("🚪 Usuário marcado como offline: userId={}", userId);
+    public Mono<Void> markUserOffline(Long userId) {
+        return presenceService.markOffline(userId)
+            .doOnSuccess(v -> logger.debug("🚪 Usuário marcado como offline: userId={}", userId));
     }
 
     /**
      * 🧹 Limpa sessões expiradas (executado periodicamente).
+     * A expiração já é aplicada na leitura; aqui apenas se libera memória no Redis.
      */
+    @Scheduled(fixedDelayString = "${app.presence.cleanup-interval:PT1M}")
     public void cleanExpiredSessions() {
-        Instant cutoff = Instant.now().minus(Duration.ofMinutes(15)); // 15 minutos de inatividade
-        
-        int removed = 0;
-        var iterator = userSessions.entrySet().iterator();
-        
-        while (iterator.hasNext()) {
-            var entry = iterator.next();
-            if (entry.getValue().getLastActivity().isBefore(cutoff)) {
-                iterator.remove();
-                removed++;
-            }
-        }
-        
-        if (removed > 0) {
-            logger.info("🧹 Limpeza de sessões: {} sessões expiradas removidas", removed);
+        presenceService.purgeExpired()
+            .subscribe(
+                removed -> {
+                    if (removed > 0) {
+                        logger.info("🧹 Limpeza de sessões: {} sessões expiradas removidas", removed);
+                    }
+                },
+                error -> logger.warn("⚠️ Falha na limpeza de sessões: {}", error.getMessage()));
+    }
+
+    // Métodos auxiliares privados (lote)
+
+    private <T> Flux<T> batchLookup(Collection<Long> userIds, String cacheName, Class<T> type,
+                                    Function<Usuario, T> mapper) {
+        Set<Long> ids = ReactiveCacheSupport.distinctValidIds(userIds);
+        if (ids.isEmpty()) {
+            return Flux.empty();
         }
+
+        Cache cache = cacheManager.getCache(cacheName);
+        Map<Long, T> hits = new HashMap<>();
+
+        return Flux.fromIterable(ids)
+            .flatMap(id -> ReactiveCacheSupport.fromCache(cache, id, type).doOnNext(value -> {
+                synchronized (hits) {
+                    hits.put(id, value);
+                }
+            }))
+            .thenMany(Flux.defer(() -> {
+                Set<Long> misses = new LinkedHashSet<>(ids);
+                misses.removeAll(hits.keySet());
+                logger.debug("👥 Lote {}: {} ids, {} hits no cache", cacheName, ids.size(), hits.size());
+
+                Flux<T> fromDatabase = misses.isEmpty() ? Flux.empty() :
+                    usuarioRepository.findByIdIn(misses)
+                        .map(usuario -> {
+                            T value = mapper.apply(usuario);
+                            ReactiveCacheSupport.populate(cache, usuario.getId(), value);
+                            return value;
+                        });
+                return Flux.concat(Flux.fromIterable(hits.values()), fromDatabase);
+            }))
+            .timeout(Duration.ofSeconds(2));
+    }
+
+    /**
+     * Filtros suportados pela exportação administrativa.
+     */
+    public enum FiltroExportacao {
+        ATIVOS,
+        EMAIL_NAO_VERIFICADO
     }
 
     // Métodos de fallback para resilience
@@ -248,38 +398,4 @@ public class UserService {
             "canModerate", false
         ));
     }
-
-    /**
-     * Classe interna para informações de sessão do usuário.
-     */
-    private static class UserSessionInfo {
-        private final Long userId;
-        private final String username;
-        private final String statusMessage;
-        private final String device;
-        private final String ipAddress;
-        private final Instant lastActivity;
-
-        // Manual constructor (replaces @Builder)
-        public UserSessionInfo(Long userId, String username, String statusMessage, String device, String ipAddress, Instant lastActivity) {
-            this.userId = userId;
-            this.username = username;
-            this.statusMessage = statusMessage;
-            this.device = device;
-            this.ipAddress = ipAddress;
-            this.lastActivity = lastActivity;
-        }
-
-        public boolean isActive() {
-            return lastActivity.isAfter(Instant.now().minus(Duration.ofMinutes(5)));
-        }
-
-        // Getters
-        public Long getUserId() { return userId; }
-        public String getUsername() { return username; }
-        public String getStatusMessage() { return statusMessage; }
-        public String getDevice() { return device; }
-        public String getIpAddress() { return ipAddress; }
-        public Instant getLastActivity() { return lastActivity; }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+-- ============================================================================
+-- MIGRATION V004: Coluna token_mac (HMAC binário) em refresh_tokens
+-- ============================================================================
+-- Descrição: Adiciona token_mac BINARY(32) com índice único para o modo de
+--            armazenamento HMAC (app.refresh-token.hash.mode). Durante a
+--            transição (modo DUAL) os tokens novos gravam as duas colunas e a
+--            leitura cai para token_hash quando token_mac não encontra; por
+--            isso token_hash passa a aceitar NULL (modo HMAC grava só o MAC).
+--            Remove o índice duplicado de token_hash (a UNIQUE já indexa).
+--            Todas as alterações são online (INPLACE, sem bloqueio de DML).
+-- Data: 2026-10-18
+-- Autor: Sistema de Autenticação
+-- ============================================================================
+
+ALTER TABLE refresh_tokens
+    ADD COLUMN token_mac BINARY(32) NULL COMMENT 'HMAC-SHA256 (pepper) do SHA-256 do token' AFTER token_hash,
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE refresh_tokens
+    ADD UNIQUE INDEX uk_refresh_tokens_token_mac (token_mac),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE refresh_tokens
+    DROP INDEX idx_refresh_tokens_token_hash,
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE refresh_tokens
+    MODIFY COLUMN token_hash VARCHAR(255) NULL,
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,60 @@
+package br.tec.facilitaservicos.autenticacao.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Pool R2DBC adaptativo - Testes Unitários")
+class AdaptivePoolSizingTest {
+
+    private static final AdaptivePoolSizer.Settings SETTINGS = new AdaptivePoolSizer.Settings(5, 50, 2);
+
+    @Test
+    @DisplayName("Estratégia deve conceder até o limite atual e completar o mínimo no warmup")
+    void deveRespeitarLimite() {
+        AdaptiveAllocationStrategy strategy = new AdaptiveAllocationStrategy(2, 4, 10, 5);
+
+        assertThat(strategy.getPermits(0)).isEqualTo(2);
+        assertThat(strategy.getPermits(10)).isEqualTo(3);
+        assertThat(strategy.getPermits(1)).isZero();
+        assertThat(strategy.estimatePermitCount()).isZero();
+
+        strategy.setLimit(7);
+        assertThat(strategy.getPermits(5)).isEqualTo(2);
+        assertThat(strategy.permitGranted()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Reduzir o limite deve bloquear novas conexões até haver devoluções")
+    void deveEncolher() {
+        AdaptiveAllocationStrategy strategy = new AdaptiveAllocationStrategy(0, 2, 10, 6);
+        strategy.getPermits(6);
+
+        strategy.setLimit(4);
+        assertThat(strategy.getPermits(1)).isZero();
+
+        strategy.returnPermits(3);
+        assertThat(strategy.getPermits(5)).isEqualTo(1);
+        assertThatThrownBy(() -> strategy.returnPermits(10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Limite deve ficar entre os limites configurados")
+    void deveRestringirAosLimites() {
+        AdaptiveAllocationStrategy strategy = new AdaptiveAllocationStrategy(1, 3, 8, 5);
+
+        assertThat(strategy.setLimit(100)).isEqualTo(8);
+        assertThat(strategy.setLimit(0)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve crescer com espera alta ou pendências e encolher com folga")
+    void deveDecidirAjuste() {
+        assertThat(AdaptivePoolSizer.nextLimit(10, 80, 0, 0, SETTINGS)).isEqualTo(12);
+        assertThat(AdaptivePoolSizer.nextLimit(10, 1, 3, 0, SETTINGS)).isEqualTo(12);
+        assertThat(AdaptivePoolSizer.nextLimit(10, 1, 0, 4, SETTINGS)).isEqualTo(9);
+        assertThat(AdaptivePoolSizer.nextLimit(10, 1, 0, 1, SETTINGS)).isEqualTo(10);
+        assertThat(AdaptivePoolSizer.nextLimit(10, 20, 0, 8, SETTINGS)).isEqualTo(10);
+    }
+}
@@ -0,0 +1,95 @@
+package br.tec.facilitaservicos.autenticacao.config;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import br.tec.facilitaservicos.compartilhado.repository.ReadOnlyRoute;
+import br.tec.facilitaservicos.compartilhado.repository.RoutingContext;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@DisplayName("Roteamento leitura/escrita R2DBC - Testes Unitários")
+class ReadWriteRoutingTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+
+    private ReadWriteRoutingConnectionFactory routing;
+    private Repositorio repositorio;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory primary = mock(ConnectionFactory.class);
+        ConnectionFactory replica = mock(ConnectionFactory.class);
+        doReturn(Mono.just(primaryConnection)).when(primary).create();
+        doReturn(Mono.just(replicaConnection)).when(replica).create();
+        routing = new ReadWriteRoutingConnectionFactory(primary, replica);
+
+        ProxyFactory proxyFactory = new ProxyFactory(new RepositorioFake(routing));
+        proxyFactory.addInterface(Repositorio.class);
+        proxyFactory.addAdvice(new ReadOnlyRoutingInterceptor());
+        repositorio = (Repositorio) proxyFactory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Sem indicação de leitura a conexão deve vir do primário")
+    void devePadronizarNoPrimario() {
+        StepVerifier.create(Mono.from(routing.create()))
+            .expectNext(primaryConnection)
+            .verifyComplete();
+
+        StepVerifier.create(repositorio.escrever())
+            .expectNext(primaryConnection)
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Método anotado com @ReadOnlyRoute deve usar a réplica")
+    void deveLerDaReplica() {
+        StepVerifier.create(repositorio.ler())
+            .expectNext(replicaConnection)
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Fluxo fixado no primário deve prevalecer sobre @ReadOnlyRoute")
+    void devePreservarReadYourWrites() {
+        StepVerifier.create(RoutingContext.onPrimary(repositorio.ler()))
+            .expectNext(primaryConnection)
+            .verifyComplete();
+    }
+
+    interface Repositorio {
+
+        @ReadOnlyRoute
+        Mono<Connection> ler();
+
+        Mono<Connection> escrever();
+    }
+
+    static class RepositorioFake implements Repositorio {
+
+        private final ConnectionFactory connectionFactory;
+
+        RepositorioFake(ConnectionFactory connectionFactory) {
+            this.connectionFactory = connectionFactory;
+        }
+
+        @Override
+        public Mono<Connection> ler() {
+            return Mono.from(connectionFactory.create());
+        }
+
+        @Override
+        public Mono<Connection> escrever() {
+            return Mono.from(connectionFactory.create());
+        }
+    }
+}
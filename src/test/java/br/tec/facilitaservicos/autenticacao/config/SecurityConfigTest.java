@@ -0,0 +1,74 @@
+package br.tec.facilitaservicos.autenticacao.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.WebFilterChainProxy;
+
+import reactor.core.publisher.Mono;
+
+@DisplayName("SecurityConfig - Testes Unitários")
+class SecurityConfigTest {
+
+    private WebFilterChainProxy filterChain;
+
+    @BeforeEach
+    void setUp() {
+        filterChain = new WebFilterChainProxy(new SecurityConfig().securityFilterChain(ServerHttpSecurity.http()));
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @CsvSource({
+        "POST, /rest/v1/auth/token",
+        "POST, /rest/v1/auth/refresh",
+        "POST, /rest/v1/auth/introspect",
+        "POST, /rest/v1/auth/revoke",
+        "POST, /rest/v1/auth/revoke-all",
+        "GET, /rest/v1/auth/health",
+        "GET, /rest/v1/.well-known/jwks.json",
+        "GET, /rest/v1/oauth2/jwks"
+    })
+    @DisplayName("Endpoints OAuth2 públicos devem aceitar chamadas sem autenticação")
+    void devePermitirEndpointsPublicos(String method, String path) {
+        assertThat(reachesHandler(method, path)).isTrue();
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @CsvSource({
+        "POST, /rest/v1/auth/2fa/generate",
+        "GET, /rest/v1/auth/diagnostics/health",
+        "GET, /rest/v1/auth/token/extra"
+    })
+    @DisplayName("Demais endpoints sob /rest/v1/auth devem exigir autenticação")
+    void deveExigirAutenticacaoNosDemais(String method, String path) {
+        assertThat(reachesHandler(method, path)).isFalse();
+    }
+
+    // Métodos auxiliares privados
+
+    private boolean reachesHandler(String method, String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.method(HttpMethod.valueOf(method), path));
+        AtomicBoolean reached = new AtomicBoolean();
+
+        filterChain.filter(exchange, filtered -> {
+            reached.set(true);
+            return Mono.empty();
+        }).block();
+
+        if (!reached.get()) {
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        }
+        return reached.get();
+    }
+}
@@ -0,0 +1,36 @@
+package br.tec.facilitaservicos.autenticacao.configuracao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("R2dbcUrlNormalizer - Testes Unitários")
+class R2dbcUrlNormalizerTest {
+
+    @Test
+    @DisplayName("Deve acrescentar as opções de prepared statement à query string existente")
+    void deveAcrescentarOpcoes() {
+        String url = R2dbcUrlNormalizer.withPreparedStatementOptions(
+            "r2dbc:mysql://db:3306/auth?useSSL=true", 128);
+
+        assertThat(url).isEqualTo("r2dbc:mysql://db:3306/auth?useSSL=true&useServerPrepareStatement=true&prepareCacheSize=128");
+    }
+
+    @Test
+    @DisplayName("Deve criar a query string quando ausente")
+    void deveCriarQueryString() {
+        assertThat(R2dbcUrlNormalizer.withPreparedStatementOptions("r2dbc:mysql://db/auth", 256))
+            .isEqualTo("r2dbc:mysql://db/auth?useServerPrepareStatement=true&prepareCacheSize=256");
+    }
+
+    @Test
+    @DisplayName("Não deve sobrescrever opções definidas explicitamente nem alterar URLs não R2DBC")
+    void deveRespeitarOpcoesExplicitas() {
+        String explicita = "r2dbc:mysql://db/auth?useServerPrepareStatement=false&prepareCacheSize=32";
+
+        assertThat(R2dbcUrlNormalizer.withPreparedStatementOptions(explicita, 256)).isEqualTo(explicita);
+        assertThat(R2dbcUrlNormalizer.withPreparedStatementOptions("jdbc:mysql://db/auth", 256))
+            .isEqualTo("jdbc:mysql://db/auth");
+    }
+}
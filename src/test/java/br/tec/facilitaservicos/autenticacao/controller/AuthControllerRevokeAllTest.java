@@ -0,0 +1,91 @@
+package br.tec.facilitaservicos.autenticacao.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import br.tec.facilitaservicos.autenticacao.dto.RequisicaoRefreshDTO;
+import br.tec.facilitaservicos.autenticacao.exception.AuthenticationException;
+import br.tec.facilitaservicos.autenticacao.ratelimit.ClientIpResolver;
+import br.tec.facilitaservicos.autenticacao.service.AuthService;
+import br.tec.facilitaservicos.autenticacao.service.DiagnosticoService;
+import br.tec.facilitaservicos.autenticacao.service.TwoFactorService;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuthController /revoke-all - Testes Unitários")
+class AuthControllerRevokeAllTest {
+
+    private static final String REFRESH_TOKEN = "valid.refresh.token";
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private TwoFactorService twoFactorService;
+
+    @Mock
+    private DiagnosticoService diagnosticoService;
+
+    private AuthController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new AuthController(authService, twoFactorService, diagnosticoService,
+            new ClientIpResolver(List.of()));
+    }
+
+    @Test
+    @DisplayName("Deve responder 200 com a quantidade de sessões revogadas")
+    void deveRevogarTodasAsSessoes() {
+        when(authService.revokeAllSessions(REFRESH_TOKEN)).thenReturn(Mono.just(3));
+
+        StepVerifier.create(controller.revokeAll(new RequisicaoRefreshDTO(REFRESH_TOKEN), exchange()))
+            .assertNext(response -> {
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                assertThat(body(response))
+                    .containsEntry("revoked", true)
+                    .containsEntry("revoked_count", 3);
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Deve responder 401 quando o refresh token é inválido")
+    void deveRecusarRefreshTokenInvalido() {
+        when(authService.revokeAllSessions(REFRESH_TOKEN))
+            .thenReturn(Mono.error(new AuthenticationException("Refresh token inválido")));
+
+        StepVerifier.create(controller.revokeAll(new RequisicaoRefreshDTO(REFRESH_TOKEN), exchange()))
+            .assertNext(response -> {
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+                assertThat(body(response)).containsEntry("error", "invalid_grant");
+            })
+            .verifyComplete();
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/rest/v1/auth/revoke-all")
+            .remoteAddress(new InetSocketAddress("203.0.113.7", 443)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> body(ResponseEntity<Object> response) {
+        return (Map<String, Object>) response.getBody();
+    }
+}
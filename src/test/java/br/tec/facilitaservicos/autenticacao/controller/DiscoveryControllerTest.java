@@ -0,0 +1,69 @@
+package br.tec.facilitaservicos.autenticacao.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DisplayName("DiscoveryController - Testes Unitários")
+class DiscoveryControllerTest {
+
+    private static final String ISSUER = "https://auth.exemplo.com.br";
+    private static final String DISCOVERY_PATH = "/.well-known/openid-configuration";
+
+    private ObjectMapper objectMapper;
+    private DiscoveryController controller;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        controller = new DiscoveryController(objectMapper, ISSUER + "/");
+    }
+
+    @Test
+    @DisplayName("Deve anunciar apenas issuer, jwks_uri e introspecção")
+    void deveAnunciarApenasOQueEstaImplementado() throws Exception {
+        ResponseEntity<byte[]> response = controller
+            .openidConfiguration(MockServerWebExchange.from(MockServerHttpRequest.get(DISCOVERY_PATH)))
+            .block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotBlank();
+
+        Map<String, Object> document = objectMapper.readValue(response.getBody(), new TypeReference<>() { });
+        assertThat(document).containsOnlyKeys(
+            "issuer", "jwks_uri", "introspection_endpoint", "introspection_endpoint_auth_methods_supported");
+        assertThat(document)
+            .containsEntry("issuer", ISSUER + "/")
+            .containsEntry("jwks_uri", ISSUER + "/rest/v1/.well-known/jwks.json")
+            .containsEntry("introspection_endpoint", ISSUER + "/rest/v1/auth/introspect");
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 sem corpo quando o If-None-Match confere")
+    void deveResponderNaoModificado() {
+        String etag = controller
+            .authorizationServerMetadata(MockServerWebExchange.from(MockServerHttpRequest.get(DISCOVERY_PATH)))
+            .block()
+            .getHeaders().getETag();
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get(DISCOVERY_PATH).header(HttpHeaders.IF_NONE_MATCH, etag));
+        ResponseEntity<byte[]> response = controller.openidConfiguration(exchange).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(response.getBody()).isNull();
+    }
+}
@@ -0,0 +1,118 @@
+package br.tec.facilitaservicos.autenticacao.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+import br.tec.facilitaservicos.autenticacao.service.KeyVaultService;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuthEventHub - Testes Unitários")
+class AuthEventHubTest {
+
+    private static final int HISTORICO = 3;
+    private static final int BUFFER = 2;
+
+    @Mock
+    private ReactiveRedisConnectionFactory connectionFactory;
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private AuthEventPublisher publisher;
+
+    @Mock
+    private KeyVaultService keyVaultService;
+
+    private AuthEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        // Sem start(): os eventos entram direto por dispatch
+        hub = new AuthEventHub(connectionFactory, redisTemplate, publisher, keyVaultService,
+                HISTORICO, BUFFER, Duration.ofSeconds(15), Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Deve entregar eventos novos aos assinantes")
+    void deveEntregarEventosNovos() {
+        StepVerifier.create(hub.subscribe(null))
+                .then(() -> hub.dispatch(revogado("100-0", "jti-1")))
+                .assertNext(event -> {
+                    assertThat(event.type()).isEqualTo(AuthEvent.REVOKED);
+                    assertThat(event.data()).containsEntry("jti", "jti-1");
+                })
+                .thenCancel()
+                .verify();
+
+        assertThat(hub.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve reenviar eventos posteriores ao Last-Event-ID")
+    void deveReenviarEventosPosterioresAoLastEventId() {
+        hub.dispatch(revogado("100-0", "jti-1"));
+        hub.dispatch(revogado("100-1", "jti-2"));
+        hub.dispatch(revogado("101-0", "jti-3"));
+
+        StepVerifier.create(hub.subscribe("100-0"))
+                .assertNext(event -> assertThat(event.id()).isEqualTo("100-1"))
+                .assertNext(event -> assertThat(event.id()).isEqualTo("101-0"))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Deve enviar resync quando o Last-Event-ID saiu do histórico ou é inválido")
+    void deveEnviarResyncQuandoLastEventIdForaDoHistorico() {
+        for (int i = 1; i <= 5; i++) {
+            hub.dispatch(revogado(i + "-0", "jti-" + i));
+        }
+
+        StepVerifier.create(hub.subscribe("1-0"))
+                .assertNext(event -> {
+                    assertThat(event.type()).isEqualTo(AuthEvent.RESYNC);
+                    assertThat(event.id()).isEqualTo("5-0");
+                })
+                .thenCancel()
+                .verify();
+
+        StepVerifier.create(hub.subscribe("abc"))
+                .assertNext(event -> assertThat(event.type()).isEqualTo(AuthEvent.RESYNC))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Deve desconectar assinante lento quando a fila enche")
+    void deveDesconectarAssinanteLento() {
+        StepVerifier.create(hub.subscribe(null), 0)
+                .then(() -> {
+                    for (int i = 1; i <= BUFFER + 1; i++) {
+                        hub.dispatch(revogado(i + "-0", "jti-" + i));
+                    }
+                })
+                .then(() -> assertThat(hub.getSubscriberCount()).isZero())
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(BUFFER)
+                .verifyComplete();
+    }
+
+    // Métodos auxiliares privados
+
+    private static AuthEvent revogado(String id, String jti) {
+        return new AuthEvent(id, AuthEvent.REVOKED, Map.of("jti", jti, "exp", "0"));
+    }
+}
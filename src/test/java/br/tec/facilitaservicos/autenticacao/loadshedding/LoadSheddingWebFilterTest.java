@@ -0,0 +1,136 @@
+package br.tec.facilitaservicos.autenticacao.loadshedding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+
+import br.tec.facilitaservicos.autenticacao.loadshedding.LoadSheddingProperties.Priority;
+import br.tec.facilitaservicos.autenticacao.loadshedding.LoadSheddingWebFilter.Partition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("LoadSheddingWebFilter - Testes Unitários")
+class LoadSheddingWebFilterTest {
+
+    private static final long RAPIDA = Duration.ofMillis(10).toNanos();
+    private static final long LENTA = Duration.ofSeconds(2).toNanos();
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoadSheddingWebFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, LoadSheddingProperties.EndpointClass> classes = new LinkedHashMap<>();
+        classes.put("introspect", endpointClass("/rest/v1/auth/introspect", Priority.HIGH, 10));
+        classes.put("login", endpointClass("/rest/v1/auth/token", Priority.LOW, 10));
+
+        LoadSheddingProperties properties = new LoadSheddingProperties();
+        properties.setClasses(classes);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new LoadSheddingWebFilter(properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve recusar acima do limite e liberar a vaga ao concluir")
+    void deveRecusarAcimaDoLimite() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10, Duration.ofMillis(100), 0.5);
+
+        assertThat(limiter.tryAcquire(limiter.getLimit())).isTrue();
+        assertThat(limiter.tryAcquire(limiter.getLimit())).isTrue();
+        assertThat(limiter.tryAcquire(limiter.getLimit())).isFalse();
+
+        // Cancelamento libera sem amostra: limite inalterado
+        limiter.release(-1);
+        assertThat(limiter.getInflight()).isEqualTo(1);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.tryAcquire(limiter.getLimit())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve recuar o limite com latência alta e crescer com o limite em uso")
+    void deveAjustarLimitePelaLatencia() {
+        AtomicLong relogio = new AtomicLong(Duration.ofMinutes(1).toNanos());
+        AimdLimiter limiter = new AimdLimiter(8, 2, 10, Duration.ofMillis(100), 0.5, relogio::get);
+
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(limiter.getLimit());
+        }
+        limiter.release(RAPIDA);
+        assertThat(limiter.getLimit()).isEqualTo(9);
+
+        limiter.release(LENTA);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        limiter.release(RAPIDA);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+
+        // Ocioso (menos da metade em uso): resposta rápida não aumenta o limite
+        limiter.release(RAPIDA);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+
+        // Nova janela (requisição iniciada depois do recuo) recua de novo, nunca abaixo do mínimo
+        relogio.addAndGet(LENTA + RAPIDA);
+        limiter.tryAcquire(limiter.getLimit());
+        limiter.release(LENTA);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        relogio.addAndGet(LENTA + RAPIDA);
+        limiter.tryAcquire(limiter.getLimit());
+        limiter.release(LENTA);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Rajada de respostas lentas deve recuar o limite uma única vez")
+    void deveRecuarUmaVezPorJanela() {
+        AtomicLong relogio = new AtomicLong(Duration.ofMinutes(1).toNanos());
+        AimdLimiter limiter = new AimdLimiter(16, 1, 100, Duration.ofMillis(100), 0.5, relogio::get);
+
+        for (int i = 0; i < 16; i++) {
+            limiter.tryAcquire(limiter.getLimit());
+        }
+        // 16 requisições iniciadas juntas terminam lentas quase ao mesmo tempo
+        for (int i = 0; i < 16; i++) {
+            relogio.addAndGet(Duration.ofMillis(1).toNanos());
+            limiter.release(LENTA);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(8);
+        assertThat(limiter.getInflight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve reduzir o limite do login quando a introspecção estiver sob pressão")
+    void deveDarPrioridadeAIntrospeccao() {
+        Partition introspect = filter.findPartition(PathContainer.parsePath("/rest/v1/auth/introspect"));
+        Partition login = filter.findPartition(PathContainer.parsePath("/rest/v1/auth/token"));
+        assertThat(filter.findPartition(PathContainer.parsePath("/rest/v1/auth/health"))).isNull();
+
+        assertThat(filter.effectiveLimit(login)).isEqualTo(10);
+
+        for (int i = 0; i < 8; i++) {
+            introspect.limiter().tryAcquire(filter.effectiveLimit(introspect));
+        }
+        assertThat(filter.effectiveLimit(introspect)).isEqualTo(10);
+        assertThat(filter.effectiveLimit(login)).isEqualTo(5);
+
+        assertThat(meterRegistry.get("auth.concurrency.inflight").tag("class", "introspect").gauge().value())
+            .isEqualTo(8.0);
+    }
+
+    private static LoadSheddingProperties.EndpointClass endpointClass(String path, Priority priority, int limit) {
+        LoadSheddingProperties.EndpointClass endpointClass = new LoadSheddingProperties.EndpointClass();
+        endpointClass.setPaths(List.of(path));
+        endpointClass.setPriority(priority);
+        endpointClass.setInitialLimit(limit);
+        endpointClass.setMaxLimit(100);
+        return endpointClass;
+    }
+}
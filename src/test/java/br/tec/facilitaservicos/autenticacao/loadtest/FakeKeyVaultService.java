@@ -0,0 +1,82 @@
+package br.tec.facilitaservicos.autenticacao.loadtest;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+import br.tec.facilitaservicos.autenticacao.configuracao.CoarseClock;
+import br.tec.facilitaservicos.autenticacao.service.KeyVaultMonitoringService;
+import br.tec.facilitaservicos.autenticacao.service.KeyVaultService;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Key Vault falso para o teste de carga: um par RSA 2048 gerado na subida,
+ * servido pelos mesmos métodos (e pelo mesmo {@code @Cacheable}) do serviço real.
+ *
+ * A latência configurada é gasta bloqueando uma thread do {@code boundedElastic},
+ * como o {@code SecretClient} síncrono faz em produção; zero devolve direto.
+ */
+class FakeKeyVaultService extends KeyVaultService {
+
+    static final String KEY_ID = "loadtest-key";
+
+    private final RSAPrivateKey privateKey;
+    private final RSAPublicKey publicKey;
+    private final long latencyNanos;
+
+    FakeKeyVaultService(KeyVaultMonitoringService monitoringService, CoarseClock coarseClock, Duration latency) {
+        super("", monitoringService, coarseClock);
+        KeyPair keyPair = generateKeyPair();
+        this.privateKey = (RSAPrivateKey) keyPair.getPrivate();
+        this.publicKey = (RSAPublicKey) keyPair.getPublic();
+        this.latencyNanos = latency != null ? latency.toNanos() : 0L;
+    }
+
+    @Override
+    public Mono<RSAPrivateKey> getPrivateKey() {
+        return secret(privateKey);
+    }
+
+    @Override
+    public Mono<RSAPublicKey> getPublicKey() {
+        return secret(publicKey);
+    }
+
+    @Override
+    public Mono<String> getKeyId() {
+        return secret(KEY_ID);
+    }
+
+    @Override
+    public Mono<Boolean> isKeyVaultAvailable() {
+        return Mono.just(true);
+    }
+
+    // Métodos auxiliares privados
+
+    private <T> Mono<T> secret(T value) {
+        if (latencyNanos <= 0) {
+            return Mono.just(value);
+        }
+        return Mono.fromCallable(() -> {
+                LockSupport.parkNanos(latencyNanos);
+                return value;
+            })
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("RSA indisponível na JVM", e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package br.tec.facilitaservicos.autenticacao.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Amostras de latência de um cenário. Guarda todas as medições (dezenas de
+ * milhares por execução) e calcula percentis exatos no fim, sem a
+ * aproximação por buckets de um histograma.
+ *
+ * Status {@code 0} representa falha de transporte (timeout, conexão recusada).
+ */
+final class LatencyStats {
+
+    private static final double NANOS_POR_MS = 1_000_000.0;
+
+    private long[] amostras = new long[4096];
+    private int tamanho;
+    private long sucessos;
+    private long descartadas;
+    private final Map<Integer, Long> porStatus = new TreeMap<>();
+
+    synchronized void registrar(long nanos, int status) {
+        if (tamanho == amostras.length) {
+            amostras = Arrays.copyOf(amostras, tamanho * 2);
+        }
+        amostras[tamanho++] = nanos;
+        porStatus.merge(status, 1L, Long::sum);
+        if (status >= 200 && status < 300) {
+            sucessos++;
+        }
+    }
+
+    /**
+     * Disparo que não saiu porque o gerador atingiu a concorrência máxima:
+     * sinal de que a taxa pedida não foi sustentada.
+     */
+    synchronized void descartada() {
+        descartadas++;
+    }
+
+    synchronized Resumo resumo(Duration duracao) {
+        long[] ordenadas = Arrays.copyOf(amostras, tamanho);
+        Arrays.sort(ordenadas);
+        double segundos = Math.max(duracao.toNanos() / 1_000_000_000.0, 1e-9);
+
+        Map<String, Long> status = new LinkedHashMap<>();
+        porStatus.forEach((codigo, total) -> status.put(String.valueOf(codigo), total));
+
+        return new Resumo(
+            tamanho,
+            sucessos,
+            tamanho - sucessos,
+            descartadas,
+            tamanho / segundos,
+            sucessos / segundos,
+            percentil(ordenadas, 0.50),
+            percentil(ordenadas, 0.90),
+            percentil(ordenadas, 0.99),
+            percentil(ordenadas, 0.999),
+            ordenadas.length > 0 ? ordenadas[ordenadas.length - 1] / NANOS_POR_MS : 0.0,
+            status);
+    }
+
+    // Métodos auxiliares privados
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0.0;
+        }
+        // Nearest-rank: menor amostra com pelo menos p das medições abaixo ou iguais
+        int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / NANOS_POR_MS;
+    }
+
+    /**
+     * Resultado de um cenário; vazões em requisições por segundo e latências em ms.
+     */
+    record Resumo(
+        long requisicoes,
+        long sucessos,
+        long erros,
+        long descartadas,
+        double vazaoTotal,
+        double vazao,
+        double p50Ms,
+        double p90Ms,
+        double p99Ms,
+        double p999Ms,
+        double maxMs,
+        Map<String, Long> status
+    ) {
+    }
+}
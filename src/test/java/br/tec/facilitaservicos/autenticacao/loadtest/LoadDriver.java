@@ -0,0 +1,202 @@
+package br.tec.facilitaservicos.autenticacao.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Gerador de carga em malha aberta: cada cenário dispara em taxa constante,
+ * independente do tempo de resposta, e a latência é medida do disparo até o
+ * fim da leitura da resposta. Quando a concorrência máxima é atingida o
+ * disparo é descartado e contado, em vez de atrasar os seguintes (o que
+ * esconderia a fila do servidor).
+ *
+ * Login e refresh alimentam pools compartilhados de refresh/access tokens,
+ * consumidos pelos cenários de refresh (rotação) e introspect.
+ */
+final class LoadDriver implements AutoCloseable {
+
+    static final String LOGIN = "login";
+    static final String REFRESH = "refresh";
+    static final String INTROSPECT = "introspect";
+    static final String JWKS = "jwks";
+
+    private static final Duration TIMEOUT_REQUISICAO = Duration.ofSeconds(30);
+    private static final int ACCESS_TOKENS_EM_USO = 256;
+
+    private final WebClient webClient;
+    private final ConnectionProvider connectionProvider;
+    private final List<String> logins;
+    private final int maxConcorrencia;
+
+    private final BlockingQueue<String> refreshTokens;
+    private final AtomicReferenceArray<String> accessTokens = new AtomicReferenceArray<>(ACCESS_TOKENS_EM_USO);
+    private final AtomicLong proximoAccessToken = new AtomicLong();
+    private final AtomicLong proximoLogin = new AtomicLong();
+
+    LoadDriver(String baseUrl, List<String> logins, int maxConcorrencia, int maxSessoes) {
+        this.logins = logins;
+        this.maxConcorrencia = maxConcorrencia;
+        this.refreshTokens = new ArrayBlockingQueue<>(maxSessoes);
+        this.connectionProvider = ConnectionProvider.builder("loadtest")
+            .maxConnections(maxConcorrencia)
+            .pendingAcquireMaxCount(-1)
+            .build();
+        this.webClient = WebClient.builder()
+            .baseUrl(baseUrl)
+            .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+            .build();
+    }
+
+    /**
+     * Faz {@code quantidade} logins para que refresh e introspect tenham
+     * tokens disponíveis desde o primeiro disparo.
+     */
+    void semear(int quantidade) {
+        LatencyStats descartavel = new LatencyStats();
+        Flux.range(0, quantidade)
+            .flatMap(i -> login(descartavel), 8)
+            .then()
+            .block(TIMEOUT_REQUISICAO.multipliedBy(Math.max(quantidade, 1)));
+        if (refreshTokens.isEmpty()) {
+            throw new IllegalStateException("Nenhum login bem-sucedido na semeadura: verifique a aplicação e o stub");
+        }
+    }
+
+    /**
+     * Executa todos os cenários com taxa positiva em paralelo durante {@code duracao}.
+     *
+     * @param taxas requisições por segundo por cenário
+     * @return estatísticas por cenário, na ordem de {@code taxas}
+     */
+    Map<String, LatencyStats> executar(Map<String, Integer> taxas, Duration duracao) {
+        Map<String, LatencyStats> estatisticas = new LinkedHashMap<>();
+        List<Mono<Void>> cenarios = taxas.entrySet().stream()
+            .filter(taxa -> taxa.getValue() != null && taxa.getValue() > 0)
+            .map(taxa -> {
+                LatencyStats stats = estatisticas.computeIfAbsent(taxa.getKey(), nome -> new LatencyStats());
+                return emTaxaConstante(taxa.getKey(), taxa.getValue(), duracao, stats);
+            })
+            .toList();
+
+        Flux.merge(cenarios).then().block(duracao.plus(TIMEOUT_REQUISICAO).plusSeconds(5));
+        return estatisticas;
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(10));
+    }
+
+    // Métodos auxiliares privados
+
+    private Mono<Void> emTaxaConstante(String cenario, int porSegundo, Duration duracao, LatencyStats stats) {
+        Duration intervalo = Duration.ofNanos(1_000_000_000L / porSegundo);
+        return Flux.interval(Duration.ZERO, intervalo)
+            .take(duracao)
+            .onBackpressureDrop(tick -> stats.descartada())
+            .flatMap(tick -> requisicao(cenario, stats), maxConcorrencia)
+            .then();
+    }
+
+    private Mono<Void> requisicao(String cenario, LatencyStats stats) {
+        return switch (cenario) {
+            case LOGIN -> login(stats);
+            case REFRESH -> refresh(stats);
+            case INTROSPECT -> introspect(stats);
+            case JWKS -> medir(webClient.get().uri("/rest/v1/.well-known/jwks.json"), stats).then();
+            default -> Mono.error(new IllegalArgumentException("Cenário desconhecido: " + cenario));
+        };
+    }
+
+    private Mono<Void> login(LatencyStats stats) {
+        String usuario = logins.get((int) (proximoLogin.getAndIncrement() % logins.size()));
+        Map<String, String> corpo = Map.of("username", usuario, "password", StubUserService.SENHA);
+        return medir(webClient.post().uri("/rest/v1/auth/token").contentType(MediaType.APPLICATION_JSON).bodyValue(corpo), stats)
+            .doOnNext(this::guardarTokens)
+            .then();
+    }
+
+    private Mono<Void> refresh(LatencyStats stats) {
+        String refreshToken = refreshTokens.poll();
+        if (refreshToken == null) {
+            // Sem sessão disponível (logins falhando): conta como disparo não atendido
+            stats.descartada();
+            return Mono.empty();
+        }
+        Map<String, String> corpo = Map.of("refresh_token", refreshToken);
+        return medir(webClient.post().uri("/rest/v1/auth/refresh").contentType(MediaType.APPLICATION_JSON).bodyValue(corpo), stats)
+            .doOnNext(this::guardarTokens)
+            .then();
+    }
+
+    private Mono<Void> introspect(LatencyStats stats) {
+        String accessToken = accessTokens.get(ThreadLocalRandom.current().nextInt(ACCESS_TOKENS_EM_USO));
+        if (accessToken == null) {
+            accessToken = accessTokens.get(0);
+        }
+        if (accessToken == null) {
+            stats.descartada();
+            return Mono.empty();
+        }
+        Map<String, String> corpo = Map.of("token", accessToken, "token_type_hint", "access_token");
+        return medir(webClient.post().uri("/rest/v1/auth/introspect").contentType(MediaType.APPLICATION_JSON).bodyValue(corpo), stats)
+            .then();
+    }
+
+    /**
+     * Mede do disparo até o corpo lido; emite o JSON apenas em respostas 2xx.
+     */
+    private Mono<JsonNode> medir(WebClient.RequestHeadersSpec<?> requisicao, LatencyStats stats) {
+        return Mono.defer(() -> {
+            long inicio = System.nanoTime();
+            return requisicao.exchangeToMono(resposta -> {
+                    int status = resposta.statusCode().value();
+                    if (resposta.statusCode().is2xxSuccessful()) {
+                        return resposta.bodyToMono(JsonNode.class)
+                            .doOnSuccess(corpo -> stats.registrar(System.nanoTime() - inicio, status));
+                    }
+                    return resposta.releaseBody()
+                        .doOnSuccess(vazio -> stats.registrar(System.nanoTime() - inicio, status))
+                        .then(Mono.<JsonNode>empty());
+                })
+                .timeout(TIMEOUT_REQUISICAO)
+                .onErrorResume(erro -> {
+                    stats.registrar(System.nanoTime() - inicio, 0);
+                    return Mono.empty();
+                });
+        });
+    }
+
+    private void guardarTokens(JsonNode resposta) {
+        JsonNode refreshToken = resposta.get("refresh_token");
+        if (refreshToken != null && refreshToken.isTextual()) {
+            // Pool cheio: descarta a sessão mais antiga para manter os tokens recentes circulando
+            while (!refreshTokens.offer(refreshToken.asText())) {
+                refreshTokens.poll();
+            }
+        }
+        JsonNode accessToken = resposta.get("access_token");
+        if (accessToken != null && accessToken.isTextual()) {
+            int slot = (int) (proximoAccessToken.getAndIncrement() % ACCESS_TOKENS_EM_USO);
+            accessTokens.set(slot, accessToken.asText());
+        }
+    }
+}
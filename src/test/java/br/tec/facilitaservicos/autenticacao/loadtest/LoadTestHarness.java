@@ -0,0 +1,249 @@
+package br.tec.facilitaservicos.autenticacao.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import br.tec.facilitaservicos.autenticacao.AutenticacaoApplication;
+import br.tec.facilitaservicos.autenticacao.configuracao.CoarseClock;
+import br.tec.facilitaservicos.autenticacao.service.KeyVaultMonitoringService;
+import br.tec.facilitaservicos.autenticacao.service.KeyVaultService;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Teste de carga ponta a ponta do {@code AuthController} e do JWKS.
+ *
+ * Sobe MySQL e Redis via Testcontainers (schema das migrations de usuarios e refresh_tokens),
+ * um serviço de usuários falso ({@link StubUserService}) e a aplicação real
+ * com um Key Vault falso ({@link FakeKeyVaultService}); depois dispara login,
+ * refresh, introspect e JWKS em taxas constantes, descarta o aquecimento e
+ * grava um relatório JSON por commit ({@link LoadTestReport}).
+ *
+ * Não roda na suíte de testes; executar manualmente (Docker necessário):
+ * {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ *  -Dexec.mainClass=br.tec.facilitaservicos.autenticacao.loadtest.LoadTestHarness
+ *  -Dloadtest.duration=60s -Dloadtest.rate.introspect=500
+ *  [-Dloadtest.baseline=target/loadtest/loadtest-<commit>-<data>.json]}
+ *
+ * Para números comparáveis entre commits, rode com a mesma configuração na
+ * mesma máquina e compare contra a baseline; a configuração efetiva vai no
+ * relatório e divergências são sinalizadas.
+ */
+public final class LoadTestHarness {
+
+    private static final String DATABASE = "conexao_sorte_auth";
+    private static final long PRIMEIRO_ID = 1000L;
+    private static final List<String> MIGRACOES = List.of(
+        "db/migration/V001__create_usuarios_table.sql",
+        "db/migration/V002__create_refresh_tokens_table.sql",
+        "db/migration/V004__add_refresh_tokens_token_mac.sql");
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Duration duracao = duration("loadtest.duration", "60s");
+        Duration aquecimento = duration("loadtest.warmup", "15s");
+        int usuarios = Integer.getInteger("loadtest.users", 1000);
+        int sessoes = Integer.getInteger("loadtest.sessions", 200);
+        int concorrencia = Integer.getInteger("loadtest.concurrency", 256);
+        int custoBcrypt = Integer.getInteger("loadtest.bcrypt-strength", 12);
+        Duration latenciaUsuarios = duration("loadtest.user-service.latency", "2ms");
+        Duration latenciaKeyVault = duration("loadtest.key-vault.latency", "20ms");
+
+        Map<String, Integer> taxas = new LinkedHashMap<>();
+        taxas.put(LoadDriver.LOGIN, Integer.getInteger("loadtest.rate.login", 5));
+        taxas.put(LoadDriver.REFRESH, Integer.getInteger("loadtest.rate.refresh", 20));
+        taxas.put(LoadDriver.INTROSPECT, Integer.getInteger("loadtest.rate.introspect", 200));
+        taxas.put(LoadDriver.JWKS, Integer.getInteger("loadtest.rate.jwks", 50));
+
+        Map<String, Object> configuracao = new LinkedHashMap<>();
+        configuracao.put("duracao", duracao.toString());
+        configuracao.put("aquecimento", aquecimento.toString());
+        configuracao.put("taxas", taxas);
+        configuracao.put("usuarios", usuarios);
+        configuracao.put("sessoes", sessoes);
+        configuracao.put("concorrencia", concorrencia);
+        configuracao.put("custoBcrypt", custoBcrypt);
+        configuracao.put("latenciaServicoUsuarios", latenciaUsuarios.toString());
+        configuracao.put("latenciaKeyVault", latenciaKeyVault.toString());
+        configuracao.put("imagemMysql", System.getProperty("loadtest.mysql.image", "mysql:8.4"));
+        configuracao.put("imagemRedis", System.getProperty("loadtest.redis.image", "redis:7.4-alpine"));
+
+        String senhaHash = new BCryptPasswordEncoder(custoBcrypt).encode(StubUserService.SENHA);
+
+        try (MySQLContainer<?> mysql = new MySQLContainer<>(DockerImageName.parse((String) configuracao.get("imagemMysql"))
+                .asCompatibleSubstituteFor("mysql"))
+                .withDatabaseName(DATABASE);
+             GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse((String) configuracao.get("imagemRedis")))
+                .withExposedPorts(6379)) {
+            mysql.start();
+            redis.start();
+
+            String r2dbcUrl = String.format("r2dbc:mysql://%s:%d/%s", mysql.getHost(), mysql.getFirstMappedPort(), DATABASE);
+            // Triggers/procedures das migrations exigem privilégio de root com binlog ativo
+            prepararBanco(r2dbcUrl, "root", mysql.getPassword(), usuarios, senhaHash);
+
+            try (StubUserService stub = new StubUserService(PRIMEIRO_ID, usuarios, senhaHash, latenciaUsuarios);
+                 ConfigurableApplicationContext aplicacao = iniciarAplicacao(r2dbcUrl, mysql, redis, stub, latenciaKeyVault);
+                 LoadDriver driver = new LoadDriver("http://127.0.0.1:" + aplicacao.getEnvironment().getProperty("local.server.port"),
+                     StubUserService.loginsDe(usuarios), concorrencia, sessoes)) {
+
+                System.out.printf("🔥 Semeando %d sessões e aquecendo por %s...%n", Math.min(sessoes, usuarios), aquecimento);
+                driver.semear(Math.min(sessoes, usuarios));
+                driver.executar(taxas, aquecimento);
+
+                System.out.printf("📊 Medindo por %s: %s req/s%n", duracao, taxas);
+                Map<String, LatencyStats> estatisticas = driver.executar(taxas, duracao);
+
+                LoadTestReport relatorio = new LoadTestReport(configuracao, estatisticas, duracao);
+                relatorio.imprimir();
+                Path arquivo = relatorio.gravar(Path.of(System.getProperty("loadtest.output", "target/loadtest")));
+                System.out.printf("%n✅ Relatório gravado em %s%n", arquivo);
+
+                String baseline = System.getProperty("loadtest.baseline");
+                if (baseline != null && !baseline.isBlank()) {
+                    relatorio.compararCom(Path.of(baseline));
+                }
+            }
+        }
+    }
+
+    // Métodos auxiliares privados
+
+    private static ConfigurableApplicationContext iniciarAplicacao(String r2dbcUrl, MySQLContainer<?> mysql,
+                                                                   GenericContainer<?> redis, StubUserService stub,
+                                                                   Duration latenciaKeyVault) {
+        return new SpringApplicationBuilder(AutenticacaoApplication.class)
+            .initializers(new KeyVaultFalsoInitializer(latenciaKeyVault))
+            .run(
+                "--server.port=0",
+                "--spring.r2dbc.url=" + r2dbcUrl,
+                "--spring.r2dbc.username=" + mysql.getUsername(),
+                "--spring.r2dbc.password=" + mysql.getPassword(),
+                "--spring.data.redis.host=" + redis.getHost(),
+                "--spring.data.redis.port=" + redis.getMappedPort(6379),
+                "--spring.data.redis.password=",
+                "--spring.data.redis.database=0",
+                "--conexao-de-sorte-auth-service-url=" + stub.baseUrl(),
+                // Sem coletor Zipkin no ambiente local
+                "--management.tracing.enabled=false",
+                // Todas as requisições vêm do mesmo IP: o rate limiting mediria só os 429
+                "--app.rate-limit.enabled=false",
+                // A carga é o que se quer medir: o load shedding trocaria latência por 503
+                "--app.load-shedding.enabled=false");
+    }
+
+    private static void prepararBanco(String url, String usuario, String senha, int quantidade, String senhaHash) {
+        List<String> comandos = new ArrayList<>();
+        for (String migracao : MIGRACOES) {
+            comandos.addAll(comandosSql(lerRecurso(migracao)));
+        }
+        comandos.add("SET SESSION cte_max_recursion_depth = " + (quantidade + 1));
+        comandos.add("INSERT INTO usuarios (id, email, nome_usuario, senha_hash, ativo, email_verificado) "
+            + "WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < " + (quantidade - 1) + ") "
+            + "SELECT " + PRIMEIRO_ID + " + n, CONCAT('loadtest', n, '@bench.local'), CONCAT('loadtest', n), '"
+            + senhaHash + "', TRUE, TRUE FROM seq");
+
+        String urlComCredenciais = url.replace("r2dbc:mysql://", "r2dbc:mysql://" + usuario + ":" + senha + "@");
+        Connection connection = Mono.from(ConnectionFactories.get(urlComCredenciais).create()).block(TIMEOUT);
+        try {
+            Flux.fromIterable(comandos)
+                .concatMap(sql -> Flux.from(connection.createStatement(sql).execute())
+                    .concatMap(result -> result.map((row, metadata) -> 1)))
+                .then()
+                .block(TIMEOUT);
+        } finally {
+            Mono.from(connection.close()).block(TIMEOUT);
+        }
+    }
+
+    /**
+     * Separa um script de migration em comandos, respeitando {@code DELIMITER}
+     * (procedures e triggers) e ignorando linhas de comentário.
+     */
+    static List<String> comandosSql(String script) {
+        List<String> comandos = new ArrayList<>();
+        String delimitador = ";";
+        StringBuilder atual = new StringBuilder();
+        for (String linha : script.split("\\R")) {
+            String aparada = linha.trim();
+            if (aparada.isEmpty() || aparada.startsWith("--")) {
+                continue;
+            }
+            if (aparada.toUpperCase(Locale.ROOT).startsWith("DELIMITER ")) {
+                delimitador = aparada.substring("DELIMITER ".length()).trim();
+                continue;
+            }
+            atual.append(linha).append('\n');
+            if (aparada.endsWith(delimitador)) {
+                String comando = atual.toString().trim();
+                comando = comando.substring(0, comando.length() - delimitador.length()).trim();
+                if (!comando.isEmpty()) {
+                    comandos.add(comando);
+                }
+                atual.setLength(0);
+            }
+        }
+        if (!atual.toString().isBlank()) {
+            comandos.add(atual.toString().trim());
+        }
+        return comandos;
+    }
+
+    /**
+     * Registra o {@link FakeKeyVaultService} antes do component scan, com o
+     * mesmo nome de bean: o scan mantém a definição explícita e o
+     * {@code KeyVaultService} real (que tentaria o Azure) não é criado.
+     */
+    private static final class KeyVaultFalsoInitializer implements ApplicationContextInitializer<GenericApplicationContext> {
+
+        private final Duration latencia;
+
+        private KeyVaultFalsoInitializer(Duration latencia) {
+            this.latencia = latencia;
+        }
+
+        @Override
+        public void initialize(GenericApplicationContext contexto) {
+            contexto.registerBean("keyVaultService", KeyVaultService.class, () -> new FakeKeyVaultService(
+                contexto.getBean(KeyVaultMonitoringService.class), contexto.getBean(CoarseClock.class), latencia));
+        }
+    }
+
+    private static String lerRecurso(String caminho) {
+        try (InputStream entrada = LoadTestHarness.class.getClassLoader().getResourceAsStream(caminho)) {
+            if (entrada == null) {
+                throw new IllegalStateException("Migration não encontrada no classpath: " + caminho);
+            }
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao ler " + caminho, e);
+        }
+    }
+
+    private static Duration duration(String propriedade, String padrao) {
+        return DurationStyle.detectAndParse(System.getProperty(propriedade, padrao));
+    }
+}
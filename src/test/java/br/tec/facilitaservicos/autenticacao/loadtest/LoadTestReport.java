@@ -0,0 +1,127 @@
+package br.tec.facilitaservicos.autenticacao.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Relatório do teste de carga em JSON estável (mesmas chaves, mesma ordem),
+ * nomeado pelo commit testado, para ser comparado entre commits com
+ * {@code -Dloadtest.baseline=<relatorio anterior>}.
+ */
+final class LoadTestReport {
+
+    static final int FORMATO = 1;
+
+    private static final DateTimeFormatter CARIMBO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<String, Object> configuracao;
+    private final Map<String, LatencyStats.Resumo> cenarios = new LinkedHashMap<>();
+    private final String commit = gitDescribe();
+    private final Instant geradoEm = Instant.now();
+
+    LoadTestReport(Map<String, Object> configuracao, Map<String, LatencyStats> estatisticas, Duration duracao) {
+        this.configuracao = configuracao;
+        estatisticas.forEach((cenario, stats) -> cenarios.put(cenario, stats.resumo(duracao)));
+    }
+
+    Path gravar(Path diretorio) throws IOException {
+        Map<String, Object> raiz = new LinkedHashMap<>();
+        raiz.put("formato", FORMATO);
+        raiz.put("commit", commit);
+        raiz.put("geradoEm", geradoEm.toString());
+        raiz.put("java", System.getProperty("java.version"));
+        raiz.put("cpus", Runtime.getRuntime().availableProcessors());
+        raiz.put("configuracao", configuracao);
+        raiz.put("cenarios", cenarios);
+
+        Files.createDirectories(diretorio);
+        Path arquivo = diretorio.resolve("loadtest-" + commit + "-" + CARIMBO.format(geradoEm) + ".json");
+        objectMapper.writeValue(arquivo.toFile(), raiz);
+        return arquivo;
+    }
+
+    void imprimir() {
+        System.out.printf("%nCommit %s%n", commit);
+        System.out.printf("%-11s %9s %9s %7s %8s %9s %9s %9s %9s %9s%n",
+            "cenario", "req", "ok/s", "erros", "descart", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms");
+        cenarios.forEach((cenario, r) -> System.out.printf("%-11s %9d %9.1f %7d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+            cenario, r.requisicoes(), r.vazao(), r.erros(), r.descartadas(), r.p50Ms(), r.p90Ms(), r.p99Ms(), r.p999Ms(), r.maxMs()));
+    }
+
+    /**
+     * Imprime a variação de vazão e p99 em relação a um relatório anterior.
+     * Só compara relatórios do mesmo formato e com a mesma configuração de carga.
+     */
+    void compararCom(Path baseline) throws IOException {
+        JsonNode anterior = objectMapper.readTree(baseline.toFile());
+        if (anterior.path("formato").asInt() != FORMATO) {
+            System.out.printf("⚠️ Baseline %s em formato diferente (%d), comparação ignorada%n",
+                baseline, anterior.path("formato").asInt());
+            return;
+        }
+        if (!anterior.path("configuracao").equals(objectMapper.valueToTree(configuracao))) {
+            System.out.println("⚠️ Configuração de carga diferente da baseline: variações abaixo não são comparáveis");
+        }
+
+        System.out.printf("%nComparação com %s (commit %s)%n", baseline.getFileName(), anterior.path("commit").asText());
+        System.out.printf("%-11s %12s %12s %9s %12s %12s %9s%n", "cenario", "ok/s antes", "ok/s agora", "Δ%", "p99 antes", "p99 agora", "Δ%");
+        cenarios.forEach((cenario, atual) -> {
+            JsonNode antes = anterior.path("cenarios").path(cenario);
+            if (antes.isMissingNode()) {
+                System.out.printf("%-11s (ausente na baseline)%n", cenario);
+                return;
+            }
+            double vazaoAntes = antes.path("vazao").asDouble();
+            double p99Antes = antes.path("p99Ms").asDouble();
+            System.out.printf("%-11s %12.1f %12.1f %+8.1f%% %12.2f %12.2f %+8.1f%%%n", cenario,
+                vazaoAntes, atual.vazao(), variacao(vazaoAntes, atual.vazao()),
+                p99Antes, atual.p99Ms(), variacao(p99Antes, atual.p99Ms()));
+        });
+    }
+
+    // Métodos auxiliares privados
+
+    private static double variacao(double antes, double agora) {
+        return antes == 0.0 ? 0.0 : (agora - antes) * 100.0 / antes;
+    }
+
+    /**
+     * Commit curto do diretório atual ({@code -dirty} com alterações locais);
+     * "desconhecido" fora de um repositório git.
+     */
+    private static String gitDescribe() {
+        try {
+            Process processo = new ProcessBuilder("git", "describe", "--always", "--dirty")
+                .redirectErrorStream(true)
+                .start();
+            String saida;
+            try (InputStream entrada = processo.getInputStream()) {
+                saida = new String(entrada.readAllBytes(), StandardCharsets.UTF_8).trim();
+            }
+            if (processo.waitFor(10, TimeUnit.SECONDS) && processo.exitValue() == 0 && !saida.isEmpty()) {
+                return saida;
+            }
+        } catch (IOException e) {
+            // git ausente: segue sem identificação
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "desconhecido";
+    }
+}
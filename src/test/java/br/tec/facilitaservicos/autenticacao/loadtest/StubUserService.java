@@ -0,0 +1,151 @@
+package br.tec.facilitaservicos.autenticacao.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import org.reactivestreams.Publisher;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.tec.facilitaservicos.autenticacao.dto.PermissoesUsuarioDTO;
+import br.tec.facilitaservicos.autenticacao.dto.UsuarioDTO;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * Serviço de usuários falso com os endpoints consumidos pelo
+ * {@code UserServiceClientImpl}. Os usuários sintéticos ({@code loadtest<n>} /
+ * {@code loadtest<n>@bench.local}, ids a partir de {@code primeiroId}) dividem
+ * o mesmo hash BCrypt e têm as respostas serializadas uma única vez na subida,
+ * para que o stub gaste o mínimo de CPU da máquina compartilhada com a aplicação.
+ *
+ * A latência configurada é aplicada a todas as respostas (sem bloquear threads),
+ * simulando o salto de rede até o serviço real.
+ */
+final class StubUserService implements AutoCloseable {
+
+    static final String SENHA = "LoadTest#2024";
+
+    private static final Pattern USUARIO = Pattern.compile("loadtest(\\d+)(@bench\\.local)?");
+
+    private final long primeiroId;
+    private final byte[][] usuarios;
+    private final byte[][] permissoes;
+    private final byte[] totalAtivos;
+    private final Duration latencia;
+    private final DisposableServer server;
+
+    StubUserService(long primeiroId, int quantidade, String senhaHash, Duration latencia) {
+        this.primeiroId = primeiroId;
+        this.latencia = latencia != null ? latencia : Duration.ZERO;
+        this.usuarios = new byte[quantidade][];
+        this.permissoes = new byte[quantidade][];
+
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        for (int i = 0; i < quantidade; i++) {
+            UsuarioDTO usuario = usuario(primeiroId + i, i, senhaHash);
+            usuarios[i] = toJson(objectMapper, usuario);
+            permissoes[i] = toJson(objectMapper, new PermissoesUsuarioDTO(usuario.getId(), usuario.getRoles(),
+                usuario.getPermissoes(), String.format("%016x", i)));
+        }
+        this.totalAtivos = toJson(objectMapper, (long) quantidade);
+
+        this.server = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .route(routes -> routes
+                .get("/rest/v1/users/search", this::buscar)
+                .get("/rest/v1/users/active/count", (request, response) -> json(response, totalAtivos))
+                .get("/rest/v1/users/{id}/permissions", (request, response) -> porId(request, response, permissoes))
+                .put("/rest/v1/users/{id}/login-attempts", (request, response) -> json(response, "1".getBytes()))
+                .get("/rest/v1/users/{id}", (request, response) -> porId(request, response, usuarios)))
+            .bindNow();
+    }
+
+    static List<String> loginsDe(int quantidade) {
+        return IntStream.range(0, quantidade)
+            .mapToObj(i -> i % 2 == 0 ? "loadtest" + i + "@bench.local" : "loadtest" + i)
+            .toList();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    // Métodos auxiliares privados
+
+    private Publisher<Void> buscar(HttpServerRequest request, HttpServerResponse response) {
+        List<String> valores = new QueryStringDecoder(request.uri()).parameters().get("emailOrUsername");
+        if (valores == null || valores.isEmpty()) {
+            return response.status(HttpResponseStatus.BAD_REQUEST).send();
+        }
+        Matcher matcher = USUARIO.matcher(valores.get(0));
+        if (!matcher.matches()) {
+            return response.status(HttpResponseStatus.NOT_FOUND).send();
+        }
+        int indice = Integer.parseInt(matcher.group(1));
+        return indice < usuarios.length ? json(response, usuarios[indice]) : response.status(HttpResponseStatus.NOT_FOUND).send();
+    }
+
+    private Publisher<Void> porId(HttpServerRequest request, HttpServerResponse response, byte[][] corpos) {
+        long indice;
+        try {
+            indice = Long.parseLong(request.param("id")) - primeiroId;
+        } catch (NumberFormatException e) {
+            return response.status(HttpResponseStatus.BAD_REQUEST).send();
+        }
+        if (indice < 0 || indice >= corpos.length) {
+            return response.status(HttpResponseStatus.NOT_FOUND).send();
+        }
+        return json(response, corpos[(int) indice]);
+    }
+
+    private Publisher<Void> json(HttpServerResponse response, byte[] corpo) {
+        Mono<Void> envio = Mono.defer(() -> response
+            .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+            .sendByteArray(Mono.just(corpo))
+            .then());
+        return latencia.isZero() ? envio : Mono.delay(latencia).then(envio);
+    }
+
+    private static UsuarioDTO usuario(long id, int indice, String senhaHash) {
+        UsuarioDTO usuario = new UsuarioDTO();
+        usuario.setId(id);
+        usuario.setEmail("loadtest" + indice + "@bench.local");
+        usuario.setUsername("loadtest" + indice);
+        usuario.setPassword(senhaHash);
+        usuario.setPrimeiroNome("Carga");
+        usuario.setSobrenome(String.valueOf(indice));
+        usuario.setRoles(Set.of("ROLE_USER"));
+        usuario.setPermissoes(Set.of("READ_PROFILE", "UPDATE_PROFILE"));
+        usuario.setAtivo(true);
+        usuario.setEmailVerificado(true);
+        return usuario;
+    }
+
+    private static byte[] toJson(ObjectMapper objectMapper, Object valor) {
+        try {
+            return objectMapper.writeValueAsBytes(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar resposta do stub", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package br.tec.facilitaservicos.autenticacao.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+@DisplayName("ClientIpResolver - Testes Unitários")
+class ClientIpResolverTest {
+
+    private static final String PROXY = "10.0.0.5";
+    private static final String CLIENTE = "203.0.113.7";
+
+    private final ClientIpResolver resolver = new ClientIpResolver(List.of("10.0.0.0/8"));
+
+    @Test
+    @DisplayName("Deve ignorar X-Forwarded-For vindo direto do cliente")
+    void deveIgnorarCabecalhoDeOrigemNaoConfiavel() {
+        ServerHttpRequest request = request(CLIENTE)
+            .header("X-Forwarded-For", "198.51.100.1")
+            .header("X-Real-IP", "198.51.100.2")
+            .build();
+
+        assertThat(resolver.resolve(request)).isEqualTo(CLIENTE);
+    }
+
+    @Test
+    @DisplayName("Deve usar o último endereço não confiável do X-Forwarded-For")
+    void deveLerXForwardedForDaDireita() {
+        // O cliente forjou 198.51.100.1; o proxy acrescentou o endereço real ao final
+        ServerHttpRequest request = request(PROXY)
+            .header("X-Forwarded-For", "198.51.100.1, " + CLIENTE + ", 10.0.0.9")
+            .build();
+
+        assertThat(resolver.resolve(request)).isEqualTo(CLIENTE);
+    }
+
+    @Test
+    @DisplayName("Sem proxies configurados deve valer só o endereço remoto")
+    void semProxiesConfiguradosUsaEnderecoRemoto() {
+        ClientIpResolver semProxies = new ClientIpResolver(List.of());
+        ServerHttpRequest request = request(PROXY)
+            .header("X-Forwarded-For", CLIENTE)
+            .build();
+
+        assertThat(semProxies.resolve(request)).isEqualTo(PROXY);
+    }
+
+    @Test
+    @DisplayName("Deve casar proxies por prefixo CIDR fora do limite de byte e IPv6")
+    void deveCasarPrefixosCidr() {
+        ClientIpResolver resolver = new ClientIpResolver(List.of("172.16.0.0/12", "::1/128", "192.0.2.10"));
+
+        // 172.31.x.x está em 172.16.0.0/12; 172.32.x.x não
+        assertThat(resolver.resolve(request("172.31.255.1").header("X-Forwarded-For", CLIENTE).build()))
+            .isEqualTo(CLIENTE);
+        assertThat(resolver.resolve(request("172.32.0.1").header("X-Forwarded-For", CLIENTE).build()))
+            .isEqualTo("172.32.0.1");
+        assertThat(resolver.resolve(request("::1").header("X-Forwarded-For", CLIENTE).build()))
+            .isEqualTo(CLIENTE);
+        assertThat(resolver.resolve(request("192.0.2.10").header("X-Forwarded-For", CLIENTE).build()))
+            .isEqualTo(CLIENTE);
+        assertThat(resolver.resolve(request("192.0.2.11").header("X-Forwarded-For", CLIENTE).build()))
+            .isEqualTo("192.0.2.11");
+    }
+
+    @Test
+    @DisplayName("Valores que não são IP no X-Forwarded-For nunca são proxy confiável")
+    void deveTratarValorNaoIpComoCliente() {
+        ServerHttpRequest request = request(PROXY)
+            .header("X-Forwarded-For", "unknown, 10.0.0.9")
+            .build();
+
+        assertThat(resolver.resolve(request)).isEqualTo("unknown");
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> request(String remoteAddress) {
+        return MockServerHttpRequest.post("/rest/v1/auth/token")
+            .remoteAddress(new InetSocketAddress(remoteAddress, 443));
+    }
+}
@@ -0,0 +1,112 @@
+package br.tec.facilitaservicos.autenticacao.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import br.tec.facilitaservicos.autenticacao.ratelimit.GcraRateLimiter.Decision;
+import br.tec.facilitaservicos.autenticacao.ratelimit.GcraRateLimiter.Limit;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GcraRateLimiter - Testes Unitários")
+class GcraRateLimiterTest {
+
+    private static final Instant AGORA = Instant.parse("2026-01-10T12:00:00Z");
+    private static final long AGORA_MICROS = AGORA.toEpochMilli() * 1000;
+    private static final long SEGUNDO_MICROS = 1_000_000;
+
+    // 60/min = uma vaga por segundo, rajada de 3
+    private static final Limit LIMITE = Limit.perMinute(60, 3);
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    private GcraRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new GcraRateLimiter(null, false, Duration.ofMillis(100),
+                Clock.fixed(AGORA, ZoneOffset.UTC), 1000, Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Deve aceitar a rajada e recusar o excedente com tempo de espera")
+    void deveAceitarRajadaERecusarExcedente() {
+        assertThat(rateLimiter.tryAcquireLocal("ip:1", LIMITE, AGORA_MICROS).remaining()).isEqualTo(2);
+        assertThat(rateLimiter.tryAcquireLocal("ip:1", LIMITE, AGORA_MICROS).remaining()).isEqualTo(1);
+        assertThat(rateLimiter.tryAcquireLocal("ip:1", LIMITE, AGORA_MICROS).remaining()).isZero();
+
+        Decision recusada = rateLimiter.tryAcquireLocal("ip:1", LIMITE, AGORA_MICROS);
+        assertThat(recusada.allowed()).isFalse();
+        assertThat(recusada.resetSeconds()).isEqualTo(1);
+
+        // Outra chave tem seu próprio bucket
+        assertThat(rateLimiter.tryAcquireLocal("ip:2", LIMITE, AGORA_MICROS).allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve liberar uma vaga por intervalo na taxa sustentada")
+    void deveLiberarVagaPorIntervalo() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquireLocal("ip:1", LIMITE, AGORA_MICROS);
+        }
+
+        assertThat(rateLimiter.tryAcquireLocal("ip:1", LIMITE, AGORA_MICROS + SEGUNDO_MICROS / 2).allowed()).isFalse();
+        assertThat(rateLimiter.tryAcquireLocal("ip:1", LIMITE, AGORA_MICROS + SEGUNDO_MICROS).allowed()).isTrue();
+        assertThat(rateLimiter.tryAcquireLocal("ip:1", LIMITE, AGORA_MICROS + SEGUNDO_MICROS).allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve usar a decisão do Redis e cair para a local quando ele falha")
+    void deveUsarRedisECairParaLocal() {
+        GcraRateLimiter distribuido = new GcraRateLimiter(redisTemplate, true, Duration.ofMillis(100),
+                Clock.fixed(AGORA, ZoneOffset.UTC), 1000, Duration.ofMinutes(10));
+
+        // Redis: outro nó já consumiu o bucket, próxima vaga em 0,5 s
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(GcraRateLimiter.KEY_PREFIX + "ip:1")), anyList()))
+                .thenReturn(Flux.just(-SEGUNDO_MICROS / 2));
+        StepVerifier.create(distribuido.tryAcquire("ip:1", LIMITE))
+                .assertNext(decision -> assertThat(decision.allowed()).isFalse())
+                .verifyComplete();
+
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(GcraRateLimiter.KEY_PREFIX + "ip:2")), anyList()))
+                .thenReturn(Flux.error(new IllegalStateException("redis fora")));
+        StepVerifier.create(distribuido.tryAcquire("ip:2", LIMITE))
+                .assertNext(decision -> {
+                    assertThat(decision.allowed()).isTrue();
+                    assertThat(decision.remaining()).isEqualTo(2);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Deve escolher a decisão mais restritiva entre chaves")
+    void deveEscolherDecisaoMaisRestritiva() {
+        Decision aceita = new Decision(true, 5, SEGUNDO_MICROS);
+        Decision quaseCheia = new Decision(true, 1, SEGUNDO_MICROS);
+        Decision recusada = new Decision(false, 0, 2 * SEGUNDO_MICROS);
+
+        assertThat(aceita.mostRestrictive(quaseCheia)).isSameAs(quaseCheia);
+        assertThat(aceita.mostRestrictive(recusada)).isSameAs(recusada);
+        assertThat(recusada.mostRestrictive(new Decision(false, 0, SEGUNDO_MICROS))).isSameAs(recusada);
+    }
+}
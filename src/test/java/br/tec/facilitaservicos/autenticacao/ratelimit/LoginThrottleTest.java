@@ -0,0 +1,138 @@
+package br.tec.facilitaservicos.autenticacao.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import br.tec.facilitaservicos.autenticacao.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoginThrottle - Testes Unitários")
+class LoginThrottleTest {
+
+    private static final String CONTA_BLOCK = "auth:login:{conta:maria@exemplo.com}:block";
+    private static final String CONTA_FAILURES = "auth:login:{conta:maria@exemplo.com}:failures";
+    private static final String IP_BLOCK = "auth:login:{ip:10.0.0.1}:block";
+    private static final String IP_FAILURES = "auth:login:{ip:10.0.0.1}:failures";
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ReactiveZSetOperations<String, String> zSetOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loginThrottle = new LoginThrottle(redisTemplate, new LoginThrottleProperties(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve recusar conta em espera antes do BCrypt sem reservar o IP")
+    void deveRecusarContaBloqueada() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(CONTA_FAILURES, CONTA_BLOCK)), anyList()))
+                .thenReturn(Flux.just(List.of(0L, 4_000L)));
+
+        // Conta normalizada: caixa e espaços não criam outra contagem
+        StepVerifier.create(loginThrottle.reserve("  Maria@Exemplo.com ", "10.0.0.1"))
+                .expectErrorSatisfies(error -> {
+                    assertThat(error).isInstanceOf(LoginThrottledException.class);
+                    assertThat(((LoginThrottledException) error).getRetryAfter()).isEqualTo(Duration.ofSeconds(4));
+                })
+                .verify();
+        verify(redisTemplate, never()).execute(any(RedisScript.class), eq(List.of(IP_FAILURES, IP_BLOCK)), anyList());
+        assertThat(meterRegistry.counter("auth.login_throttle.rejected").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Tentativa concorrente deve ser recusada pela espera aplicada na reserva anterior")
+    void deveRecusarTentativaConcorrente() {
+        // O script reserva e bloqueia de forma atômica: a segunda chamada já vê o bloqueio
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(CONTA_FAILURES, CONTA_BLOCK)), anyList()))
+                .thenReturn(Flux.just(List.of(2L, 10L)), Flux.just(List.of(0L, 900_000L)));
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(IP_FAILURES, IP_BLOCK)), anyList()))
+                .thenReturn(Flux.just(List.of(1L, 10L)));
+
+        StepVerifier.create(loginThrottle.reserve("maria@exemplo.com", "10.0.0.1"))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(loginThrottle.reserve("maria@exemplo.com", "10.0.0.1"))
+                .expectError(LoginThrottledException.class)
+                .verify();
+        assertThat(meterRegistry.counter("auth.login_throttle.locked", "scope", "conta").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("auth.login_throttle.locked").tag("scope", "ip").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("IP em espera deve devolver a reserva já feita na conta")
+    void deveDevolverReservaDaContaQuandoIpRecusa() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(CONTA_FAILURES, CONTA_BLOCK)), anyList()))
+                .thenReturn(Flux.just(List.of(1L, 1L)));
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(IP_FAILURES, IP_BLOCK)), anyList()))
+                .thenReturn(Flux.just(List.of(0L, 1_500L)));
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.remove(eq(CONTA_FAILURES), anyString())).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(loginThrottle.reserve("maria@exemplo.com", "10.0.0.1"))
+                .expectError(LoginThrottledException.class)
+                .verify();
+        verify(zSetOperations).remove(eq(CONTA_FAILURES), anyString());
+    }
+
+    @Test
+    @DisplayName("Sucesso deve zerar a conta e devolver só a reserva no IP; Redis fora libera a tentativa")
+    void deveDevolverReservaNoSucesso() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(CONTA_FAILURES, CONTA_BLOCK)), anyList()))
+                .thenReturn(Flux.error(new IllegalStateException("redis fora")));
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(IP_FAILURES, IP_BLOCK)), anyList()))
+                .thenReturn(Flux.just(List.of(1L, 2L)));
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.remove(eq(IP_FAILURES), anyString())).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(loginThrottle.reserve("maria@exemplo.com", "10.0.0.1")
+                        .flatMap(loginThrottle::recordSuccess))
+                .verifyComplete();
+        verify(zSetOperations).remove(eq(IP_FAILURES), anyString());
+        // Conta sem reserva (Redis falhou nela): nada a limpar
+        verify(redisTemplate, never()).delete(CONTA_FAILURES, CONTA_BLOCK);
+    }
+
+    @Test
+    @DisplayName("Desativado não deve acessar o Redis")
+    void desativadoNaoDeveAcessarRedis() {
+        LoginThrottleProperties properties = new LoginThrottleProperties();
+        properties.setEnabled(false);
+        LoginThrottle desativado = new LoginThrottle(redisTemplate, properties, meterRegistry);
+
+        StepVerifier.create(desativado.reserve("maria@exemplo.com", "10.0.0.1")
+                        .flatMap(attempt -> desativado.release(attempt).then(desativado.recordSuccess(attempt))))
+                .verifyComplete();
+        verifyNoInteractions(redisTemplate);
+    }
+}
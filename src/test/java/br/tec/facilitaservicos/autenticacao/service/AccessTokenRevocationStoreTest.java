@@ -0,0 +1,82 @@
+package br.tec.facilitaservicos.autenticacao.service;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+
+import br.tec.facilitaservicos.autenticacao.configuracao.CoarseClock;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AccessTokenRevocationStore - Testes Unitários")
+class AccessTokenRevocationStoreTest {
+
+    private static final Instant AGORA = Instant.parse("2026-01-01T12:00:00Z");
+    private static final List<String> CHAVES = List.of("auth:revoked:jti:jti-1", "auth:nbf:1");
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+
+    private AccessTokenRevocationStore store;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        store = new AccessTokenRevocationStore(redisTemplate,
+            CoarseClock.direct(Clock.fixed(AGORA, ZoneOffset.UTC)), 3600);
+    }
+
+    @Test
+    @DisplayName("Deve registrar o jti com TTL até a expiração")
+    void deveRegistrarJtiComTtlAteExpiracao() {
+        when(valueOperations.set("auth:revoked:jti:jti-1", "1", Duration.ofSeconds(600)))
+            .thenReturn(Mono.just(true));
+
+        StepVerifier.create(store.revokeJti("jti-1", AGORA.plusSeconds(600)))
+            .verifyComplete();
+
+        verify(valueOperations).set(eq("auth:revoked:jti:jti-1"), eq("1"), eq(Duration.ofSeconds(600)));
+    }
+
+    @Test
+    @DisplayName("Deve considerar revogado o token emitido antes do not-before do usuário")
+    void deveAplicarNotBefore() {
+        when(valueOperations.multiGet(CHAVES))
+            .thenReturn(Mono.just(Arrays.asList(null, String.valueOf(AGORA.getEpochSecond()))));
+
+        StepVerifier.create(store.isRevoked("jti-1", "1", AGORA.minusSeconds(1)))
+            .expectNext(true)
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Token emitido no segundo do not-before (novo login) continua ativo")
+    void deveAceitarTokenEmitidoNoNotBefore() {
+        when(valueOperations.multiGet(CHAVES))
+            .thenReturn(Mono.just(Arrays.asList(null, String.valueOf(AGORA.getEpochSecond()))));
+
+        StepVerifier.create(store.isRevoked("jti-1", "1", AGORA))
+            .expectNext(false)
+            .verifyComplete();
+    }
+}
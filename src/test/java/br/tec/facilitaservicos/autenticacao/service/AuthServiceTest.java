@@ -1,5 +1,6 @@
 package br.tec.facilitaservicos.autenticacao.service;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -10,7 +11,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
-import org.mockito.InjectMocks;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -19,14 +20,20 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 
+import br.tec.facilitaservicos.autenticacao.dto.PermissoesUsuarioDTO;
 import br.tec.facilitaservicos.autenticacao.dto.RequisicaoLoginDTO;
 import br.tec.facilitaservicos.autenticacao.dto.RequisicaoRefreshDTO;
 import br.tec.facilitaservicos.autenticacao.entity.RefreshToken;
+import br.tec.facilitaservicos.autenticacao.events.AuthEventPublisher;
 import br.tec.facilitaservicos.autenticacao.dto.UsuarioDTO;
 import br.tec.facilitaservicos.autenticacao.exception.AuthenticationException;
 import br.tec.facilitaservicos.autenticacao.repository.RefreshTokenRepository;
 import br.tec.facilitaservicos.autenticacao.client.UserServiceClient;
+import br.tec.facilitaservicos.autenticacao.ratelimit.LoginThrottle;
+import br.tec.facilitaservicos.autenticacao.ratelimit.LoginThrottleProperties;
+import br.tec.facilitaservicos.autenticacao.token.RefreshTokenCodec;
 import java.util.Set;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -53,7 +60,18 @@ class AuthServiceTest {
     @Mock
     private UserValidationService userValidationService;
 
-    @InjectMocks
+    @Mock
+    private KeyVaultService keyVaultService;
+
+    @Mock
+    private ReferenceTokenService referenceTokenService;
+
+    @Mock
+    private AccessTokenRevocationStore revocationStore;
+
+    @Mock
+    private AuthEventPublisher authEventPublisher;
+
     private AuthService authService;
 
     private UsuarioDTO usuarioValido;
@@ -61,6 +79,15 @@ class AuthServiceTest {
 
     @BeforeEach
     void setUp() {
+        RefreshTokenStore refreshTokenStore = new RefreshTokenStore(refreshTokenRepository, new RefreshTokenCodec(),
+                keyVaultService, RefreshTokenStore.HashMode.SHA256, "refresh-token-pepper", true);
+        // Throttling desativado: nenhuma chamada ao Redis
+        LoginThrottleProperties throttleProperties = new LoginThrottleProperties();
+        throttleProperties.setEnabled(false);
+        LoginThrottle loginThrottle = new LoginThrottle(null, throttleProperties, new SimpleMeterRegistry());
+        authService = new AuthService(userServiceClient, refreshTokenStore, jwtService, referenceTokenService,
+                revocationStore, passwordEncoder, userValidationService, authEventPublisher, loginThrottle, Clock.systemDefaultZone());
+
         // Setup do usuário válido
         usuarioValido = new UsuarioDTO();
         usuarioValido.setId(1L);
@@ -87,7 +114,9 @@ class AuthServiceTest {
                 .thenReturn(Mono.just(usuarioValido));
         when(userValidationService.validateUser(any(UsuarioDTO.class), anyString()))
                 .thenReturn(Mono.just(usuarioValido));
-        when(jwtService.generateAccessToken(any(UsuarioDTO.class)))
+        when(userServiceClient.findPermissoes(1L))
+                .thenReturn(Mono.just(new PermissoesUsuarioDTO(1L, Set.of("ROLE_USER"), Set.of("chat:send"), "1a2b")));
+        when(jwtService.generateAccessToken(any(UsuarioDTO.class), any(PermissoesUsuarioDTO.class)))
                 .thenReturn(Mono.just(accessToken));
         // Refresh token é gerado internamente no AuthService
         when(refreshTokenRepository.save(any(RefreshToken.class)))
@@ -102,14 +131,15 @@ class AuthServiceTest {
                     return resposta.tokenAcesso().equals(accessToken) &&
                            resposta.tokenRenovacao() != null &&
                            "Bearer".equals(resposta.tipoToken()) &&
-                           resposta.tempoValidadeSegundos() > 0;
+                           resposta.tempoValidadeSegundos() > 0 &&
+                           resposta.permissoes().contains("ROLE_USER");
                 })
                 .verifyComplete();
 
         // Verificações adicionais
         verify(userServiceClient).findByEmailOrNomeUsuario("usuario@teste.com");
         verify(userValidationService).validateUser(usuarioValido, "senha123");
-        verify(jwtService).generateAccessToken(usuarioValido);
+        verify(jwtService).generateAccessToken(eq(usuarioValido), any(PermissoesUsuarioDTO.class));
         verify(userServiceClient).updateTentativasLoginFalidas(usuarioValido.getId(), 0);
         verify(refreshTokenRepository).save(any(RefreshToken.class));
     }
@@ -232,7 +262,9 @@ class AuthServiceTest {
                 .thenReturn(Mono.just(refreshTokenEntity));
         when(userServiceClient.findById(1L))
                 .thenReturn(Mono.just(usuarioValido));
-        when(jwtService.generateAccessToken(usuarioValido))
+        when(userServiceClient.findPermissoes(1L))
+                .thenReturn(Mono.error(new RuntimeException("user-service indisponível")));
+        when(jwtService.generateAccessToken(eq(usuarioValido), any(PermissoesUsuarioDTO.class)))
                 .thenReturn(Mono.just(novoAccessToken));
         // Refresh token é gerado internamente no AuthService
         when(refreshTokenRepository.save(any(RefreshToken.class)))
@@ -252,7 +284,7 @@ class AuthServiceTest {
 
         verify(refreshTokenRepository).findByTokenHashAndAtivoTrueAndRevogadoFalse(anyString());
         verify(userServiceClient).findById(1L);
-        verify(jwtService).generateAccessToken(usuarioValido);
+        verify(jwtService).generateAccessToken(eq(usuarioValido), any(PermissoesUsuarioDTO.class));
     }
 
     @Test
@@ -291,6 +323,25 @@ class AuthServiceTest {
         verify(refreshTokenRepository).revokeToken(anyString());
     }
 
+    @Test
+    @DisplayName("Deve revogar token de referência quando não é refresh token")
+    void deveRevogarTokenDeReferencia() {
+        // Arrange
+        String token = new RefreshTokenCodec().generate();
+
+        when(refreshTokenRepository.revokeToken(anyString()))
+                .thenReturn(Mono.just(0));
+        when(referenceTokenService.isReferenceToken(token)).thenReturn(true);
+        when(referenceTokenService.revoke(token)).thenReturn(Mono.just(true));
+
+        // Act & Assert
+        StepVerifier.create(authService.revoke(token))
+                .verifyComplete();
+
+        verify(referenceTokenService).revoke(token);
+        verifyNoInteractions(jwtService);
+    }
+
     @Test
     @DisplayName("Deve realizar introspecção com token válido")
     void deveRealizarIntrospeccaoComTokenValido() {
@@ -299,6 +350,8 @@ class AuthServiceTest {
         
         when(jwtService.validateAccessToken(token))
                 .thenReturn(Mono.just(createMockJWTClaimsSet()));
+        when(revocationStore.isRevoked(eq("jti-1"), eq("1"), any()))
+                .thenReturn(Mono.just(false));
 
         // Act & Assert
         StepVerifier.create(authService.introspect(token))
@@ -308,6 +361,93 @@ class AuthServiceTest {
         verify(jwtService).validateAccessToken(token);
     }
 
+    @Test
+    @DisplayName("Deve retornar token inativo na introspecção quando token revogado")
+    void deveRetornarTokenInativoNaIntrospeccaoQuandoTokenRevogado() {
+        // Arrange
+        String token = "revoked.jwt.token";
+
+        when(jwtService.validateAccessToken(token))
+                .thenReturn(Mono.just(createMockJWTClaimsSet()));
+        when(revocationStore.isRevoked(eq("jti-1"), eq("1"), any()))
+                .thenReturn(Mono.just(true));
+
+        // Act & Assert
+        StepVerifier.create(authService.introspect(token))
+                .expectNextMatches(resposta -> !resposta.ativo())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Deve revogar todas as sessões do usuário e registrar o not-before")
+    void deveRevogarTodasAsSessoes() {
+        // Arrange
+        String refreshToken = "valid.refresh.token";
+
+        RefreshToken refreshTokenEntity = new RefreshToken();
+        refreshTokenEntity.setTokenHash("hashed-token");
+        refreshTokenEntity.setUsuarioId(1L);
+        refreshTokenEntity.setDataExpiracao(LocalDateTime.now().plusDays(1));
+        refreshTokenEntity.setRevogado(false);
+        refreshTokenEntity.setAtivo(true);
+
+        when(refreshTokenRepository.findByTokenHashAndAtivoTrueAndRevogadoFalse(anyString()))
+                .thenReturn(Mono.just(refreshTokenEntity));
+        when(refreshTokenRepository.revokeAllUserTokens(1L))
+                .thenReturn(Mono.just(2));
+        when(referenceTokenService.revokeAllForUser(1L))
+                .thenReturn(Mono.just(1L));
+        when(revocationStore.revokeUserTokens(eq(1L), any()))
+                .thenReturn(Mono.empty());
+        when(authEventPublisher.userNotBefore(eq(1L), any()))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(authService.revokeAllSessions(refreshToken))
+                .expectNext(3)
+                .verifyComplete();
+
+        verify(revocationStore).revokeUserTokens(eq(1L), any());
+        verify(authEventPublisher).userNotBefore(eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("Deve revogar em lote as sessões de vários usuários")
+    void deveRevogarSessoesDeVariosUsuarios() {
+        // Arrange
+        when(refreshTokenRepository.revokeAllUsersTokens(java.util.List.of(1L, 2L)))
+                .thenReturn(Mono.just(4));
+        when(referenceTokenService.revokeAllForUser(1L)).thenReturn(Mono.just(1L));
+        when(referenceTokenService.revokeAllForUser(2L)).thenReturn(Mono.just(0L));
+        when(revocationStore.revokeUserTokens(anyLong(), any()))
+                .thenReturn(Mono.empty());
+        when(authEventPublisher.userNotBefore(anyLong(), any()))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(authService.revokeUsersSessions(java.util.List.of(1L, 2L)))
+                .expectNext(5L)
+                .verifyComplete();
+
+        verify(revocationStore).revokeUserTokens(eq(2L), any());
+        verify(authEventPublisher).userNotBefore(eq(2L), any());
+    }
+
+    @Test
+    @DisplayName("Deve falhar revogação de todas as sessões com refresh token inválido")
+    void deveFalharRevogacaoDeTodasAsSessoesComRefreshTokenInvalido() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHashAndAtivoTrueAndRevogadoFalse(anyString()))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(authService.revokeAllSessions("invalid.refresh.token"))
+                .expectError(AuthenticationException.class)
+                .verify();
+
+        verifyNoInteractions(referenceTokenService, revocationStore, authEventPublisher);
+    }
+
     @Test
     @DisplayName("Deve retornar token inativo na introspecção quando token inválido")
     void deveRetornarTokenInativoNaIntrospeccaoQuandoTokenInvalido() {
@@ -331,6 +471,7 @@ class AuthServiceTest {
         try {
             return new com.nimbusds.jwt.JWTClaimsSet.Builder()
                     .subject("1")
+                    .jwtID("jti-1")
                     .claim("preferred_username", "usuario@teste.com")
                     .expirationTime(new java.util.Date(System.currentTimeMillis() + 3600000))
                     .issueTime(new java.util.Date())
@@ -0,0 +1,93 @@
+package br.tec.facilitaservicos.autenticacao.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JwkSetCache - Testes Unitários")
+class JwkSetCacheTest {
+
+    @Mock
+    private KeyVaultService keyVaultService;
+
+    private JwkSetCache jwkSetCache;
+    private KeyPairGenerator keyPairGenerator;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        jwkSetCache = new JwkSetCache(keyVaultService);
+        keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+    }
+
+    @Test
+    @DisplayName("Deve servir JWK Set público serializado com ETag forte")
+    void deveServirJwkSetSerializado() {
+        RSAPublicKey publicKey = novaChave();
+        when(keyVaultService.getPublicKey()).thenReturn(Mono.just(publicKey));
+        when(keyVaultService.getKeyId()).thenReturn(Mono.just("kid-1"));
+
+        StepVerifier.create(jwkSetCache.current())
+                .assertNext(snapshot -> {
+                    assertThat(snapshot.etag()).startsWith("\"").endsWith("\"").doesNotStartWith("W/");
+                    assertThat(snapshot.keyId()).isEqualTo("kid-1");
+                    try {
+                        JWKSet jwkSet = JWKSet.parse(new String(snapshot.body(), StandardCharsets.UTF_8));
+                        RSAKey key = (RSAKey) jwkSet.getKeyByKeyId("kid-1");
+                        assertThat(key.isPrivate()).isFalse();
+                        assertThat(key.toRSAPublicKey()).isEqualTo(publicKey);
+                    } catch (Exception e) {
+                        throw new AssertionError(e);
+                    }
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar os bytes enquanto a chave não muda")
+    void deveReutilizarBytesEnquantoChaveNaoMuda() {
+        RSAPublicKey publicKey = novaChave();
+
+        JwkSetCache.Snapshot primeira = jwkSetCache.snapshotFor(publicKey, "kid-1");
+        JwkSetCache.Snapshot segunda = jwkSetCache.snapshotFor(publicKey, "kid-1");
+
+        assertThat(segunda).isSameAs(primeira);
+        assertThat(new JwkSetCache(keyVaultService).snapshotFor(publicKey, "kid-1").etag())
+                .isEqualTo(primeira.etag());
+    }
+
+    @Test
+    @DisplayName("Deve serializar de novo quando a chave é rotacionada")
+    void deveSerializarDeNovoNaRotacao() {
+        JwkSetCache.Snapshot antes = jwkSetCache.snapshotFor(novaChave(), "kid-1");
+        JwkSetCache.Snapshot depois = jwkSetCache.snapshotFor(novaChave(), "kid-2");
+
+        assertThat(depois).isNotSameAs(antes);
+        assertThat(depois.keyId()).isEqualTo("kid-2");
+        assertThat(depois.etag()).isNotEqualTo(antes.etag());
+    }
+
+    // Métodos auxiliares privados
+
+    private RSAPublicKey novaChave() {
+        return (RSAPublicKey) keyPairGenerator.generateKeyPair().getPublic();
+    }
+}
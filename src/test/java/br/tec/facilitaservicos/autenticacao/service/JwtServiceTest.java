@@ -5,7 +5,12 @@ import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -13,14 +18,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import br.tec.facilitaservicos.autenticacao.configuracao.CoarseClock;
 import br.tec.facilitaservicos.autenticacao.dto.UsuarioDTO;
+import br.tec.facilitaservicos.autenticacao.exception.TokenException;
 import java.util.Set;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -36,8 +43,8 @@ class JwtServiceTest {
     @Mock
     private KeyVaultService keyVaultService;
 
-    @InjectMocks
     private JwtService jwtService;
+    private MutableClock clock;
 
     private UsuarioDTO usuario;
     private RSAPrivateKey realPrivateKey;
@@ -53,6 +60,9 @@ class JwtServiceTest {
         realPrivateKey = (RSAPrivateKey) keyPair.getPrivate();
         realPublicKey = (RSAPublicKey) keyPair.getPublic();
 
+        clock = new MutableClock(Instant.parse("2025-01-15T12:00:00Z"));
+        jwtService = new JwtService(keyVaultService, clock, CoarseClock.direct(clock));
+
         // Setup do usuário
         usuario = new UsuarioDTO();
         usuario.setId(1L);
@@ -214,4 +224,58 @@ class JwtServiceTest {
         verify(keyVaultService).getPrivateKey();
         verify(keyVaultService).getKeyId();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve rejeitar token expirado ao avançar o relógio injetado")
+    void deveRejeitarTokenExpiradoAoAvancarRelogio() {
+        ReflectionTestUtils.setField(jwtService, "accessTokenValiditySeconds", 60L);
+        ReflectionTestUtils.setField(jwtService, "issuer", "https://auth.teste");
+        ReflectionTestUtils.setField(jwtService, "audience", "teste");
+        when(keyVaultService.getPrivateKey()).thenReturn(Mono.just(realPrivateKey));
+        when(keyVaultService.getKeyId()).thenReturn(Mono.just("test-key-id"));
+        when(keyVaultService.getPublicKey()).thenReturn(Mono.just(realPublicKey));
+
+        String token = jwtService.generateAccessToken(usuario).block();
+
+        StepVerifier.create(jwtService.validateAccessToken(token))
+                .assertNext(claims -> assertThat(claims.getIssueTime().toInstant()).isEqualTo(clock.instant()))
+                .verifyComplete();
+
+        clock.advance(Duration.ofSeconds(61));
+
+        StepVerifier.create(jwtService.validateAccessToken(token))
+                .expectErrorMatches(error -> error instanceof TokenException && error.getMessage().contains("expirado"))
+                .verify();
+    }
+
+    /**
+     * Relógio controlado pelo teste.
+     */
+    static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package br.tec.facilitaservicos.autenticacao.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveSetOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+
+import br.tec.facilitaservicos.autenticacao.configuracao.CoarseClock;
+import br.tec.facilitaservicos.autenticacao.dto.PermissoesUsuarioDTO;
+import br.tec.facilitaservicos.autenticacao.dto.UsuarioDTO;
+import br.tec.facilitaservicos.autenticacao.token.ReferenceTokenSession;
+import br.tec.facilitaservicos.autenticacao.token.RefreshTokenCodec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReferenceTokenService - Testes Unitários")
+class ReferenceTokenServiceTest {
+
+    private static final Instant AGORA = Instant.parse("2026-01-10T12:00:00Z");
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ReactiveSetOperations<String, String> setOperations;
+
+    private UsuarioDTO usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new UsuarioDTO();
+        usuario.setId(42L);
+        usuario.setUsername("maria|silva");
+        usuario.setEmail("maria@teste.com");
+    }
+
+    @Test
+    @DisplayName("Deve selecionar tokens de referência apenas para clientes configurados")
+    void deveSelecionarFormatoPorCliente() {
+        ReferenceTokenService service = service(AGORA);
+
+        assertThat(service.isReferenceClient("batch-interno")).isTrue();
+        assertThat(service.isReferenceClient("portal-web")).isFalse();
+        assertThat(service.isReferenceClient(null)).isFalse();
+        assertThat(service.isReferenceToken(new RefreshTokenCodec().generate())).isTrue();
+        assertThat(service.isReferenceToken("header.payload.signature")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve emitir token opaco, gravar só o hash no Redis e introspectar pelo cache local")
+    void deveEmitirEIntrospectarPeloCacheLocal() {
+        ReferenceTokenService service = service(AGORA);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.set(anyString(), anyString(), eq(Duration.ofSeconds(3600)))).thenReturn(Mono.just(true));
+        stubIndiceDoUsuario();
+
+        String token = service.issue(usuario, permissoes()).block();
+
+        ArgumentCaptor<String> chave = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(chave.capture(), anyString(), any(Duration.class));
+        assertThat(token).hasSize(RefreshTokenCodec.TOKEN_LENGTH);
+        assertThat(chave.getValue()).startsWith("auth:ref:").doesNotContain(token);
+
+        StepVerifier.create(service.introspect(token))
+            .assertNext(resposta -> {
+                assertThat(resposta.ativo()).isTrue();
+                assertThat(resposta.subject()).isEqualTo("42");
+                assertThat(resposta.expiracao()).isEqualTo(AGORA.getEpochSecond() + 3600);
+                assertThat(resposta.autoridades()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+            })
+            .verifyComplete();
+        verify(valueOperations, never()).get(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve buscar no Redis quando ausente no cache local e recusar sessão expirada")
+    void deveBuscarNoRedisERecusarExpirado() {
+        long emissao = AGORA.getEpochSecond() - 7200;
+        String sessao = new ReferenceTokenSession(42L, "maria", emissao, emissao + 3600, Set.of("ROLE_USER"), null).encode();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenReturn(Mono.just(sessao));
+
+        StepVerifier.create(service(AGORA).introspect(new RefreshTokenCodec().generate()))
+            .assertNext(resposta -> assertThat(resposta.ativo()).isFalse())
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Deve revogar o token: remove do Redis, do cache local e avisa os demais nós")
+    void deveRevogarToken() {
+        ReferenceTokenService service = service(AGORA);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.set(anyString(), anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+        stubIndiceDoUsuario();
+        String token = service.issue(usuario, permissoes()).block();
+
+        when(redisTemplate.delete(anyString())).thenReturn(Mono.just(1L));
+        when(redisTemplate.convertAndSend(eq(ReferenceTokenService.EVICTION_CHANNEL), anyString()))
+            .thenReturn(Mono.just(1L));
+        when(valueOperations.get(anyString())).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.revoke(token))
+            .expectNext(true)
+            .verifyComplete();
+
+        // Fora do cache local: a introspecção vai ao Redis, que já não tem a sessão
+        StepVerifier.create(service.introspect(token))
+            .assertNext(resposta -> assertThat(resposta.ativo()).isFalse())
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Deve revogar todas as sessões do usuário pelo índice")
+    @SuppressWarnings("unchecked")
+    void deveRevogarTodasAsSessoesDoUsuario() {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members("auth:ref:user:42")).thenReturn(Flux.just("h1", "h2"));
+        when(redisTemplate.delete(any(Flux.class))).thenReturn(Mono.just(2L));
+        when(setOperations.remove("auth:ref:user:42", "h1", "h2")).thenReturn(Mono.just(2L));
+        when(redisTemplate.convertAndSend(eq(ReferenceTokenService.EVICTION_CHANNEL), anyString()))
+            .thenReturn(Mono.just(1L));
+
+        StepVerifier.create(service(AGORA).revokeAllForUser(42L))
+            .expectNext(2L)
+            .verifyComplete();
+
+        verify(redisTemplate).convertAndSend(ReferenceTokenService.EVICTION_CHANNEL, "h1");
+        verify(redisTemplate).convertAndSend(ReferenceTokenService.EVICTION_CHANNEL, "h2");
+    }
+
+    @Test
+    @DisplayName("Sessão deve sobreviver à serialização compacta")
+    void sessaoDeveSobreviverASerializacao() {
+        ReferenceTokenSession sessao = new ReferenceTokenSession(42L, "maria|silva", 100L, 3700L,
+            Set.of("ROLE_USER", "ROLE_ADMIN"), "9f3c2a1b");
+
+        assertThat(ReferenceTokenSession.decode(sessao.encode())).isEqualTo(sessao);
+        assertThat(ReferenceTokenSession.decode(new ReferenceTokenSession(1L, null, 1L, 2L, Set.of(), null).encode()))
+            .isEqualTo(new ReferenceTokenSession(1L, null, 1L, 2L, Set.of(), null));
+    }
+
+    private ReferenceTokenService service(Instant agora) {
+        CoarseClock clock = CoarseClock.direct(Clock.fixed(agora, ZoneOffset.UTC));
+        return new ReferenceTokenService(redisTemplate, new RefreshTokenCodec(), clock, Set.of("batch-interno"),
+            1000, 3600, "https://auth.conexaodesorte.com", "conexao-de-sorte");
+    }
+
+    private void stubIndiceDoUsuario() {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.add(eq("auth:ref:user:42"), anyString())).thenReturn(Mono.just(1L));
+        when(redisTemplate.expire("auth:ref:user:42", Duration.ofSeconds(3600))).thenReturn(Mono.just(true));
+    }
+
+    private PermissoesUsuarioDTO permissoes() {
+        return new PermissoesUsuarioDTO(42L, Set.of("ROLE_USER", "ROLE_ADMIN"), Set.of("chat:send"), "9f3c2a1b");
+    }
+}
@@ -0,0 +1,101 @@
+package br.tec.facilitaservicos.autenticacao.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.tec.facilitaservicos.autenticacao.entity.RefreshToken;
+import br.tec.facilitaservicos.autenticacao.repository.RefreshTokenRepository;
+import br.tec.facilitaservicos.autenticacao.token.RefreshTokenCodec;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenStore - Testes Unitários")
+class RefreshTokenStoreTest {
+
+    private static final String PEPPER_SECRET = "refresh-token-pepper";
+    private static final String PEPPER = "pepper-de-teste-com-mais-de-32-bytes";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private KeyVaultService keyVaultService;
+
+    private final RefreshTokenCodec codec = new RefreshTokenCodec();
+
+    @Test
+    @DisplayName("Modo DUAL deve gravar token_hash e token_mac")
+    void modoDualDeveGravarHashEMac() {
+        RefreshTokenStore store = store(RefreshTokenStore.HashMode.DUAL, true);
+        when(keyVaultService.getSecret(PEPPER_SECRET)).thenReturn(Mono.just(PEPPER));
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        String token = store.generate();
+
+        StepVerifier.create(store.save(token, new RefreshToken()))
+            .assertNext(salvo -> {
+                assertThat(salvo.getTokenHash()).isEqualTo(codec.hash(token));
+                assertThat(salvo.getTokenMac()).hasSize(32);
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Modo HMAC deve buscar pelo MAC e cair para token_hash em tokens antigos")
+    void modoHmacDeveCairParaHashLegado() {
+        RefreshTokenStore store = store(RefreshTokenStore.HashMode.HMAC, true);
+        String token = store.generate();
+        RefreshToken legado = new RefreshToken();
+        legado.setTokenHash(codec.hash(token));
+        when(keyVaultService.getSecret(PEPPER_SECRET)).thenReturn(Mono.just(PEPPER));
+        when(refreshTokenRepository.findByTokenMacAndAtivoTrueAndRevogadoFalse(any(byte[].class))).thenReturn(Mono.empty());
+        when(refreshTokenRepository.findByTokenHashAndAtivoTrueAndRevogadoFalse(codec.hash(token))).thenReturn(Mono.just(legado));
+
+        StepVerifier.create(store.findActive(token))
+            .expectNext(legado)
+            .verifyComplete();
+
+        ArgumentCaptor<byte[]> mac = ArgumentCaptor.forClass(byte[].class);
+        verify(refreshTokenRepository).findByTokenMacAndAtivoTrueAndRevogadoFalse(mac.capture());
+        assertThat(mac.getValue()).hasSize(32);
+    }
+
+    @Test
+    @DisplayName("Modo HMAC sem fallback não deve consultar token_hash")
+    void modoHmacSemFallbackNaoDeveConsultarHash() {
+        RefreshTokenStore store = store(RefreshTokenStore.HashMode.HMAC, false);
+        when(keyVaultService.getSecret(PEPPER_SECRET)).thenReturn(Mono.just(PEPPER));
+        when(refreshTokenRepository.findByTokenMacAndAtivoTrueAndRevogadoFalse(any(byte[].class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(store.findActive(store.generate()))
+            .verifyComplete();
+
+        verify(refreshTokenRepository, never()).findByTokenHashAndAtivoTrueAndRevogadoFalse(anyString());
+    }
+
+    @Test
+    @DisplayName("Pepper de fallback do Key Vault deve ser recusado")
+    void pepperDeFallbackDeveSerRecusado() {
+        RefreshTokenStore store = store(RefreshTokenStore.HashMode.HMAC, true);
+        when(keyVaultService.getSecret(PEPPER_SECRET)).thenReturn(Mono.just("fallback-" + PEPPER_SECRET));
+
+        StepVerifier.create(store.findActive(store.generate()))
+            .expectError(IllegalStateException.class)
+            .verify();
+    }
+
+    private RefreshTokenStore store(RefreshTokenStore.HashMode mode, boolean legacyFallback) {
+        return new RefreshTokenStore(refreshTokenRepository, codec, keyVaultService, mode, PEPPER_SECRET, legacyFallback);
+    }
+}
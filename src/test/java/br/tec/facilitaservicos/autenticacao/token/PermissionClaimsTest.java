@@ -0,0 +1,85 @@
+package br.tec.facilitaservicos.autenticacao.token;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import br.tec.facilitaservicos.autenticacao.dto.PermissoesUsuarioDTO;
+import br.tec.facilitaservicos.usuario.dto.Permissao;
+
+@DisplayName("PermissionClaims - Testes Unitários")
+class PermissionClaimsTest {
+
+    @Test
+    @DisplayName("Deve codificar e decodificar papéis, bits e versão")
+    void deveFazerIdaEVolta() {
+        PermissoesUsuarioDTO permissoes = new PermissoesUsuarioDTO(1L,
+            Set.of("ROLE_USER", "ROLE_MODERATOR"), Set.of("chat:send", "moderate_content"), "9f3c2a1b");
+
+        TokenPermissions token = PermissionClaims.decode(toClaims(PermissionClaims.encode(permissoes, 1024)));
+
+        assertThat(token.authorities()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_MODERATOR");
+        assertThat(token.hasPermission(Permissao.CHAT_SEND)).isTrue();
+        assertThat(token.hasPermission(Permissao.MODERATE_CONTENT)).isTrue();
+        assertThat(token.hasPermission(Permissao.MANAGE_USERS)).isFalse();
+        assertThat(token.hasAuthority("MODERATOR")).isTrue();
+        assertThat(token.isStale("9F3C2A1B")).isFalse();
+        assertThat(token.isStale("00000001")).isTrue();
+        assertThat(token.truncated()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Bitset deve usar o menor número de bytes")
+    void bitsetCompacto() {
+        assertThat(PermissionClaims.encodeBits(0L)).isEqualTo("AA");
+        assertThat(PermissionClaims.decodeBits(PermissionClaims.encodeBits(Permissao.ALL_MASK)))
+            .isEqualTo(Permissao.ALL_MASK);
+        assertThat(PermissionClaims.decodeBits(PermissionClaims.encodeBits(-1L))).isEqualTo(-1L);
+    }
+
+    @Test
+    @DisplayName("Acima do orçamento deve remover o scope textual e depois truncar papéis")
+    void deveRespeitarOrcamento() {
+        Set<String> roles = IntStream.range(0, 50).mapToObj(i -> "ROLE_GRUPO_" + i).collect(Collectors.toSet());
+        PermissoesUsuarioDTO permissoes = new PermissoesUsuarioDTO(1L, roles, Set.of("chat:send"), "abc");
+
+        Map<String, Object> claims = PermissionClaims.encode(permissoes, 256);
+
+        assertThat(claims).doesNotContainKey(PermissionClaims.CLAIM_SCOPE);
+        assertThat(claims).containsEntry(PermissionClaims.CLAIM_TRUNCATED, true);
+        assertThat((List<?>) claims.get(PermissionClaims.CLAIM_AUTHORITIES)).hasSizeLessThan(50);
+
+        TokenPermissions token = PermissionClaims.decode(toClaims(claims));
+        assertThat(token.truncated()).isTrue();
+        assertThat(token.hasPermission(Permissao.CHAT_SEND)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Token antigo sem bits deve ser lido pelo scope textual")
+    void deveLerTokenLegado() {
+        JWTClaimsSet legado = new JWTClaimsSet.Builder()
+            .claim("authorities", List.of("USER"))
+            .claim("scope", "chat:send read_only")
+            .build();
+
+        TokenPermissions token = PermissionClaims.decode(legado);
+
+        assertThat(token.hasPermission(Permissao.READ_ONLY)).isTrue();
+        assertThat(token.hasAuthority("ROLE_USER")).isTrue();
+        assertThat(token.isStale("abc")).isTrue();
+    }
+
+    private static JWTClaimsSet toClaims(Map<String, Object> claims) {
+        JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder();
+        claims.forEach(builder::claim);
+        return builder.build();
+    }
+}
@@ -0,0 +1,73 @@
+package br.tec.facilitaservicos.autenticacao.token;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("RefreshTokenCodec - Testes Unitários")
+class RefreshTokenCodecTest {
+
+    private final RefreshTokenCodec codec = new RefreshTokenCodec();
+
+    @Test
+    @DisplayName("Hash deve manter o formato gravado em token_hash (SHA-256 em Base64)")
+    void hashDeveSerCompativelComFormatoAnterior() throws Exception {
+        for (String token : new String[] { codec.generate(), "abc", "", "tökén-com-acentos-€", "x".repeat(500) }) {
+            assertThat(codec.hash(token)).isEqualTo(legacyHash(token));
+        }
+    }
+
+    @Test
+    @DisplayName("Tokens gerados devem ter 43 caracteres base64url e não se repetir entre threads")
+    void deveGerarTokensUnicos() {
+        Set<String> tokens = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 20_000).parallel().forEach(i -> tokens.add(codec.generate()));
+
+        assertThat(tokens).hasSize(20_000);
+        assertThat(tokens).allSatisfy(token -> assertThat(token).hasSize(43).matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    @DisplayName("Hash de token nulo deve falhar")
+    void hashDeTokenNuloDeveFalhar() {
+        assertThatThrownBy(() -> codec.hash(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("MAC deve ser HMAC-SHA256 do SHA-256 do token e trocar junto com a chave")
+    void macDeveUsarHmacSobreDigest() throws Exception {
+        SecretKey chave = new SecretKeySpec("p".repeat(32).getBytes(StandardCharsets.UTF_8), RefreshTokenCodec.MAC_ALGORITHM);
+        SecretKey outraChave = new SecretKeySpec("q".repeat(32).getBytes(StandardCharsets.UTF_8), RefreshTokenCodec.MAC_ALGORITHM);
+        String token = codec.generate();
+
+        byte[] mac = codec.mac(token, chave);
+
+        assertThat(mac).hasSize(RefreshTokenCodec.MAC_BYTES).isEqualTo(legacyMac(token, chave));
+        assertThat(codec.mac(token, outraChave)).isEqualTo(legacyMac(token, outraChave)).isNotEqualTo(mac);
+        assertThat(codec.mac(token, chave)).isEqualTo(mac);
+    }
+
+    private static byte[] legacyMac(String token, SecretKey chave) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(chave);
+        return mac.doFinal(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String legacyHash(String token) throws Exception {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+}
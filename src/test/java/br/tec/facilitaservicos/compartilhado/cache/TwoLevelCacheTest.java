@@ -0,0 +1,118 @@
+package br.tec.facilitaservicos.compartilhado.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+@DisplayName("Testes do cache de dois níveis (L1 Caffeine + L2)")
+class TwoLevelCacheTest {
+
+    private ConcurrentMapCache l2Cache;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        l2Cache = new ConcurrentMapCache("jwks");
+        cache = new TwoLevelCache("jwks", l2Cache, L1CacheSpec.of(100, Duration.ofMinutes(1)), false, null);
+    }
+
+    @Test
+    @DisplayName("Deve gravar nos dois níveis")
+    void devePutNosDoisNiveis() {
+        cache.put("k1", "v1");
+
+        assertThat(l2Cache.get("k1").get()).isEqualTo("v1");
+        assertThat(cache.getL1Cache().getIfPresent("k1")).isEqualTo("v1");
+    }
+
+    @Test
+    @DisplayName("Deve promover valor do L2 para o L1 em caso de miss local")
+    void devePromoverDoL2() {
+        l2Cache.put("k1", "v1");
+
+        assertThat(cache.get("k1").get()).isEqualTo("v1");
+        assertThat(cache.getL1Cache().getIfPresent("k1")).isEqualTo("v1");
+    }
+
+    @Test
+    @DisplayName("Deve servir do L1 sem consultar o loader novamente")
+    void deveServirDoL1() {
+        AtomicInteger chamadas = new AtomicInteger();
+
+        String primeiro = cache.get("k1", () -> "v" + chamadas.incrementAndGet());
+        String segundo = cache.get("k1", () -> "v" + chamadas.incrementAndGet());
+
+        assertThat(primeiro).isEqualTo("v1");
+        assertThat(segundo).isEqualTo("v1");
+        assertThat(chamadas.get()).isEqualTo(1);
+        assertThat(l2Cache.get("k1").get()).isEqualTo("v1");
+    }
+
+    @Test
+    @DisplayName("Deve gravar no L2 só depois de concluir a carga no L1")
+    void deveGravarL2ForaDoCompute() {
+        AtomicReference<Object> noL1DuranteEscrita = new AtomicReference<>();
+        ConcurrentMapCache l2Observado = new ConcurrentMapCache("jwks") {
+            @Override
+            public void put(Object key, Object value) {
+                noL1DuranteEscrita.set(cache.getL1Cache().getIfPresent(String.valueOf(key)));
+                super.put(key, value);
+            }
+        };
+        cache = new TwoLevelCache("jwks", l2Observado, L1CacheSpec.of(100, Duration.ofMinutes(1)), false, null);
+
+        assertThat(cache.get("k1", () -> "v1")).isEqualTo("v1");
+
+        // Durante um compute o Caffeine ainda não expõe a entrada
+        assertThat(noL1DuranteEscrita.get()).isEqualTo("v1");
+        assertThat(l2Observado.get("k1").get()).isEqualTo("v1");
+    }
+
+    @Test
+    @DisplayName("Deve remover dos dois níveis no evict")
+    void deveEvictDosDoisNiveis() {
+        cache.put("k1", "v1");
+
+        cache.evict("k1");
+
+        assertThat(l2Cache.get("k1")).isNull();
+        assertThat(cache.getL1Cache().getIfPresent("k1")).isNull();
+        assertThat(cache.get("k1")).isNull();
+    }
+
+    @Test
+    @DisplayName("Invalidação remota deve limpar apenas o L1")
+    void invalidacaoRemotaLimpaApenasL1() {
+        ConcurrentMapCacheManager l2Manager = new ConcurrentMapCacheManager("jwks", "two-factor-codes");
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(l2Manager,
+                Map.of("jwks", L1CacheSpec.of(100, Duration.ofMinutes(1))), false, null, null);
+
+        Cache jwks = manager.getCache("jwks");
+        jwks.put("k1", "v1");
+
+        manager.invalidateLocal("jwks", "k1");
+
+        assertThat(((TwoLevelCache) jwks).getL1Cache().getIfPresent("k1")).isNull();
+        assertThat(l2Manager.getCache("jwks").get("k1").get()).isEqualTo("v1");
+    }
+
+    @Test
+    @DisplayName("Caches sem especificação L1 devem ser servidos direto do L2")
+    void cacheSemSpecNaoRecebeL1() {
+        ConcurrentMapCacheManager l2Manager = new ConcurrentMapCacheManager("jwks", "two-factor-codes");
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(l2Manager,
+                Map.of("jwks", L1CacheSpec.of(100, Duration.ofMinutes(1))), false, null, null);
+
+        assertThat(manager.getCache("jwks")).isInstanceOf(TwoLevelCache.class);
+        assertThat(manager.getCache("two-factor-codes")).isInstanceOf(ConcurrentMapCache.class);
+    }
+}
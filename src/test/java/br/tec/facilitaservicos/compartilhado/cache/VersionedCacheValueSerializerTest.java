@@ -0,0 +1,122 @@
+package br.tec.facilitaservicos.compartilhado.cache;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import br.tec.facilitaservicos.usuario.dto.AuthorizationSnapshot;
+import br.tec.facilitaservicos.usuario.dto.UsuarioDTO;
+
+@DisplayName("Testes do codec binário versionado de valores de cache")
+class VersionedCacheValueSerializerTest {
+
+    private final VersionedCacheValueSerializer serializer = new VersionedCacheValueSerializer();
+
+    @Test
+    @DisplayName("Deve gravar com cabeçalho de versão e ler de volta")
+    void deveFazerRoundTrip() {
+        UsuarioDTO usuario = usuarioExemplo();
+
+        byte[] bytes = serializer.serialize(usuario);
+
+        assertThat(bytes[0]).isEqualTo(VersionedCacheValueSerializer.MAGIC);
+        assertThat(bytes[1]).isEqualTo(VersionedCacheValueSerializer.VERSION_SMILE);
+
+        UsuarioDTO lido = (UsuarioDTO) serializer.deserialize(bytes);
+        assertThat(lido.getId()).isEqualTo(42L);
+        assertThat(lido.getEmail()).isEqualTo("maria@example.com");
+        assertThat(lido.getRoles()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+        assertThat(lido.getCriadoEm()).isEqualTo(usuario.getCriadoEm());
+    }
+
+    @Test
+    @DisplayName("Deve ler valores JSON legados sem cabeçalho")
+    void deveLerJsonLegado() {
+        // Mapa não-final, como os gravados pelo serializer legado (Map.of sai sem @class)
+        Map<String, Object> valor = new HashMap<>();
+        valor.put("userId", "42");
+        valor.put("isAdmin", true);
+        byte[] legado = new GenericJackson2JsonRedisSerializer().serialize(valor);
+
+        Object lido = serializer.deserialize(legado);
+
+        assertThat(lido).isInstanceOf(Map.class);
+        assertThat(((Map<?, ?>) lido).get("isAdmin")).isEqualTo(true);
+    }
+
+    @Test
+    @DisplayName("Deve preservar o tipo de records (snapshot de autorização)")
+    void deveFazerRoundTripDeRecord() {
+        AuthorizationSnapshot snapshot = new AuthorizationSnapshot(42L, new long[] {1L, 3L},
+                Set.of("ROLE_ADMIN", "ROLE_USER"), 0b1011L, 5, 99L, null);
+
+        Object lido = serializer.deserialize(serializer.serialize(snapshot));
+
+        assertThat(lido).isInstanceOf(AuthorizationSnapshot.class);
+        AuthorizationSnapshot lidoSnapshot = (AuthorizationSnapshot) lido;
+        assertThat(lidoSnapshot.userId()).isEqualTo(42L);
+        assertThat(lidoSnapshot.roleIds()).containsExactly(1L, 3L);
+        assertThat(lidoSnapshot.roles()).containsExactly("ROLE_ADMIN", "ROLE_USER");
+        assertThat(lidoSnapshot.permissionBits()).isEqualTo(0b1011L);
+    }
+
+    @Test
+    @DisplayName("Formato binário deve ser menor que o JSON legado")
+    void deveSerMaisCompactoQueJson() {
+        Map<String, Object> permissoes = Map.of(
+                "userId", "42",
+                "roles", List.of("ROLE_USER", "ROLE_ADMIN"),
+                "permissions", List.of("READ_PROFILE", "UPDATE_PROFILE", "ADMIN_USERS"),
+                "isAdmin", true);
+
+        byte[] json = new GenericJackson2JsonRedisSerializer().serialize(permissoes);
+        byte[] binario = serializer.serialize(permissoes);
+
+        assertThat(binario.length).isLessThan(json.length);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar versão desconhecida")
+    void deveRejeitarVersaoDesconhecida() {
+        byte[] bytes = {VersionedCacheValueSerializer.MAGIC, 99, 0};
+
+        assertThatThrownBy(() -> serializer.deserialize(bytes))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    @DisplayName("Deve tratar null e vazio")
+    void deveTratarNulo() {
+        assertThat(serializer.serialize(null)).isEmpty();
+        assertThat(serializer.deserialize(new byte[0])).isNull();
+        assertThat(serializer.deserialize(null)).isNull();
+    }
+
+    static UsuarioDTO usuarioExemplo() {
+        return UsuarioDTO.builder()
+                .id(42L)
+                .username("maria.silva")
+                .fullName("Maria Silva")
+                .email("maria@example.com")
+                .primeiroNome("Maria")
+                .sobrenome("Silva")
+                .active(true)
+                .emailVerified(true)
+                .criadoEm(Instant.now().truncatedTo(ChronoUnit.SECONDS))
+                .roles(List.of("ROLE_USER", "ROLE_ADMIN"))
+                .permissoes(List.of("READ_PROFILE", "UPDATE_PROFILE"))
+                .timezone("America/Sao_Paulo")
+                .locale("pt-BR")
+                .build();
+    }
+}
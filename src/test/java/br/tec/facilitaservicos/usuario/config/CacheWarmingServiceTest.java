@@ -0,0 +1,111 @@
+package br.tec.facilitaservicos.usuario.config;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import br.tec.facilitaservicos.usuario.config.CacheConfig.CacheWarmingService;
+import br.tec.facilitaservicos.usuario.dto.AuthorizationSnapshot;
+import br.tec.facilitaservicos.usuario.dto.Permissao;
+import br.tec.facilitaservicos.usuario.dto.UsuarioDTO;
+import br.tec.facilitaservicos.usuario.entity.Usuario;
+import br.tec.facilitaservicos.usuario.repository.UsuarioRepository;
+import br.tec.facilitaservicos.usuario.service.AuthorizationSnapshotService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheWarmingService - Testes Unitários")
+class CacheWarmingServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private AuthorizationSnapshotService authorizationSnapshotService;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager("users", "user-authz");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Deve carregar perfis e permissões página a página")
+    void deveCarregarPaginas() {
+        when(usuarioRepository.findUsuariosComLoginRecentePagina(any(LocalDateTime.class), eq(2), eq(0L)))
+            .thenReturn(Flux.just(usuario(1L), usuario(2L)));
+        when(usuarioRepository.findUsuariosComLoginRecentePagina(any(LocalDateTime.class), eq(2), eq(2L)))
+            .thenReturn(Flux.just(usuario(3L)));
+        when(usuarioRepository.findUsuariosComLoginRecentePagina(any(LocalDateTime.class), eq(2), eq(4L)))
+            .thenReturn(Flux.empty());
+        when(authorizationSnapshotService.compile(any()))
+            .thenAnswer(invocation -> Flux.fromIterable(invocation.<Collection<Usuario>>getArgument(0))
+                .map(usuario -> snapshot(usuario.getId())));
+
+        CacheWarmingService service = criarServico(10);
+
+        StepVerifier.create(service.performFullWarmup())
+            .expectNext(3L)
+            .verifyComplete();
+
+        assertThat(cacheManager.getCache("users").get(1L, UsuarioDTO.class).getId()).isEqualTo(1L);
+        assertThat(cacheManager.getCache("user-authz").get(3L)).isNotNull();
+        assertThat(meterRegistry.get("cache.warming.entries").tag("cache", "users").counter().count()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("cache.warming.completed").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o limite máximo de usuários")
+    void deveRespeitarMaxUsers() {
+        when(usuarioRepository.findUsuariosComLoginRecentePagina(any(LocalDateTime.class), anyInt(), eq(0L)))
+            .thenReturn(Flux.just(usuario(1L), usuario(2L)));
+
+        CacheWarmingService service = criarServico(2);
+
+        StepVerifier.create(service.warmupUserProfiles())
+            .expectNext(2L)
+            .verifyComplete();
+
+        verify(usuarioRepository, never()).findUsuariosComLoginRecentePagina(any(LocalDateTime.class), anyInt(), eq(2L));
+        verify(authorizationSnapshotService, never()).compile(any());
+        assertThat(cacheManager.getCache("user-authz").get(1L)).isNull();
+    }
+
+    private CacheWarmingService criarServico(int maxUsers) {
+        return new CacheWarmingService(usuarioRepository, authorizationSnapshotService, cacheManager,
+                meterRegistry, Duration.ofDays(7), 2, maxUsers, 2, Duration.ofSeconds(10));
+    }
+
+    private static AuthorizationSnapshot snapshot(Long id) {
+        return new AuthorizationSnapshot(id, new long[0], Set.of("ROLE_USER"), Permissao.CHAT_SEND.mask(), 0, 1L, null);
+    }
+
+    private static Usuario usuario(Long id) {
+        Usuario usuario = new Usuario("user" + id + "@example.com", "user" + id, "hash");
+        usuario.setId(id);
+        usuario.setRoles("ROLE_USER");
+        usuario.setPermissoes("chat:send");
+        return usuario;
+    }
+}
@@ -0,0 +1,66 @@
+package br.tec.facilitaservicos.usuario.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@DisplayName("KeysetPagination - Testes Unitários")
+class KeysetPaginationTest {
+
+    private static final List<Long> TABELA = LongStream.rangeClosed(1, 7).boxed().toList();
+
+    @Test
+    @DisplayName("Deve percorrer todas as páginas em ordem de id")
+    void devePercorrerTodasAsPaginas() {
+        List<Long> cursores = new ArrayList<>();
+
+        StepVerifier.create(KeysetPagination.stream(0L, 3, (afterId, limite) -> {
+                cursores.add(afterId);
+                return pagina(afterId, limite);
+            }, id -> id))
+            .expectNext(1L, 2L, 3L, 4L, 5L, 6L, 7L)
+            .verifyComplete();
+
+        assertThat(cursores).containsExactly(0L, 3L, 6L);
+    }
+
+    @Test
+    @DisplayName("Deve ler no máximo uma página à frente do consumidor")
+    void deveRespeitarBackpressure() {
+        List<Long> cursores = new ArrayList<>();
+
+        StepVerifier.create(KeysetPagination.stream(0L, 3, (afterId, limite) -> {
+                cursores.add(afterId);
+                return pagina(afterId, limite);
+            }, id -> id), 2)
+            .expectNext(1L, 2L)
+            .thenCancel()
+            .verify();
+
+        // A busca antecipada da página seguinte depende de quando o assinante
+        // drena a fila; o limite é nunca passar de uma página além da atual
+        assertThat(cursores).startsWith(0L).isSubsetOf(0L, 3L);
+    }
+
+    @Test
+    @DisplayName("Deve retomar a partir do último id e parar em página vazia")
+    void deveRetomarDoCursor() {
+        StepVerifier.create(KeysetPagination.stream(6L, 3, KeysetPaginationTest::pagina, id -> id))
+            .expectNext(7L)
+            .verifyComplete();
+
+        StepVerifier.create(KeysetPagination.stream(7L, 3, KeysetPaginationTest::pagina, id -> id))
+            .verifyComplete();
+    }
+
+    private static Flux<Long> pagina(Long afterId, Integer limite) {
+        return Flux.fromIterable(TABELA).filter(id -> id > afterId).take(limite);
+    }
+}
@@ -0,0 +1,139 @@
+package br.tec.facilitaservicos.usuario.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import br.tec.facilitaservicos.usuario.dto.Permissao;
+import br.tec.facilitaservicos.usuario.entity.Papel;
+import br.tec.facilitaservicos.usuario.entity.Usuario;
+import br.tec.facilitaservicos.usuario.entity.UsuarioPapel;
+import br.tec.facilitaservicos.usuario.repository.PapelRepository;
+import br.tec.facilitaservicos.usuario.repository.UsuarioPapelRepository;
+import br.tec.facilitaservicos.usuario.repository.UsuarioRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuthorizationSnapshotService - Testes Unitários")
+class AuthorizationSnapshotServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private UsuarioPapelRepository usuarioPapelRepository;
+
+    @Mock
+    private PapelRepository papelRepository;
+
+    private AuthorizationSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager =
+            new ConcurrentMapCacheManager(AuthorizationSnapshotService.CACHE_USER_AUTHZ);
+        service = new AuthorizationSnapshotService(usuarioRepository, usuarioPapelRepository,
+            papelRepository, cacheManager);
+    }
+
+    @Test
+    @DisplayName("Deve compilar bits do JSON do papel somados às permissões legadas")
+    void deveCompilarBits() {
+        when(usuarioRepository.findById(1L)).thenReturn(Mono.just(usuario(1L, "ROLE_USER", "chat:send")));
+        when(usuarioPapelRepository.findPapeisValidosDosUsuarios(any()))
+            .thenReturn(Flux.just(new UsuarioPapel(1L, 10L)));
+        when(papelRepository.findAllById(ArgumentMatchers.<Iterable<Long>>any()))
+            .thenReturn(Flux.just(papel(10L, "MODERATOR", "{\"moderate_content\": true, \"view_reports\": false}", 50)));
+
+        StepVerifier.create(service.getSnapshot(1L))
+            .assertNext(snapshot -> {
+                assertThat(snapshot.roles()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_MODERATOR");
+                assertThat(snapshot.roleIds()).containsExactly(10L);
+                assertThat(snapshot.hasPermission(Permissao.MODERATE_CONTENT)).isTrue();
+                assertThat(snapshot.hasPermission(Permissao.CHAT_SEND)).isTrue();
+                assertThat(snapshot.hasPermission(Permissao.VIEW_REPORTS)).isFalse();
+                assertThat(snapshot.nivelAcesso()).isEqualTo(50);
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Permissão 'all' deve conceder todos os bits")
+    void allDeveConcederTudo() {
+        when(usuarioPapelRepository.findPapeisValidosDosUsuarios(any()))
+            .thenReturn(Flux.just(new UsuarioPapel(2L, 1L)));
+        when(papelRepository.findAllById(ArgumentMatchers.<Iterable<Long>>any()))
+            .thenReturn(Flux.just(papel(1L, "ADMIN", "{\"all\": true}", 100)));
+
+        StepVerifier.create(service.compile(List.of(usuario(2L, null, null))))
+            .assertNext(snapshot -> {
+                assertThat(snapshot.permissionBits()).isEqualTo(Permissao.ALL_MASK);
+                assertThat(snapshot.hasRole("ADMIN")).isTrue();
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Deve servir o snapshot do cache sem consultar o banco novamente")
+    void deveServirDoCache() {
+        when(usuarioRepository.findById(3L)).thenReturn(Mono.just(usuario(3L, "ROLE_USER", null)));
+        when(usuarioPapelRepository.findPapeisValidosDosUsuarios(any())).thenReturn(Flux.empty());
+
+        StepVerifier.create(service.getSnapshot(3L)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(service.getSnapshots(List.of(3L)))
+            .assertNext(snapshot -> assertThat(snapshot.userId()).isEqualTo(3L))
+            .verifyComplete();
+
+        verify(usuarioRepository, times(1)).findById(3L);
+        verify(usuarioPapelRepository, times(1)).findPapeisValidosDosUsuarios(any());
+    }
+
+    @Test
+    @DisplayName("Versão deve mudar quando o papel é alterado")
+    void versaoDeveMudarComPapel() {
+        Usuario usuario = usuario(4L, null, null);
+        when(usuarioPapelRepository.findPapeisValidosDosUsuarios(any()))
+            .thenReturn(Flux.just(new UsuarioPapel(4L, 20L)));
+        Papel papel = papel(20L, "PREMIUM", "{\"basic_access\": true}", 10);
+        when(papelRepository.findAllById(ArgumentMatchers.<Iterable<Long>>any())).thenReturn(Flux.just(papel));
+
+        long antes = service.compile(List.of(usuario)).blockFirst().version();
+
+        papel.setPermissoes("{\"basic_access\": true, \"chat:send\": true}");
+        papel.setVersao(2L);
+        long depois = service.compile(List.of(usuario)).blockFirst().version();
+
+        assertThat(depois).isNotEqualTo(antes);
+    }
+
+    private static Usuario usuario(Long id, String roles, String permissoes) {
+        Usuario usuario = new Usuario("user" + id + "@example.com", "user" + id, "hash");
+        usuario.setId(id);
+        usuario.setRoles(roles);
+        usuario.setPermissoes(permissoes);
+        return usuario;
+    }
+
+    private static Papel papel(Long id, String nome, String permissoes, int nivel) {
+        Papel papel = new Papel(nome, nome, nivel);
+        papel.setId(id);
+        papel.setPermissoes(permissoes);
+        papel.setVersao(1L);
+        return papel;
+    }
+}
@@ -0,0 +1,103 @@
+package br.tec.facilitaservicos.usuario.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.tec.facilitaservicos.usuario.client.AuthServiceClient;
+import br.tec.facilitaservicos.usuario.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InactiveUserCleanupService - Testes Unitários")
+class InactiveUserCleanupServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private AuthServiceClient authServiceClient;
+
+    @Mock
+    private RedisLeaderLock leaderLock;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InactiveUserCleanupService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new InactiveUserCleanupService(usuarioRepository, authServiceClient,
+            leaderLock, meterRegistry, true, Duration.ofDays(180), 2, Duration.ofMinutes(15), Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Deve remover candidatos em blocos com UPDATE em lote e revogar tokens")
+    void deveProcessarEmBlocos() {
+        when(usuarioRepository.findIdsParaLimpezaAposId(any(LocalDateTime.class), eq(0L), anyInt()))
+            .thenReturn(Flux.just(1L, 2L));
+        when(usuarioRepository.findIdsParaLimpezaAposId(any(LocalDateTime.class), eq(2L), anyInt()))
+            .thenReturn(Flux.just(3L));
+        when(usuarioRepository.softDeleteUsuarios(List.of(1L, 2L))).thenReturn(Mono.just(2));
+        when(usuarioRepository.softDeleteUsuarios(List.of(3L))).thenReturn(Mono.just(1));
+        when(authServiceClient.revokeUsersSessions(List.of(1L, 2L))).thenReturn(Mono.just(5L));
+        when(authServiceClient.revokeUsersSessions(List.of(3L))).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(service.runCleanup())
+            .assertNext(result -> {
+                assertThat(result.users()).isEqualTo(3);
+                assertThat(result.tokens()).isEqualTo(5);
+                assertThat(result.batches()).isEqualTo(2);
+            })
+            .verifyComplete();
+
+        verify(usuarioRepository, never()).softDeleteUsuario(any());
+        assertThat(meterRegistry.get("usuario.cleanup.users.deleted").counter().count()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("usuario.cleanup.batches").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Não deve remover usuários quando a revogação das sessões falha")
+    void naoDeveRemoverSemRevogarSessoes() {
+        when(usuarioRepository.findIdsParaLimpezaAposId(any(LocalDateTime.class), eq(0L), anyInt()))
+            .thenReturn(Flux.just(1L));
+        when(authServiceClient.revokeUsersSessions(List.of(1L)))
+            .thenReturn(Mono.error(new IllegalStateException("auth indisponível")));
+
+        StepVerifier.create(service.runCleanup())
+            .expectError(IllegalStateException.class)
+            .verify();
+
+        verify(usuarioRepository, never()).softDeleteUsuarios(any());
+    }
+
+    @Test
+    @DisplayName("Não deve executar quando outro nó detém o lock")
+    void naoDeveExecutarSemLock() {
+        when(leaderLock.runIfLeader(anyString(), any(Duration.class), any())).thenReturn(Mono.empty());
+
+        service.scheduledCleanup();
+
+        verify(usuarioRepository, never()).findIdsParaLimpezaAposId(any(), anyLong(), anyInt());
+        assertThat(meterRegistry.get("usuario.cleanup.skipped").counter().count()).isEqualTo(1.0);
+    }
+}
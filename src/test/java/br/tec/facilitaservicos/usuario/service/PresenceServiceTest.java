@@ -0,0 +1,92 @@
+package br.tec.facilitaservicos.usuario.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PresenceService - Testes Unitários")
+class PresenceServiceTest {
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ReactiveZSetOperations<String, String> zSetOperations;
+
+    private PresenceService presenceService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        presenceService = new PresenceService(redisTemplate, Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Consulta em lote deve retornar apenas ids com presença não expirada")
+    void deveFiltrarOnlineEmLote() {
+        double futuro = Instant.now().plusSeconds(60).toEpochMilli();
+        double passado = Instant.now().minusSeconds(60).toEpochMilli();
+        when(zSetOperations.score(eq(PresenceService.KEY_ONLINE), any(Object[].class)))
+            .thenReturn(Mono.just(Arrays.asList(futuro, passado, null)));
+
+        StepVerifier.create(presenceService.findOnline(List.of(1L, 2L, 3L)))
+            .assertNext(online -> assertThat(online).containsExactly(1L))
+            .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Registro deve gravar ZSET, HASH e TTL num único script")
+    @SuppressWarnings("unchecked")
+    void deveRegistrarPresencaAtomicamente() {
+        Instant atividade = Instant.parse("2026-01-01T12:00:00Z");
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenReturn(Flux.just(1L));
+
+        StepVerifier.create(presenceService.markOnline(
+                new PresenceService.PresenceInfo(7L, "maria", null, "app", null, atividade)))
+            .verifyComplete();
+
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate).execute(any(RedisScript.class),
+            eq(List.of(PresenceService.KEY_ONLINE, PresenceService.KEY_INFO_PREFIX + "7")), args.capture());
+        assertThat(args.getValue()).startsWith("7",
+            String.valueOf(atividade.plus(Duration.ofMinutes(5)).toEpochMilli()), "300000");
+        assertThat(args.getValue()).contains("username", "maria", "device", "app");
+        verify(redisTemplate, never()).opsForHash();
+    }
+
+    @Test
+    @DisplayName("Presença expirada não deve ser considerada online")
+    void presencaExpiradaNaoEstaOnline() {
+        double passado = Instant.now().minusSeconds(1).toEpochMilli();
+        when(zSetOperations.score(PresenceService.KEY_ONLINE, "7")).thenReturn(Mono.just(passado));
+
+        StepVerifier.create(presenceService.findActive(7L)).verifyComplete();
+
+        verify(redisTemplate, never()).opsForHash();
+    }
+}
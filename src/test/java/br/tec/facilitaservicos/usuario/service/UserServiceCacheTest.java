@@ -0,0 +1,182 @@
+package br.tec.facilitaservicos.usuario.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import br.tec.facilitaservicos.compartilhado.cache.L1CacheSpec;
+import br.tec.facilitaservicos.compartilhado.cache.TwoLevelCacheManager;
+import br.tec.facilitaservicos.usuario.dto.UsuarioDTO;
+import br.tec.facilitaservicos.usuario.entity.Usuario;
+import br.tec.facilitaservicos.usuario.repository.PapelRepository;
+import br.tec.facilitaservicos.usuario.repository.UsuarioPapelRepository;
+import br.tec.facilitaservicos.usuario.repository.UsuarioRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * Testes do cache reativo do UserService: o valor emitido pelo Mono é
+ * cacheado e o banco não é consultado em caso de hit.
+ */
+@SpringJUnitConfig(UserServiceCacheTest.CacheTestConfig.class)
+@DisplayName("UserService - Cache reativo")
+class UserServiceCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private UsuarioPapelRepository usuarioPapelRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        reset(usuarioRepository, usuarioPapelRepository);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco apenas uma vez para o mesmo usuário")
+    void deveServirUsuarioDoCache() {
+        when(usuarioRepository.findById(1L)).thenReturn(Mono.just(usuario(1L)));
+
+        StepVerifier.create(userService.getUserById(1L))
+            .assertNext(dto -> assertThat(dto.getId()).isEqualTo(1L))
+            .verifyComplete();
+        StepVerifier.create(userService.getUserById(1L))
+            .assertNext(dto -> assertThat(dto.getEmail()).isEqualTo("user1@example.com"))
+            .verifyComplete();
+
+        verify(usuarioRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Não deve cachear usuário inexistente")
+    void naoDeveCachearMonoVazio() {
+        when(usuarioRepository.findById(2L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(userService.getUserById(2L)).verifyComplete();
+        StepVerifier.create(userService.getUserById(2L)).verifyComplete();
+
+        verify(usuarioRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    @DisplayName("Deve deduplicar cargas concorrentes da mesma chave")
+    void deveDeduplicarCargasConcorrentes() {
+        when(usuarioRepository.findById(3L))
+            .thenReturn(Mono.just(usuario(3L)).delayElement(Duration.ofMillis(200)));
+
+        StepVerifier.create(Mono.zip(userService.getUserById(3L), userService.getUserById(3L)))
+            .assertNext(pair -> assertThat(pair.getT1().getId()).isEqualTo(pair.getT2().getId()))
+            .verifyComplete();
+
+        verify(usuarioRepository, times(1)).findById(3L);
+    }
+
+    @Test
+    @DisplayName("Deve cachear o snapshot de permissões do usuário")
+    void deveServirPermissoesDoCache() {
+        when(usuarioRepository.findById(4L)).thenReturn(Mono.just(usuario(4L)));
+        when(usuarioPapelRepository.findPapeisValidosDosUsuarios(any())).thenReturn(Flux.empty());
+
+        StepVerifier.create(userService.getUserPermissions(4L))
+            .assertNext(perms -> assertThat(perms)
+                .containsEntry("isAdmin", false)
+                .containsEntry("canChat", true))
+            .verifyComplete();
+        StepVerifier.create(userService.getUserPermissions(4L))
+            .expectNextCount(1)
+            .verifyComplete();
+
+        verify(usuarioRepository, times(1)).findById(4L);
+    }
+
+    @Test
+    @DisplayName("Lote deve consultar o banco uma única vez apenas para ids fora do cache")
+    void loteDeveConsultarApenasMisses() {
+        when(usuarioRepository.findById(1L)).thenReturn(Mono.just(usuario(1L)));
+        when(usuarioRepository.findByIdIn(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(5L, 6L)))))
+            .thenReturn(Flux.just(usuario(5L), usuario(6L)));
+
+        StepVerifier.create(userService.getUserById(1L)).expectNextCount(1).verifyComplete();
+
+        StepVerifier.create(userService.getUsersByIds(List.of(1L, 5L, 6L, 5L)).map(UsuarioDTO::getId).collectList())
+            .assertNext(ids -> assertThat(ids).containsExactlyInAnyOrder(1L, 5L, 6L))
+            .verifyComplete();
+
+        verify(usuarioRepository, times(1)).findById(1L);
+        verify(usuarioRepository, times(1)).findByIdIn(any());
+    }
+
+    private static Usuario usuario(Long id) {
+        Usuario usuario = new Usuario("user" + id + "@example.com", "user" + id, "hash");
+        usuario.setId(id);
+        usuario.setRoles("ROLE_USER");
+        usuario.setPermissoes("chat:send");
+        return usuario;
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CacheTestConfig {
+
+        @Bean
+        UsuarioRepository usuarioRepository() {
+            return mock(UsuarioRepository.class);
+        }
+
+        @Bean
+        UsuarioPapelRepository usuarioPapelRepository() {
+            return mock(UsuarioPapelRepository.class);
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            ConcurrentMapCacheManager l2 = new ConcurrentMapCacheManager("users", AuthorizationSnapshotService.CACHE_USER_AUTHZ);
+            l2.setAllowNullValues(false);
+            L1CacheSpec spec = L1CacheSpec.of(100, Duration.ofMinutes(1));
+            return new TwoLevelCacheManager(l2, Map.of("users", spec, AuthorizationSnapshotService.CACHE_USER_AUTHZ, spec), false, null, null);
+        }
+
+        @Bean
+        AuthorizationSnapshotService authorizationSnapshotService(UsuarioRepository usuarioRepository,
+                                                                  UsuarioPapelRepository usuarioPapelRepository,
+                                                                  CacheManager cacheManager) {
+            return new AuthorizationSnapshotService(usuarioRepository, usuarioPapelRepository,
+                mock(PapelRepository.class), cacheManager);
+        }
+
+        @Bean
+        UserService userService(UsuarioRepository usuarioRepository, CacheManager cacheManager,
+                                AuthorizationSnapshotService authorizationSnapshotService) {
+            return new UserService(usuarioRepository, mock(PresenceService.class), cacheManager,
+                authorizationSnapshotService);
+        }
+    }
+}